@@ -1,9 +1,30 @@
 package com.richardvinz.Book_Management_App.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.richardvinz.Book_Management_App.dto.BatchDeleteRequestDto;
+import com.richardvinz.Book_Management_App.dto.BatchResponseDto;
+import com.richardvinz.Book_Management_App.dto.BatchUpdateRequestDto;
+import com.richardvinz.Book_Management_App.dto.BookQueryDto;
 import com.richardvinz.Book_Management_App.dto.BookRequestDto;
 import com.richardvinz.Book_Management_App.dto.BookResponseDto;
+import com.richardvinz.Book_Management_App.dto.CatalogSummaryDto;
+import com.richardvinz.Book_Management_App.dto.CursorSlice;
 import com.richardvinz.Book_Management_App.dto.ErrorResponseDto;
+import com.richardvinz.Book_Management_App.dto.FacetedPage;
+import com.richardvinz.Book_Management_App.dto.FuzzySearchResponseDto;
+import com.richardvinz.Book_Management_App.dto.PlannedPage;
+import com.richardvinz.Book_Management_App.dto.SliceWithTotal;
+import com.richardvinz.Book_Management_App.dto.StockAdjustmentDto;
+import com.richardvinz.Book_Management_App.dto.StockAlertDto;
+import com.richardvinz.Book_Management_App.dto.SuggestionDto;
+import com.richardvinz.Book_Management_App.exception.PreconditionFailedException;
+import com.richardvinz.Book_Management_App.exception.ValidationException;
+import com.richardvinz.Book_Management_App.search.FuzzyIndex;
+import com.richardvinz.Book_Management_App.search.SuggestionIndex;
 import com.richardvinz.Book_Management_App.service.BookService;
+import com.richardvinz.Book_Management_App.service.StockAlertPublisher;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,19 +33,29 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Objects;
 
 @RestController
 @RequestMapping(value = "/api/v1/books", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -32,11 +63,35 @@ import java.util.List;
 @Tag(name = "Book Management", description = "API for managing books in the library system")
 public class BookController {
 
+    public static final String QUERY_PLAN_HEADER = "X-Query-Plan";
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+    public static final String MERGE_PATCH_VALUE = "application/merge-patch+json";
+
+    public enum ExportFormat {
+        NDJSON, JSON
+    }
+
     private final BookService bookService;
+    private final StockAlertPublisher stockAlertPublisher;
+    private final ObjectMapper objectMapper;
+    // Upper bound on the books returned by one call to a list endpoint
+    private final int maxResults;
+    // Upper bound on the items of one batch request
+    private final int maxBatchSize;
+    // Ids per set-based UPDATE or DELETE statement of a batch request
+    private final int batchChunkSize;
 
     @Autowired
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, StockAlertPublisher stockAlertPublisher, ObjectMapper objectMapper,
+                          @Value("${book-list.max-results:500}") int maxResults,
+                          @Value("${book-batch.max-size:50000}") int maxBatchSize,
+                          @Value("${book-batch.chunk-size:1000}") int batchChunkSize) {
         this.bookService = bookService;
+        this.stockAlertPublisher = stockAlertPublisher;
+        this.objectMapper = objectMapper;
+        this.maxResults = maxResults;
+        this.maxBatchSize = maxBatchSize;
+        this.batchChunkSize = batchChunkSize;
     }
 
     @Operation(summary = "Create a new book", description = "Creates a new book in the system")
@@ -58,15 +113,85 @@ public class BookController {
         return new ResponseEntity<>(createdBook, HttpStatus.CREATED);
     }
 
-    @Operation(summary = "Get all books", description = "Retrieves all books with pagination and sorting")
+    @Operation(summary = "Create many books",
+            description = "Creates every valid book of the batch in one transaction, using batched inserts and one "
+                    + "ISBN check per thousand books. Invalid items and ISBNs already taken are rejected "
+                    + "individually; the response lists an outcome per item and the rows inserted per second.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed; see the outcome of each item",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BatchResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Batch empty or larger than allowed",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResponseDto> createBooks(@RequestBody List<BookRequestDto> bookRequestDtos) {
+        checkBatchSize(bookRequestDtos.size());
+        return ResponseEntity.ok(bookService.createBooks(bookRequestDtos));
+    }
+
+    @Operation(summary = "Update many books",
+            description = "Applies the same changes to the books listed by id or matched by a filter, in one "
+                    + "transaction, with one UPDATE statement per chunk of ids. Fields left out of the changes are "
+                    + "kept; every updated book gets a new version. The response reports the books selected and "
+                    + "the rows updated.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Books updated",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BatchResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Neither or both of ids and filter, an empty filter, "
+                    + "no changes or invalid changes",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    @PatchMapping("/batch")
+    public ResponseEntity<BatchResponseDto> updateBooks(@Valid @RequestBody BatchUpdateRequestDto request) {
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            checkBatchSize(request.getIds().size());
+        }
+        return ResponseEntity.ok(bookService.updateBooks(request, batchChunkSize));
+    }
+
+    @Operation(summary = "Delete many books",
+            description = "Deletes the books listed by id or matched by a filter, in one transaction, with one "
+                    + "DELETE statement per chunk of ids. The response reports the books selected and the rows "
+                    + "deleted.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Books deleted",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BatchResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Neither or both of ids and filter, or an empty filter",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    @DeleteMapping("/batch")
+    public ResponseEntity<BatchResponseDto> deleteBooks(@Valid @RequestBody BatchDeleteRequestDto request) {
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            checkBatchSize(request.getIds().size());
+        }
+        return ResponseEntity.ok(bookService.deleteBooks(request, batchChunkSize));
+    }
+
+    @Operation(summary = "Get all books",
+            description = "Retrieves all books with pagination and sorting. Pages are addressed by number, or, when a "
+                    + "cursor is given, read with keyset pagination: pass an empty cursor for the first slice and the "
+                    + "returned nextCursor for each following one. Keyset slices cost the same at any depth and are not "
+                    + "counted; they can be sorted by id, title, author, isbn, price, stockQuantity or createdAt. "
+                    + "With withTotal=false numbered pages skip the count query and report a cached total that "
+                    + "totalExact marks as exact or estimated.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Books retrieved successfully",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = Page.class)))
+                            schema = @Schema(oneOf = {Page.class, SliceWithTotal.class, CursorSlice.class}))),
+            @ApiResponse(responseCode = "304", description = "Page unchanged since the weak ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or sort field not supported by cursors",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDto.class)))
     })
     @GetMapping
-    public ResponseEntity<Page<BookResponseDto>> getAllBooks(
-            @Parameter(description = "Page number (0-based)", example = "0")
+    public ResponseEntity<Slice<BookResponseDto>> getAllBooks(
+            @Parameter(description = "Page number (0-based); ignored when a cursor is given", example = "0")
             @RequestParam(defaultValue = "0") @Min(0) int page,
 
             @Parameter(description = "Number of items per page", example = "10")
@@ -76,23 +201,102 @@ public class BookController {
             @RequestParam(defaultValue = "id") String sortBy,
 
             @Parameter(description = "Sort direction", example = "asc")
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
 
-        Sort sort = sortDir.equalsIgnoreCase("desc") ?
+            @Parameter(description = "Keyset cursor: empty for the first slice, then the previous nextCursor")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Count the total exactly; when false a cached total is reported instead", example = "true")
+            @RequestParam(defaultValue = "true") boolean withTotal) {
+
+        boolean descending = sortDir.equalsIgnoreCase("desc");
+        if (cursor != null) {
+            return withPageETag(bookService.getBooksByCursor(cursor, size, sortBy, descending));
+        }
+
+        Sort sort = descending ?
                 Sort.by(sortBy).descending() :
                 Sort.by(sortBy).ascending();
+        // Break ties by id so both modes list books in the same, stable order
+        if (!sortBy.equals("id")) {
+            sort = sort.and(descending ? Sort.by("id").descending() : Sort.by("id").ascending());
+        }
 
         Pageable pageable = PageRequest.of(page, size, sort);
+        if (!withTotal) {
+            return withPageETag(bookService.getAllBooksWithCachedTotal(pageable));
+        }
         Page<BookResponseDto> books = bookService.getAllBooks(pageable);
 
-        return ResponseEntity.ok(books);
+        return withPageETag(books);
+    }
+
+    @Operation(summary = "Summarize the catalog",
+            description = "Returns the number of books, the inventory value and the number of distinct authors without "
+                    + "transferring any books. The book count is the cached one that withTotal=false pages report.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Catalog summarized",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CatalogSummaryDto.class)))
+    })
+    @GetMapping("/summary")
+    public ResponseEntity<CatalogSummaryDto> getCatalogSummary() {
+        return ResponseEntity.ok(bookService.getCatalogSummary());
+    }
+
+    @Operation(summary = "Export all books",
+            description = "Streams every book in id order, one JSON object per line (NDJSON) or as a single JSON "
+                    + "array. Books are read through a database cursor and written as they arrive, so neither the "
+                    + "server nor the response holds the whole catalog at once.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Catalog streamed",
+                    content = {
+                            @Content(mediaType = NDJSON_VALUE, schema = @Schema(implementation = BookResponseDto.class)),
+                            @Content(mediaType = "application/json", schema = @Schema(implementation = List.class))
+                    })
+    })
+    @GetMapping(value = "/export", produces = {NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportBooks(
+            @Parameter(description = "NDJSON for one book per line, JSON for an array", example = "NDJSON")
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+
+        boolean array = format == ExportFormat.JSON;
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+                if (array) {
+                    generator.writeStartArray();
+                } else {
+                    generator.setRootValueSeparator(null);
+                }
+                bookService.exportBooks(book -> {
+                    try {
+                        generator.writeObject(book);
+                        if (!array) {
+                            generator.writeRaw('\n');
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                if (array) {
+                    generator.writeEndArray();
+                }
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(array ? MediaType.APPLICATION_JSON : MediaType.parseMediaType(NDJSON_VALUE))
+                .body(body);
     }
 
-    @Operation(summary = "Get book by ID", description = "Retrieves a specific book by its ID")
+    @Operation(summary = "Get book by ID",
+            description = "Retrieves a specific book by its ID with a strong ETag. When If-None-Match names the "
+                    + "current ETag only the version is read and 304 is returned without a body.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Book found",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = BookResponseDto.class))),
+            @ApiResponse(responseCode = "304", description = "Book unchanged since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Book not found",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ErrorResponseDto.class)))
@@ -100,12 +304,40 @@ public class BookController {
     @GetMapping("/{id}")
     public ResponseEntity<BookResponseDto> getBookById(
             @Parameter(description = "Book ID", example = "1", required = true)
-            @PathVariable @Min(1) Long id) {
+            @PathVariable @Min(1) Long id,
+            @Parameter(description = "ETags the client already holds")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String etag = bookETag(id, bookService.getBookVersion(id));
+            if (matchesAny(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
         BookResponseDto book = bookService.getBookById(id);
+        return withBookETag(book);
+    }
+
+    @Operation(summary = "Get book by ISBN",
+            description = "Retrieves a book by ISBN-10 or ISBN-13; hyphens, spaces and an ISBN prefix are ignored")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Book found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BookResponseDto.class))),
+            @ApiResponse(responseCode = "404", description = "Book not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    @GetMapping("/isbn/{isbn}")
+    public ResponseEntity<BookResponseDto> getBookByIsbn(
+            @Parameter(description = "Book ISBN", example = "978-0-7432-7356-5", required = true)
+            @PathVariable String isbn) {
+        BookResponseDto book = bookService.getBookByIsbn(isbn);
         return ResponseEntity.ok(book);
     }
 
-    @Operation(summary = "Update book", description = "Updates an existing book")
+    @Operation(summary = "Update book",
+            description = "Updates an existing book. With If-Match the update only applies while the book still has "
+                    + "that ETag, so concurrent edits cannot silently overwrite each other.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Book updated successfully",
                     content = @Content(mediaType = "application/json",
@@ -116,7 +348,10 @@ public class BookController {
             @ApiResponse(responseCode = "404", description = "Book not found",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ErrorResponseDto.class))),
-            @ApiResponse(responseCode = "409", description = "ISBN already exists",
+            @ApiResponse(responseCode = "409", description = "ISBN already exists or the book was changed concurrently",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "412", description = "Book no longer matches the ETag in If-Match",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ErrorResponseDto.class)))
     })
@@ -124,9 +359,69 @@ public class BookController {
     public ResponseEntity<BookResponseDto> updateBook(
             @Parameter(description = "Book ID", example = "1", required = true)
             @PathVariable @Min(1) Long id,
-            @Valid @RequestBody BookRequestDto bookRequestDto) {
-        BookResponseDto updatedBook = bookService.updateBook(id, bookRequestDto);
-        return ResponseEntity.ok(updatedBook);
+            @Valid @RequestBody BookRequestDto bookRequestDto,
+            @Parameter(description = "ETag of the book as the client last read it, or *")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        BookResponseDto updatedBook = bookService.updateBook(id, bookRequestDto, expectedVersion(ifMatch, id));
+        return withBookETag(updatedBook);
+    }
+
+    @Operation(summary = "Patch book",
+            description = "Applies a JSON Merge Patch: members present replace the current values, null clears an "
+                    + "optional field and absent members are kept, so a price or stock feed only sends what changed. "
+                    + "Only the changed columns are written. If-Match works as for PUT.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Book patched successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BookResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Patch not an object, unknown member or invalid result",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "404", description = "Book not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "409", description = "ISBN already exists or the book was changed concurrently",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "412", description = "Book no longer matches the ETag in If-Match",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<BookResponseDto> patchBook(
+            @Parameter(description = "Book ID", example = "1", required = true)
+            @PathVariable @Min(1) Long id,
+            @RequestBody JsonNode patch,
+            @Parameter(description = "ETag of the book as the client last read it, or *")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        BookResponseDto patchedBook = bookService.patchBook(id, patch, expectedVersion(ifMatch, id));
+        return withBookETag(patchedBook);
+    }
+
+    @Operation(summary = "Adjust stock",
+            description = "Adds a signed delta to the stock in a single UPDATE, without reading the book first, so "
+                    + "concurrent sales of one book neither lose updates nor hold its row lock for long. A delta that "
+                    + "would take the stock below zero is refused and changes nothing. Returns the book as stored.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stock adjusted",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BookResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Delta missing, zero or out of range",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "404", description = "Book not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "409", description = "Not enough stock for the delta",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    @PostMapping("/{id}/stock")
+    public ResponseEntity<BookResponseDto> adjustStock(
+            @Parameter(description = "Book ID", example = "1", required = true)
+            @PathVariable @Min(1) Long id,
+            @Valid @RequestBody StockAdjustmentDto stockAdjustmentDto) {
+        return withBookETag(bookService.adjustStock(id, stockAdjustmentDto.getDelta()));
     }
 
     @Operation(summary = "Delete book", description = "Deletes a book from the system")
@@ -144,7 +439,7 @@ public class BookController {
         return ResponseEntity.noContent().build();
     }
 
-    @Operation(summary = "Search books by author", description = "Searches for books by author name")
+    @Operation(summary = "Search books by author", description = "Searches for books by author name, at most one page of matches per call")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Books found",
                     content = @Content(mediaType = "application/json",
@@ -153,12 +448,18 @@ public class BookController {
     @GetMapping("/search/author")
     public ResponseEntity<List<BookResponseDto>> searchBooksByAuthor(
             @Parameter(description = "Author name", example = "Shakespeare", required = true)
-            @RequestParam String author) {
-        List<BookResponseDto> books = bookService.searchBooksByAuthor(author);
+            @RequestParam String author,
+
+            @Parameter(description = "Number of matches to skip", example = "0")
+            @RequestParam(defaultValue = "0") @Min(0) int offset,
+
+            @Parameter(description = "Maximum number of books to return; the configured maximum when omitted", example = "10")
+            @RequestParam(required = false) @Min(1) Integer limit) {
+        List<BookResponseDto> books = bookService.searchBooksByAuthor(author, offset, resolveLimit(limit));
         return ResponseEntity.ok(books);
     }
 
-    @Operation(summary = "Search books by title", description = "Searches for books by title")
+    @Operation(summary = "Search books by title", description = "Searches for books by title, at most one page of matches per call")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Books found",
                     content = @Content(mediaType = "application/json",
@@ -167,19 +468,56 @@ public class BookController {
     @GetMapping("/search/title")
     public ResponseEntity<List<BookResponseDto>> searchBooksByTitle(
             @Parameter(description = "Book title", example = "Hamlet", required = true)
-            @RequestParam String title) {
-        List<BookResponseDto> books = bookService.searchBooksByTitle(title);
+            @RequestParam String title,
+
+            @Parameter(description = "Number of matches to skip", example = "0")
+            @RequestParam(defaultValue = "0") @Min(0) int offset,
+
+            @Parameter(description = "Maximum number of books to return; the configured maximum when omitted", example = "10")
+            @RequestParam(required = false) @Min(1) Integer limit) {
+        List<BookResponseDto> books = bookService.searchBooksByTitle(title, offset, resolveLimit(limit));
         return ResponseEntity.ok(books);
     }
 
-    @Operation(summary = "Search books by keyword", description = "Searches for books by keyword in title, author, or description")
+    @Operation(summary = "Typo-tolerant search by author or title",
+            description = "Matches every query word against known author and title words within the given edit distance "
+                    + "and suggests corrected spellings, returning one window of the matches with their total. Words of up to 2 characters must match exactly and words of up "
+                    + "to 5 characters allow at most 1 edit.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Search completed",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = FuzzySearchResponseDto.class)))
+    })
+    @GetMapping("/search/fuzzy")
+    public ResponseEntity<FuzzySearchResponseDto> fuzzySearchBooks(
+            @Parameter(description = "Author or title, possibly misspelled", example = "Shakespear", required = true)
+            @RequestParam String query,
+
+            @Parameter(description = "Field to search; both author and title when omitted", example = "AUTHOR")
+            @RequestParam(required = false) FuzzyIndex.Field field,
+
+            @Parameter(description = "Maximum edit distance per word (1 or 2)", example = "1")
+            @RequestParam(defaultValue = "1") @Min(1) @Max(FuzzyIndex.MAX_EDITS) int fuzzy,
+
+            @Parameter(description = "Number of matches to skip", example = "0")
+            @RequestParam(defaultValue = "0") @Min(0) int offset,
+
+            @Parameter(description = "Maximum number of books to return; the configured maximum when omitted", example = "10")
+            @RequestParam(required = false) @Min(1) Integer limit) {
+        FuzzySearchResponseDto result = bookService.fuzzySearchBooks(query, field, fuzzy, offset, resolveLimit(limit));
+        return ResponseEntity.ok(result);
+    }
+
+    @Operation(summary = "Search books by keyword",
+            description = "Searches for books by keyword in title, author, or description, most relevant first. "
+                    + "Optionally counts all matches per publication year, price range and stock level.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Books found",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = Page.class)))
+                            schema = @Schema(implementation = FacetedPage.class)))
     })
     @GetMapping("/search")
-    public ResponseEntity<Page<BookResponseDto>> searchBooksByKeyword(
+    public ResponseEntity<FacetedPage<BookResponseDto>> searchBooksByKeyword(
             @Parameter(description = "Search keyword", example = "fantasy", required = true)
             @RequestParam String keyword,
 
@@ -187,14 +525,71 @@ public class BookController {
             @RequestParam(defaultValue = "0") @Min(0) int page,
 
             @Parameter(description = "Number of items per page", example = "10")
-            @RequestParam(defaultValue = "10") @Min(1) int size) {
+            @RequestParam(defaultValue = "10") @Min(1) int size,
+
+            @Parameter(description = "Include facet counts", example = "true")
+            @RequestParam(defaultValue = "false") boolean facets) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<BookResponseDto> books = bookService.searchBooksByKeyword(keyword, pageable);
+        FacetedPage<BookResponseDto> books = bookService.searchBooksByKeyword(keyword, pageable, facets);
 
         return ResponseEntity.ok(books);
     }
 
+    @Operation(summary = "Query books with combined filters",
+            description = "Applies every given filter at once with sorting and pagination. The execution plan chosen "
+                    + "from the in-memory indexes is reported in the " + QUERY_PLAN_HEADER + " response header.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Books found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Page.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid filter or unsupported sort field",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    @GetMapping("/query")
+    public ResponseEntity<Page<BookResponseDto>> queryBooks(
+            @ParameterObject @Valid BookQueryDto query,
+
+            @Parameter(description = "Page number (0-based)", example = "0")
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+
+            @Parameter(description = "Number of items per page", example = "10")
+            @RequestParam(defaultValue = "10") @Min(1) int size,
+
+            @Parameter(description = "Sort field: id, title, author, publishedYear, price or stockQuantity", example = "price")
+            @RequestParam(defaultValue = "id") String sortBy,
+
+            @Parameter(description = "Sort direction", example = "asc")
+            @RequestParam(defaultValue = "asc") String sortDir) {
+
+        Sort sort = sortDir.equalsIgnoreCase("desc") ?
+                Sort.by(sortBy).descending() :
+                Sort.by(sortBy).ascending();
+
+        PlannedPage<BookResponseDto> books = bookService.queryBooks(query, PageRequest.of(page, size, sort));
+        return ResponseEntity.ok()
+                .header(QUERY_PLAN_HEADER, books.getPlan())
+                .body(books);
+    }
+
+    @Operation(summary = "Suggest titles and authors", description = "Returns typeahead completions for a title or author prefix, ranked by stock")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Suggestions found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = List.class)))
+    })
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDto>> suggestBooks(
+            @Parameter(description = "Beginning of a title, author, or any word in them", example = "gats")
+            @RequestParam(defaultValue = "") String prefix,
+
+            @Parameter(description = "Maximum number of suggestions", example = "10")
+            @RequestParam(defaultValue = "10") @Min(1) @Max(SuggestionIndex.MAX_SUGGESTIONS) int limit) {
+        List<SuggestionDto> suggestions = bookService.suggestBooks(prefix, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
     @Operation(summary = "Get books by publication year", description = "Retrieves books published in a specific year")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Books found",
@@ -204,12 +599,20 @@ public class BookController {
     @GetMapping("/year/{year}")
     public ResponseEntity<List<BookResponseDto>> getBooksByYear(
             @Parameter(description = "Publication year", example = "2020", required = true)
-            @PathVariable @Min(1000) Integer year) {
-        List<BookResponseDto> books = bookService.getBooksByYear(year);
+            @PathVariable @Min(1000) Integer year,
+
+            @Parameter(description = "Number of matches to skip", example = "0")
+            @RequestParam(defaultValue = "0") @Min(0) int offset,
+
+            @Parameter(description = "Maximum number of books to return; the configured maximum when omitted", example = "10")
+            @RequestParam(required = false) @Min(1) Integer limit) {
+        List<BookResponseDto> books = bookService.getBooksByYear(year, offset, resolveLimit(limit));
         return ResponseEntity.ok(books);
     }
 
-    @Operation(summary = "Get books by price range", description = "Retrieves books within a specific price range")
+    @Operation(summary = "Get books by price range",
+            description = "Retrieves books within a price range ordered by price. Either bound may be omitted, so "
+                    + "sortDir=asc or desc with a limit returns the cheapest or most expensive books.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Books found",
                     content = @Content(mediaType = "application/json",
@@ -217,16 +620,28 @@ public class BookController {
     })
     @GetMapping("/price-range")
     public ResponseEntity<List<BookResponseDto>> getBooksByPriceRange(
-            @Parameter(description = "Minimum price", example = "10.0", required = true)
-            @RequestParam Double minPrice,
+            @Parameter(description = "Minimum price", example = "10.0")
+            @RequestParam(required = false) Double minPrice,
+
+            @Parameter(description = "Maximum price", example = "50.0")
+            @RequestParam(required = false) Double maxPrice,
 
-            @Parameter(description = "Maximum price", example = "50.0", required = true)
-            @RequestParam Double maxPrice) {
-        List<BookResponseDto> books = bookService.getBooksByPriceRange(minPrice, maxPrice);
+            @Parameter(description = "Number of matches to skip", example = "0")
+            @RequestParam(defaultValue = "0") @Min(0) int offset,
+
+            @Parameter(description = "Maximum number of books to return; the configured maximum when omitted", example = "10")
+            @RequestParam(required = false) @Min(1) Integer limit,
+
+            @Parameter(description = "Price order: asc for cheapest first, desc for most expensive first", example = "asc")
+            @RequestParam(defaultValue = "asc") String sortDir) {
+        List<BookResponseDto> books = bookService.getBooksByPriceRange(minPrice, maxPrice, offset,
+                resolveLimit(limit),
+                sortDir.equalsIgnoreCase("desc"));
         return ResponseEntity.ok(books);
     }
 
-    @Operation(summary = "Get low stock books", description = "Retrieves books with stock quantity below threshold")
+    @Operation(summary = "Get low stock books",
+            description = "Retrieves books with stock quantity below threshold, lowest stock first")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Low stock books found",
                     content = @Content(mediaType = "application/json",
@@ -235,8 +650,130 @@ public class BookController {
     @GetMapping("/low-stock")
     public ResponseEntity<List<BookResponseDto>> getLowStockBooks(
             @Parameter(description = "Stock threshold", example = "10", required = true)
-            @RequestParam @Min(0) Integer threshold) {
-        List<BookResponseDto> books = bookService.getLowStockBooks(threshold);
+            @RequestParam @Min(0) Integer threshold,
+
+            @Parameter(description = "Number of matches to skip", example = "0")
+            @RequestParam(defaultValue = "0") @Min(0) int offset,
+
+            @Parameter(description = "Maximum number of books to return; the configured maximum when omitted", example = "10")
+            @RequestParam(required = false) @Min(1) Integer limit) {
+        List<BookResponseDto> books = bookService.getLowStockBooks(threshold, offset, resolveLimit(limit));
         return ResponseEntity.ok(books);
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Count low stock books", description = "Counts books with stock quantity below threshold")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Number of low stock books",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Integer.class)))
+    })
+    @GetMapping("/low-stock/count")
+    public ResponseEntity<Integer> countLowStockBooks(
+            @Parameter(description = "Stock threshold", example = "10", required = true)
+            @RequestParam @Min(0) Integer threshold) {
+        return ResponseEntity.ok(bookService.countLowStockBooks(threshold));
+    }
+
+    @Operation(summary = "Subscribe to low stock alerts",
+            description = "Opens a server-sent event stream that emits a LOW_STOCK event when a book's stock falls "
+                    + "below the threshold and a REPLENISHED event when it rises back to it. Only committed changes "
+                    + "are sent, whichever instance made them. Clients reconnect when the stream times out or "
+                    + "when they fall too far behind and are disconnected.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream opened",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            schema = @Schema(implementation = StockAlertDto.class)))
+    })
+    @GetMapping(value = "/low-stock/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToLowStockAlerts(
+            @Parameter(description = "Stock threshold", example = "10", required = true)
+            @RequestParam @Min(1) int threshold) {
+        return stockAlertPublisher.subscribe(threshold);
+    }
+
+    // Omitted limits get the maximum page size; larger ones are rejected rather than silently cut
+    private int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return maxResults;
+        }
+        if (limit > maxResults) {
+            throw new ValidationException("limit must not exceed " + maxResults);
+        }
+        return limit;
+    }
+
+    private void checkBatchSize(int size) {
+        if (size == 0) {
+            throw new ValidationException("A batch must contain at least one item");
+        }
+        if (size > maxBatchSize) {
+            throw new ValidationException("A batch must not contain more than " + maxBatchSize + " items");
+        }
+    }
+
+    // Strong ETag of one book; its version changes with every update
+    private static String bookETag(Long id, long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    private static ResponseEntity<BookResponseDto> withBookETag(BookResponseDto book) {
+        if (book.getVersion() == null) {
+            return ResponseEntity.ok(book);
+        }
+        return ResponseEntity.ok().eTag(bookETag(book.getId(), book.getVersion())).body(book);
+    }
+
+    /**
+     * Answers with a weak ETag over the page window, its totals and the id and version of
+     * every book on it. Spring turns the response into a 304 without serializing the body
+     * when If-None-Match already names that tag.
+     */
+    private static ResponseEntity<Slice<BookResponseDto>> withPageETag(Slice<BookResponseDto> slice) {
+        long hash = 31L * slice.getNumber() + slice.getSize();
+        hash = 31 * hash + (slice.hasNext() ? 1 : 0);
+        if (slice instanceof Page<BookResponseDto> page) {
+            hash = 31 * hash + page.getTotalElements();
+        } else if (slice instanceof SliceWithTotal<BookResponseDto> withTotal) {
+            hash = 31 * hash + withTotal.getTotalElements();
+            hash = 31 * hash + (withTotal.isTotalExact() ? 1 : 0);
+        }
+        for (BookResponseDto book : slice) {
+            hash = 31 * hash + Objects.hashCode(book.getId());
+            hash = 31 * hash + Objects.hashCode(book.getVersion());
+        }
+        return ResponseEntity.ok().eTag("W/\"" + Long.toHexString(hash) + "\"").body(slice);
+    }
+
+    // If-None-Match compares weakly, so W/"x" and "x" name the same representation
+    private static boolean matchesAny(String ifNoneMatch, String etag) {
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The version an If-Match header requires, or null when there is no header or it is
+     * {@code *}. If-Match compares strongly, so weak tags and tags of other books never match.
+     */
+    private static Long expectedVersion(String ifMatch, Long id) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String prefix = "\"" + id + "-";
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+                try {
+                    return Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+                } catch (NumberFormatException ignored) {
+                    // not one of our tags, so it cannot match
+                }
+            }
+        }
+        throw new PreconditionFailedException("If-Match does not name a current version of book " + id);
+    }
+}
@@ -0,0 +1,25 @@
+package com.richardvinz.Book_Management_App.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Books to delete, selected by ids or by filter")
+public class BatchDeleteRequestDto {
+
+    @Schema(description = "IDs of the books to delete; give either ids or filter", example = "[1, 2, 3]")
+    private List<Long> ids;
+
+    @Schema(description = "Filter selecting the books to delete; give either ids or filter")
+    @Valid
+    private BookQueryDto filter;
+}
@@ -0,0 +1,37 @@
+package com.richardvinz.Book_Management_App.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome for one item of a batch request")
+public class BatchItemResultDto {
+
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+
+    @Schema(description = "Position of the item in the request, starting at 0", example = "0")
+    private int index;
+
+    @Schema(description = "What happened to the item", example = "CREATED")
+    private Status status;
+
+    @Schema(description = "ID of the book the item created", example = "1")
+    private Long id;
+
+    @Schema(description = "Version of the book after the item was applied", example = "0")
+    private Long version;
+
+    @Schema(description = "Why the item was rejected", example = "[\"isbn: Invalid ISBN format\"]")
+    private List<String> errors;
+}
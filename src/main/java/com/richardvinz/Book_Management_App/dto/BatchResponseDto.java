@@ -0,0 +1,36 @@
+package com.richardvinz.Book_Management_App.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Per-item outcomes and throughput of a batch request")
+public class BatchResponseDto {
+
+    @Schema(description = "Number of items in the request, or of books selected for an update or delete",
+            example = "1000")
+    private int requested;
+
+    @Schema(description = "Number of items applied; for an update or delete, the rows it changed", example = "998")
+    private int succeeded;
+
+    @Schema(description = "Number of items rejected, or of selected books that no longer existed", example = "2")
+    private int rejected;
+
+    @Schema(description = "Time spent applying the batch, in milliseconds", example = "412")
+    private long elapsedMillis;
+
+    @Schema(description = "Items applied per second of elapsed time", example = "2422.3")
+    private double rowsPerSecond;
+
+    @Schema(description = "One outcome per item, in request order; left out for updates and deletes")
+    private List<BatchItemResultDto> items;
+}
@@ -0,0 +1,31 @@
+package com.richardvinz.Book_Management_App.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Books to change, selected by ids or by filter, and the values to set on all of them")
+public class BatchUpdateRequestDto {
+
+    @Schema(description = "IDs of the books to change; give either ids or filter", example = "[1, 2, 3]")
+    private List<Long> ids;
+
+    @Schema(description = "Filter selecting the books to change; give either ids or filter")
+    @Valid
+    private BookQueryDto filter;
+
+    @Schema(description = "Values to set")
+    @NotNull(message = "Changes are required")
+    @Valid
+    private BookChangesDto changes;
+}
@@ -0,0 +1,39 @@
+package com.richardvinz.Book_Management_App.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Values to set on every selected book; fields left out keep their current value")
+public class BookChangesDto {
+
+    @Schema(description = "New author", example = "F. Scott Fitzgerald")
+    @Size(min = 1, max = 255, message = "Author must be between 1 and 255 characters")
+    private String author;
+
+    @Schema(description = "New publication year", example = "1925")
+    @Min(value = 1000, message = "Published year must be at least 1000")
+    @Max(value = 2024, message = "Published year cannot be in the future")
+    private Integer publishedYear;
+
+    @Schema(description = "New description", example = "A classic American novel")
+    private String description;
+
+    @Schema(description = "New price", example = "9.99")
+    @DecimalMin(value = "0.0", inclusive = false, message = "Price must be greater than 0")
+    private Double price;
+
+    @Schema(description = "New stock quantity", example = "0")
+    @Min(value = 0, message = "Stock quantity cannot be negative")
+    private Integer stockQuantity;
+}
@@ -0,0 +1,44 @@
+package com.richardvinz.Book_Management_App.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Combined book filter; every criterion given must match")
+public class BookQueryDto {
+
+    @Schema(description = "Part of the author name, ignoring case", example = "Fitzgerald")
+    private String author;
+
+    @Schema(description = "Part of the title, ignoring case", example = "Gatsby")
+    private String title;
+
+    @Schema(description = "Words that must all appear in the title, author or description", example = "jazz novel")
+    private String keyword;
+
+    @Schema(description = "Earliest publication year, inclusive", example = "1900")
+    private Integer minYear;
+
+    @Schema(description = "Latest publication year, inclusive", example = "1950")
+    private Integer maxYear;
+
+    @Schema(description = "Minimum price, inclusive", example = "5.0")
+    @PositiveOrZero(message = "Minimum price cannot be negative")
+    private Double minPrice;
+
+    @Schema(description = "Maximum price, inclusive", example = "25.0")
+    @PositiveOrZero(message = "Maximum price cannot be negative")
+    private Double maxPrice;
+
+    @Schema(description = "Only books with fewer copies in stock than this", example = "10")
+    @Min(value = 0, message = "Stock threshold cannot be negative")
+    private Integer stockBelow;
+}
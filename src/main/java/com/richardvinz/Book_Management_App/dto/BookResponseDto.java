@@ -44,4 +44,7 @@ public class BookResponseDto {
 
     @Schema(description = "Last update timestamp", example = "2023-12-01T10:30:00")
     private LocalDateTime updatedAt;
+
+    @Schema(description = "Version, incremented by every update; the book's ETag is derived from it", example = "0")
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.richardvinz.Book_Management_App.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Catalog-wide figures for the dashboard, computed on the server")
+public class CatalogSummaryDto {
+
+    @Schema(description = "Number of books, from the periodically refreshed count", example = "1250")
+    private long totalBooks;
+
+    @Schema(description = "Whether totalBooks is an exact count rather than an estimate", example = "true")
+    private boolean totalExact;
+
+    @Schema(description = "Sum of price times stock quantity over all books", example = "48210.5")
+    private double inventoryValue;
+
+    @Schema(description = "Number of distinct authors", example = "310")
+    private long authorCount;
+}
@@ -0,0 +1,27 @@
+package com.richardvinz.Book_Management_App.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+/**
+ * A slice of results read with keyset pagination. Instead of a page number it carries the
+ * cursor to pass back for the next slice, and it has no total since none is counted.
+ */
+@Schema(description = "Slice of results with the cursor of the next slice")
+public class CursorSlice<T> extends SliceImpl<T> {
+
+    private final String nextCursor;
+
+    public CursorSlice(List<T> content, Pageable pageable, String nextCursor) {
+        super(content, pageable, nextCursor != null);
+        this.nextCursor = nextCursor;
+    }
+
+    @Schema(description = "Cursor for the next slice; omitted on the last slice")
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
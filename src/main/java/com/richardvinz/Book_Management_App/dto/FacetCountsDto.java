@@ -0,0 +1,26 @@
+package com.richardvinz.Book_Management_App.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Facet counts over every book matching a search, not just the current page")
+public class FacetCountsDto {
+
+    @Schema(description = "Matches per publication year, newest first")
+    private List<FacetValueDto> publishedYear;
+
+    @Schema(description = "Matches per price range: 0-10, 10-25, 25-50, 50-100 and 100+ (lower bound inclusive)")
+    private List<FacetValueDto> price;
+
+    @Schema(description = "Matches per stock level: IN_STOCK, LOW_STOCK (below 10) and OUT_OF_STOCK")
+    private List<FacetValueDto> stock;
+}
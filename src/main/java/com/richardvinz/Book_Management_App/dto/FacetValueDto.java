@@ -0,0 +1,21 @@
+package com.richardvinz.Book_Management_App.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Number of matching books sharing one facet value")
+public class FacetValueDto {
+
+    @Schema(description = "Facet value", example = "2023")
+    private String value;
+
+    @Schema(description = "Number of matching books with this value", example = "12")
+    private long count;
+}
@@ -0,0 +1,27 @@
+package com.richardvinz.Book_Management_App.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * A regular page of results that can also carry facet counts, so clients reading
+ * {@code content} and the paging fields are unaffected.
+ */
+@Schema(description = "Page of search results with optional facet counts")
+public class FacetedPage<T> extends PageImpl<T> {
+
+    private final FacetCountsDto facets;
+
+    public FacetedPage(List<T> content, Pageable pageable, long total, FacetCountsDto facets) {
+        super(content, pageable, total);
+        this.facets = facets;
+    }
+
+    @Schema(description = "Facet counts over all matches; omitted unless requested")
+    public FacetCountsDto getFacets() {
+        return facets;
+    }
+}
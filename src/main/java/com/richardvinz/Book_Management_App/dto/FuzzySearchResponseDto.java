@@ -0,0 +1,27 @@
+package com.richardvinz.Book_Management_App.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Books matching a typo-tolerant search, with corrected spellings of the query")
+public class FuzzySearchResponseDto {
+
+    @Schema(description = "Books matching every query word within the allowed edit distance")
+    private List<BookResponseDto> books;
+
+    @Schema(description = "Number of books matching the query, of which books holds the requested window", example = "42")
+    private int totalMatches;
+
+    @Schema(description = "Closest known spellings of the query, best first; empty when nothing was misspelled",
+            example = "[\"shakespeare\"]")
+    private List<String> didYouMean;
+}
@@ -0,0 +1,26 @@
+package com.richardvinz.Book_Management_App.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * A regular page of results that also remembers how the query was executed. The plan is
+ * reported in a response header rather than the body.
+ */
+public class PlannedPage<T> extends PageImpl<T> {
+
+    private final String plan;
+
+    public PlannedPage(List<T> content, Pageable pageable, long total, String plan) {
+        super(content, pageable, total);
+        this.plan = plan;
+    }
+
+    @JsonIgnore
+    public String getPlan() {
+        return plan;
+    }
+}
@@ -0,0 +1,34 @@
+package com.richardvinz.Book_Management_App.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+/**
+ * A slice of results whose total was not counted for this request. It carries a cached
+ * total instead, together with whether that total is known to be exact.
+ */
+@Schema(description = "Slice of results with a cached total")
+public class SliceWithTotal<T> extends SliceImpl<T> {
+
+    private final long totalElements;
+    private final boolean totalExact;
+
+    public SliceWithTotal(List<T> content, Pageable pageable, boolean hasNext, long totalElements, boolean totalExact) {
+        super(content, pageable, hasNext);
+        this.totalElements = totalElements;
+        this.totalExact = totalExact;
+    }
+
+    @Schema(description = "Total number of elements, possibly estimated")
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    @Schema(description = "False when totalElements is an estimate")
+    public boolean isTotalExact() {
+        return totalExact;
+    }
+}
@@ -0,0 +1,24 @@
+package com.richardvinz.Book_Management_App.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Change to a book's stock, applied to whatever the stock is when it arrives")
+public class StockAdjustmentDto {
+
+    @Schema(description = "Units to add, or to remove when negative; never zero", example = "-1")
+    @NotNull(message = "Delta is required")
+    @Min(value = -1_000_000, message = "Delta must be at least -1000000")
+    @Max(value = 1_000_000, message = "Delta must be at most 1000000")
+    private Integer delta;
+}
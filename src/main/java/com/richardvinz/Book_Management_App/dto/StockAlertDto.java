@@ -0,0 +1,38 @@
+package com.richardvinz.Book_Management_App.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A book's stock crossing a subscriber's low-stock threshold")
+public class StockAlertDto {
+
+    public enum Type {
+        LOW_STOCK,
+        REPLENISHED
+    }
+
+    @Schema(description = "LOW_STOCK when stock fell below the threshold, REPLENISHED when it rose back", example = "LOW_STOCK")
+    private Type type;
+
+    @Schema(description = "Book ID", example = "1")
+    private Long bookId;
+
+    @Schema(description = "Book title", example = "The Great Gatsby")
+    private String title;
+
+    @Schema(description = "Stock before the change; absent for new books", example = "12")
+    private Integer previousStock;
+
+    @Schema(description = "Stock after the change", example = "8")
+    private Integer currentStock;
+
+    @Schema(description = "Threshold the subscriber asked for", example = "10")
+    private int threshold;
+}
@@ -0,0 +1,32 @@
+package com.richardvinz.Book_Management_App.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Typeahead suggestion for a book title or author")
+public class SuggestionDto {
+
+    public enum Type {
+        TITLE,
+        AUTHOR
+    }
+
+    @Schema(description = "Suggested title or author name", example = "The Great Gatsby")
+    private String text;
+
+    @Schema(description = "Whether the suggestion is a title or an author", example = "TITLE")
+    private Type type;
+
+    @Schema(description = "Number of books with this title or author", example = "1")
+    private int bookCount;
+
+    @Schema(description = "Combined stock of those books, used for ranking", example = "100")
+    private long stockQuantity;
+}
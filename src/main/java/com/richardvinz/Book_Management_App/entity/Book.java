@@ -6,19 +6,32 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "books")
+@Table(name = "books", uniqueConstraints = @UniqueConstraint(name = Book.ISBN_CONSTRAINT, columnNames = "isbn"))
+// Cached in the second-level cache only when the l2cache profile turns it on
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "books")
+// Updates set only the changed columns, so a price or stock change does not rewrite the description
+@DynamicUpdate
 @Data  // ✅ ADD THIS - generates getters, setters, equals, hashCode, toString
 @Builder(toBuilder = true)  // ✅ KEEP toBuilder = true
 @NoArgsConstructor  // ✅ ADD THIS - generates no-args constructor
 @AllArgsConstructor  // ✅ ADD THIS - generates all-args constructor
 public class Book {
 
+    // Named so a duplicate ISBN can be told apart from other integrity violations
+    public static final String ISBN_CONSTRAINT = "uk_books_isbn";
+
+    // A sequence rather than IDENTITY so inserts can be batched; each call reserves 50 ids for the pooled optimizer
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "book_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -31,7 +44,7 @@ public class Book {
     @Size(min = 1, max = 255, message = "Author must be between 1 and 255 characters")
     private String author;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     @NotBlank(message = "ISBN is required")
     @Pattern(regexp = "^(?:ISBN(?:-1[03])?:? )?(?=[0-9X]{10}$|(?=(?:[0-9]+[- ]){3})[- 0-9X]{13}$|97[89][0-9]{10}$|(?=(?:[0-9]+[- ]){4})[- 0-9]{17}$)(?:97[89][- ]?)?[0-9]{1,5}[- ]?[0-9]+[- ]?[0-9]+[- ]?[0-9X]$",
             message = "Invalid ISBN format")
@@ -61,6 +74,11 @@ public class Book {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Optimistic lock: incremented by every update, which fails if the row changed since it was read
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,43 @@
+package com.richardvinz.Book_Management_App.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A row of the invalidation bus's table transport: one book write, or heartbeat, announced
+ * by one instance to the others. Rows are pruned after a retention period.
+ */
+@Entity
+@Table(name = "book_invalidations")
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookInvalidation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "node_id", nullable = false, length = 36)
+    private String nodeId;
+
+    @Column(nullable = false)
+    private long sequence;
+
+    @Column(nullable = false, length = 16)
+    private String type;
+
+    @Column(name = "book_id", nullable = false)
+    private long bookId;
+
+    @Column(nullable = false)
+    private long version;
+
+    // Sender's wall clock in epoch milliseconds
+    @Column(name = "published_at", nullable = false)
+    private long publishedAt;
+}
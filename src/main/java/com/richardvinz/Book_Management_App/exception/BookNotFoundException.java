@@ -1,12 +1,16 @@
 package com.richardvinz.Book_Management_App.exception;
 
+/**
+ * A lookup of a book that does not exist. Answered with a plain 404 and never logged, so it
+ * skips capturing a stack trace, which is most of what throwing it would otherwise cost.
+ */
 public class BookNotFoundException extends RuntimeException {
 
     public BookNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
     public BookNotFoundException(String message, Throwable cause) {
         super(message, cause);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,8 @@
+package com.richardvinz.Book_Management_App.exception;
+
+public class DuplicateIsbnException extends RuntimeException {
+
+    public DuplicateIsbnException(String message) {
+        super(message);
+    }
+}
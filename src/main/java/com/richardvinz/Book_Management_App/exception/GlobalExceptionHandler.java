@@ -1,7 +1,11 @@
 package com.richardvinz.Book_Management_App.exception;
 
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
 import com.richardvinz.Book_Management_App.dto.ErrorResponseDto;
+import com.richardvinz.Book_Management_App.entity.Book;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -9,25 +13,42 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    // Written as pre-encoded JSON around the few varying fields, in ErrorResponseDto's layout, since 404s come in storms
+    private static final byte[] NOT_FOUND_STATUS = "{\"status\":404,\"message\":\"Book Not Found\",\"details\":\""
+            .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NOT_FOUND_TIMESTAMP = "\",\"timestamp\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NOT_FOUND_PATH = "\",\"path\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NOT_FOUND_END = "\"}".getBytes(StandardCharsets.UTF_8);
+    private static final HttpHeaders NOT_FOUND_HEADERS = HttpHeaders.readOnlyHttpHeaders(notFoundHeaders());
+
     @ExceptionHandler(BookNotFoundException.class)
-    public ResponseEntity<ErrorResponseDto> handleBookNotFoundException(
+    public ResponseEntity<byte[]> handleBookNotFoundException(
             BookNotFoundException ex, WebRequest request) {
 
-        ErrorResponseDto errorResponse = new ErrorResponseDto(
-                HttpStatus.NOT_FOUND.value(),
-                "Book Not Found",
-                ex.getMessage(),
-                request.getDescription(false).replace("uri=", "")
-        );
-
-        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+        JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(192);
+        body.writeBytes(NOT_FOUND_STATUS);
+        body.writeBytes(encoder.quoteAsUTF8(String.valueOf(ex.getMessage())));
+        body.writeBytes(NOT_FOUND_TIMESTAMP);
+        body.writeBytes(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(LocalDateTime.now())
+                .getBytes(StandardCharsets.US_ASCII));
+        body.writeBytes(NOT_FOUND_PATH);
+        body.writeBytes(encoder.quoteAsUTF8(request.getDescription(false).replace("uri=", "")));
+        body.writeBytes(NOT_FOUND_END);
+
+        return new ResponseEntity<>(body.toByteArray(), NOT_FOUND_HEADERS, HttpStatus.NOT_FOUND);
     }
 
     @ExceptionHandler(ValidationException.class)
@@ -44,6 +65,64 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    // Found through the ISBN index before writing; answered like the unique constraint it stands in for
+    @ExceptionHandler(DuplicateIsbnException.class)
+    public ResponseEntity<ErrorResponseDto> handleDuplicateIsbnException(
+            DuplicateIsbnException ex, WebRequest request) {
+
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                HttpStatus.CONFLICT.value(),
+                "Data Integrity Violation",
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponseDto> handlePreconditionFailedException(
+            PreconditionFailedException ex, WebRequest request) {
+
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                HttpStatus.PRECONDITION_FAILED.value(),
+                "Precondition Failed",
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<ErrorResponseDto> handleInsufficientStockException(
+            InsufficientStockException ex, WebRequest request) {
+
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                HttpStatus.CONFLICT.value(),
+                "Insufficient Stock",
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    // Another update committed between reading the book and writing it back
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponseDto> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException ex, WebRequest request) {
+
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                HttpStatus.CONFLICT.value(),
+                "Concurrent Modification",
+                "The book was modified by another request; reload it and try again",
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponseDto> handleMethodArgumentNotValidException(
             MethodArgumentNotValidException ex, WebRequest request) {
@@ -70,8 +149,12 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponseDto> handleDataIntegrityViolationException(
             DataIntegrityViolationException ex, WebRequest request) {
 
+        // Writes rely on the constraints rather than checking first, so a duplicate ISBN arrives here
         String message = "Data integrity violation";
-        if (ex.getMessage().toLowerCase().contains("unique")) {
+        String cause = String.valueOf(ex.getMessage()).toLowerCase();
+        if (cause.contains(Book.ISBN_CONSTRAINT)) {
+            message = "Book with this ISBN already exists";
+        } else if (cause.contains("unique")) {
             message = "Duplicate entry - resource already exists";
         }
 
@@ -98,4 +181,10 @@ public class GlobalExceptionHandler {
 
         return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
     }
+
+    private static HttpHeaders notFoundHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
+    }
 }
\ No newline at end of file
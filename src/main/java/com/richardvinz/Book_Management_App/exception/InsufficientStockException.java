@@ -0,0 +1,8 @@
+package com.richardvinz.Book_Management_App.exception;
+
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
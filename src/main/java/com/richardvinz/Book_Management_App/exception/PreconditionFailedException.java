@@ -0,0 +1,8 @@
+package com.richardvinz.Book_Management_App.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,25 @@
+package com.richardvinz.Book_Management_App.repository;
+
+import com.richardvinz.Book_Management_App.entity.BookInvalidation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface BookInvalidationRepository extends JpaRepository<BookInvalidation, Long> {
+
+    List<BookInvalidation> findByIdGreaterThanOrderById(long id);
+
+    @Query("SELECT COALESCE(MAX(i.id), 0) FROM BookInvalidation i")
+    long findMaxId();
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM BookInvalidation i WHERE i.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") long before);
+}
@@ -2,20 +2,64 @@ package com.richardvinz.Book_Management_App.repository;
 
 
 import com.richardvinz.Book_Management_App.entity.Book;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book> {
+
+    int EXPORT_FETCH_SIZE = 500;
+
+    // Fetches one row past the page to tell whether another follows, without a count query
+    Slice<Book> findAllBy(Pageable pageable);
+
+    // Reads the whole catalog through a cursor; callers must consume it in a transaction and close it
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Book b ORDER BY b.id")
+    Stream<Book> streamAll();
+
+    // The next books after an id, for keyset scans; a List result skips the count query a Page would run
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    List<Book> findByIdGreaterThanOrderById(Long id, Pageable pageable);
+
+    // Aggregated in the database so the catalog summary never loads the books themselves
+    @Query("SELECT COALESCE(SUM(b.price * b.stockQuantity), 0.0) FROM Book b")
+    double sumInventoryValue();
 
+    @Query("SELECT COUNT(DISTINCT b.author) FROM Book b")
+    long countDistinctAuthors();
+
+    // Reads just the version column, enough to answer a conditional request
+    @Query("SELECT b.version FROM Book b WHERE b.id = :id")
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<Book> findByIsbn(String isbn);
 
+    // Not called by the service, which uses its indexes instead; kept uncached as baselines for tests and benchmarks
     List<Book> findByAuthorContainingIgnoreCase(String author);
 
     List<Book> findByTitleContainingIgnoreCase(String title);
@@ -33,4 +77,56 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     List<Book> findByStockQuantityLessThan(Integer quantity);
 
     boolean existsByIsbn(String isbn);
+
+    // ISBNs of the given books and of any book holding one of the given ISBNs exactly, in one round trip
+    @Query("SELECT b.isbn FROM Book b WHERE b.id IN :ids OR b.isbn IN :isbns")
+    List<String> findIsbnsByIdInOrIsbnIn(@Param("ids") Collection<Long> ids,
+                                        @Param("isbns") Collection<String> isbns);
+
+    // One statement for all given books; null values keep the column, and the version moves on as for an entity update
+    // The casts type the parameters, which Hibernate cannot infer inside COALESCE when they are bound to null
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET " +
+            "b.author = COALESCE(CAST(:author AS String), b.author), " +
+            "b.publishedYear = COALESCE(CAST(:publishedYear AS Integer), b.publishedYear), " +
+            "b.description = COALESCE(CAST(:description AS String), b.description), " +
+            "b.price = COALESCE(CAST(:price AS Double), b.price), " +
+            "b.stockQuantity = COALESCE(CAST(:stockQuantity AS Integer), b.stockQuantity), " +
+            "b.version = b.version + 1, " +
+            "b.updatedAt = :updatedAt " +
+            "WHERE b.id IN :ids")
+    int updateByIdIn(@Param("ids") Collection<Long> ids,
+                     @Param("author") String author,
+                     @Param("publishedYear") Integer publishedYear,
+                     @Param("description") String description,
+                     @Param("price") Double price,
+                     @Param("stockQuantity") Integer stockQuantity,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Writes every field of one book if it is still at the given version; 0 rows means it changed or is gone
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.title = :title, b.author = :author, b.isbn = :isbn, " +
+            "b.publishedYear = :publishedYear, b.description = :description, b.price = :price, " +
+            "b.stockQuantity = :stockQuantity, b.updatedAt = :updatedAt, b.version = b.version + 1 " +
+            "WHERE b.id = :id AND b.version = :version")
+    int updateByIdAndVersion(@Param("id") Long id,
+                             @Param("version") Long version,
+                             @Param("title") String title,
+                             @Param("author") String author,
+                             @Param("isbn") String isbn,
+                             @Param("publishedYear") Integer publishedYear,
+                             @Param("description") String description,
+                             @Param("price") Double price,
+                             @Param("stockQuantity") Integer stockQuantity,
+                             @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Adds delta to the stock in place unless that would take it below zero; 0 rows means missing or short
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.stockQuantity = b.stockQuantity + :delta, b.updatedAt = :updatedAt, " +
+            "b.version = b.version + 1 WHERE b.id = :id AND b.stockQuantity + :delta >= 0")
+    int adjustStock(@Param("id") Long id, @Param("delta") int delta, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Book b WHERE b.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.richardvinz.Book_Management_App.repository;
+
+import com.richardvinz.Book_Management_App.entity.Book;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Reusable criteria for {@link BookRepository#findBy}.
+ */
+public final class BookSpecifications {
+
+    private BookSpecifications() {
+    }
+
+    /**
+     * Books that come after {@code (key, id)} when ordered by {@code (property, id)}, i.e.
+     * {@code (property, id) > (key, id)} (or {@code <} when descending). The row comparison is
+     * spelled out as {@code property > key OR (property = key AND id > id)} so that it can be
+     * answered from an index on the property on every database. The property must not be null.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Book> after(String property, Comparable<?> key, long id, boolean descending) {
+        return (root, query, cb) -> {
+            Path<Long> bookId = root.get("id");
+            Predicate idAfter = descending ? cb.lessThan(bookId, id) : cb.greaterThan(bookId, id);
+            if ("id".equals(property)) {
+                return idAfter;
+            }
+            Path<Comparable> value = root.get(property);
+            Comparable keyValue = key;
+            return cb.or(
+                    descending ? cb.lessThan(value, keyValue) : cb.greaterThan(value, keyValue),
+                    cb.and(cb.equal(value, keyValue), idAfter));
+        };
+    }
+}
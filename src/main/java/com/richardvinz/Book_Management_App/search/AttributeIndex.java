@@ -0,0 +1,246 @@
+package com.richardvinz.Book_Management_App.search;
+
+import com.richardvinz.Book_Management_App.entity.Book;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Numeric columns of every book (publication year, price and stock) stored in arrays
+ * addressed by book id, plus per-year posting lists for range access. Used to filter and
+ * sort candidate sets without touching the database.
+ */
+@Component
+public class AttributeIndex implements CatalogIndex {
+
+    public enum Attribute {
+        PUBLISHED_YEAR,
+        PRICE,
+        STOCK_QUANTITY
+    }
+
+    private double[][] columns = new double[Attribute.values().length][0];
+    private NavigableMap<Integer, PostingList> idsByYear = new TreeMap<>();
+    private PostingList allBooks = new PostingList();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void index(Book book) {
+        int slot = slot(book.getId());
+
+        lock.writeLock().lock();
+        try {
+            removeBook(book.getId());
+            ensureCapacity(slot + 1);
+            columns[Attribute.PUBLISHED_YEAR.ordinal()][slot] = toDouble(book.getPublishedYear());
+            columns[Attribute.PRICE.ordinal()][slot] = book.getPrice() == null ? Double.NaN : book.getPrice();
+            columns[Attribute.STOCK_QUANTITY.ordinal()][slot] = toDouble(book.getStockQuantity());
+            if (book.getPublishedYear() != null) {
+                idsByYear.computeIfAbsent(book.getPublishedYear(), year -> new PostingList()).add(book.getId());
+            }
+            allBooks.add(book.getId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            removeBook(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            columns = new double[Attribute.values().length][0];
+            idsByYear.clear();
+            allBooks.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public CatalogIndex emptyCopy() {
+        return new AttributeIndex();
+    }
+
+    @Override
+    public void replaceWith(CatalogIndex loaded) {
+        AttributeIndex source = (AttributeIndex) loaded;
+        lock.writeLock().lock();
+        try {
+            columns = source.columns;
+            idsByYear = source.idsByYear;
+            allBooks = source.allBooks;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long[] all() {
+        lock.readLock().lock();
+        try {
+            return allBooks.toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return allBooks.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Number of books published in [from, to]; either bound may be null
+    public int countYears(Integer from, Integer to) {
+        lock.readLock().lock();
+        try {
+            int count = 0;
+            for (PostingList postingList : years(from, to)) {
+                count += postingList.size();
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ids of books published in [from, to], in ascending order
+    public long[] searchYears(Integer from, Integer to) {
+        lock.readLock().lock();
+        try {
+            Collection<PostingList> matching = years(from, to);
+            int total = 0;
+            for (PostingList postingList : matching) {
+                total += postingList.size();
+            }
+            long[] ids = new long[total];
+            int offset = 0;
+            for (PostingList postingList : matching) {
+                long[] yearIds = postingList.toArray();
+                System.arraycopy(yearIds, 0, ids, offset, yearIds.length);
+                offset += yearIds.length;
+            }
+            Arrays.sort(ids);
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Keeps the ids whose attribute lies in [min, max]; books without a value never match
+    public long[] filter(long[] ids, Attribute attribute, double min, double max) {
+        lock.readLock().lock();
+        try {
+            double[] column = columns[attribute.ordinal()];
+            long[] kept = new long[ids.length];
+            int count = 0;
+            for (long id : ids) {
+                double value = value(column, id);
+                if (value >= min && value <= max) {
+                    kept[count++] = id;
+                }
+            }
+            return count == ids.length ? kept : Arrays.copyOf(kept, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // One book's attribute value; NaN when it has none or is not indexed
+    public double value(long bookId, Attribute attribute) {
+        lock.readLock().lock();
+        try {
+            return value(columns[attribute.ordinal()], bookId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Attribute values aligned with the ids; NaN where a book has no value
+    public double[] values(long[] ids, Attribute attribute) {
+        lock.readLock().lock();
+        try {
+            double[] column = columns[attribute.ordinal()];
+            double[] values = new double[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                values[i] = value(column, ids[i]);
+            }
+            return values;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Collection<PostingList> years(Integer from, Integer to) {
+        int lower = from == null ? Integer.MIN_VALUE : from;
+        int upper = to == null ? Integer.MAX_VALUE : to;
+        if (lower > upper) {
+            return Collections.emptyList();
+        }
+        return idsByYear.subMap(lower, true, upper, true).values();
+    }
+
+    private void removeBook(Long bookId) {
+        if (!allBooks.contains(bookId)) {
+            return;
+        }
+        int slot = slot(bookId);
+        double year = columns[Attribute.PUBLISHED_YEAR.ordinal()][slot];
+        if (!Double.isNaN(year)) {
+            PostingList postingList = idsByYear.get((int) year);
+            postingList.remove(bookId);
+            if (postingList.isEmpty()) {
+                idsByYear.remove((int) year);
+            }
+        }
+        for (double[] column : columns) {
+            column[slot] = Double.NaN;
+        }
+        allBooks.remove(bookId);
+    }
+
+    private void ensureCapacity(int required) {
+        int length = columns[0].length;
+        if (required <= length) {
+            return;
+        }
+        int capacity = Math.max(required, Math.max(16, length + (length >> 1)));
+        for (int attribute = 0; attribute < columns.length; attribute++) {
+            columns[attribute] = Arrays.copyOf(columns[attribute], capacity);
+            Arrays.fill(columns[attribute], length, capacity, Double.NaN);
+        }
+    }
+
+    private static double value(double[] column, long id) {
+        return id >= 0 && id < column.length ? column[(int) id] : Double.NaN;
+    }
+
+    private static double toDouble(Integer value) {
+        return value == null ? Double.NaN : value;
+    }
+
+    private static int slot(Long bookId) {
+        if (bookId == null || bookId < 0 || bookId > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Book id out of attribute index range: " + bookId);
+        }
+        return bookId.intValue();
+    }
+}
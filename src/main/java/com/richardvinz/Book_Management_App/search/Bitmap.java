@@ -0,0 +1,56 @@
+package com.richardvinz.Book_Management_App.search;
+
+import java.util.Arrays;
+
+/**
+ * Growable bitmap addressed directly by book id. Ids come from a pooled sequence, which loses
+ * at most 49 reserved ids per instance start and otherwise hands them out in order, so they
+ * stay close to dense: gaps from restarts, rolled-back inserts and deletes leave one bit per id
+ * up to the highest id still far smaller than any collection of boxed ids.
+ */
+final class Bitmap {
+
+    private long[] words = new long[0];
+
+    void set(long id) {
+        int word = wordIndex(id);
+        if (word >= words.length) {
+            words = Arrays.copyOf(words, Math.max(word + 1, words.length + (words.length >> 1)));
+        }
+        words[word] |= 1L << id;
+    }
+
+    void clear(long id) {
+        int word = wordIndex(id);
+        if (word < words.length) {
+            words[word] &= ~(1L << id);
+        }
+    }
+
+    int wordCount() {
+        return words.length;
+    }
+
+    // Words past the end read as empty, so bitmaps of different sizes can be combined freely
+    long word(int index) {
+        return index < words.length ? words[index] : 0L;
+    }
+
+    static Bitmap of(long[] ids) {
+        Bitmap bitmap = new Bitmap();
+        if (ids.length > 0) {
+            bitmap.words = new long[wordIndex(Arrays.stream(ids).max().getAsLong()) + 1];
+        }
+        for (long id : ids) {
+            bitmap.set(id);
+        }
+        return bitmap;
+    }
+
+    private static int wordIndex(long id) {
+        if (id < 0 || (id >>> 6) > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Book id out of bitmap range: " + id);
+        }
+        return (int) (id >>> 6);
+    }
+}
@@ -0,0 +1,42 @@
+package com.richardvinz.Book_Management_App.search;
+
+/**
+ * Bit-array Bloom filter over long keys. With 16 bits and 8 probes per expected key a
+ * false positive happens for about one absent key in 2,000; absent keys are otherwise
+ * rejected after touching a few words of memory. Keys cannot be removed.
+ */
+final class BloomFilter {
+
+    private static final int BITS_PER_KEY = 16;
+    private static final int PROBES = 8;
+
+    private final long[] words;
+    private final long mask;
+
+    BloomFilter(int expectedKeys) {
+        long bits = Long.highestOneBit(Math.max(64L, (long) expectedKeys * BITS_PER_KEY) - 1) << 1;
+        this.words = new long[(int) (bits >>> 6)];
+        this.mask = bits - 1;
+    }
+
+    void add(long key) {
+        long hash = LongLongMap.mix(key);
+        long step = (hash >>> 32) | 1;
+        for (int probe = 0; probe < PROBES; probe++) {
+            long bit = (hash + probe * step) & mask;
+            words[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    boolean mightContain(long key) {
+        long hash = LongLongMap.mix(key);
+        long step = (hash >>> 32) | 1;
+        for (int probe = 0; probe < PROBES; probe++) {
+            long bit = (hash + probe * step) & mask;
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,29 @@
+package com.richardvinz.Book_Management_App.search;
+
+import com.richardvinz.Book_Management_App.entity.Book;
+
+import java.util.function.Function;
+
+/**
+ * An in-memory structure derived from the books table. Implementations are picked up by
+ * {@link CatalogIndexer}, which loads them at startup and keeps them in sync with writes.
+ */
+public interface CatalogIndex {
+
+    // Adds the book, replacing any previously indexed version with the same id
+    void index(Book book);
+
+    void remove(Long bookId);
+
+    void clear();
+
+    // A new, empty index of the same kind, which a rebuild loads off to the side
+    CatalogIndex emptyCopy();
+
+    // Takes over the contents of a loaded index from emptyCopy(), in one step for readers of this one
+    void replaceWith(CatalogIndex loaded);
+
+    // Points a copy that reads other indexes while writing at their copies; most indexes read none
+    default void linkCopies(Function<CatalogIndex, CatalogIndex> copyOf) {
+    }
+}
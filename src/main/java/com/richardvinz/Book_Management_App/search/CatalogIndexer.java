@@ -0,0 +1,191 @@
+package com.richardvinz.Book_Management_App.search;
+
+import com.richardvinz.Book_Management_App.entity.Book;
+import com.richardvinz.Book_Management_App.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Loads every {@link CatalogIndex} from the database at startup and applies writes made
+ * through the service layer.
+ * <p>
+ * Writes are applied eagerly so a transaction can search its own changes. If the
+ * surrounding transaction rolls back, the touched book is re-read from the database in a
+ * new transaction and the indexes are corrected.
+ * <p>
+ * A rebuild, at startup or later when another instance's changes were missed, loads empty
+ * copies of the indexes off to the side with a keyset scan and then swaps them in, so
+ * searches keep seeing the whole previous catalog meanwhile. Writes applied during the scan
+ * are recorded and replayed onto the copies before the swap, so none is lost.
+ */
+@Component
+public class CatalogIndexer {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogIndexer.class);
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final List<CatalogIndex> indexes;
+    private final BookRepository bookRepository;
+    private final TransactionTemplate readTransaction;
+
+    // Latest write per book since the running rebuild started, null for a deletion; null when none runs
+    private Map<Long, Book> writesDuringRebuild;
+
+    @Autowired
+    public CatalogIndexer(List<CatalogIndex> indexes, BookRepository bookRepository,
+                          PlatformTransactionManager transactionManager) {
+        this.indexes = indexes;
+        this.bookRepository = bookRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    // One rebuild at a time; a second caller waits and then loads a catalog at least as new
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long started = System.nanoTime();
+        synchronized (indexes) {
+            writesDuringRebuild = new HashMap<>();
+        }
+        try {
+            Map<CatalogIndex, CatalogIndex> copyOf = new IdentityHashMap<>();
+            indexes.forEach(index -> copyOf.put(index, index.emptyCopy()));
+            List<CatalogIndex> copies = indexes.stream().map(copyOf::get).toList();
+            copies.forEach(copy -> copy.linkCopies(index -> copyOf.getOrDefault(index, index)));
+            long loaded = load(copies);
+            synchronized (indexes) {
+                writesDuringRebuild.forEach((bookId, book) -> apply(copies, bookId, book));
+                for (int i = 0; i < indexes.size(); i++) {
+                    indexes.get(i).replaceWith(copies.get(i));
+                }
+            }
+            log.info("Indexed {} books into {} catalog indexes in {} ms",
+                    loaded, indexes.size(), (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            synchronized (indexes) {
+                writesDuringRebuild = null;
+            }
+        }
+    }
+
+    // Reads the catalog in id order, one short read-only transaction per batch
+    private long load(List<CatalogIndex> copies) {
+        long count = 0;
+        long lastId = Long.MIN_VALUE;
+        List<Book> batch;
+        do {
+            long after = lastId;
+            batch = readTransaction.execute(status ->
+                    bookRepository.findByIdGreaterThanOrderById(after, PageRequest.ofSize(REBUILD_BATCH_SIZE)));
+            for (Book book : batch) {
+                copies.forEach(index -> index.index(book));
+            }
+            count += batch.size();
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        return count;
+    }
+
+    public void bookSaved(Book book) {
+        write(book.getId(), book);
+        resyncOnRollback(book.getId());
+    }
+
+    // Indexes a batch, with one rollback hook for all of it rather than one per book
+    public void booksSaved(List<Book> books) {
+        for (Book book : books) {
+            write(book.getId(), book);
+        }
+        resyncOnRollback(books.stream().map(Book::getId).toList());
+    }
+
+    public void bookDeleted(Long bookId) {
+        write(bookId, null);
+        resyncOnRollback(bookId);
+    }
+
+    public void booksDeleted(List<Long> bookIds) {
+        for (Long bookId : bookIds) {
+            write(bookId, null);
+        }
+        resyncOnRollback(bookIds);
+    }
+
+    // Applies a write, null meaning a deletion, and remembers it for a rebuild in progress
+    private void write(Long bookId, Book book) {
+        synchronized (indexes) {
+            apply(indexes, bookId, book);
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.put(bookId, book);
+            }
+        }
+    }
+
+    private static void apply(List<CatalogIndex> targets, Long bookId, Book book) {
+        if (book != null) {
+            targets.forEach(index -> index.index(book));
+        } else {
+            targets.forEach(index -> index.remove(bookId));
+        }
+    }
+
+    private void resyncOnRollback(List<Long> bookIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    return;
+                }
+                if (bookIds.size() > REBUILD_BATCH_SIZE) {
+                    rebuild();
+                } else {
+                    bookIds.forEach(CatalogIndexer.this::resync);
+                }
+            }
+        });
+    }
+
+    private void resyncOnRollback(Long bookId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    resync(bookId);
+                }
+            }
+        });
+    }
+
+    // Re-reads one book into the indexes, e.g. after another instance changed it; returns it, null once deleted
+    public Book resync(Long bookId) {
+        Optional<Book> current = readTransaction.execute(status -> bookRepository.findById(bookId));
+        Book book = current == null ? null : current.orElse(null);
+        write(bookId, book);
+        return book;
+    }
+}
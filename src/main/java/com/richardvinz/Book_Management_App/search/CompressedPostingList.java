@@ -0,0 +1,231 @@
+package com.richardvinz.Book_Management_App.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted id list stored as variable-length encoded gaps. Consecutive catalog ids are
+ * usually close together, so most entries take one or two bytes instead of eight.
+ * <p>
+ * Ids are split into blocks of at most {@link #BLOCK_SIZE}, each encoded as gaps from its
+ * own first id. Appends are O(1); out-of-order inserts and removals decode and re-encode
+ * only the block holding the id, so writes to lists covering much of the catalog stay cheap.
+ */
+final class CompressedPostingList {
+
+    static final int BLOCK_SIZE = 256;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    // Per block: its first id, the gaps after it, the bytes used and the number of ids
+    private long[] firsts = new long[0];
+    private byte[][] blocks = new byte[0][];
+    private int[] lengths = new int[0];
+    private int[] counts = new int[0];
+    private int blockCount;
+
+    private int count;
+    private long last;
+
+    int size() {
+        return count;
+    }
+
+    boolean isEmpty() {
+        return count == 0;
+    }
+
+    void add(long id) {
+        if (count == 0 || id > last) {
+            int tail = blockCount - 1;
+            if (tail < 0 || counts[tail] == BLOCK_SIZE) {
+                if (tail >= 0) {
+                    blocks[tail] = Arrays.copyOf(blocks[tail], lengths[tail]);
+                }
+                insertBlock(blockCount, id);
+            } else {
+                writeGap(tail, id - last);
+                counts[tail]++;
+            }
+            last = id;
+            count++;
+            return;
+        }
+
+        int block = blockOf(id);
+        long[] ids = decode(block);
+        int position = Arrays.binarySearch(ids, id);
+        if (position >= 0) {
+            return;
+        }
+        int insertAt = -position - 1;
+        long[] updated = new long[ids.length + 1];
+        System.arraycopy(ids, 0, updated, 0, insertAt);
+        updated[insertAt] = id;
+        System.arraycopy(ids, insertAt, updated, insertAt + 1, ids.length - insertAt);
+        count++;
+
+        if (updated.length <= BLOCK_SIZE) {
+            encode(block, updated, 0, updated.length);
+            return;
+        }
+        int half = updated.length / 2;
+        insertBlock(block + 1, updated[half]);
+        encode(block, updated, 0, half);
+        encode(block + 1, updated, half, updated.length);
+    }
+
+    void remove(long id) {
+        if (count == 0 || id > last || id < firsts[0]) {
+            return;
+        }
+        int block = blockOf(id);
+        long[] ids = decode(block);
+        int position = Arrays.binarySearch(ids, id);
+        if (position < 0) {
+            return;
+        }
+        long[] updated = new long[ids.length - 1];
+        System.arraycopy(ids, 0, updated, 0, position);
+        System.arraycopy(ids, position + 1, updated, position, ids.length - position - 1);
+        count--;
+
+        if (updated.length == 0) {
+            removeBlock(block);
+        } else if (block + 1 < blockCount && updated.length + counts[block + 1] <= BLOCK_SIZE / 2) {
+            // Folds a shrinking block into its neighbour so deletes do not leave many tiny blocks
+            long[] next = decode(block + 1);
+            long[] merged = Arrays.copyOf(updated, updated.length + next.length);
+            System.arraycopy(next, 0, merged, updated.length, next.length);
+            encode(block, merged, 0, merged.length);
+            removeBlock(block + 1);
+        } else {
+            encode(block, updated, 0, updated.length);
+        }
+
+        if (count == 0) {
+            last = 0;
+        } else if (id == last) {
+            long[] tail = decode(blockCount - 1);
+            last = tail[tail.length - 1];
+        }
+    }
+
+    long[] toArray() {
+        long[] ids = new long[count];
+        int offset = 0;
+        for (int block = 0; block < blockCount; block++) {
+            offset = decodeInto(block, ids, offset);
+        }
+        return ids;
+    }
+
+    // Encoded bytes plus the first id of every block
+    int sizeInBytes() {
+        int bytes = blockCount * Long.BYTES;
+        for (int block = 0; block < blockCount; block++) {
+            bytes += lengths[block];
+        }
+        return bytes;
+    }
+
+    // The last block whose first id is at most id, or the first block when id precedes them all
+    private int blockOf(long id) {
+        int low = 0;
+        int high = blockCount - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (firsts[middle] <= id) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    private long[] decode(int block) {
+        long[] ids = new long[counts[block]];
+        decodeInto(block, ids, 0);
+        return ids;
+    }
+
+    private int decodeInto(int block, long[] ids, int offset) {
+        byte[] data = blocks[block];
+        long current = firsts[block];
+        ids[offset++] = current;
+        int position = 0;
+        for (int i = 1; i < counts[block]; i++) {
+            long gap = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                gap |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            current += gap;
+            ids[offset++] = current;
+        }
+        return offset;
+    }
+
+    // Rewrites a block to hold ids[from, to), which must be sorted and non-empty
+    private void encode(int block, long[] ids, int from, int to) {
+        firsts[block] = ids[from];
+        blocks[block] = EMPTY;
+        lengths[block] = 0;
+        counts[block] = to - from;
+        for (int i = from + 1; i < to; i++) {
+            writeGap(block, ids[i] - ids[i - 1]);
+        }
+        // Only the tail block is appended to, so the others are trimmed to the bytes they use
+        if (block < blockCount - 1) {
+            blocks[block] = Arrays.copyOf(blocks[block], lengths[block]);
+        }
+    }
+
+    private void insertBlock(int block, long first) {
+        if (blockCount == firsts.length) {
+            int capacity = Math.max(1, blockCount * 2);
+            firsts = Arrays.copyOf(firsts, capacity);
+            blocks = Arrays.copyOf(blocks, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+        int moved = blockCount - block;
+        System.arraycopy(firsts, block, firsts, block + 1, moved);
+        System.arraycopy(blocks, block, blocks, block + 1, moved);
+        System.arraycopy(lengths, block, lengths, block + 1, moved);
+        System.arraycopy(counts, block, counts, block + 1, moved);
+        firsts[block] = first;
+        blocks[block] = EMPTY;
+        lengths[block] = 0;
+        counts[block] = 1;
+        blockCount++;
+    }
+
+    private void removeBlock(int block) {
+        int moved = blockCount - block - 1;
+        System.arraycopy(firsts, block + 1, firsts, block, moved);
+        System.arraycopy(blocks, block + 1, blocks, block, moved);
+        System.arraycopy(lengths, block + 1, lengths, block, moved);
+        System.arraycopy(counts, block + 1, counts, block, moved);
+        blockCount--;
+        blocks[blockCount] = null;
+    }
+
+    private void writeGap(int block, long gap) {
+        byte[] data = blocks[block];
+        int length = lengths[block];
+        if (length + 10 > data.length) {
+            data = Arrays.copyOf(data, Math.max(length + 10, data.length * 2));
+            blocks[block] = data;
+        }
+        while ((gap & ~0x7FL) != 0) {
+            data[length++] = (byte) ((gap & 0x7F) | 0x80);
+            gap >>>= 7;
+        }
+        data[length++] = (byte) gap;
+        lengths[block] = length;
+    }
+}
@@ -0,0 +1,214 @@
+package com.richardvinz.Book_Management_App.search;
+
+import com.richardvinz.Book_Management_App.dto.FacetCountsDto;
+import com.richardvinz.Book_Management_App.dto.FacetValueDto;
+import com.richardvinz.Book_Management_App.entity.Book;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One {@link Bitmap} per facet value (publication year, price range and stock level).
+ * Counting a result set turns it into a bitmap once and then walks its non-empty words,
+ * AND-ing each against every facet value in the same pass. Each bitmap is sized by the
+ * highest id holding its value, whatever gaps the id sequence has left below it.
+ */
+@Component
+public class FacetIndex implements CatalogIndex {
+
+    public static final int LOW_STOCK_THRESHOLD = 10;
+
+    private static final double[] PRICE_BOUNDS = {10, 25, 50, 100};
+    private static final String[] PRICE_LABELS = {"0-10", "10-25", "25-50", "50-100", "100+"};
+
+    public enum StockLevel {
+        IN_STOCK,
+        LOW_STOCK,
+        OUT_OF_STOCK
+    }
+
+    private Map<Integer, Bitmap> years = new TreeMap<>(Comparator.reverseOrder());
+    private Bitmap[] priceRanges = newBitmaps(PRICE_LABELS.length);
+    private Bitmap[] stockLevels = newBitmaps(StockLevel.values().length);
+    private Map<Long, FacetValues> valuesByBook = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void index(Book book) {
+        FacetValues values = new FacetValues(book.getPublishedYear(), priceRange(book.getPrice()),
+                stockLevel(book.getStockQuantity()));
+
+        lock.writeLock().lock();
+        try {
+            removeBook(book.getId());
+            if (values.year != null) {
+                years.computeIfAbsent(values.year, year -> new Bitmap()).set(book.getId());
+            }
+            if (values.priceRange >= 0) {
+                priceRanges[values.priceRange].set(book.getId());
+            }
+            if (values.stockLevel != null) {
+                stockLevels[values.stockLevel.ordinal()].set(book.getId());
+            }
+            valuesByBook.put(book.getId(), values);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            removeBook(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            years.clear();
+            System.arraycopy(newBitmaps(priceRanges.length), 0, priceRanges, 0, priceRanges.length);
+            System.arraycopy(newBitmaps(stockLevels.length), 0, stockLevels, 0, stockLevels.length);
+            valuesByBook.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public CatalogIndex emptyCopy() {
+        return new FacetIndex();
+    }
+
+    @Override
+    public void replaceWith(CatalogIndex loaded) {
+        FacetIndex source = (FacetIndex) loaded;
+        lock.writeLock().lock();
+        try {
+            years = source.years;
+            priceRanges = source.priceRanges;
+            stockLevels = source.stockLevels;
+            valuesByBook = source.valuesByBook;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Counts the given books per facet value; values without matches are left out
+    public FacetCountsDto count(long[] bookIds) {
+        Bitmap matches = Bitmap.of(bookIds);
+
+        lock.readLock().lock();
+        try {
+            List<Integer> yearValues = new ArrayList<>(years.keySet());
+            Bitmap[] facets = new Bitmap[yearValues.size() + priceRanges.length + stockLevels.length];
+            int offset = 0;
+            for (Bitmap bitmap : years.values()) {
+                facets[offset++] = bitmap;
+            }
+            System.arraycopy(priceRanges, 0, facets, offset, priceRanges.length);
+            System.arraycopy(stockLevels, 0, facets, offset + priceRanges.length, stockLevels.length);
+
+            long[] counts = new long[facets.length];
+            for (int word = 0; word < matches.wordCount(); word++) {
+                long matchWord = matches.word(word);
+                if (matchWord == 0) {
+                    continue;
+                }
+                for (int facet = 0; facet < facets.length; facet++) {
+                    counts[facet] += Long.bitCount(matchWord & facets[facet].word(word));
+                }
+            }
+
+            List<FacetValueDto> yearCounts = new ArrayList<>();
+            for (int i = 0; i < yearValues.size(); i++) {
+                addCount(yearCounts, String.valueOf(yearValues.get(i)), counts[i]);
+            }
+            List<FacetValueDto> priceCounts = new ArrayList<>();
+            for (int i = 0; i < priceRanges.length; i++) {
+                addCount(priceCounts, PRICE_LABELS[i], counts[offset + i]);
+            }
+            List<FacetValueDto> stockCounts = new ArrayList<>();
+            for (StockLevel level : StockLevel.values()) {
+                addCount(stockCounts, level.name(), counts[offset + priceRanges.length + level.ordinal()]);
+            }
+            return new FacetCountsDto(yearCounts, priceCounts, stockCounts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static int priceRange(Double price) {
+        if (price == null) {
+            return -1;
+        }
+        int range = 0;
+        while (range < PRICE_BOUNDS.length && price >= PRICE_BOUNDS[range]) {
+            range++;
+        }
+        return range;
+    }
+
+    static StockLevel stockLevel(Integer stockQuantity) {
+        if (stockQuantity == null) {
+            return null;
+        }
+        if (stockQuantity <= 0) {
+            return StockLevel.OUT_OF_STOCK;
+        }
+        return stockQuantity < LOW_STOCK_THRESHOLD ? StockLevel.LOW_STOCK : StockLevel.IN_STOCK;
+    }
+
+    private static void addCount(List<FacetValueDto> counts, String value, long count) {
+        if (count > 0) {
+            counts.add(new FacetValueDto(value, count));
+        }
+    }
+
+    private void removeBook(Long bookId) {
+        FacetValues values = valuesByBook.remove(bookId);
+        if (values == null) {
+            return;
+        }
+        if (values.year != null) {
+            years.get(values.year).clear(bookId);
+        }
+        if (values.priceRange >= 0) {
+            priceRanges[values.priceRange].clear(bookId);
+        }
+        if (values.stockLevel != null) {
+            stockLevels[values.stockLevel.ordinal()].clear(bookId);
+        }
+    }
+
+    private static Bitmap[] newBitmaps(int count) {
+        Bitmap[] bitmaps = new Bitmap[count];
+        for (int i = 0; i < count; i++) {
+            bitmaps[i] = new Bitmap();
+        }
+        return bitmaps;
+    }
+
+    private static final class FacetValues {
+        private final Integer year;
+        private final int priceRange;
+        private final StockLevel stockLevel;
+
+        private FacetValues(Integer year, int priceRange, StockLevel stockLevel) {
+            this.year = year;
+            this.priceRange = priceRange;
+            this.stockLevel = stockLevel;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.richardvinz.Book_Management_App.search;
+
+import com.richardvinz.Book_Management_App.entity.Book;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Typo-tolerant author and title lookups, backed by one {@link TermDictionary} per field.
+ * Every query token matches the dictionary terms within the allowed edit distance, a book
+ * matches when every token does, and the closest terms double as "did you mean" corrections.
+ */
+@Component
+public class FuzzyIndex implements CatalogIndex {
+
+    public static final int MAX_EDITS = TermDictionary.MAX_EDITS;
+
+    private static final int MAX_CORRECTIONS = 5;
+
+    private final TermDictionary authors = new TermDictionary();
+    private final TermDictionary titles = new TermDictionary();
+
+    public enum Field {
+        AUTHOR,
+        TITLE
+    }
+
+    @Override
+    public void index(Book book) {
+        authors.index(book.getId(), book.getAuthor());
+        titles.index(book.getId(), book.getTitle());
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        authors.remove(bookId);
+        titles.remove(bookId);
+    }
+
+    @Override
+    public void clear() {
+        authors.clear();
+        titles.clear();
+    }
+
+    @Override
+    public CatalogIndex emptyCopy() {
+        return new FuzzyIndex();
+    }
+
+    // Each field's dictionary swaps in one step; a search may briefly pair the new authors with the old titles
+    @Override
+    public void replaceWith(CatalogIndex loaded) {
+        FuzzyIndex source = (FuzzyIndex) loaded;
+        authors.replaceWith(source.authors);
+        titles.replaceWith(source.titles);
+    }
+
+    // A null field searches authors and titles together
+    public FuzzyMatch search(String query, Field field, int maxEdits) {
+        List<TermDictionary> dictionaries = field == null ? List.of(authors, titles)
+                : List.of(field == Field.AUTHOR ? authors : titles);
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.tokenize(query)));
+        if (tokens.isEmpty()) {
+            return new FuzzyMatch(new long[0], Collections.emptyList());
+        }
+
+        long[] matches = null;
+        List<List<TermDictionary.Candidate>> candidatesByToken = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            List<TermDictionary.Candidate> candidates = candidates(dictionaries, token, allowedEdits(token, maxEdits));
+            candidatesByToken.add(candidates);
+            if (matches != null && matches.length == 0) {
+                continue;
+            }
+
+            List<String> terms = candidates.stream().map(candidate -> candidate.term).toList();
+            long[] tokenMatches = new long[0];
+            for (TermDictionary dictionary : dictionaries) {
+                long[] ids = dictionary.postings(terms);
+                tokenMatches = tokenMatches.length == 0 ? ids : union(tokenMatches, ids);
+            }
+            matches = matches == null ? tokenMatches : PostingList.intersect(matches, tokenMatches);
+        }
+        return new FuzzyMatch(matches, corrections(tokens, candidatesByToken));
+    }
+
+    // Short tokens get fewer edits, otherwise "cat" would match half the dictionary
+    static int allowedEdits(String token, int maxEdits) {
+        if (token.length() <= 2) {
+            return 0;
+        }
+        if (token.length() <= 5) {
+            return Math.min(maxEdits, 1);
+        }
+        return Math.min(maxEdits, MAX_EDITS);
+    }
+
+    private List<TermDictionary.Candidate> candidates(List<TermDictionary> dictionaries, String token, int edits) {
+        if (dictionaries.size() == 1) {
+            return dictionaries.get(0).candidates(token, edits);
+        }
+
+        // The same term may occur in both fields; keep its closest distance and total frequency
+        Map<String, TermDictionary.Candidate> merged = new LinkedHashMap<>();
+        for (TermDictionary dictionary : dictionaries) {
+            for (TermDictionary.Candidate candidate : dictionary.candidates(token, edits)) {
+                merged.merge(candidate.term, candidate, (left, right) -> new TermDictionary.Candidate(
+                        left.term, Math.min(left.distance, right.distance), left.frequency + right.frequency));
+            }
+        }
+        List<TermDictionary.Candidate> candidates = new ArrayList<>(merged.values());
+        candidates.sort(TermDictionary.CLOSEST_FIRST);
+        return candidates;
+    }
+
+    // The best correction of every token first, then variations that swap one token for its runner-up terms
+    private List<String> corrections(List<String> tokens, List<List<TermDictionary.Candidate>> candidatesByToken) {
+        String[] best = new String[tokens.size()];
+        boolean corrected = false;
+        for (int i = 0; i < tokens.size(); i++) {
+            List<TermDictionary.Candidate> candidates = candidatesByToken.get(i);
+            best[i] = candidates.isEmpty() ? tokens.get(i) : candidates.get(0).term;
+            corrected |= !best[i].equals(tokens.get(i));
+        }
+        if (!corrected) {
+            return Collections.emptyList();
+        }
+
+        Set<String> corrections = new LinkedHashSet<>();
+        corrections.add(String.join(" ", best));
+        for (int i = 0; i < tokens.size() && corrections.size() < MAX_CORRECTIONS; i++) {
+            List<TermDictionary.Candidate> candidates = candidatesByToken.get(i);
+            for (int c = 1; c < candidates.size() && corrections.size() < MAX_CORRECTIONS; c++) {
+                String[] variation = best.clone();
+                variation[i] = candidates.get(c).term;
+                corrections.add(String.join(" ", variation));
+            }
+        }
+        corrections.remove(String.join(" ", tokens));
+        return new ArrayList<>(corrections);
+    }
+
+    private static long[] union(long[] left, long[] right) {
+        long[] combined = new long[left.length + right.length];
+        System.arraycopy(left, 0, combined, 0, left.length);
+        System.arraycopy(right, 0, combined, left.length, right.length);
+        return PostingList.sortedDistinct(combined);
+    }
+
+    /**
+     * Ids of the matching books in ascending order, plus corrected spellings of the query.
+     */
+    public static final class FuzzyMatch {
+        private final long[] bookIds;
+        private final List<String> corrections;
+
+        public FuzzyMatch(long[] bookIds, List<String> corrections) {
+            this.bookIds = bookIds;
+            this.corrections = corrections;
+        }
+
+        public long[] getBookIds() {
+            return bookIds;
+        }
+
+        public List<String> getCorrections() {
+            return corrections;
+        }
+    }
+}
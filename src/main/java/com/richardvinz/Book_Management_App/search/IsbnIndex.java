@@ -0,0 +1,207 @@
+package com.richardvinz.Book_Management_App.search;
+
+import com.richardvinz.Book_Management_App.entity.Book;
+import org.springframework.stereotype.Component;
+
+import java.util.OptionalLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Maps every ISBN in the catalog to its book id without touching the database.
+ * <p>
+ * An ISBN is normalized to a single long by dropping the optional "ISBN" prefix, hyphens
+ * and spaces, so "978-0-7432-7356-5" and "9780743273565" are the same key. Keys live in an
+ * open-addressing {@link LongLongMap}, fronted by a {@link BloomFilter} that turns away most
+ * unknown ISBNs before the table is probed. A second map from id to key lets updates and
+ * deletes find the entry to drop.
+ */
+@Component
+public class IsbnIndex implements CatalogIndex {
+
+    public static final long NOT_NORMALIZABLE = -1;
+
+    // ISBN-10 keys are placed above every 13-digit number so the two forms never collide
+    private static final long TEN_DIGIT_BASE = 10_000_000_000_000L;
+
+    private LongLongMap idsByIsbn = new LongLongMap();
+    private LongLongMap isbnsById = new LongLongMap();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private BloomFilter filter = new BloomFilter(0);
+    private int filterCapacity;
+    // Keys removed since the filter was built; they still answer "might contain"
+    private int staleKeys;
+
+    @Override
+    public void index(Book book) {
+        long key = normalize(book.getIsbn());
+
+        lock.writeLock().lock();
+        try {
+            long previousKey = isbnsById.get(book.getId());
+            if (previousKey != LongLongMap.MISSING && previousKey != key) {
+                removeKey(previousKey, book.getId());
+            }
+            if (key == NOT_NORMALIZABLE) {
+                isbnsById.remove(book.getId());
+                return;
+            }
+            idsByIsbn.put(key, book.getId());
+            isbnsById.put(book.getId(), key);
+            if (idsByIsbn.capacity() != filterCapacity) {
+                rebuildFilter();
+            } else {
+                filter.add(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            long key = isbnsById.remove(bookId);
+            if (key != LongLongMap.MISSING) {
+                removeKey(key, bookId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            idsByIsbn.clear();
+            isbnsById.clear();
+            rebuildFilter();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public CatalogIndex emptyCopy() {
+        return new IsbnIndex();
+    }
+
+    @Override
+    public void replaceWith(CatalogIndex loaded) {
+        IsbnIndex source = (IsbnIndex) loaded;
+        lock.writeLock().lock();
+        try {
+            idsByIsbn = source.idsByIsbn;
+            isbnsById = source.isbnsById;
+            filter = source.filter;
+            filterCapacity = source.filterCapacity;
+            staleKeys = source.staleKeys;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // True when the ISBN has a key, so find() gives a definite answer for it
+    public static boolean isIndexable(String isbn) {
+        return normalize(isbn) != NOT_NORMALIZABLE;
+    }
+
+    // Id of the book with this ISBN in any spelling; callers check isIndexable() first
+    public OptionalLong find(String isbn) {
+        long key = normalize(isbn);
+        if (key == NOT_NORMALIZABLE) {
+            return OptionalLong.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (!filter.mightContain(key)) {
+                return OptionalLong.empty();
+            }
+            long id = idsByIsbn.get(key);
+            return id == LongLongMap.MISSING ? OptionalLong.empty() : OptionalLong.of(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return idsByIsbn.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Packs an ISBN-13 as its number and an ISBN-10 (check digit X = 10) above TEN_DIGIT_BASE
+    public static long normalize(String isbn) {
+        if (isbn == null) {
+            return NOT_NORMALIZABLE;
+        }
+        int start = 0;
+        if (isbn.regionMatches(true, 0, "ISBN", 0, 4)) {
+            start = isbn.indexOf(' ') + 1;
+            if (start == 0) {
+                return NOT_NORMALIZABLE;
+            }
+        }
+
+        long number = 0;
+        int digits = 0;
+        boolean checkIsX = false;
+        for (int i = start; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c == '-' || c == ' ') {
+                continue;
+            }
+            if (checkIsX || digits == 13) {
+                return NOT_NORMALIZABLE;
+            }
+            if (c >= '0' && c <= '9') {
+                number = number * 10 + (c - '0');
+            } else if ((c == 'X' || c == 'x') && digits == 9) {
+                checkIsX = true;
+            } else {
+                return NOT_NORMALIZABLE;
+            }
+            digits++;
+        }
+
+        if (digits == 13 && !checkIsX) {
+            return number;
+        }
+        if (digits == 10) {
+            long body = checkIsX ? number : number / 10;
+            long check = checkIsX ? 10 : number % 10;
+            return TEN_DIGIT_BASE + body * 11 + check;
+        }
+        return NOT_NORMALIZABLE;
+    }
+
+    // Drops the key only if it still belongs to this book; another spelling may have claimed it
+    private void removeKey(long key, long bookId) {
+        if (idsByIsbn.get(key) == bookId) {
+            idsByIsbn.remove(key);
+            // Bits cannot be cleared, so rebuild once removed keys make up half of the filter
+            if (++staleKeys > idsByIsbn.size()) {
+                rebuildFilter();
+            }
+        }
+    }
+
+    private void rebuildFilter() {
+        filterCapacity = idsByIsbn.capacity();
+        filter = new BloomFilter(filterCapacity / 2);
+        for (int slot = 0; slot < filterCapacity; slot++) {
+            long key = idsByIsbn.keyAt(slot);
+            if (key != LongLongMap.MISSING) {
+                filter.add(key);
+            }
+        }
+        staleKeys = 0;
+    }
+}
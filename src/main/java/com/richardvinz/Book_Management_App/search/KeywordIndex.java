@@ -0,0 +1,411 @@
+package com.richardvinz.Book_Management_App.search;
+
+import com.richardvinz.Book_Management_App.entity.Book;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over the title, author and description of every book. Each query token
+ * matches indexed terms by prefix, and a book matches when every query token does.
+ * Matches are ranked with BM25F: term frequencies are weighted per field (title over author
+ * over description) and normalized by field length before saturation.
+ */
+@Component
+public class KeywordIndex implements CatalogIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double[] FIELD_BOOSTS = {3.0, 2.0, 1.0};
+
+    // Terms that merely start with the query token count for less than the token itself
+    private static final double PREFIX_MATCH_WEIGHT = 0.5;
+
+    private NavigableMap<String, TermPostings> postings = new TreeMap<>();
+    private Map<Long, IndexedDocument> documents = new HashMap<>();
+    private PostingList allDocuments = new PostingList();
+    private long[] totalFieldLengths = new long[TermPostings.FIELD_COUNT];
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void index(Book book) {
+        String[] fields = new String[TermPostings.FIELD_COUNT];
+        fields[TermPostings.TITLE] = book.getTitle();
+        fields[TermPostings.AUTHOR] = book.getAuthor();
+        fields[TermPostings.DESCRIPTION] = book.getDescription();
+
+        int[] lengths = new int[TermPostings.FIELD_COUNT];
+        Map<String, int[]> frequencies = new LinkedHashMap<>();
+        for (int field = 0; field < TermPostings.FIELD_COUNT; field++) {
+            List<String> tokens = TextAnalyzer.tokenize(fields[field]);
+            lengths[field] = tokens.size();
+            for (String token : tokens) {
+                frequencies.computeIfAbsent(token, key -> new int[TermPostings.FIELD_COUNT])[field]++;
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(book.getId());
+            for (Map.Entry<String, int[]> entry : frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), key -> new TermPostings())
+                        .add(book.getId(), TermPostings.pack(entry.getValue(), lengths));
+            }
+            documents.put(book.getId(), new IndexedDocument(frequencies.keySet().toArray(new String[0]), lengths));
+            for (int field = 0; field < TermPostings.FIELD_COUNT; field++) {
+                totalFieldLengths[field] += lengths[field];
+            }
+            allDocuments.add(book.getId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            allDocuments.clear();
+            Arrays.fill(totalFieldLengths, 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public CatalogIndex emptyCopy() {
+        return new KeywordIndex();
+    }
+
+    @Override
+    public void replaceWith(CatalogIndex loaded) {
+        KeywordIndex source = (KeywordIndex) loaded;
+        lock.writeLock().lock();
+        try {
+            postings = source.postings;
+            documents = source.documents;
+            allDocuments = source.allDocuments;
+            totalFieldLengths = source.totalFieldLengths;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Returns the ids of matching books in ascending order; a blank keyword matches everything
+    public long[] search(String keyword) {
+        List<String> tokens = TextAnalyzer.tokenize(keyword);
+
+        lock.readLock().lock();
+        try {
+            if (tokens.isEmpty()) {
+                return allDocuments.toArray();
+            }
+
+            long[] matches = null;
+            for (String token : new LinkedHashSet<>(tokens)) {
+                long[] tokenMatches = prefixMatches(token);
+                matches = matches == null ? tokenMatches : PostingList.intersect(matches, tokenMatches);
+                if (matches.length == 0) {
+                    break;
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the best {@code limit} of the given matches for the keyword, most relevant first
+     * and ties by ascending id. A blank keyword keeps id order.
+     */
+    public long[] rank(String keyword, long[] matches, int limit) {
+        int resultSize = Math.min(Math.max(limit, 0), matches.length);
+        Set<String> tokens = new LinkedHashSet<>(TextAnalyzer.tokenize(keyword));
+        if (tokens.isEmpty() || resultSize == 0) {
+            return Arrays.copyOf(matches, resultSize);
+        }
+
+        double[] scores = new double[matches.length];
+        lock.readLock().lock();
+        try {
+            int documentCount = Math.max(allDocuments.size(), 1);
+            double[] averageLengths = new double[TermPostings.FIELD_COUNT];
+            for (int field = 0; field < TermPostings.FIELD_COUNT; field++) {
+                averageLengths[field] = Math.max((double) totalFieldLengths[field] / documentCount, 1.0);
+            }
+
+            for (String token : tokens) {
+                NavigableMap<String, TermPostings> expansions = prefixPostings(token);
+                // Expansions share the prefix's document frequency, so a rare completion cannot outrank the word itself
+                int prefixFrequency = 0;
+                for (TermPostings termPostings : expansions.values()) {
+                    prefixFrequency = Math.min(prefixFrequency + termPostings.size(), documentCount);
+                }
+                double prefixIdf = idf(prefixFrequency, documentCount) * PREFIX_MATCH_WEIGHT;
+
+                for (Map.Entry<String, TermPostings> entry : expansions.entrySet()) {
+                    TermPostings termPostings = entry.getValue();
+                    double weight = entry.getKey().equals(token) ? idf(termPostings.size(), documentCount) : prefixIdf;
+                    accumulate(termPostings, weight, averageLengths, matches, scores);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return top(matches, scores, resultSize);
+    }
+
+    // Upper bound on the number of matches: the least frequent query token's prefix frequency
+    public int estimate(String keyword) {
+        Set<String> tokens = new LinkedHashSet<>(TextAnalyzer.tokenize(keyword));
+
+        lock.readLock().lock();
+        try {
+            int estimate = allDocuments.size();
+            for (String token : tokens) {
+                int tokenFrequency = 0;
+                for (TermPostings termPostings : prefixPostings(token).values()) {
+                    tokenFrequency += termPostings.size();
+                    if (tokenFrequency >= estimate) {
+                        break;
+                    }
+                }
+                estimate = Math.min(estimate, tokenFrequency);
+            }
+            return estimate;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Keeps the ids of books containing every keyword token, preserving their order
+    public long[] filter(long[] ids, String keyword) {
+        Set<String> tokens = new LinkedHashSet<>(TextAnalyzer.tokenize(keyword));
+        if (tokens.isEmpty()) {
+            return ids;
+        }
+
+        lock.readLock().lock();
+        try {
+            long[] kept = new long[ids.length];
+            int count = 0;
+            for (long id : ids) {
+                IndexedDocument document = documents.get(id);
+                if (document != null && containsAll(document, tokens)) {
+                    kept[count++] = id;
+                }
+            }
+            return count == ids.length ? kept : Arrays.copyOf(kept, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return allDocuments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private NavigableMap<String, TermPostings> prefixPostings(String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private long[] prefixMatches(String prefix) {
+        Collection<TermPostings> matching = prefixPostings(prefix).values();
+        if (matching.size() == 1) {
+            return matching.iterator().next().toArray();
+        }
+
+        // Concatenate then sort once; pairwise unions degrade badly for short prefixes
+        int total = 0;
+        for (TermPostings termPostings : matching) {
+            total += termPostings.size();
+        }
+        long[] matches = new long[total];
+        int offset = 0;
+        for (TermPostings termPostings : matching) {
+            long[] ids = termPostings.toArray();
+            System.arraycopy(ids, 0, matches, offset, ids.length);
+            offset += ids.length;
+        }
+        return PostingList.sortedDistinct(matches);
+    }
+
+    private static boolean containsAll(IndexedDocument document, Set<String> tokens) {
+        for (String token : tokens) {
+            boolean found = false;
+            for (String term : document.terms) {
+                if (term.startsWith(token)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double idf(int documentFrequency, int documentCount) {
+        return Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    // Adds the term's BM25F contribution to every match it occurs in
+    private static void accumulate(TermPostings termPostings, double weight, double[] averageLengths,
+                                   long[] matches, double[] scores) {
+        boolean probe = termPostings.size() < matches.length / 8;
+        int match = 0;
+        for (int i = 0; i < termPostings.size() && match < matches.length; i++) {
+            long id = termPostings.id(i);
+            if (probe) {
+                int position = Arrays.binarySearch(matches, match, matches.length, id);
+                if (position < 0) {
+                    match = -position - 1;
+                    continue;
+                }
+                match = position;
+            } else {
+                while (match < matches.length && matches[match] < id) {
+                    match++;
+                }
+                if (match == matches.length || matches[match] != id) {
+                    continue;
+                }
+            }
+
+            long stats = termPostings.stats(i);
+            double frequency = 0;
+            for (int field = 0; field < TermPostings.FIELD_COUNT; field++) {
+                int fieldFrequency = TermPostings.frequency(stats, field);
+                if (fieldFrequency > 0) {
+                    double norm = 1 - B + B * TermPostings.length(stats, field) / averageLengths[field];
+                    frequency += FIELD_BOOSTS[field] * fieldFrequency / norm;
+                }
+            }
+            scores[match] += weight * frequency * (K1 + 1) / (frequency + K1);
+        }
+    }
+
+    // Bounded min-heap of match positions whose root is the worst of the best `limit` seen so far
+    private static long[] top(long[] matches, double[] scores, int limit) {
+        int[] heap = new int[limit];
+        int size = 0;
+        for (int candidate = 0; candidate < matches.length; candidate++) {
+            if (size < limit) {
+                heap[size] = candidate;
+                siftUp(heap, size++, matches, scores);
+            } else if (better(candidate, heap[0], matches, scores)) {
+                heap[0] = candidate;
+                siftDown(heap, size, matches, scores);
+            }
+        }
+
+        long[] ranked = new long[size];
+        for (int i = size - 1; i >= 0; i--) {
+            ranked[i] = matches[heap[0]];
+            heap[0] = heap[i];
+            siftDown(heap, i, matches, scores);
+        }
+        return ranked;
+    }
+
+    private static boolean better(int left, int right, long[] matches, double[] scores) {
+        return scores[left] != scores[right] ? scores[left] > scores[right] : matches[left] < matches[right];
+    }
+
+    private static void siftUp(int[] heap, int position, long[] matches, double[] scores) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (!better(heap[parent], heap[position], matches, scores)) {
+                return;
+            }
+            swap(heap, parent, position);
+            position = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, long[] matches, double[] scores) {
+        int position = 0;
+        while (true) {
+            int worst = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < size && better(heap[worst], heap[left], matches, scores)) {
+                worst = left;
+            }
+            if (right < size && better(heap[worst], heap[right], matches, scores)) {
+                worst = right;
+            }
+            if (worst == position) {
+                return;
+            }
+            swap(heap, position, worst);
+            position = worst;
+        }
+    }
+
+    private static void swap(int[] heap, int left, int right) {
+        int swapped = heap[left];
+        heap[left] = heap[right];
+        heap[right] = swapped;
+    }
+
+    private void removeDocument(Long bookId) {
+        IndexedDocument document = documents.remove(bookId);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms) {
+            TermPostings termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(bookId);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        for (int field = 0; field < TermPostings.FIELD_COUNT; field++) {
+            totalFieldLengths[field] -= document.lengths[field];
+        }
+        allDocuments.remove(bookId);
+    }
+
+    private static final class IndexedDocument {
+        private final String[] terms;
+        private final int[] lengths;
+
+        private IndexedDocument(String[] terms, int[] lengths) {
+            this.terms = terms;
+            this.lengths = lengths;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.richardvinz.Book_Management_App.search;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from long to long with linear probing, stored in two primitive
+ * arrays so that lookups and updates never allocate. Deletes shift the following entries
+ * back instead of leaving tombstones. {@link #MISSING} cannot be used as a key or value.
+ */
+final class LongLongMap {
+
+    static final long MISSING = Long.MIN_VALUE;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+
+    LongLongMap() {
+        allocate(MIN_CAPACITY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+
+    // The key stored in a slot, or MISSING; lets callers walk the table without an iterator
+    long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    long get(long key) {
+        for (int slot = slot(key); ; slot = next(slot)) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            if (keys[slot] == MISSING) {
+                return MISSING;
+            }
+        }
+    }
+
+    // Returns the previous value, or MISSING
+    long put(long key, long value) {
+        int slot = slot(key);
+        for (; keys[slot] != MISSING; slot = next(slot)) {
+            if (keys[slot] == key) {
+                long previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        // Keep the table at most half full so probe sequences stay short
+        if (++size > keys.length >> 1) {
+            resize(keys.length << 1);
+        }
+        return MISSING;
+    }
+
+    // Returns the removed value, or MISSING
+    long remove(long key) {
+        int slot = slot(key);
+        for (; keys[slot] != key; slot = next(slot)) {
+            if (keys[slot] == MISSING) {
+                return MISSING;
+            }
+        }
+        long removed = values[slot];
+        size--;
+
+        // Pull back every following entry whose home slot is not between the hole and itself
+        int hole = slot;
+        for (int current = next(hole); keys[current] != MISSING; current = next(current)) {
+            int home = slot(keys[current]);
+            if (((current - home) & (keys.length - 1)) >= ((current - hole) & (keys.length - 1))) {
+                keys[hole] = keys[current];
+                values[hole] = values[current];
+                hole = current;
+            }
+        }
+        keys[hole] = MISSING;
+        return removed;
+    }
+
+    void clear() {
+        allocate(MIN_CAPACITY);
+        size = 0;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != MISSING) {
+                int target = slot(oldKeys[slot]);
+                while (keys[target] != MISSING) {
+                    target = next(target);
+                }
+                keys[target] = oldKeys[slot];
+                values[target] = oldValues[slot];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(keys, MISSING);
+    }
+
+    private int slot(long key) {
+        return (int) (mix(key) & (keys.length - 1));
+    }
+
+    private int next(int slot) {
+        return (slot + 1) & (keys.length - 1);
+    }
+
+    // Finalizer of SplitMix64; spreads sequential keys such as ids over the whole table
+    static long mix(long key) {
+        key = (key ^ (key >>> 30)) * 0xBF58476D1CE4E5B9L;
+        key = (key ^ (key >>> 27)) * 0x94D049BB133111EBL;
+        return key ^ (key >>> 31);
+    }
+}
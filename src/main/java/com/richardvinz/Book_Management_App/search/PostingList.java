@@ -0,0 +1,108 @@
+package com.richardvinz.Book_Management_App.search;
+
+import java.util.Arrays;
+
+/**
+ * Growable, sorted and duplicate-free array of book ids. Ids are assigned in increasing
+ * order, so adds are almost always appends.
+ */
+final class PostingList {
+
+    private static final long[] EMPTY = new long[0];
+
+    private long[] ids;
+    private int size;
+
+    PostingList() {
+        this.ids = EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    void add(long id) {
+        if (size > 0 && ids[size - 1] < id) {
+            ensureCapacity(size + 1);
+            ids[size++] = id;
+            return;
+        }
+
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            return;
+        }
+        int insertAt = -position - 1;
+        ensureCapacity(size + 1);
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+    }
+
+    void remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+    }
+
+    void clear() {
+        ids = EMPTY;
+        size = 0;
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(required, Math.max(4, ids.length + (ids.length >> 1))));
+        }
+    }
+
+    // Merges two sorted id arrays, keeping ids present in both
+    static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] == right[j]) {
+                result[count++] = left[i];
+                i++;
+                j++;
+            } else if (left[i] < right[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    // Sorts in place and drops duplicates
+    static long[] sortedDistinct(long[] ids) {
+        if (ids.length == 0) {
+            return ids;
+        }
+        Arrays.sort(ids);
+        int count = 1;
+        for (int i = 1; i < ids.length; i++) {
+            if (ids[i] != ids[count - 1]) {
+                ids[count++] = ids[i];
+            }
+        }
+        return count == ids.length ? ids : Arrays.copyOf(ids, count);
+    }
+}
@@ -0,0 +1,412 @@
+package com.richardvinz.Book_Management_App.search;
+
+import com.richardvinz.Book_Management_App.entity.Book;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Book ids ordered by price, kept as two parallel primitive arrays: 16 bytes per book, plus
+ * 16 for each write buffered since the last read.
+ * Price ranges resolve to a slice found by binary search, so counting, paging and
+ * "cheapest / most expensive first" never visit books outside the answer.
+ * <p>
+ * Writes are appended to a small unsorted buffer that is sorted and merged into the main
+ * arrays on the next read; the startup rebuild therefore costs one sort instead of one
+ * array shift per book. The entry a write replaces is found by binary search on (price, id),
+ * taking the old price from {@link AttributeIndex}, which already stores every price by id;
+ * this index is therefore applied before it, and an unchanged price costs nothing.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class PriceIndex implements CatalogIndex {
+
+    private static final double[] NO_PRICES = new double[0];
+    private static final long[] NO_IDS = new long[0];
+
+    // Beyond this many pending entries, finding one merges the buffer rather than scanning it
+    private static final int PENDING_SCAN_LIMIT = 64;
+
+    // Sorted by (price, id); grown to the exact size needed, never with slack
+    private double[] prices = NO_PRICES;
+    private long[] ids = NO_IDS;
+    private int size;
+
+    private double[] pendingPrices = NO_PRICES;
+    private long[] pendingIds = NO_IDS;
+    private int pendingSize;
+
+    // Stores the price each book is indexed at here, since it is written after this index
+    private AttributeIndex attributes;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Autowired
+    public PriceIndex(AttributeIndex attributes) {
+        this.attributes = attributes;
+    }
+
+    @Override
+    public void index(Book book) {
+        long bookId = book.getId();
+        // NaN for no price, as the attribute index stores it; adding 0.0 turns -0.0 into 0.0
+        double price = book.getPrice() == null ? Double.NaN : book.getPrice() + 0.0;
+        double previous = attributes.value(bookId, AttributeIndex.Attribute.PRICE) + 0.0;
+
+        lock.writeLock().lock();
+        try {
+            if (Double.compare(previous, price) == 0) {
+                return;
+            }
+            if (!Double.isNaN(previous)) {
+                if (Double.isNaN(price)) {
+                    removeBook(bookId, previous);
+                } else {
+                    reprice(bookId, previous, price);
+                }
+                return;
+            }
+            if (pendingSize == pendingIds.length) {
+                int capacity = Math.max(16, pendingSize + (pendingSize >> 1));
+                pendingPrices = Arrays.copyOf(pendingPrices, capacity);
+                pendingIds = Arrays.copyOf(pendingIds, capacity);
+            }
+            pendingPrices[pendingSize] = price;
+            pendingIds[pendingSize++] = bookId;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        double previous = attributes.value(bookId, AttributeIndex.Attribute.PRICE) + 0.0;
+        if (Double.isNaN(previous)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeBook(bookId, previous);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            prices = NO_PRICES;
+            ids = NO_IDS;
+            size = 0;
+            pendingPrices = NO_PRICES;
+            pendingIds = NO_IDS;
+            pendingSize = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public CatalogIndex emptyCopy() {
+        return new PriceIndex(attributes);
+    }
+
+    @Override
+    public void linkCopies(Function<CatalogIndex, CatalogIndex> copyOf) {
+        attributes = (AttributeIndex) copyOf.apply(attributes);
+    }
+
+    @Override
+    public void replaceWith(CatalogIndex loaded) {
+        PriceIndex source = (PriceIndex) loaded;
+        lock.writeLock().lock();
+        try {
+            prices = source.prices;
+            ids = source.ids;
+            size = source.size;
+            pendingPrices = source.pendingPrices;
+            pendingIds = source.pendingIds;
+            pendingSize = source.pendingSize;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Number of books priced in [min, max]
+    public int count(double min, double max) {
+        lockForRead();
+        try {
+            return Math.max(0, upperBound(max) - lowerBound(min));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ids of books priced in [min, max], in ascending id order
+    public long[] search(double min, double max) {
+        lockForRead();
+        try {
+            int from = lowerBound(min);
+            int to = upperBound(max);
+            if (from >= to) {
+                return NO_IDS;
+            }
+            long[] matches = Arrays.copyOfRange(ids, from, to);
+            Arrays.sort(matches);
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ids of books priced in [min, max] ordered by price (ties by id), skipping `offset` and keeping at most `limit`
+    public long[] range(double min, double max, int offset, int limit, boolean descending) {
+        lockForRead();
+        try {
+            int from = lowerBound(min);
+            int to = upperBound(max);
+            int matches = Math.max(0, to - from);
+            int skip = Math.min(Math.max(offset, 0), matches);
+            int count = Math.min(Math.max(limit, 0), matches - skip);
+
+            long[] page = new long[count];
+            if (descending) {
+                for (int i = 0; i < count; i++) {
+                    page[i] = ids[to - 1 - skip - i];
+                }
+            } else {
+                System.arraycopy(ids, from + skip, page, 0, count);
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The first `limit` of the given ascending ids in price order; walks the index instead of sorting the ids
+    public long[] first(long[] sortedIds, int limit, boolean descending) {
+        lockForRead();
+        try {
+            long[] ordered = new long[Math.min(Math.max(limit, 0), sortedIds.length)];
+            int count = 0;
+            for (int step = 0; step < size && count < ordered.length; step++) {
+                long id = ids[descending ? size - 1 - step : step];
+                if (Arrays.binarySearch(sortedIds, id) >= 0) {
+                    ordered[count++] = id;
+                }
+            }
+            return count == ordered.length ? ordered : Arrays.copyOf(ordered, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lockForRead();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Takes the read lock, first merging pending writes if there are any
+    private void lockForRead() {
+        lock.readLock().lock();
+        if (pendingSize == 0) {
+            return;
+        }
+        lock.readLock().unlock();
+        lock.writeLock().lock();
+        try {
+            mergePending();
+            lock.readLock().lock();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void mergePending() {
+        if (pendingSize == 0) {
+            return;
+        }
+        sort(pendingPrices, pendingIds, pendingSize);
+
+        // Merge from the back so room left by removals is reused; otherwise grow to the exact size
+        int mergedSize = size + pendingSize;
+        if (mergedSize > ids.length) {
+            prices = Arrays.copyOf(prices, mergedSize);
+            ids = Arrays.copyOf(ids, mergedSize);
+        }
+        int i = size - 1;
+        int j = pendingSize - 1;
+        for (int k = mergedSize - 1; j >= 0; k--) {
+            if (i >= 0 && compare(prices[i], ids[i], pendingPrices[j], pendingIds[j]) > 0) {
+                prices[k] = prices[i];
+                ids[k] = ids[i--];
+            } else {
+                prices[k] = pendingPrices[j];
+                ids[k] = pendingIds[j--];
+            }
+        }
+        size = mergedSize;
+        pendingPrices = NO_PRICES;
+        pendingIds = NO_IDS;
+        pendingSize = 0;
+    }
+
+    // Updates an indexed book in place, shifting only the entries between its old and new position
+    private void reprice(long bookId, double oldPrice, double price) {
+        int position = find(bookId, oldPrice);
+        if (position < 0) {
+            pendingPrices[-position - 1] = price;
+            return;
+        }
+        int target = 0;
+        int high = size;
+        while (target < high) {
+            int middle = (target + high) >>> 1;
+            if (compare(prices[middle], ids[middle], price, bookId) <= 0) {
+                target = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        if (target > position) {
+            target--;
+            System.arraycopy(prices, position + 1, prices, position, target - position);
+            System.arraycopy(ids, position + 1, ids, position, target - position);
+        } else {
+            System.arraycopy(prices, target, prices, target + 1, position - target);
+            System.arraycopy(ids, target, ids, target + 1, position - target);
+        }
+        prices[target] = price;
+        ids[target] = bookId;
+    }
+
+    private void removeBook(long bookId, double price) {
+        int position = find(bookId, price);
+        if (position < 0) {
+            int pending = -position - 1;
+            pendingSize--;
+            pendingPrices[pending] = pendingPrices[pendingSize];
+            pendingIds[pending] = pendingIds[pendingSize];
+            return;
+        }
+        System.arraycopy(prices, position + 1, prices, position, size - position - 1);
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+    }
+
+    /**
+     * Position of an indexed entry in the sorted arrays, or {@code -(pending position) - 1}
+     * while it is still pending. A large buffer, as a rebuild leaves behind, is merged first
+     * so that finding an entry never scans more than {@link #PENDING_SCAN_LIMIT} of them.
+     */
+    private int find(long bookId, double price) {
+        int position = binarySearch(bookId, price);
+        if (position >= 0) {
+            return position;
+        }
+        if (pendingSize > PENDING_SCAN_LIMIT) {
+            mergePending();
+            position = binarySearch(bookId, price);
+            if (position >= 0) {
+                return position;
+            }
+        }
+        for (int i = 0; i < pendingSize; i++) {
+            if (pendingIds[i] == bookId) {
+                return -i - 1;
+            }
+        }
+        throw new IllegalStateException("Book " + bookId + " has a price in the attribute index but not here");
+    }
+
+    private int binarySearch(long bookId, double price) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compare(prices[middle], ids[middle], price, bookId);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    // First position priced at or above min
+    private int lowerBound(double min) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (prices[middle] < min) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // First position priced above max
+    private int upperBound(double max) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (prices[middle] <= max) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int compare(double leftPrice, long leftId, double rightPrice, long rightId) {
+        int byPrice = Double.compare(leftPrice, rightPrice);
+        return byPrice != 0 ? byPrice : Long.compare(leftId, rightId);
+    }
+
+    // Merge sort of the first `length` entries of the parallel arrays by (price, id)
+    private static void sort(double[] prices, long[] ids, int length) {
+        mergeSort(Arrays.copyOf(prices, length), Arrays.copyOf(ids, length), prices, ids, 0, length);
+    }
+
+    // Sorts [from, to) of the source into the target; both hold the same entries on entry
+    private static void mergeSort(double[] sourcePrices, long[] sourceIds, double[] targetPrices, long[] targetIds,
+                                  int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(targetPrices, targetIds, sourcePrices, sourceIds, from, middle);
+        mergeSort(targetPrices, targetIds, sourcePrices, sourceIds, middle, to);
+
+        int i = from;
+        int j = middle;
+        for (int k = from; k < to; k++) {
+            if (j >= to || (i < middle && compare(sourcePrices[i], sourceIds[i], sourcePrices[j], sourceIds[j]) <= 0)) {
+                targetPrices[k] = sourcePrices[i];
+                targetIds[k] = sourceIds[i++];
+            } else {
+                targetPrices[k] = sourcePrices[j];
+                targetIds[k] = sourceIds[j++];
+            }
+        }
+    }
+}
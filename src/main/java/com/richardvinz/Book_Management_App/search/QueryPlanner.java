@@ -0,0 +1,257 @@
+package com.richardvinz.Book_Management_App.search;
+
+import com.richardvinz.Book_Management_App.dto.BookQueryDto;
+import com.richardvinz.Book_Management_App.exception.ValidationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Answers composite filters from the in-memory indexes. Every criterion backed by an index
+ * reports an estimated match count, and the most selective one produces the candidates.
+ * The remaining criteria are applied cheapest first: by intersecting with their own index
+ * when it is small relative to the candidates, otherwise by checking each candidate.
+ * The steps taken are recorded as a plan string.
+ */
+@Component
+public class QueryPlanner {
+
+    // Another index is intersected only while it is at most this many times larger than the candidates
+    private static final int INTERSECT_RATIO = 4;
+
+    public enum SortField {
+        ID("id"),
+        TITLE("title"),
+        AUTHOR("author"),
+        PUBLISHED_YEAR("publishedYear"),
+        PRICE("price"),
+        STOCK_QUANTITY("stockQuantity");
+
+        private final String property;
+
+        SortField(String property) {
+            this.property = property;
+        }
+
+        public static SortField fromProperty(String property) {
+            for (SortField field : values()) {
+                if (field.property.equals(property)) {
+                    return field;
+                }
+            }
+            throw new ValidationException("Cannot sort query results by " + property + "; supported fields are "
+                    + Arrays.stream(values()).map(field -> field.property).toList());
+        }
+    }
+
+    private final KeywordIndex keywordIndex;
+    private final SubstringIndex substringIndex;
+    private final AttributeIndex attributeIndex;
+    private final PriceIndex priceIndex;
+    private final StockIndex stockIndex;
+
+    @Autowired
+    public QueryPlanner(KeywordIndex keywordIndex, SubstringIndex substringIndex, AttributeIndex attributeIndex,
+                        PriceIndex priceIndex, StockIndex stockIndex) {
+        this.keywordIndex = keywordIndex;
+        this.substringIndex = substringIndex;
+        this.attributeIndex = attributeIndex;
+        this.priceIndex = priceIndex;
+        this.stockIndex = stockIndex;
+    }
+
+    // Returns the first `limit` matching ids in sort order, the total match count and the plan
+    public QueryResult execute(BookQueryDto query, Sort sort, int limit) {
+        Sort.Order order = sort.isSorted() ? sort.iterator().next() : Sort.Order.asc("id");
+        SortField sortField = SortField.fromProperty(order.getProperty());
+
+        List<Criterion> criteria = criteria(query);
+        criteria.sort(Comparator.comparingLong(criterion -> criterion.estimate));
+
+        List<String> steps = new ArrayList<>();
+        long[] candidates;
+        Criterion driver = criteria.isEmpty() || criteria.get(0).access == null ? null : criteria.remove(0);
+        if (driver == null) {
+            candidates = attributeIndex.all();
+            steps.add("scan(all) rows=" + candidates.length);
+        } else {
+            candidates = driver.access.get();
+            steps.add("index(" + driver.name + ") est=" + driver.estimate + " rows=" + candidates.length);
+        }
+
+        for (Criterion criterion : criteria) {
+            if (candidates.length == 0) {
+                steps.add("skip(" + criterion.name + ")");
+            } else if (criterion.access != null && criterion.estimate <= (long) candidates.length * INTERSECT_RATIO) {
+                candidates = PostingList.intersect(candidates, criterion.access.get());
+                steps.add("intersect(" + criterion.name + ") est=" + criterion.estimate + " rows=" + candidates.length);
+            } else {
+                candidates = criterion.check.apply(candidates);
+                steps.add("filter(" + criterion.name + ") rows=" + candidates.length);
+            }
+        }
+
+        String direction = order.getDirection().name().toLowerCase();
+        long[] ordered;
+        if (sortField == SortField.PRICE && (long) candidates.length * INTERSECT_RATIO >= priceIndex.size()) {
+            // Dense candidates are met early when walking the price order, so no sort is needed
+            ordered = priceIndex.first(candidates, limit, order.isDescending());
+            steps.add("ordered(price " + direction + ") top=" + ordered.length);
+        } else {
+            ordered = top(candidates, sortField, order.isDescending(), limit);
+            steps.add("sort(" + sortField.property + " " + direction + ") top=" + ordered.length);
+        }
+        return new QueryResult(ordered, candidates.length, String.join(" -> ", steps));
+    }
+
+    private List<Criterion> criteria(BookQueryDto query) {
+        List<Criterion> criteria = new ArrayList<>();
+        String author = query.getAuthor();
+        if (hasText(author)) {
+            criteria.add(new Criterion("author", substringIndex.estimateAuthor(author),
+                    () -> substringIndex.searchAuthor(author), ids -> substringIndex.filterAuthor(ids, author)));
+        }
+        String title = query.getTitle();
+        if (hasText(title)) {
+            criteria.add(new Criterion("title", substringIndex.estimateTitle(title),
+                    () -> substringIndex.searchTitle(title), ids -> substringIndex.filterTitle(ids, title)));
+        }
+        String keyword = query.getKeyword();
+        if (hasText(keyword)) {
+            criteria.add(new Criterion("keyword", keywordIndex.estimate(keyword),
+                    () -> keywordIndex.search(keyword), ids -> keywordIndex.filter(ids, keyword)));
+        }
+        if (query.getMinYear() != null || query.getMaxYear() != null) {
+            Integer from = query.getMinYear();
+            Integer to = query.getMaxYear();
+            criteria.add(new Criterion("publishedYear", attributeIndex.countYears(from, to),
+                    () -> attributeIndex.searchYears(from, to),
+                    ids -> attributeIndex.filter(ids, AttributeIndex.Attribute.PUBLISHED_YEAR,
+                            from == null ? Double.NEGATIVE_INFINITY : from, to == null ? Double.POSITIVE_INFINITY : to)));
+        }
+        if (query.getMinPrice() != null || query.getMaxPrice() != null) {
+            double min = query.getMinPrice() == null ? Double.NEGATIVE_INFINITY : query.getMinPrice();
+            double max = query.getMaxPrice() == null ? Double.POSITIVE_INFINITY : query.getMaxPrice();
+            criteria.add(new Criterion("price", priceIndex.count(min, max), () -> priceIndex.search(min, max),
+                    ids -> attributeIndex.filter(ids, AttributeIndex.Attribute.PRICE, min, max)));
+        }
+        if (query.getStockBelow() != null) {
+            int threshold = query.getStockBelow();
+            criteria.add(new Criterion("stockBelow", stockIndex.countBelow(threshold),
+                    () -> PostingList.sortedDistinct(stockIndex.below(threshold)),
+                    ids -> attributeIndex.filter(ids, AttributeIndex.Attribute.STOCK_QUANTITY,
+                            Double.NEGATIVE_INFINITY, threshold - 1)));
+        }
+        return criteria;
+    }
+
+    // Bounded selection of the first `limit` ids in sort order; missing values sort last, ties by id
+    private long[] top(long[] ids, SortField sortField, boolean descending, int limit) {
+        int size = Math.min(Math.max(limit, 0), ids.length);
+        if (sortField == SortField.ID) {
+            long[] ordered = new long[size];
+            for (int i = 0; i < size; i++) {
+                ordered[i] = descending ? ids[ids.length - 1 - i] : ids[i];
+            }
+            return ordered;
+        }
+
+        Comparator<Integer> comparator = comparator(ids, sortField, descending)
+                .thenComparingLong(position -> ids[position]);
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.max(size, 1), comparator.reversed());
+        for (int position = 0; position < ids.length && size > 0; position++) {
+            if (heap.size() < size) {
+                heap.add(position);
+            } else if (comparator.compare(position, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(position);
+            }
+        }
+
+        long[] ordered = new long[heap.size()];
+        for (int i = ordered.length - 1; i >= 0; i--) {
+            ordered[i] = ids[heap.poll()];
+        }
+        return ordered;
+    }
+
+    private Comparator<Integer> comparator(long[] ids, SortField sortField, boolean descending) {
+        switch (sortField) {
+            case TITLE, AUTHOR -> {
+                String[] keys = sortField == SortField.TITLE ? substringIndex.titles(ids) : substringIndex.authors(ids);
+                Comparator<String> natural = descending ? Comparator.reverseOrder() : Comparator.naturalOrder();
+                return Comparator.comparing(position -> keys[position], Comparator.nullsLast(natural));
+            }
+            default -> {
+                AttributeIndex.Attribute attribute = switch (sortField) {
+                    case PUBLISHED_YEAR -> AttributeIndex.Attribute.PUBLISHED_YEAR;
+                    case PRICE -> AttributeIndex.Attribute.PRICE;
+                    default -> AttributeIndex.Attribute.STOCK_QUANTITY;
+                };
+                double[] keys = attributeIndex.values(ids, attribute);
+                return (left, right) -> {
+                    boolean leftMissing = Double.isNaN(keys[left]);
+                    boolean rightMissing = Double.isNaN(keys[right]);
+                    if (leftMissing || rightMissing) {
+                        return Boolean.compare(leftMissing, rightMissing);
+                    }
+                    return descending ? Double.compare(keys[right], keys[left]) : Double.compare(keys[left], keys[right]);
+                };
+            }
+        }
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static final class Criterion {
+        private final String name;
+        private final long estimate;
+        private final Supplier<long[]> access;
+        private final UnaryOperator<long[]> check;
+
+        private Criterion(String name, long estimate, Supplier<long[]> access, UnaryOperator<long[]> check) {
+            this.name = name;
+            this.estimate = estimate;
+            this.access = access;
+            this.check = check;
+        }
+    }
+
+    /**
+     * The first ids of a query in sort order, with the total number of matches and a
+     * description of the steps taken.
+     */
+    public static final class QueryResult {
+        private final long[] bookIds;
+        private final int total;
+        private final String plan;
+
+        public QueryResult(long[] bookIds, int total, String plan) {
+            this.bookIds = bookIds;
+            this.total = total;
+            this.plan = plan;
+        }
+
+        public long[] getBookIds() {
+            return bookIds;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public String getPlan() {
+            return plan;
+        }
+    }
+}
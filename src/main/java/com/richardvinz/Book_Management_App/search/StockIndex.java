@@ -0,0 +1,133 @@
+package com.richardvinz.Book_Management_App.search;
+
+import com.richardvinz.Book_Management_App.entity.Book;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Book ids grouped by stock quantity in ascending order. Books below a threshold are the
+ * head of the map, so listing them costs the number of matches plus the number of
+ * distinct stock levels passed, never a scan of the catalog.
+ */
+@Component
+public class StockIndex implements CatalogIndex {
+
+    private NavigableMap<Integer, PostingList> idsByStock = new TreeMap<>();
+    private Map<Long, Integer> stockById = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void index(Book book) {
+        lock.writeLock().lock();
+        try {
+            removeBook(book.getId());
+            if (book.getStockQuantity() != null) {
+                idsByStock.computeIfAbsent(book.getStockQuantity(), stock -> new PostingList()).add(book.getId());
+                stockById.put(book.getId(), book.getStockQuantity());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            removeBook(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            idsByStock.clear();
+            stockById.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public CatalogIndex emptyCopy() {
+        return new StockIndex();
+    }
+
+    @Override
+    public void replaceWith(CatalogIndex loaded) {
+        StockIndex source = (StockIndex) loaded;
+        lock.writeLock().lock();
+        try {
+            idsByStock = source.idsByStock;
+            stockById = source.stockById;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The indexed stock of a book, null when it is not indexed or has none
+    public Integer stock(long bookId) {
+        lock.readLock().lock();
+        try {
+            return stockById.get(bookId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ids of books with stock below the threshold, lowest stock first and by id within a level
+    public long[] below(int threshold) {
+        lock.readLock().lock();
+        try {
+            Map<Integer, PostingList> levels = idsByStock.headMap(threshold, false);
+            long[] ids = new long[count(levels)];
+            int offset = 0;
+            for (PostingList postingList : levels.values()) {
+                long[] levelIds = postingList.toArray();
+                System.arraycopy(levelIds, 0, ids, offset, levelIds.length);
+                offset += levelIds.length;
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int countBelow(int threshold) {
+        lock.readLock().lock();
+        try {
+            return count(idsByStock.headMap(threshold, false));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int count(Map<Integer, PostingList> levels) {
+        int count = 0;
+        for (PostingList postingList : levels.values()) {
+            count += postingList.size();
+        }
+        return count;
+    }
+
+    private void removeBook(Long bookId) {
+        Integer stock = stockById.remove(bookId);
+        if (stock == null) {
+            return;
+        }
+        PostingList postingList = idsByStock.get(stock);
+        postingList.remove(bookId);
+        if (postingList.isEmpty()) {
+            idsByStock.remove(stock);
+        }
+    }
+}
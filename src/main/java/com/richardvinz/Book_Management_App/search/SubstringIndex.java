@@ -0,0 +1,79 @@
+package com.richardvinz.Book_Management_App.search;
+
+import com.richardvinz.Book_Management_App.entity.Book;
+import org.springframework.stereotype.Component;
+
+/**
+ * Case-insensitive "contains" lookups on author and title, backed by one
+ * {@link TrigramIndex} per field.
+ */
+@Component
+public class SubstringIndex implements CatalogIndex {
+
+    private final TrigramIndex authors = new TrigramIndex();
+    private final TrigramIndex titles = new TrigramIndex();
+
+    @Override
+    public void index(Book book) {
+        authors.index(book.getId(), book.getAuthor());
+        titles.index(book.getId(), book.getTitle());
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        authors.remove(bookId);
+        titles.remove(bookId);
+    }
+
+    @Override
+    public void clear() {
+        authors.clear();
+        titles.clear();
+    }
+
+    @Override
+    public CatalogIndex emptyCopy() {
+        return new SubstringIndex();
+    }
+
+    // Each field's index swaps in one step; a search may briefly pair the new authors with the old titles
+    @Override
+    public void replaceWith(CatalogIndex loaded) {
+        SubstringIndex source = (SubstringIndex) loaded;
+        authors.replaceWith(source.authors);
+        titles.replaceWith(source.titles);
+    }
+
+    public long[] searchAuthor(String author) {
+        return authors.search(author);
+    }
+
+    public long[] searchTitle(String title) {
+        return titles.search(title);
+    }
+
+    public int estimateAuthor(String author) {
+        return authors.estimate(author);
+    }
+
+    public int estimateTitle(String title) {
+        return titles.estimate(title);
+    }
+
+    public long[] filterAuthor(long[] ids, String author) {
+        return authors.filter(ids, author);
+    }
+
+    public long[] filterTitle(long[] ids, String title) {
+        return titles.filter(ids, title);
+    }
+
+    // Lowercased, accent-free values for sorting
+    public String[] authors(long[] ids) {
+        return authors.values(ids);
+    }
+
+    public String[] titles(long[] ids) {
+        return titles.values(ids);
+    }
+}
@@ -0,0 +1,338 @@
+package com.richardvinz.Book_Management_App.search;
+
+import com.richardvinz.Book_Management_App.dto.SuggestionDto;
+import com.richardvinz.Book_Management_App.entity.Book;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead over titles and authors. Every phrase is inserted into a character trie once
+ * per word it contains, so "gats" completes "The Great Gatsby". Each trie node caches its
+ * best {@link #MAX_SUGGESTIONS} phrases by total stock, which makes a lookup cost
+ * proportional to the prefix length. Writes recompute the caches bottom-up along the
+ * affected paths only.
+ */
+@Component
+public class SuggestionIndex implements CatalogIndex {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final Phrase[] NO_PHRASES = new Phrase[0];
+
+    private Node root = new Node();
+    private Map<String, Phrase> phrases = new HashMap<>();
+    private Map<Long, Phrase[]> phrasesByBook = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void index(Book book) {
+        lock.writeLock().lock();
+        try {
+            Set<Phrase> touched = Collections.newSetFromMap(new IdentityHashMap<>());
+            detach(book.getId(), touched);
+
+            int stock = book.getStockQuantity() == null ? 0 : book.getStockQuantity();
+            Phrase title = attach(SuggestionDto.Type.TITLE, book.getTitle(), book.getId(), stock, touched);
+            Phrase author = attach(SuggestionDto.Type.AUTHOR, book.getAuthor(), book.getId(), stock, touched);
+            phrasesByBook.put(book.getId(), new Phrase[]{title, author});
+
+            touched.forEach(this::refresh);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            Set<Phrase> touched = Collections.newSetFromMap(new IdentityHashMap<>());
+            detach(bookId, touched);
+            touched.forEach(this::refresh);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            root = new Node();
+            phrases.clear();
+            phrasesByBook.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public CatalogIndex emptyCopy() {
+        return new SuggestionIndex();
+    }
+
+    @Override
+    public void replaceWith(CatalogIndex loaded) {
+        SuggestionIndex source = (SuggestionIndex) loaded;
+        lock.writeLock().lock();
+        try {
+            root = source.root;
+            phrases = source.phrases;
+            phrasesByBook = source.phrasesByBook;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        String key = String.join(" ", TextAnalyzer.tokenize(prefix));
+        // Keep a trailing space so "harper " only completes phrases with a following word
+        if (!key.isEmpty() && TextAnalyzer.normalize(prefix).endsWith(" ")) {
+            key += " ";
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+            if (node == null) {
+                return Collections.emptyList();
+            }
+
+            Phrase[] top = node.top;
+            List<SuggestionDto> suggestions = new ArrayList<>(Math.min(limit, top.length));
+            for (int i = 0; i < top.length && i < limit; i++) {
+                Phrase phrase = top[i];
+                suggestions.add(new SuggestionDto(phrase.text, phrase.type, phrase.books.size(), phrase.stock));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Phrase attach(SuggestionDto.Type type, String text, Long bookId, int stock, Set<Phrase> touched) {
+        List<String> tokens = TextAnalyzer.tokenize(text);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+
+        String normalized = String.join(" ", tokens);
+        Phrase phrase = phrases.computeIfAbsent(type + ":" + normalized, key -> new Phrase(type, text.trim(), tokens));
+        phrase.books.put(bookId, stock);
+        phrase.stock += stock;
+        if (phrase.books.size() == 1) {
+            for (String key : phrase.keys) {
+                insertPath(key).terminals.add(phrase);
+            }
+        }
+        touched.add(phrase);
+        return phrase;
+    }
+
+    private void detach(Long bookId, Set<Phrase> touched) {
+        Phrase[] previous = phrasesByBook.remove(bookId);
+        if (previous == null) {
+            return;
+        }
+        for (Phrase phrase : previous) {
+            if (phrase == null) {
+                continue;
+            }
+            Integer stock = phrase.books.remove(bookId);
+            phrase.stock -= stock == null ? 0 : stock;
+            if (phrase.books.isEmpty()) {
+                phrases.remove(phrase.type + ":" + phrase.normalized);
+                for (String key : phrase.keys) {
+                    Node node = find(key);
+                    if (node != null) {
+                        node.terminals.remove(phrase);
+                    }
+                }
+            }
+            touched.add(phrase);
+        }
+    }
+
+    // Recomputes cached rankings from the deepest node of every path up to the root
+    private void refresh(Phrase phrase) {
+        for (String key : phrase.keys) {
+            List<Node> path = new ArrayList<>(key.length() + 1);
+            Node node = root;
+            path.add(node);
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+                if (node != null) {
+                    path.add(node);
+                }
+            }
+            for (int i = path.size() - 1; i >= 0; i--) {
+                Node current = path.get(i);
+                Phrase[] previous = current.top;
+                current.top = rank(current);
+                if (i > 0 && current.isEmpty()) {
+                    path.get(i - 1).removeChild(key.charAt(i - 1));
+                } else if (Arrays.equals(previous, current.top) && !contains(current.top, phrase)) {
+                    // Nothing this node passes upwards changed, so the ancestors are still correct
+                    break;
+                }
+            }
+        }
+    }
+
+    // Bounded insertion into a sorted array; children's lists are already sorted, so each
+    // child is abandoned as soon as it cannot beat the current worst entry
+    private Phrase[] rank(Node node) {
+        Phrase[] ranked = new Phrase[MAX_SUGGESTIONS];
+        int size = 0;
+        for (Phrase phrase : node.terminals) {
+            size = offer(ranked, size, phrase);
+        }
+        for (Node child : node.children) {
+            for (Phrase phrase : child.top) {
+                if (size == MAX_SUGGESTIONS && compare(phrase, ranked[size - 1]) >= 0) {
+                    break;
+                }
+                size = offer(ranked, size, phrase);
+            }
+        }
+        return size == 0 ? NO_PHRASES : Arrays.copyOf(ranked, size);
+    }
+
+    private static int offer(Phrase[] ranked, int size, Phrase phrase) {
+        for (int i = 0; i < size; i++) {
+            if (ranked[i] == phrase) {
+                return size;
+            }
+        }
+        if (size == ranked.length && compare(phrase, ranked[size - 1]) >= 0) {
+            return size;
+        }
+
+        int position = size == ranked.length ? size - 1 : size;
+        while (position > 0 && compare(phrase, ranked[position - 1]) < 0) {
+            ranked[position] = ranked[position - 1];
+            position--;
+        }
+        ranked[position] = phrase;
+        return size == ranked.length ? size : size + 1;
+    }
+
+    // Highest stock first, then alphabetical
+    private static int compare(Phrase left, Phrase right) {
+        int byStock = Long.compare(right.stock, left.stock);
+        return byStock != 0 ? byStock : left.text.compareTo(right.text);
+    }
+
+    private static boolean contains(Phrase[] phrases, Phrase phrase) {
+        for (Phrase candidate : phrases) {
+            if (candidate == phrase) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Node insertPath(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.getOrAddChild(key.charAt(i));
+        }
+        return node;
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        return node;
+    }
+
+    private static final class Phrase {
+        private final SuggestionDto.Type type;
+        private final String text;
+        private final String normalized;
+        private final String[] keys;
+        private final Map<Long, Integer> books = new HashMap<>(2);
+        private long stock;
+
+        private Phrase(SuggestionDto.Type type, String text, List<String> tokens) {
+            this.type = type;
+            this.text = text;
+            this.normalized = String.join(" ", tokens);
+
+            // The phrase itself plus its suffix from every later word
+            this.keys = new String[tokens.size()];
+            for (int i = 0; i < tokens.size(); i++) {
+                keys[i] = String.join(" ", tokens.subList(i, tokens.size()));
+            }
+        }
+    }
+
+    // Children are kept in parallel sorted arrays, which is far smaller than a map per node
+    private static final class Node {
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private final List<Phrase> terminals = new ArrayList<>(0);
+        private Phrase[] top = NO_PHRASES;
+
+        private Node child(char key) {
+            int position = Arrays.binarySearch(keys, key);
+            return position >= 0 ? children[position] : null;
+        }
+
+        private Node getOrAddChild(char key) {
+            int position = Arrays.binarySearch(keys, key);
+            if (position >= 0) {
+                return children[position];
+            }
+            int insertAt = -position - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newKeys[insertAt] = key;
+            newChildren[insertAt] = new Node();
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[insertAt];
+        }
+
+        private void removeChild(char key) {
+            int position = Arrays.binarySearch(keys, key);
+            if (position < 0) {
+                return;
+            }
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, position);
+            System.arraycopy(children, 0, newChildren, 0, position);
+            System.arraycopy(keys, position + 1, newKeys, position, keys.length - position - 1);
+            System.arraycopy(children, position + 1, newChildren, position, children.length - position - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        private boolean isEmpty() {
+            return children.length == 0 && terminals.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.richardvinz.Book_Management_App.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Term dictionary over a single text field with a SymSpell-style deletion index. Every term
+ * is registered under each string obtained by deleting up to {@link #MAX_EDITS} characters
+ * from its first {@link #PREFIX_LENGTH} characters. A query token does the same, so any term
+ * within the edit distance shares at least one key with it, and only those terms are
+ * verified with an exact distance computation.
+ */
+final class TermDictionary {
+
+    static final int MAX_EDITS = 2;
+
+    // Bounds the number of deletion keys per term; candidates are still verified in full
+    private static final int PREFIX_LENGTH = 7;
+
+    private static final String[] NO_TERMS = new String[0];
+
+    static final Comparator<Candidate> CLOSEST_FIRST = Comparator.comparingInt((Candidate candidate) -> candidate.distance)
+            .thenComparing(Comparator.comparingInt((Candidate candidate) -> candidate.frequency).reversed())
+            .thenComparing(candidate -> candidate.term);
+
+    private Map<String, PostingList> postings = new HashMap<>();
+    private Map<String, String[]> deletions = new HashMap<>();
+    private Map<Long, String[]> documentTerms = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    void index(Long bookId, String text) {
+        Set<String> terms = new LinkedHashSet<>(TextAnalyzer.tokenize(text));
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(bookId);
+            for (String term : terms) {
+                PostingList postingList = postings.get(term);
+                if (postingList == null) {
+                    postingList = new PostingList();
+                    postings.put(term, postingList);
+                    for (String key : deletions(term, MAX_EDITS)) {
+                        addDeletion(key, term);
+                    }
+                }
+                postingList.add(bookId);
+            }
+            documentTerms.put(bookId, terms.toArray(NO_TERMS));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            deletions.clear();
+            documentTerms.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Takes over everything a loaded index holds, in one step for readers
+    void replaceWith(TermDictionary source) {
+        lock.writeLock().lock();
+        try {
+            postings = source.postings;
+            deletions = source.deletions;
+            documentTerms = source.documentTerms;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Terms within maxEdits of the token, closest and then most frequent first
+    List<Candidate> candidates(String token, int maxEdits) {
+        int edits = Math.min(maxEdits, MAX_EDITS);
+        List<Candidate> candidates = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            Set<String> seen = new HashSet<>();
+            for (String key : deletions(token, edits)) {
+                for (String term : deletions.getOrDefault(key, NO_TERMS)) {
+                    if (!seen.add(term)) {
+                        continue;
+                    }
+                    int distance = distance(token, term, edits);
+                    if (distance <= edits) {
+                        candidates.add(new Candidate(term, distance, postings.get(term).size()));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        candidates.sort(CLOSEST_FIRST);
+        return candidates;
+    }
+
+    // Ids of books containing any of the terms, in ascending order
+    long[] postings(Collection<String> terms) {
+        lock.readLock().lock();
+        try {
+            List<long[]> lists = new ArrayList<>(terms.size());
+            int total = 0;
+            for (String term : terms) {
+                PostingList postingList = postings.get(term);
+                if (postingList != null) {
+                    long[] ids = postingList.toArray();
+                    lists.add(ids);
+                    total += ids.length;
+                }
+            }
+
+            long[] matches = new long[total];
+            int offset = 0;
+            for (long[] ids : lists) {
+                System.arraycopy(ids, 0, matches, offset, ids.length);
+                offset += ids.length;
+            }
+            return lists.size() == 1 ? matches : PostingList.sortedDistinct(matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Every string reachable by deleting up to `edits` characters from the term's prefix
+    static Set<String> deletions(String term, int edits) {
+        String prefix = term.length() > PREFIX_LENGTH ? term.substring(0, PREFIX_LENGTH) : term;
+        Set<String> keys = new HashSet<>();
+        keys.add(prefix);
+        collectDeletions(prefix, edits, keys);
+        return keys;
+    }
+
+    private static void collectDeletions(String value, int edits, Set<String> keys) {
+        if (edits == 0 || value.length() <= 1) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            String deleted = value.substring(0, i) + value.substring(i + 1);
+            // Deletions of one length never collide with another, so a repeat is fully expanded already
+            if (keys.add(deleted)) {
+                collectDeletions(deleted, edits - 1, keys);
+            }
+        }
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent transpositions), or
+     * {@code max + 1} as soon as it is known to exceed {@code max}.
+     */
+    static int distance(String source, String target, int max) {
+        if (Math.abs(source.length() - target.length()) > max) {
+            return max + 1;
+        }
+
+        int[] previousPrevious = new int[target.length() + 1];
+        int[] previous = new int[target.length() + 1];
+        int[] current = new int[target.length() + 1];
+        for (int j = 0; j <= target.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= source.length(); i++) {
+            current[0] = i;
+            int rowMinimum = current[0];
+            for (int j = 1; j <= target.length(); j++) {
+                int cost = source.charAt(i - 1) == target.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && source.charAt(i - 1) == target.charAt(j - 2)
+                        && source.charAt(i - 2) == target.charAt(j - 1)) {
+                    value = Math.min(value, previousPrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMinimum = Math.min(rowMinimum, value);
+            }
+            if (rowMinimum > max) {
+                return max + 1;
+            }
+
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[target.length()], max + 1);
+    }
+
+    private void addDeletion(String key, String term) {
+        String[] terms = deletions.get(key);
+        if (terms == null) {
+            deletions.put(key, new String[]{term});
+        } else {
+            String[] grown = Arrays.copyOf(terms, terms.length + 1);
+            grown[terms.length] = term;
+            deletions.put(key, grown);
+        }
+    }
+
+    private void removeDeletion(String key, String term) {
+        String[] terms = deletions.get(key);
+        if (terms == null) {
+            return;
+        }
+        int position = Arrays.asList(terms).indexOf(term);
+        if (position < 0) {
+            return;
+        }
+        if (terms.length == 1) {
+            deletions.remove(key);
+            return;
+        }
+        String[] shrunk = new String[terms.length - 1];
+        System.arraycopy(terms, 0, shrunk, 0, position);
+        System.arraycopy(terms, position + 1, shrunk, position, terms.length - position - 1);
+        deletions.put(key, shrunk);
+    }
+
+    private void removeDocument(Long bookId) {
+        String[] terms = documentTerms.remove(bookId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            PostingList postingList = postings.get(term);
+            if (postingList == null) {
+                continue;
+            }
+            postingList.remove(bookId);
+            if (postingList.isEmpty()) {
+                postings.remove(term);
+                for (String key : deletions(term, MAX_EDITS)) {
+                    removeDeletion(key, term);
+                }
+            }
+        }
+    }
+
+    static final class Candidate {
+        final String term;
+        final int distance;
+        final int frequency;
+
+        Candidate(String term, int distance, int frequency) {
+            this.term = term;
+            this.distance = distance;
+            this.frequency = frequency;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.richardvinz.Book_Management_App.search;
+
+import java.util.Arrays;
+
+/**
+ * Posting list of a single term that also carries, per book, the term frequency and the
+ * length of every field, packed into one long. That is everything BM25F needs, so scoring
+ * a posting never has to look anything up.
+ */
+final class TermPostings {
+
+    static final int TITLE = 0;
+    static final int AUTHOR = 1;
+    static final int DESCRIPTION = 2;
+    static final int FIELD_COUNT = 3;
+
+    // Frequencies get 10 bits per field, lengths 10, 10 and 14; both saturate rather than overflow
+    private static final int FREQUENCY_BITS = 10;
+    private static final int[] LENGTH_SHIFTS = {30, 40, 50};
+    private static final int[] LENGTH_MAXIMUMS = {(1 << 10) - 1, (1 << 10) - 1, (1 << 14) - 1};
+    private static final int FREQUENCY_MAXIMUM = (1 << FREQUENCY_BITS) - 1;
+
+    private static final long[] EMPTY = new long[0];
+
+    private long[] ids = EMPTY;
+    private long[] stats = EMPTY;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    long id(int position) {
+        return ids[position];
+    }
+
+    long stats(int position) {
+        return stats[position];
+    }
+
+    void add(long id, long packedStats) {
+        int insertAt = size;
+        if (size > 0 && ids[size - 1] >= id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                stats[position] = packedStats;
+                return;
+            }
+            insertAt = -position - 1;
+        }
+
+        if (size == ids.length) {
+            int capacity = Math.max(4, size + (size >> 1));
+            ids = Arrays.copyOf(ids, capacity);
+            stats = Arrays.copyOf(stats, capacity);
+        }
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        System.arraycopy(stats, insertAt, stats, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        stats[insertAt] = packedStats;
+        size++;
+    }
+
+    void remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        System.arraycopy(stats, position + 1, stats, position, size - position - 1);
+        size--;
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    static long pack(int[] frequencies, int[] lengths) {
+        long packed = 0;
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            packed |= (long) Math.min(frequencies[field], FREQUENCY_MAXIMUM) << (field * FREQUENCY_BITS);
+            packed |= (long) Math.min(lengths[field], LENGTH_MAXIMUMS[field]) << LENGTH_SHIFTS[field];
+        }
+        return packed;
+    }
+
+    static int frequency(long packed, int field) {
+        return (int) (packed >>> (field * FREQUENCY_BITS)) & FREQUENCY_MAXIMUM;
+    }
+
+    static int length(long packed, int field) {
+        return (int) (packed >>> LENGTH_SHIFTS[field]) & LENGTH_MAXIMUMS[field];
+    }
+}
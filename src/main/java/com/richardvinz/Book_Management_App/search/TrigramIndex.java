@@ -0,0 +1,214 @@
+package com.richardvinz.Book_Management_App.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Substring index over a single text field. Every normalized value is split into
+ * overlapping three-character grams; a query is answered by intersecting the posting
+ * lists of its own grams and verifying the surviving candidates against the stored value.
+ * Queries shorter than three characters fall back to a scan of the stored values.
+ */
+final class TrigramIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private Map<Long, CompressedPostingList> postings = new HashMap<>();
+    private Map<Long, String> values = new HashMap<>();
+    private PostingList allDocuments = new PostingList();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    void index(Long bookId, String text) {
+        String value = TextAnalyzer.normalize(text);
+        Set<Long> grams = grams(value);
+
+        lock.writeLock().lock();
+        try {
+            String previous = values.put(bookId, value);
+            Set<Long> previousGrams = previous == null ? Set.of() : grams(previous);
+            for (Long gram : previousGrams) {
+                if (!grams.contains(gram)) {
+                    removePosting(gram, bookId);
+                }
+            }
+            for (Long gram : grams) {
+                if (!previousGrams.contains(gram)) {
+                    postings.computeIfAbsent(gram, key -> new CompressedPostingList()).add(bookId);
+                }
+            }
+            allDocuments.add(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            String previous = values.remove(bookId);
+            if (previous == null) {
+                return;
+            }
+            for (Long gram : grams(previous)) {
+                removePosting(gram, bookId);
+            }
+            allDocuments.remove(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            values.clear();
+            allDocuments.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Takes over everything a loaded index holds, in one step for readers
+    void replaceWith(TrigramIndex source) {
+        lock.writeLock().lock();
+        try {
+            postings = source.postings;
+            values = source.values;
+            allDocuments = source.allDocuments;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Returns the ids of books whose value contains the query, ignoring case, in ascending order
+    long[] search(String query) {
+        String needle = TextAnalyzer.normalize(query);
+
+        lock.readLock().lock();
+        try {
+            long[] candidates;
+            if (needle.length() < GRAM_LENGTH) {
+                candidates = allDocuments.toArray();
+            } else {
+                candidates = candidates(needle);
+            }
+            return verify(candidates, needle);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Upper bound on the number of matches: the size of the rarest gram's posting list
+    int estimate(String query) {
+        String needle = TextAnalyzer.normalize(query);
+
+        lock.readLock().lock();
+        try {
+            if (needle.length() < GRAM_LENGTH) {
+                return allDocuments.size();
+            }
+            int estimate = allDocuments.size();
+            for (Long gram : grams(needle)) {
+                CompressedPostingList postingList = postings.get(gram);
+                estimate = Math.min(estimate, postingList == null ? 0 : postingList.size());
+            }
+            return estimate;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Keeps the ids whose value contains the query, preserving their order
+    long[] filter(long[] ids, String query) {
+        String needle = TextAnalyzer.normalize(query);
+
+        lock.readLock().lock();
+        try {
+            return verify(ids, needle);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Normalized values aligned with the ids; null where a book is not indexed
+    String[] values(long[] ids) {
+        lock.readLock().lock();
+        try {
+            String[] result = new String[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                result[i] = values.get(ids[i]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int postingBytes() {
+        lock.readLock().lock();
+        try {
+            return postings.values().stream().mapToInt(CompressedPostingList::sizeInBytes).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] candidates(String needle) {
+        List<CompressedPostingList> lists = new ArrayList<>();
+        for (Long gram : grams(needle)) {
+            CompressedPostingList postingList = postings.get(gram);
+            if (postingList == null) {
+                return new long[0];
+            }
+            lists.add(postingList);
+        }
+
+        // Start from the rarest gram so every later intersection stays small
+        lists.sort(Comparator.comparingInt(CompressedPostingList::size));
+        long[] candidates = lists.get(0).toArray();
+        for (int i = 1; i < lists.size() && candidates.length > 0; i++) {
+            candidates = PostingList.intersect(candidates, lists.get(i).toArray());
+        }
+        return candidates;
+    }
+
+    private long[] verify(long[] candidates, String needle) {
+        long[] matches = new long[candidates.length];
+        int count = 0;
+        for (long candidate : candidates) {
+            String value = values.get(candidate);
+            if (value != null && value.contains(needle)) {
+                matches[count++] = candidate;
+            }
+        }
+        return count == matches.length ? matches : Arrays.copyOf(matches, count);
+    }
+
+    private void removePosting(Long gram, Long bookId) {
+        CompressedPostingList postingList = postings.get(gram);
+        if (postingList != null) {
+            postingList.remove(bookId);
+            if (postingList.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    // Packs each run of three chars into one long key
+    private static Set<Long> grams(String value) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            grams.add(((long) value.charAt(i) << 32) | ((long) value.charAt(i + 1) << 16) | value.charAt(i + 2));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,129 @@
+package com.richardvinz.Book_Management_App.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.richardvinz.Book_Management_App.dto.BookResponseDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of books by id, bounded in size and age. Caffeine evicts with
+ * W-TinyLFU, so a burst of one-off lookups cannot push out the books that are read all the
+ * time. Hits, misses and evictions are published as the {@code cache.*} metrics with
+ * {@code cache=books}.
+ * <p>
+ * Cached DTOs never leave this class: every read returns a copy, so callers may modify
+ * what they get and a cached entry is never changed after it is stored.
+ * <p>
+ * Misses are loaded outside the cache's locks. A writer invalidating a book while holding its
+ * row lock must never wait for a reader whose query waits for that lock, or for a pooled
+ * connection held by other writers of the same book. Instead each load notes the book's
+ * invalidation stamp and is only stored if no invalidation happened while it ran, so a load
+ * that read the row before a write commits cannot leave the old book cached.
+ */
+@Component
+public class BookCache {
+
+    public static final String NAME = "books";
+
+    private static final int STAMP_STRIPES = 256;
+
+    private final Cache<Long, BookResponseDto> books;
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+
+    @Autowired
+    public BookCache(@Value("${book-cache.maximum-size:10000}") long maximumSize,
+                     @Value("${book-cache.time-to-live:10m}") Duration timeToLive,
+                     MeterRegistry meterRegistry) {
+        this.books = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, books, NAME);
+    }
+
+    // The cached book, or the loader's result which is cached for later reads; loader exceptions are not cached
+    public BookResponseDto get(Long id, Function<Long, BookResponseDto> loader) {
+        BookResponseDto cached = books.getIfPresent(id);
+        if (cached != null) {
+            return copy(cached);
+        }
+        long stamp = stamps.get(stripe(id));
+        BookResponseDto loaded = loader.apply(id);
+        // Only the short check-and-store runs under the cache's lock for this id
+        BookResponseDto stored = books.asMap().compute(id, (key, current) ->
+                current != null || stamps.get(stripe(key)) != stamp ? current : loaded);
+        return copy(stored != null ? stored : loaded);
+    }
+
+    // The cached book without loading it on a miss, or null
+    public BookResponseDto getIfPresent(Long id) {
+        return copy(books.getIfPresent(id));
+    }
+
+    /**
+     * Drops the book now and again once the surrounding transaction ends, so a read that
+     * reloaded the old row before the commit cannot leave it cached.
+     */
+    public void invalidate(Long id) {
+        drop(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    drop(id);
+                }
+            });
+        }
+    }
+
+    // Drops many books as invalidate(id) does, with one hook for the transaction end
+    public void invalidate(Collection<Long> ids) {
+        ids.forEach(this::drop);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    ids.forEach(BookCache.this::drop);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        for (int i = 0; i < STAMP_STRIPES; i++) {
+            stamps.incrementAndGet(i);
+        }
+        books.invalidateAll();
+    }
+
+    public long size() {
+        books.cleanUp();
+        return books.estimatedSize();
+    }
+
+    // Bumps the stamp before removing, so a load that stores after the removal sees the bump
+    private void drop(Long id) {
+        stamps.incrementAndGet(stripe(id));
+        books.invalidate(id);
+    }
+
+    private static int stripe(Long id) {
+        return Long.hashCode(id) & (STAMP_STRIPES - 1);
+    }
+
+    private static BookResponseDto copy(BookResponseDto book) {
+        return book == null ? null : book.toBuilder().build();
+    }
+}
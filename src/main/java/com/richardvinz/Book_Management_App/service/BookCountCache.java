@@ -0,0 +1,52 @@
+package com.richardvinz.Book_Management_App.service;
+
+import com.richardvinz.Book_Management_App.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Number of books in the catalog, counted periodically instead of on every page request.
+ * <p>
+ * Creates and deletes made through the service adjust the figure right away, but it is
+ * reported as an estimate until the next count: a write may still roll back, and other
+ * instances or direct database changes are only seen by counting.
+ */
+@Component
+public class BookCountCache {
+
+    private final BookRepository bookRepository;
+
+    private volatile long total = -1;
+    private volatile boolean exact;
+
+    @Autowired
+    public BookCountCache(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    @Scheduled(fixedDelayString = "${book-count.refresh-ms:60000}")
+    public synchronized void refresh() {
+        total = bookRepository.count();
+        exact = true;
+    }
+
+    public synchronized void adjust(long delta) {
+        if (total >= 0) {
+            total = Math.max(0, total + delta);
+            exact = false;
+        }
+    }
+
+    // The cached total, counting once if no count has been taken yet
+    public long getTotal() {
+        if (total < 0) {
+            refresh();
+        }
+        return total;
+    }
+
+    public boolean isExact() {
+        return exact;
+    }
+}
@@ -0,0 +1,113 @@
+package com.richardvinz.Book_Management_App.service;
+
+import com.richardvinz.Book_Management_App.entity.Book;
+import com.richardvinz.Book_Management_App.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Position after the last book of a keyset page: the sort it was taken under, that book's
+ * sort key and its id. Clients see it only as an opaque URL-safe token.
+ * <p>
+ * Only non-null columns can be sorted by a cursor, since NULL ordering differs between
+ * databases and cannot be expressed as a plain comparison.
+ */
+public final class BookCursor {
+
+    private static final Map<String, SortKey> SORT_KEYS = Map.of(
+            "id", new SortKey(Book::getId, Long::valueOf),
+            "title", new SortKey(Book::getTitle, Function.identity()),
+            "author", new SortKey(Book::getAuthor, Function.identity()),
+            "isbn", new SortKey(Book::getIsbn, Function.identity()),
+            "price", new SortKey(Book::getPrice, Double::valueOf),
+            "stockQuantity", new SortKey(Book::getStockQuantity, Integer::valueOf),
+            "createdAt", new SortKey(Book::getCreatedAt, LocalDateTime::parse));
+
+    private static final char SEPARATOR = '\n';
+
+    private final String sortBy;
+    private final boolean descending;
+    private final Comparable<?> key;
+    private final long id;
+
+    private BookCursor(String sortBy, boolean descending, Comparable<?> key, long id) {
+        this.sortBy = sortBy;
+        this.descending = descending;
+        this.key = key;
+        this.id = id;
+    }
+
+    // Cursor positioned after the given book
+    public static BookCursor after(Book book, String sortBy, boolean descending) {
+        return new BookCursor(sortBy, descending, sortKey(sortBy).getter.apply(book), book.getId());
+    }
+
+    public static boolean supports(String sortBy) {
+        return SORT_KEYS.containsKey(sortBy);
+    }
+
+    // Reads a token produced by encode(); it must have been issued for the same sort
+    public static BookCursor decode(String token, String sortBy, boolean descending) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+                    .split(String.valueOf(SEPARATOR), 4);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid cursor", e);
+        }
+        if (parts.length != 4) {
+            throw new ValidationException("Invalid cursor");
+        }
+        if (!parts[0].equals(sortBy) || parts[1].equals("desc") != descending) {
+            throw new ValidationException("Cursor was issued for a different sort order");
+        }
+        try {
+            return new BookCursor(sortBy, descending, sortKey(sortBy).parser.apply(parts[3]), Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new ValidationException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = sortBy + SEPARATOR + (descending ? "desc" : "asc") + SEPARATOR + id + SEPARATOR + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public Comparable<?> getKey() {
+        return key;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    private static SortKey sortKey(String sortBy) {
+        SortKey sortKey = SORT_KEYS.get(sortBy);
+        if (sortKey == null) {
+            throw new ValidationException("Cursor pagination cannot sort by " + sortBy);
+        }
+        return sortKey;
+    }
+
+    private static final class SortKey {
+        private final Function<Book, ? extends Comparable<?>> getter;
+        private final Function<String, ? extends Comparable<?>> parser;
+
+        private SortKey(Function<Book, ? extends Comparable<?>> getter, Function<String, ? extends Comparable<?>> parser) {
+            this.getter = getter;
+            this.parser = parser;
+        }
+    }
+}
@@ -1,32 +1,86 @@
 package com.richardvinz.Book_Management_App.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.richardvinz.Book_Management_App.dto.BatchDeleteRequestDto;
+import com.richardvinz.Book_Management_App.dto.BatchResponseDto;
+import com.richardvinz.Book_Management_App.dto.BatchUpdateRequestDto;
+import com.richardvinz.Book_Management_App.dto.BookQueryDto;
 import com.richardvinz.Book_Management_App.dto.BookRequestDto;
 import com.richardvinz.Book_Management_App.dto.BookResponseDto;
+import com.richardvinz.Book_Management_App.dto.CatalogSummaryDto;
+import com.richardvinz.Book_Management_App.dto.CursorSlice;
+import com.richardvinz.Book_Management_App.dto.FacetedPage;
+import com.richardvinz.Book_Management_App.dto.FuzzySearchResponseDto;
+import com.richardvinz.Book_Management_App.dto.PlannedPage;
+import com.richardvinz.Book_Management_App.dto.SliceWithTotal;
+import com.richardvinz.Book_Management_App.dto.SuggestionDto;
+import com.richardvinz.Book_Management_App.search.FuzzyIndex;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookService {
 
     BookResponseDto createBook(BookRequestDto bookRequestDto);
 
+    // Creates every valid item whose ISBN is free; rejected items are reported without failing the rest
+    BatchResponseDto createBooks(List<BookRequestDto> requests);
+
+    // Sets the changes on every selected book with one UPDATE per chunk of ids; reports the rows changed
+    BatchResponseDto updateBooks(BatchUpdateRequestDto request, int chunkSize);
+
+    // Deletes every selected book with one DELETE per chunk of ids; reports the rows deleted
+    BatchResponseDto deleteBooks(BatchDeleteRequestDto request, int chunkSize);
+
     BookResponseDto getBookById(Long id);
 
+    // The book's current version, read without loading the whole book
+    long getBookVersion(Long id);
+
+    BookResponseDto getBookByIsbn(String isbn);
+
     Page<BookResponseDto> getAllBooks(Pageable pageable);
 
+    SliceWithTotal<BookResponseDto> getAllBooksWithCachedTotal(Pageable pageable);
+
+    CursorSlice<BookResponseDto> getBooksByCursor(String cursor, int size, String sortBy, boolean descending);
+
+    // Passes every book to the consumer in id order without holding the catalog in memory; returns the count
+    long exportBooks(Consumer<BookResponseDto> consumer);
+
     BookResponseDto updateBook(Long id, BookRequestDto bookRequestDto);
 
+    // Updates only while the book is still at expectedVersion; a null version skips the check
+    BookResponseDto updateBook(Long id, BookRequestDto bookRequestDto, Long expectedVersion);
+
+    // Applies a JSON Merge Patch (RFC 7396) to the book, under the same version check as updateBook
+    BookResponseDto patchBook(Long id, JsonNode patch, Long expectedVersion);
+
     void deleteBook(Long id);
 
-    List<BookResponseDto> searchBooksByAuthor(String author);
+    // Adds delta to the stock with one conditional UPDATE, refusing to go below zero; returns the book as stored
+    BookResponseDto adjustStock(Long id, int delta);
+
+    List<BookResponseDto> searchBooksByAuthor(String author, int offset, int limit);
+
+    List<BookResponseDto> searchBooksByTitle(String title, int offset, int limit);
+
+    FuzzySearchResponseDto fuzzySearchBooks(String query, FuzzyIndex.Field field, int maxEdits, int offset, int limit);
+
+    FacetedPage<BookResponseDto> searchBooksByKeyword(String keyword, Pageable pageable, boolean withFacets);
+
+    PlannedPage<BookResponseDto> queryBooks(BookQueryDto query, Pageable pageable);
+
+    List<BookResponseDto> getBooksByYear(Integer year, int offset, int limit);
 
-    List<BookResponseDto> searchBooksByTitle(String title);
+    List<BookResponseDto> getBooksByPriceRange(Double minPrice, Double maxPrice, int offset, int limit, boolean descending);
 
-    Page<BookResponseDto> searchBooksByKeyword(String keyword, Pageable pageable);
+    List<BookResponseDto> getLowStockBooks(Integer threshold, int offset, int limit);
 
-    List<BookResponseDto> getBooksByYear(Integer year);
+    int countLowStockBooks(Integer threshold);
 
-    List<BookResponseDto> getBooksByPriceRange(Double minPrice, Double maxPrice);
+    CatalogSummaryDto getCatalogSummary();
 
-    List<BookResponseDto> getLowStockBooks(Integer threshold);
+    List<SuggestionDto> suggestBooks(String prefix, int limit);
 }
\ No newline at end of file
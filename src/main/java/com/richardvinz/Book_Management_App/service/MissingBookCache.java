@@ -0,0 +1,89 @@
+package com.richardvinz.Book_Management_App.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Remembers ids and ISBNs that were just looked up and not found, so that repeated lookups
+ * of deleted or made-up books are answered without a query. Entries live only for a short
+ * time, which also bounds how long a lookup that raced a create can keep reporting the new
+ * book as missing. Published as the {@code cache.*} metrics with {@code cache=missing-books}.
+ */
+@Component
+public class MissingBookCache {
+
+    public static final String NAME = "missing-books";
+
+    private final Cache<Long, Boolean> ids;
+    private final Cache<String, Boolean> isbns;
+
+    @Autowired
+    public MissingBookCache(@Value("${missing-book-cache.maximum-size:10000}") long maximumSize,
+                            @Value("${missing-book-cache.time-to-live:30s}") Duration timeToLive,
+                            MeterRegistry meterRegistry) {
+        this.ids = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        this.isbns = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, ids, NAME, "key", "id");
+        CaffeineCacheMetrics.monitor(meterRegistry, isbns, NAME, "key", "isbn");
+    }
+
+    public boolean isIdMissing(Long id) {
+        return ids.getIfPresent(id) != null;
+    }
+
+    public void markIdMissing(Long id) {
+        ids.put(id, Boolean.TRUE);
+    }
+
+    public boolean isIsbnMissing(String isbn) {
+        return isbns.getIfPresent(isbn) != null;
+    }
+
+    public void markIsbnMissing(String isbn) {
+        isbns.put(isbn, Boolean.TRUE);
+    }
+
+    /**
+     * Forgets every missing id and ISBN now and again once the surrounding transaction ends,
+     * so a lookup that missed the uncommitted book cannot leave it marked missing.
+     */
+    public void invalidateAll() {
+        clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    clear();
+                }
+            });
+        }
+    }
+
+    public long size() {
+        ids.cleanUp();
+        isbns.cleanUp();
+        return ids.estimatedSize() + isbns.estimatedSize();
+    }
+
+    private void clear() {
+        ids.invalidateAll();
+        isbns.invalidateAll();
+    }
+}
@@ -0,0 +1,162 @@
+package com.richardvinz.Book_Management_App.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cache of finished search results, keyed by endpoint, normalized query and page window.
+ * <p>
+ * Every key also carries the write generation current when the search started. Any write
+ * to the catalog bumps the generation, which makes all earlier entries unreachable in O(1);
+ * they are never looked up again and age out through the size bound and time to live.
+ * <p>
+ * Requests per endpoint are published as {@code search.cache.requests} tagged with
+ * {@code endpoint} and {@code result=hit|miss}, and the running hit ratio as
+ * {@code search.cache.hit.ratio}.
+ */
+@Component
+public class SearchResultCache {
+
+    public static final String NAME = "search-results";
+
+    public enum Endpoint {
+        KEYWORD, AUTHOR, TITLE
+    }
+
+    private final Cache<Key, Object> results;
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<Endpoint, Counter> hits = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, Counter> misses = new EnumMap<>(Endpoint.class);
+
+    @Autowired
+    public SearchResultCache(@Value("${search-cache.maximum-size:1000}") long maximumSize,
+                             @Value("${search-cache.time-to-live:5m}") Duration timeToLive,
+                             MeterRegistry meterRegistry) {
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, NAME);
+        for (Endpoint endpoint : Endpoint.values()) {
+            String tag = endpoint.name().toLowerCase(Locale.ROOT);
+            Counter hit = Counter.builder("search.cache.requests")
+                    .description("Search requests answered from, or missing, the result cache")
+                    .tags("endpoint", tag, "result", "hit")
+                    .register(meterRegistry);
+            Counter miss = Counter.builder("search.cache.requests")
+                    .description("Search requests answered from, or missing, the result cache")
+                    .tags("endpoint", tag, "result", "miss")
+                    .register(meterRegistry);
+            hits.put(endpoint, hit);
+            misses.put(endpoint, miss);
+            Gauge.builder("search.cache.hit.ratio", () -> ratio(hit.count(), miss.count()))
+                    .description("Share of search requests answered from the result cache")
+                    .tags("endpoint", tag)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * The cached result for this search, or the loader's result which is cached for later
+     * searches. Results are stored and returned through {@code copy}, so neither the caller
+     * nor a later reader can change a cached entry.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Endpoint endpoint, String normalizedQuery, long offset, int limit, boolean withFacets,
+                     Supplier<T> loader, UnaryOperator<T> copy) {
+        Key key = new Key(endpoint, normalizedQuery, offset, limit, withFacets, generation.get());
+        Object cached = results.getIfPresent(key);
+        if (cached != null) {
+            hits.get(endpoint).increment();
+            return copy.apply((T) cached);
+        }
+        misses.get(endpoint).increment();
+        T loaded = loader.get();
+        results.put(key, copy.apply(loaded));
+        return loaded;
+    }
+
+    /**
+     * Moves to a new generation now and again once the surrounding transaction ends, so a
+     * search that read the catalog before the commit cannot leave its result reachable.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    generation.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    public long size() {
+        results.cleanUp();
+        return results.estimatedSize();
+    }
+
+    private static double ratio(double hits, double misses) {
+        double total = hits + misses;
+        return total == 0 ? 0 : hits / total;
+    }
+
+    private static final class Key {
+        private final Endpoint endpoint;
+        private final String query;
+        private final long offset;
+        private final int limit;
+        private final boolean withFacets;
+        private final long generation;
+
+        private Key(Endpoint endpoint, String query, long offset, int limit, boolean withFacets, long generation) {
+            this.endpoint = endpoint;
+            this.query = query;
+            this.offset = offset;
+            this.limit = limit;
+            this.withFacets = withFacets;
+            this.generation = generation;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key key)) {
+                return false;
+            }
+            return endpoint == key.endpoint && offset == key.offset && limit == key.limit
+                    && withFacets == key.withFacets && generation == key.generation && query.equals(key.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(endpoint, query, offset, limit, withFacets, generation);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.richardvinz.Book_Management_App.service;
+
+import com.richardvinz.Book_Management_App.dto.StockAlertDto;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes low-stock threshold crossings to server-sent event subscribers. Each subscriber
+ * picks its own threshold and is told when a book falls below it or climbs back to it.
+ * Only committed changes are sent, so a rolled-back update never raises an alert.
+ * <p>
+ * Sending happens on a small pool of its own, never on the thread that committed the change.
+ * Each subscriber has a bounded queue drained in order by one task at a time; a subscriber
+ * whose queue is full has fallen behind and is disconnected, so it can reconnect and re-read
+ * the low-stock list instead of holding alerts for everyone else.
+ */
+@Component
+public class StockAlertPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(StockAlertPublisher.class);
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final long timeoutMillis;
+    private final int queueSize;
+    private final Executor sender;
+    private final ExecutorService ownedSender;
+
+    @Autowired
+    public StockAlertPublisher(@Value("${stock-alerts.timeout-ms:1800000}") long timeoutMillis,
+                               @Value("${stock-alerts.send-threads:2}") int sendThreads,
+                               @Value("${stock-alerts.queue-size:100}") int queueSize) {
+        this(timeoutMillis, queueSize, Executors.newFixedThreadPool(sendThreads, senderThreads()));
+    }
+
+    StockAlertPublisher(long timeoutMillis, int queueSize, Executor sender) {
+        this.timeoutMillis = timeoutMillis;
+        this.queueSize = queueSize;
+        this.sender = sender;
+        this.ownedSender = sender instanceof ExecutorService service ? service : null;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ownedSender != null) {
+            ownedSender.shutdownNow();
+        }
+    }
+
+    public SseEmitter subscribe(int threshold) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscription subscription = new Subscription(emitter, threshold, queueSize);
+        subscriptions.add(subscription);
+        emitter.onCompletion(() -> subscriptions.remove(subscription));
+        emitter.onTimeout(() -> subscriptions.remove(subscription));
+        emitter.onError(error -> subscriptions.remove(subscription));
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void stockChanged(StockChangedEvent event) {
+        for (Subscription subscription : subscriptions) {
+            StockAlertDto.Type type = crossing(event, subscription.threshold);
+            if (type == null) {
+                continue;
+            }
+            StockAlertDto alert = new StockAlertDto(type, event.getBookId(), event.getTitle(),
+                    event.getPreviousStock(), event.getCurrentStock(), subscription.threshold);
+            if (!subscription.pending.offer(alert)) {
+                log.debug("Dropping stock alert subscriber {} alerts behind", queueSize);
+                drop(subscription, null);
+                continue;
+            }
+            if (subscription.draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(() -> drain(subscription));
+                } catch (RejectedExecutionException e) {
+                    drop(subscription, e);
+                }
+            }
+        }
+    }
+
+    // Sends queued alerts in order; rechecks the queue after letting go so a late offer is not stranded
+    private void drain(Subscription subscription) {
+        do {
+            StockAlertDto alert;
+            while ((alert = subscription.pending.poll()) != null) {
+                try {
+                    subscription.emitter.send(SseEmitter.event().name(alert.getType().name()).data(alert));
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Dropping stock alert subscriber: {}", e.getMessage());
+                    drop(subscription, e);
+                    return;
+                }
+            }
+            subscription.draining.set(false);
+        } while (!subscription.pending.isEmpty() && subscription.draining.compareAndSet(false, true));
+    }
+
+    private void drop(Subscription subscription, Exception cause) {
+        if (!subscriptions.remove(subscription)) {
+            return;
+        }
+        subscription.pending.clear();
+        if (cause == null) {
+            subscription.emitter.complete();
+        } else {
+            subscription.emitter.completeWithError(cause);
+        }
+    }
+
+    private static ThreadFactory senderThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, "stock-alerts-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // A new book counts as coming from above every threshold
+    static StockAlertDto.Type crossing(StockChangedEvent event, int threshold) {
+        boolean wasLow = event.getPreviousStock() != null && event.getPreviousStock() < threshold;
+        boolean isLow = event.getCurrentStock() != null && event.getCurrentStock() < threshold;
+        if (isLow == wasLow) {
+            return null;
+        }
+        return isLow ? StockAlertDto.Type.LOW_STOCK : StockAlertDto.Type.REPLENISHED;
+    }
+
+    private static final class Subscription {
+        private final SseEmitter emitter;
+        private final int threshold;
+        private final Queue<StockAlertDto> pending;
+        // True while a drain task is queued or running for this subscriber
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscription(SseEmitter emitter, int threshold, int queueSize) {
+            this.emitter = emitter;
+            this.threshold = threshold;
+            this.pending = new ArrayBlockingQueue<>(queueSize);
+        }
+    }
+}
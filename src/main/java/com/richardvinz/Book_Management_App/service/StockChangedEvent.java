@@ -0,0 +1,37 @@
+package com.richardvinz.Book_Management_App.service;
+
+/**
+ * Published by the service layer whenever a write changes a book's stock quantity.
+ * Listeners that notify the outside world should run after the transaction commits.
+ */
+public class StockChangedEvent {
+
+    private final Long bookId;
+    private final String title;
+    private final Integer previousStock;
+    private final Integer currentStock;
+
+    public StockChangedEvent(Long bookId, String title, Integer previousStock, Integer currentStock) {
+        this.bookId = bookId;
+        this.title = title;
+        this.previousStock = previousStock;
+        this.currentStock = currentStock;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    // Null for a newly created book
+    public Integer getPreviousStock() {
+        return previousStock;
+    }
+
+    public Integer getCurrentStock() {
+        return currentStock;
+    }
+}
@@ -1,50 +1,343 @@
 package com.richardvinz.Book_Management_App.service.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import com.richardvinz.Book_Management_App.dto.BatchDeleteRequestDto;
+import com.richardvinz.Book_Management_App.dto.BatchItemResultDto;
+import com.richardvinz.Book_Management_App.dto.BatchResponseDto;
+import com.richardvinz.Book_Management_App.dto.BatchUpdateRequestDto;
+import com.richardvinz.Book_Management_App.dto.BookChangesDto;
+import com.richardvinz.Book_Management_App.dto.BookQueryDto;
 import com.richardvinz.Book_Management_App.dto.BookRequestDto;
 import com.richardvinz.Book_Management_App.dto.BookResponseDto;
+import com.richardvinz.Book_Management_App.dto.CatalogSummaryDto;
+import com.richardvinz.Book_Management_App.dto.CursorSlice;
+import com.richardvinz.Book_Management_App.dto.FacetCountsDto;
+import com.richardvinz.Book_Management_App.dto.FacetValueDto;
+import com.richardvinz.Book_Management_App.dto.FacetedPage;
+import com.richardvinz.Book_Management_App.dto.FuzzySearchResponseDto;
+import com.richardvinz.Book_Management_App.dto.PlannedPage;
+import com.richardvinz.Book_Management_App.dto.SliceWithTotal;
+import com.richardvinz.Book_Management_App.dto.SuggestionDto;
 import com.richardvinz.Book_Management_App.entity.Book;
 import com.richardvinz.Book_Management_App.exception.BookNotFoundException;
+import com.richardvinz.Book_Management_App.exception.DuplicateIsbnException;
+import com.richardvinz.Book_Management_App.exception.InsufficientStockException;
+import com.richardvinz.Book_Management_App.exception.PreconditionFailedException;
 import com.richardvinz.Book_Management_App.exception.ValidationException;
 import com.richardvinz.Book_Management_App.repository.BookRepository;
+import com.richardvinz.Book_Management_App.repository.BookSpecifications;
+import com.richardvinz.Book_Management_App.search.AttributeIndex;
+import com.richardvinz.Book_Management_App.search.CatalogIndexer;
+import com.richardvinz.Book_Management_App.search.FacetIndex;
+import com.richardvinz.Book_Management_App.search.FuzzyIndex;
+import com.richardvinz.Book_Management_App.search.IsbnIndex;
+import com.richardvinz.Book_Management_App.search.KeywordIndex;
+import com.richardvinz.Book_Management_App.search.PriceIndex;
+import com.richardvinz.Book_Management_App.search.QueryPlanner;
+import com.richardvinz.Book_Management_App.search.StockIndex;
+import com.richardvinz.Book_Management_App.search.SubstringIndex;
+import com.richardvinz.Book_Management_App.search.SuggestionIndex;
+import com.richardvinz.Book_Management_App.search.TextAnalyzer;
+import com.richardvinz.Book_Management_App.service.BookCache;
+import com.richardvinz.Book_Management_App.service.BookCountCache;
+import com.richardvinz.Book_Management_App.service.BookCursor;
 import com.richardvinz.Book_Management_App.service.BookService;
+import com.richardvinz.Book_Management_App.service.MissingBookCache;
+import com.richardvinz.Book_Management_App.service.SearchResultCache;
+import com.richardvinz.Book_Management_App.service.StockChangedEvent;
+import com.richardvinz.Book_Management_App.service.invalidation.InvalidationBus;
+import com.richardvinz.Book_Management_App.service.invalidation.InvalidationEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class BookServiceImpl implements BookService {
 
+    // Keeps IN lists within what every supported database accepts
+    private static final int LOAD_CHUNK_SIZE = 1000;
+
     private final BookRepository bookRepository;
+    private final CatalogIndexer catalogIndexer;
+    private final KeywordIndex keywordIndex;
+    private final SubstringIndex substringIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final FuzzyIndex fuzzyIndex;
+    private final FacetIndex facetIndex;
+    private final QueryPlanner queryPlanner;
+    private final PriceIndex priceIndex;
+    private final IsbnIndex isbnIndex;
+    private final StockIndex stockIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookCountCache bookCountCache;
+    private final EntityManager entityManager;
+    private final AttributeIndex attributeIndex;
+    private final BookCache bookCache;
+    private final SearchResultCache searchResultCache;
+    private final InvalidationBus invalidationBus;
+    private final MissingBookCache missingBookCache;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public BookServiceImpl(BookRepository bookRepository) {
+    public BookServiceImpl(BookRepository bookRepository, CatalogIndexer catalogIndexer,
+                           KeywordIndex keywordIndex, SubstringIndex substringIndex,
+                           SuggestionIndex suggestionIndex, FuzzyIndex fuzzyIndex, FacetIndex facetIndex,
+                           QueryPlanner queryPlanner, PriceIndex priceIndex, IsbnIndex isbnIndex,
+                           StockIndex stockIndex, ApplicationEventPublisher eventPublisher,
+                           BookCountCache bookCountCache, EntityManager entityManager,
+                           AttributeIndex attributeIndex, BookCache bookCache,
+                           SearchResultCache searchResultCache, InvalidationBus invalidationBus,
+                           MissingBookCache missingBookCache, Validator validator, ObjectMapper objectMapper) {
         this.bookRepository = bookRepository;
+        this.catalogIndexer = catalogIndexer;
+        this.keywordIndex = keywordIndex;
+        this.substringIndex = substringIndex;
+        this.suggestionIndex = suggestionIndex;
+        this.fuzzyIndex = fuzzyIndex;
+        this.facetIndex = facetIndex;
+        this.queryPlanner = queryPlanner;
+        this.priceIndex = priceIndex;
+        this.isbnIndex = isbnIndex;
+        this.stockIndex = stockIndex;
+        this.eventPublisher = eventPublisher;
+        this.bookCountCache = bookCountCache;
+        this.entityManager = entityManager;
+        this.attributeIndex = attributeIndex;
+        this.bookCache = bookCache;
+        this.searchResultCache = searchResultCache;
+        this.invalidationBus = invalidationBus;
+        this.missingBookCache = missingBookCache;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
     }
 
     @Override
     public BookResponseDto createBook(BookRequestDto bookRequestDto) {
-        // Check if ISBN already exists
-        if (bookRepository.existsByIsbn(bookRequestDto.getIsbn())) {
-            throw new ValidationException("Book with ISBN " + bookRequestDto.getIsbn() + " already exists");
+        // Catches other spellings of a taken ISBN; exact duplicates that slip past fail the unique constraint
+        if (isIsbnTaken(bookRequestDto.getIsbn(), null)) {
+            throw new DuplicateIsbnException("Book with ISBN " + bookRequestDto.getIsbn() + " already exists");
         }
 
         Book book = convertToEntity(bookRequestDto);
         Book savedBook = bookRepository.save(book);
+        // The INSERT runs now, so a constraint violation surfaces before the caches and indexes are touched
+        bookRepository.flush();
+        catalogIndexer.bookSaved(savedBook);
+        searchResultCache.invalidate();
+        missingBookCache.invalidateAll();
+        invalidationBus.bookChanged(InvalidationEvent.Type.CREATED, savedBook.getId(), savedBook.getVersion());
+        bookCountCache.adjust(1);
+        eventPublisher.publishEvent(new StockChangedEvent(savedBook.getId(), savedBook.getTitle(),
+                null, savedBook.getStockQuantity()));
         return convertToResponseDto(savedBook);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    public BatchResponseDto createBooks(List<BookRequestDto> requests) {
+        long started = System.nanoTime();
+        BatchItemResultDto[] results = new BatchItemResultDto[requests.size()];
+
+        // Per-item checks first, so one bad item rejects only itself
+        List<Integer> accepted = new ArrayList<>(requests.size());
+        Set<String> batchIsbns = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            BookRequestDto request = requests.get(i);
+            List<String> errors = validate(request);
+            if (errors.isEmpty() && !batchIsbns.add(isbnKey(request.getIsbn()))) {
+                errors = List.of("isbn: Duplicates the ISBN of an earlier item in the batch");
+            }
+            if (errors.isEmpty()) {
+                accepted.add(i);
+            } else {
+                results[i] = rejected(i, errors);
+            }
+        }
+
+        List<Book> created = new ArrayList<>(accepted.size());
+        for (int from = 0; from < accepted.size(); from += LOAD_CHUNK_SIZE) {
+            List<Integer> chunk = accepted.subList(from, Math.min(from + LOAD_CHUNK_SIZE, accepted.size()));
+            Set<String> taken = findTakenIsbnKeys(chunk.stream().map(i -> requests.get(i).getIsbn()).toList());
+
+            List<Integer> positions = new ArrayList<>(chunk.size());
+            List<Book> books = new ArrayList<>(chunk.size());
+            for (int i : chunk) {
+                BookRequestDto request = requests.get(i);
+                if (taken.contains(isbnKey(request.getIsbn()))) {
+                    results[i] = rejected(i, List.of("isbn: Book with ISBN " + request.getIsbn() + " already exists"));
+                } else {
+                    positions.add(i);
+                    books.add(convertToEntity(request));
+                }
+            }
+            bookRepository.saveAll(books);
+            // Sends the chunk as JDBC batches, then detaches it so the session does not grow with the feed
+            entityManager.flush();
+            entityManager.clear();
+            catalogIndexer.booksSaved(books);
+            for (int j = 0; j < books.size(); j++) {
+                results[positions.get(j)] = BatchItemResultDto.builder()
+                        .index(positions.get(j))
+                        .status(BatchItemResultDto.Status.CREATED)
+                        .id(books.get(j).getId())
+                        .version(books.get(j).getVersion())
+                        .build();
+            }
+            created.addAll(books);
+        }
+
+        if (!created.isEmpty()) {
+            searchResultCache.invalidate();
+            missingBookCache.invalidateAll();
+            invalidationBus.booksChanged(InvalidationEvent.Type.CREATED, created);
+            bookCountCache.adjust(created.size());
+            for (Book book : created) {
+                eventPublisher.publishEvent(new StockChangedEvent(book.getId(), book.getTitle(),
+                        null, book.getStockQuantity()));
+            }
+        }
+        return batchResponse(results.length, created.size(), Arrays.asList(results), started);
+    }
+
+    @Override
+    public BatchResponseDto updateBooks(BatchUpdateRequestDto request, int chunkSize) {
+        long started = System.nanoTime();
+        BookChangesDto changes = request.getChanges();
+        if (changes == null || hasNoChanges(changes)) {
+            throw new ValidationException("Changes must set at least one field");
+        }
+        long[] ids = selectBookIds(request.getIds(), request.getFilter());
+        LocalDateTime now = LocalDateTime.now();
+
+        int updated = 0;
+        List<Book> changed = new ArrayList<>();
+        for (int from = 0; from < ids.length; from += chunkSize) {
+            List<Long> chunk = Arrays.stream(ids, from, Math.min(from + chunkSize, ids.length)).boxed().toList();
+            // Stock alerts need the stock before the change
+            Map<Long, Integer> previousStock = changes.getStockQuantity() == null ? Map.of()
+                    : bookRepository.findAllById(chunk).stream()
+                            .collect(Collectors.toMap(Book::getId, Book::getStockQuantity));
+            updated += bookRepository.updateByIdIn(chunk, changes.getAuthor(), changes.getPublishedYear(),
+                    changes.getDescription(), changes.getPrice(), changes.getStockQuantity(), now);
+
+            // Read back once per chunk so the indexes and other nodes see the stored rows and versions
+            List<Book> books = bookRepository.findAllById(chunk);
+            catalogIndexer.booksSaved(books);
+            bookCache.invalidate(chunk);
+            for (Book book : books) {
+                Integer before = previousStock.get(book.getId());
+                if (changes.getStockQuantity() != null && !Objects.equals(before, book.getStockQuantity())) {
+                    eventPublisher.publishEvent(new StockChangedEvent(book.getId(), book.getTitle(),
+                            before, book.getStockQuantity()));
+                }
+            }
+            changed.addAll(books);
+        }
+
+        if (updated > 0) {
+            searchResultCache.invalidate();
+            invalidationBus.booksChanged(InvalidationEvent.Type.UPDATED, changed);
+        }
+        return batchResponse(ids.length, updated, null, started);
+    }
+
+    @Override
+    public BatchResponseDto deleteBooks(BatchDeleteRequestDto request, int chunkSize) {
+        long started = System.nanoTime();
+        long[] ids = selectBookIds(request.getIds(), request.getFilter());
+
+        int deleted = 0;
+        for (int from = 0; from < ids.length; from += chunkSize) {
+            List<Long> chunk = Arrays.stream(ids, from, Math.min(from + chunkSize, ids.length)).boxed().toList();
+            deleted += bookRepository.deleteByIdIn(chunk);
+            catalogIndexer.booksDeleted(chunk);
+            bookCache.invalidate(chunk);
+        }
+
+        if (deleted > 0) {
+            searchResultCache.invalidate();
+            invalidationBus.booksDeleted(Arrays.stream(ids).boxed().toList());
+            bookCountCache.adjust(-deleted);
+        }
+        return batchResponse(ids.length, deleted, null, started);
+    }
+
+    // SUPPORTS: cache hits and known-missing ids are answered without a transaction, so without a pooled connection
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public BookResponseDto getBookById(Long id) {
-        Book book = bookRepository.findById(id)
-                .orElseThrow(() -> new BookNotFoundException("Book not found with ID: " + id));
-        return convertToResponseDto(book);
+        if (missingBookCache.isIdMissing(id)) {
+            throw new BookNotFoundException("Book not found with ID: " + id);
+        }
+        return bookCache.get(id, bookId -> bookRepository.findById(bookId)
+                .map(this::convertToResponseDto)
+                .orElseThrow(() -> missingId(bookId)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public long getBookVersion(Long id) {
+        BookResponseDto cached = bookCache.getIfPresent(id);
+        if (cached != null) {
+            return cached.getVersion();
+        }
+        if (missingBookCache.isIdMissing(id)) {
+            throw new BookNotFoundException("Book not found with ID: " + id);
+        }
+        return bookRepository.findVersionById(id)
+                .orElseThrow(() -> missingId(id));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public BookResponseDto getBookByIsbn(String isbn) {
+        if (missingBookCache.isIsbnMissing(isbn)) {
+            throw new BookNotFoundException("Book not found with ISBN: " + isbn);
+        }
+        // Misses are answered from the ISBN index; only ISBNs it cannot normalize go to the database
+        Optional<Book> book;
+        if (IsbnIndex.isIndexable(isbn)) {
+            book = findIndexedIsbn(isbn);
+        } else {
+            book = bookRepository.findByIsbn(isbn);
+        }
+        return book.map(this::convertToResponseDto)
+                .orElseThrow(() -> {
+                    missingBookCache.markIsbnMissing(isbn);
+                    return new BookNotFoundException("Book not found with ISBN: " + isbn);
+                });
     }
 
     @Override
@@ -54,80 +347,480 @@ public class BookServiceImpl implements BookService {
         return books.map(this::convertToResponseDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public SliceWithTotal<BookResponseDto> getAllBooksWithCachedTotal(Pageable pageable) {
+        Slice<Book> books = bookRepository.findAllBy(pageable);
+        List<BookResponseDto> content = books.map(this::convertToResponseDto).getContent();
+
+        // The last slice pins the total down exactly; otherwise it is at least what has been seen
+        long seen = pageable.getOffset() + content.size();
+        if (!books.hasNext() && (!content.isEmpty() || pageable.getOffset() == 0)) {
+            return new SliceWithTotal<>(content, pageable, false, seen, true);
+        }
+        long atLeast = books.hasNext() ? seen + 1 : seen;
+        long cached = bookCountCache.getTotal();
+        boolean exact = bookCountCache.isExact() && cached >= atLeast;
+        return new SliceWithTotal<>(content, pageable, books.hasNext(), Math.max(cached, atLeast), exact);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSlice<BookResponseDto> getBooksByCursor(String cursor, int size, String sortBy, boolean descending) {
+        if (!BookCursor.supports(sortBy)) {
+            throw new ValidationException("Cursor pagination cannot sort by " + sortBy);
+        }
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = sortBy.equals("id") ? Sort.by(direction, "id") : Sort.by(direction, sortBy, "id");
+
+        // Seek past the previous slice with WHERE (sortKey, id) > (?, ?) instead of skipping rows with OFFSET
+        Specification<Book> after = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            BookCursor position = BookCursor.decode(cursor, sortBy, descending);
+            after = BookSpecifications.after(sortBy, position.getKey(), position.getId(), descending);
+        }
+        // One extra row tells whether another slice follows, so nothing is counted
+        int limit = Math.min(size, Integer.MAX_VALUE - 1);
+        List<Book> books = bookRepository.findBy(Specification.where(after),
+                query -> query.sortBy(sort).limit(limit + 1).all());
+
+        String nextCursor = null;
+        if (books.size() > limit) {
+            books = books.subList(0, limit);
+            nextCursor = BookCursor.after(books.get(limit - 1), sortBy, descending).encode();
+        }
+        List<BookResponseDto> content = books.stream()
+                .map(this::convertToResponseDto)
+                .collect(Collectors.toList());
+        return new CursorSlice<>(content, PageRequest.ofSize(limit).withSort(sort), nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportBooks(Consumer<BookResponseDto> consumer) {
+        long count = 0;
+        try (Stream<Book> books = bookRepository.streamAll()) {
+            for (Book book : (Iterable<Book>) books::iterator) {
+                consumer.accept(convertToResponseDto(book));
+                // Drop exported books from the persistence context so memory use stays flat
+                if (++count % BookRepository.EXPORT_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+
     @Override
     public BookResponseDto updateBook(Long id, BookRequestDto bookRequestDto) {
+        return updateBook(id, bookRequestDto, null);
+    }
+
+    @Override
+    public BookResponseDto updateBook(Long id, BookRequestDto bookRequestDto, Long expectedVersion) {
+        BookResponseDto cached = bookCache.getIfPresent(id);
+        if (cached != null && cached.getVersion() != null
+                && (expectedVersion == null || expectedVersion.equals(cached.getVersion()))) {
+            BookResponseDto updated = updateCachedBook(cached, bookRequestDto);
+            if (updated != null) {
+                return updated;
+            }
+        }
+
         Book existingBook = bookRepository.findById(id)
                 .orElseThrow(() -> new BookNotFoundException("Book not found with ID: " + id));
+        if (expectedVersion != null && !expectedVersion.equals(existingBook.getVersion())) {
+            throw new PreconditionFailedException("Book with ID " + id + " is at version " + existingBook.getVersion()
+                    + ", not " + expectedVersion);
+        }
 
         // Check if ISBN is being changed and if new ISBN already exists
-        if (!existingBook.getIsbn().equals(bookRequestDto.getIsbn()) &&
-                bookRepository.existsByIsbn(bookRequestDto.getIsbn())) {
-            throw new ValidationException("Book with ISBN " + bookRequestDto.getIsbn() + " already exists");
+        boolean isbnChanged = !existingBook.getIsbn().equals(bookRequestDto.getIsbn());
+        if (isbnChanged && isIsbnTaken(bookRequestDto.getIsbn(), id)) {
+            throw new DuplicateIsbnException("Book with ISBN " + bookRequestDto.getIsbn() + " already exists");
         }
 
+        Integer previousStock = existingBook.getStockQuantity();
         updateBookFromDto(existingBook, bookRequestDto);
         Book updatedBook = bookRepository.save(existingBook);
+        // Flushing runs the version-checked UPDATE now, so the response carries the new version
+        entityManager.flush();
+        return bookUpdated(updatedBook, previousStock, isbnChanged);
+    }
+
+    @Override
+    public BookResponseDto patchBook(Long id, JsonNode patch, Long expectedVersion) {
+        if (patch == null || !patch.isObject()) {
+            throw new ValidationException("A merge patch must be a JSON object");
+        }
+        Book existingBook = bookRepository.findById(id).orElseThrow(() -> missingId(id));
+        if (expectedVersion != null && !expectedVersion.equals(existingBook.getVersion())) {
+            throw new PreconditionFailedException("Book with ID " + id + " is at version " + existingBook.getVersion()
+                    + ", not " + expectedVersion);
+        }
+
+        // Members present in the patch replace the current values, null included; absent ones are kept
+        BookRequestDto current = convertToRequestDto(existingBook);
+        BookRequestDto merged;
+        try {
+            merged = objectMapper.readerForUpdating(current.toBuilder().build())
+                    .with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                    .readValue(patch);
+        } catch (UnrecognizedPropertyException e) {
+            throw new ValidationException("Unknown member in merge patch: " + e.getPropertyName());
+        } catch (IOException e) {
+            throw new ValidationException("Invalid merge patch: "
+                    + (e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage()));
+        }
+        List<String> errors = validate(merged);
+        if (!errors.isEmpty()) {
+            throw new ValidationException(String.join(", ", errors));
+        }
+        if (merged.equals(current)) {
+            return convertToResponseDto(existingBook);
+        }
+
+        boolean isbnChanged = !existingBook.getIsbn().equals(merged.getIsbn());
+        if (isbnChanged && isIsbnTaken(merged.getIsbn(), id)) {
+            throw new DuplicateIsbnException("Book with ISBN " + merged.getIsbn() + " already exists");
+        }
+        Integer previousStock = existingBook.getStockQuantity();
+        updateBookFromDto(existingBook, merged);
+        // Book is @DynamicUpdate, so the flushed UPDATE sets only the columns the patch changed
+        entityManager.flush();
+        return bookUpdated(existingBook, previousStock, isbnChanged);
+    }
+
+    /**
+     * Writes the request over the cached copy of a book with a single UPDATE that only matches
+     * the version the copy was read at, so no read is needed first. Returns null when the copy
+     * turned out to be stale, leaving the caller to read the book and try again.
+     */
+    private BookResponseDto updateCachedBook(BookResponseDto cached, BookRequestDto dto) {
+        boolean isbnChanged = !Objects.equals(cached.getIsbn(), dto.getIsbn());
+        if (isbnChanged && isIsbnTaken(dto.getIsbn(), cached.getId())) {
+            throw new DuplicateIsbnException("Book with ISBN " + dto.getIsbn() + " already exists");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int updated = bookRepository.updateByIdAndVersion(cached.getId(), cached.getVersion(), dto.getTitle(),
+                dto.getAuthor(), dto.getIsbn(), dto.getPublishedYear(), dto.getDescription(), dto.getPrice(),
+                dto.getStockQuantity(), now);
+        if (updated == 0) {
+            return null;
+        }
+        Book updatedBook = convertToEntity(dto);
+        updatedBook.setId(cached.getId());
+        updatedBook.setCreatedAt(cached.getCreatedAt());
+        updatedBook.setUpdatedAt(now);
+        updatedBook.setVersion(cached.getVersion() + 1);
+        return bookUpdated(updatedBook, cached.getStockQuantity(), isbnChanged);
+    }
+
+    // Brings indexes, caches and other nodes up to date with a written book
+    private BookResponseDto bookUpdated(Book updatedBook, Integer previousStock, boolean isbnChanged) {
+        Long id = updatedBook.getId();
+        catalogIndexer.bookSaved(updatedBook);
+        bookCache.invalidate(id);
+        searchResultCache.invalidate();
+        if (isbnChanged) {
+            missingBookCache.invalidateAll();
+        }
+        invalidationBus.bookChanged(InvalidationEvent.Type.UPDATED, id, updatedBook.getVersion());
+        if (!Objects.equals(previousStock, updatedBook.getStockQuantity())) {
+            eventPublisher.publishEvent(new StockChangedEvent(updatedBook.getId(), updatedBook.getTitle(),
+                    previousStock, updatedBook.getStockQuantity()));
+        }
         return convertToResponseDto(updatedBook);
     }
 
+    @Override
+    public BookResponseDto adjustStock(Long id, int delta) {
+        if (delta == 0) {
+            throw new ValidationException("Delta must not be zero");
+        }
+        // The row is changed in place, so concurrent sales queue briefly on its lock instead of
+        // reading the same stock and overwriting each other
+        if (bookRepository.adjustStock(id, delta, LocalDateTime.now()) == 0) {
+            Book current = bookRepository.findById(id).orElseThrow(() -> missingId(id));
+            throw new InsufficientStockException("Book with ID " + id + " has " + current.getStockQuantity()
+                    + " in stock, fewer than the " + -delta + " requested");
+        }
+        Book adjustedBook = bookRepository.findById(id).orElseThrow(() -> missingId(id));
+        return bookUpdated(adjustedBook, adjustedBook.getStockQuantity() - delta, false);
+    }
+
     @Override
     public void deleteBook(Long id) {
-        if (!bookRepository.existsById(id)) {
-            throw new BookNotFoundException("Book not found with ID: " + id);
+        // One DELETE; its row count tells whether the book existed
+        if (bookRepository.deleteByIdIn(List.of(id)) == 0) {
+            throw missingId(id);
         }
-        bookRepository.deleteById(id);
+        catalogIndexer.bookDeleted(id);
+        bookCache.invalidate(id);
+        searchResultCache.invalidate();
+        invalidationBus.bookChanged(InvalidationEvent.Type.DELETED, id, InvalidationEvent.NO_VERSION);
+        bookCountCache.adjust(-1);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookResponseDto> searchBooksByAuthor(String author) {
-        List<Book> books = bookRepository.findByAuthorContainingIgnoreCase(author);
-        return books.stream()
-                .map(this::convertToResponseDto)
-                .collect(Collectors.toList());
+    public List<BookResponseDto> searchBooksByAuthor(String author, int offset, int limit) {
+        return searchResultCache.get(SearchResultCache.Endpoint.AUTHOR, TextAnalyzer.normalize(author), offset, limit,
+                false, () -> loadWindow(substringIndex.searchAuthor(author), offset, limit), BookServiceImpl::copyBooks);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookResponseDto> searchBooksByTitle(String title) {
-        List<Book> books = bookRepository.findByTitleContainingIgnoreCase(title);
-        return books.stream()
-                .map(this::convertToResponseDto)
-                .collect(Collectors.toList());
+    public List<BookResponseDto> searchBooksByTitle(String title, int offset, int limit) {
+        return searchResultCache.get(SearchResultCache.Endpoint.TITLE, TextAnalyzer.normalize(title), offset, limit,
+                false, () -> loadWindow(substringIndex.searchTitle(title), offset, limit), BookServiceImpl::copyBooks);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<BookResponseDto> searchBooksByKeyword(String keyword, Pageable pageable) {
-        Page<Book> books = bookRepository.findByKeyword(keyword, pageable);
-        return books.map(this::convertToResponseDto);
+    public FuzzySearchResponseDto fuzzySearchBooks(String query, FuzzyIndex.Field field, int maxEdits,
+                                                   int offset, int limit) {
+        FuzzyIndex.FuzzyMatch match = fuzzyIndex.search(query, field, maxEdits);
+        long[] matchingIds = match.getBookIds();
+        return new FuzzySearchResponseDto(loadWindow(matchingIds, offset, limit), matchingIds.length,
+                match.getCorrections());
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookResponseDto> getBooksByYear(Integer year) {
-        List<Book> books = bookRepository.findByPublishedYear(year);
-        return books.stream()
-                .map(this::convertToResponseDto)
-                .collect(Collectors.toList());
+    public FacetedPage<BookResponseDto> searchBooksByKeyword(String keyword, Pageable pageable, boolean withFacets) {
+        // Keyed on the tokens the index sees, so "Spring  BOOT!" and "spring boot" share an entry
+        String normalized = String.join(" ", TextAnalyzer.tokenize(keyword));
+        return searchResultCache.get(SearchResultCache.Endpoint.KEYWORD, normalized, pageable.getOffset(),
+                pageable.getPageSize(), withFacets, () -> rankKeywordMatches(keyword, pageable, withFacets),
+                BookServiceImpl::copyPage);
+    }
+
+    private FacetedPage<BookResponseDto> rankKeywordMatches(String keyword, Pageable pageable, boolean withFacets) {
+        // Matching, BM25 ranking and facet counts are resolved in memory; only the requested page is loaded, by primary key
+        long[] matchingIds = keywordIndex.search(keyword);
+        FacetCountsDto facets = withFacets ? facetIndex.count(matchingIds) : null;
+        int from = (int) Math.min(pageable.getOffset(), matchingIds.length);
+        int to = Math.min(from + pageable.getPageSize(), matchingIds.length);
+        if (from >= to) {
+            return new FacetedPage<>(Collections.emptyList(), pageable, matchingIds.length, facets);
+        }
+        long[] rankedIds = keywordIndex.rank(keyword, matchingIds, to);
+        return new FacetedPage<>(loadBooks(rankedIds, from, rankedIds.length), pageable, matchingIds.length, facets);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookResponseDto> getBooksByPriceRange(Double minPrice, Double maxPrice) {
-        List<Book> books = bookRepository.findByPriceBetween(minPrice, maxPrice);
-        return books.stream()
-                .map(this::convertToResponseDto)
-                .collect(Collectors.toList());
+    public PlannedPage<BookResponseDto> queryBooks(BookQueryDto query, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), Integer.MAX_VALUE - pageable.getPageSize());
+        QueryPlanner.QueryResult result = queryPlanner.execute(query, pageable.getSort(), from + pageable.getPageSize());
+        long[] orderedIds = result.getBookIds();
+        List<BookResponseDto> books = loadBooks(orderedIds, Math.min(from, orderedIds.length), orderedIds.length);
+        return new PlannedPage<>(books, pageable, result.getTotal(), result.getPlan());
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookResponseDto> getLowStockBooks(Integer threshold) {
-        List<Book> books = bookRepository.findByStockQuantityLessThan(threshold);
-        return books.stream()
-                .map(this::convertToResponseDto)
-                .collect(Collectors.toList());
+    public List<BookResponseDto> getBooksByYear(Integer year, int offset, int limit) {
+        return loadWindow(attributeIndex.searchYears(year, year), offset, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookResponseDto> getBooksByPriceRange(Double minPrice, Double maxPrice, int offset, int limit,
+                                                      boolean descending) {
+        long[] ids = priceIndex.range(minPrice == null ? Double.NEGATIVE_INFINITY : minPrice,
+                maxPrice == null ? Double.POSITIVE_INFINITY : maxPrice, offset, limit, descending);
+        return loadBooks(ids, 0, ids.length);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookResponseDto> getLowStockBooks(Integer threshold, int offset, int limit) {
+        return loadWindow(stockIndex.below(threshold), offset, limit);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public int countLowStockBooks(Integer threshold) {
+        return stockIndex.countBelow(threshold);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CatalogSummaryDto getCatalogSummary() {
+        return CatalogSummaryDto.builder()
+                .totalBooks(bookCountCache.getTotal())
+                .totalExact(bookCountCache.isExact())
+                .inventoryValue(bookRepository.sumInventoryValue())
+                .authorCount(bookRepository.countDistinctAuthors())
+                .build();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<SuggestionDto> suggestBooks(String prefix, int limit) {
+        // Answered entirely from memory, so don't start a transaction or borrow a connection
+        return suggestionIndex.suggest(prefix, limit);
+    }
+
+    // Bean Validation errors of one request as "field: message", in a stable order
+    private List<String> validate(BookRequestDto request) {
+        if (request == null) {
+            return List.of("Item is empty");
+        }
+        return validator.validate(request).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .toList();
+    }
+
+    // ISBNs compare in any spelling when they normalize, as in isIsbnTaken, and exactly otherwise
+    private static String isbnKey(String isbn) {
+        long key = IsbnIndex.normalize(isbn);
+        return key == IsbnIndex.NOT_NORMALIZABLE ? isbn : Long.toString(key);
+    }
+
+    // Keys of the given ISBNs that some book already holds, found with one query for the whole chunk
+    private Set<String> findTakenIsbnKeys(List<String> isbns) {
+        List<Long> indexedIds = new ArrayList<>();
+        for (String isbn : isbns) {
+            isbnIndex.find(isbn).ifPresent(indexedIds::add);
+        }
+        if (indexedIds.isEmpty()) {
+            // Keeps the IN list valid on databases that reject an empty one
+            indexedIds.add(-1L);
+        }
+        Set<String> taken = new HashSet<>();
+        for (String isbn : bookRepository.findIsbnsByIdInOrIsbnIn(indexedIds, isbns)) {
+            taken.add(isbnKey(isbn));
+        }
+        return taken;
+    }
+
+    // Ids named by the request, or matched by its filter through the query planner, in ascending order
+    private long[] selectBookIds(List<Long> ids, BookQueryDto filter) {
+        boolean byIds = ids != null && !ids.isEmpty();
+        if (byIds == (filter != null)) {
+            throw new ValidationException("Select books either by ids or by filter");
+        }
+        if (byIds) {
+            return ids.stream().filter(Objects::nonNull).mapToLong(Long::longValue).sorted().distinct().toArray();
+        }
+        // An empty filter matches the whole catalog, which is never what a cleanup job means
+        if (!hasText(filter.getAuthor()) && !hasText(filter.getTitle()) && !hasText(filter.getKeyword())
+                && filter.getMinYear() == null && filter.getMaxYear() == null && filter.getMinPrice() == null
+                && filter.getMaxPrice() == null && filter.getStockBelow() == null) {
+            throw new ValidationException("A filter must set at least one criterion");
+        }
+        return queryPlanner.execute(filter, Sort.by("id"), Integer.MAX_VALUE).getBookIds();
+    }
+
+    private static boolean hasNoChanges(BookChangesDto changes) {
+        return changes.getAuthor() == null && changes.getPublishedYear() == null && changes.getDescription() == null
+                && changes.getPrice() == null && changes.getStockQuantity() == null;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static BatchItemResultDto rejected(int index, List<String> errors) {
+        return BatchItemResultDto.builder()
+                .index(index)
+                .status(BatchItemResultDto.Status.REJECTED)
+                .errors(errors)
+                .build();
+    }
+
+    private static BatchResponseDto batchResponse(int requested, int succeeded, List<BatchItemResultDto> items,
+                                                  long started) {
+        long elapsedNanos = System.nanoTime() - started;
+        return BatchResponseDto.builder()
+                .requested(requested)
+                .succeeded(succeeded)
+                .rejected(requested - succeeded)
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .rowsPerSecond(elapsedNanos == 0 ? 0 : succeeded * 1_000_000_000.0 / elapsedNanos)
+                .items(items)
+                .build();
+    }
+
+    private BookNotFoundException missingId(Long id) {
+        missingBookCache.markIdMissing(id);
+        return new BookNotFoundException("Book not found with ID: " + id);
+    }
+
+    // Only an index hit costs a query; anything the index cannot see is left to the unique constraint
+    private boolean isIsbnTaken(String isbn, Long ownId) {
+        return findIndexedIsbn(isbn)
+                .filter(owner -> !owner.getId().equals(ownId))
+                .isPresent();
+    }
+
+    // Hits are confirmed against the row, since writes that bypass the service leave stale entries
+    private Optional<Book> findIndexedIsbn(String isbn) {
+        OptionalLong id = isbnIndex.find(isbn);
+        if (id.isEmpty()) {
+            return Optional.empty();
+        }
+        long key = IsbnIndex.normalize(isbn);
+        return bookRepository.findById(id.getAsLong())
+                .filter(book -> IsbnIndex.normalize(book.getIsbn()) == key);
+    }
+
+    // Loads at most `limit` of the ordered ids after skipping `offset`
+    private List<BookResponseDto> loadWindow(long[] ids, int offset, int limit) {
+        int from = Math.min(Math.max(offset, 0), ids.length);
+        int to = from + Math.min(Math.max(limit, 0), ids.length - from);
+        return loadBooks(ids, from, to);
+    }
+
+    // Loads ids[from, to) by primary key, keeping index order and skipping rows deleted meanwhile
+    private List<BookResponseDto> loadBooks(long[] ids, int from, int to) {
+        if (from >= to) {
+            return Collections.emptyList();
+        }
+
+        List<BookResponseDto> books = new ArrayList<>(to - from);
+        for (int chunkStart = from; chunkStart < to; chunkStart += LOAD_CHUNK_SIZE) {
+            int chunkEnd = Math.min(chunkStart + LOAD_CHUNK_SIZE, to);
+            List<Long> chunkIds = new ArrayList<>(chunkEnd - chunkStart);
+            for (int i = chunkStart; i < chunkEnd; i++) {
+                chunkIds.add(ids[i]);
+            }
+            Map<Long, Book> booksById = bookRepository.findAllById(chunkIds).stream()
+                    .collect(Collectors.toMap(Book::getId, Function.identity()));
+            chunkIds.stream()
+                    .map(booksById::get)
+                    .filter(Objects::nonNull)
+                    .map(this::convertToResponseDto)
+                    .forEach(books::add);
+        }
+        return books;
+    }
+
+    // Search results are copied into and out of the result cache so cached entries stay unchanged
+    private static List<BookResponseDto> copyBooks(List<BookResponseDto> books) {
+        List<BookResponseDto> copies = new ArrayList<>(books.size());
+        for (BookResponseDto book : books) {
+            copies.add(book.toBuilder().build());
+        }
+        return copies;
+    }
+
+    private static FacetedPage<BookResponseDto> copyPage(FacetedPage<BookResponseDto> page) {
+        FacetCountsDto facets = page.getFacets() == null ? null : FacetCountsDto.builder()
+                .publishedYear(copyFacetValues(page.getFacets().getPublishedYear()))
+                .price(copyFacetValues(page.getFacets().getPrice()))
+                .stock(copyFacetValues(page.getFacets().getStock()))
+                .build();
+        return new FacetedPage<>(copyBooks(page.getContent()), page.getPageable(), page.getTotalElements(), facets);
+    }
+
+    private static List<FacetValueDto> copyFacetValues(List<FacetValueDto> values) {
+        return values == null ? null : values.stream().map(value -> value.toBuilder().build()).collect(Collectors.toList());
     }
 
     // Helper methods for conversion
@@ -155,9 +848,22 @@ public class BookServiceImpl implements BookService {
         dto.setStockQuantity(book.getStockQuantity());
         dto.setCreatedAt(book.getCreatedAt());
         dto.setUpdatedAt(book.getUpdatedAt());
+        dto.setVersion(book.getVersion());
         return dto;
     }
 
+    private BookRequestDto convertToRequestDto(Book book) {
+        return BookRequestDto.builder()
+                .title(book.getTitle())
+                .author(book.getAuthor())
+                .isbn(book.getIsbn())
+                .publishedYear(book.getPublishedYear())
+                .description(book.getDescription())
+                .price(book.getPrice())
+                .stockQuantity(book.getStockQuantity())
+                .build();
+    }
+
     private void updateBookFromDto(Book book, BookRequestDto dto) {
         book.setTitle(dto.getTitle());
         book.setAuthor(dto.getAuthor());
@@ -0,0 +1,390 @@
+package com.richardvinz.Book_Management_App.service.invalidation;
+
+import com.richardvinz.Book_Management_App.dto.BookResponseDto;
+import com.richardvinz.Book_Management_App.entity.Book;
+import com.richardvinz.Book_Management_App.search.CatalogIndexer;
+import com.richardvinz.Book_Management_App.search.StockIndex;
+import com.richardvinz.Book_Management_App.service.BookCache;
+import com.richardvinz.Book_Management_App.service.BookCountCache;
+import com.richardvinz.Book_Management_App.service.MissingBookCache;
+import com.richardvinz.Book_Management_App.service.SearchResultCache;
+import com.richardvinz.Book_Management_App.service.StockChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the in-process caches and search indexes of several instances coherent without a
+ * broker. Every book write publishes its id and new version; every other node drops the book
+ * from its caches, re-reads it into its search indexes and invalidates cached search results.
+ * <p>
+ * Staleness is bounded by {@code invalidation-bus.max-staleness}. Each node sends a heartbeat
+ * every {@code invalidation-bus.heartbeat-ms}, and events carry a sequence number per sender:
+ * <ul>
+ *   <li>a sequence number still missing after the staleness bound means an event was lost, so
+ *   all caches are dropped and the indexes rebuilt. Events of concurrent transactions can
+ *   commit, and so arrive, out of order; a number that turns up late simply fills its gap.
+ *   Numbers are taken just before commit, so a rolled-back write leaves no gap;</li>
+ *   <li>hearing nothing at all, not even its own heartbeat, for longer than the bound means the
+ *   node may be cut off, so it drops its caches on every heartbeat until the bus recovers, and
+ *   rebuilds its indexes once it does.</li>
+ * </ul>
+ * A re-read book whose stock differs from what this node's {@link StockIndex} held raises the
+ * same {@link StockChangedEvent} a local write does, so low-stock alerts reach subscribers on
+ * every node.
+ * <p>
+ * Without a configured transport the bus does nothing.
+ * <p>
+ * Metrics: {@code invalidation.lag} (publish to apply, across node clocks),
+ * {@code invalidation.events} by {@code direction}, {@code invalidation.flushes} by
+ * {@code reason} and {@code invalidation.silence} in seconds.
+ */
+@Component
+public class InvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidationBus.class);
+    static final int BATCH_EVENT_LIMIT = 100;
+    static final int MAX_PENDING_GAPS = 10_000;
+
+    private final InvalidationTransport transport;
+    private final BookCache bookCache;
+    private final SearchResultCache searchResultCache;
+    private final BookCountCache bookCountCache;
+    private final MissingBookCache missingBookCache;
+    private final CatalogIndexer catalogIndexer;
+    private final StockIndex stockIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration maxStaleness;
+    private final Clock clock;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Sender> senders = new ConcurrentHashMap<>();
+    private volatile long lastReceivedAt;
+    private volatile boolean silent;
+
+    private final Timer lag;
+    private final Counter sent;
+    private final Counter received;
+    private final Counter gapFlushes;
+    private final Counter silenceFlushes;
+
+    @Autowired
+    public InvalidationBus(ObjectProvider<InvalidationTransport> transport, BookCache bookCache,
+                           SearchResultCache searchResultCache, BookCountCache bookCountCache,
+                           MissingBookCache missingBookCache, CatalogIndexer catalogIndexer, StockIndex stockIndex,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${invalidation-bus.max-staleness:5s}") Duration maxStaleness,
+                           MeterRegistry meterRegistry) {
+        this(transport.getIfAvailable(), bookCache, searchResultCache, bookCountCache, missingBookCache,
+                catalogIndexer, stockIndex, eventPublisher, maxStaleness, meterRegistry, Clock.systemUTC());
+    }
+
+    InvalidationBus(InvalidationTransport transport, BookCache bookCache, SearchResultCache searchResultCache,
+                    BookCountCache bookCountCache, MissingBookCache missingBookCache, CatalogIndexer catalogIndexer,
+                    StockIndex stockIndex, ApplicationEventPublisher eventPublisher, Duration maxStaleness,
+                    MeterRegistry meterRegistry, Clock clock) {
+        this.transport = transport;
+        this.bookCache = bookCache;
+        this.searchResultCache = searchResultCache;
+        this.bookCountCache = bookCountCache;
+        this.missingBookCache = missingBookCache;
+        this.catalogIndexer = catalogIndexer;
+        this.stockIndex = stockIndex;
+        this.eventPublisher = eventPublisher;
+        this.maxStaleness = maxStaleness;
+        this.clock = clock;
+        this.lastReceivedAt = clock.millis();
+
+        this.lag = Timer.builder("invalidation.lag")
+                .description("Time from publishing an invalidation to applying it on another node")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.sent = Counter.builder("invalidation.events").tag("direction", "sent").register(meterRegistry);
+        this.received = Counter.builder("invalidation.events").tag("direction", "received").register(meterRegistry);
+        this.gapFlushes = Counter.builder("invalidation.flushes").tag("reason", "gap").register(meterRegistry);
+        this.silenceFlushes = Counter.builder("invalidation.flushes").tag("reason", "silence").register(meterRegistry);
+        Gauge.builder("invalidation.silence", () -> (clock.millis() - lastReceivedAt) / 1000.0)
+                .description("Seconds since the last event arrived from the bus")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (transport != null) {
+            transport.start(this::receive);
+            log.info("Invalidation bus started on node {} using {}", nodeId, transport.getClass().getSimpleName());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (transport != null) {
+            transport.stop();
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Announces a write to the other nodes, as part of the caller's transaction just before it
+     * commits when the transport supports it, and otherwise once the transaction commits.
+     * Either way the sequence number is taken at the end of the transaction, so a rollback does
+     * not use one up.
+     */
+    public void bookChanged(InvalidationEvent.Type type, long bookId, Long version) {
+        if (transport == null) {
+            return;
+        }
+        long written = version == null ? InvalidationEvent.NO_VERSION : version;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(type, bookId, written);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (transport.joinsTransaction()) {
+                    send(type, bookId, written);
+                }
+            }
+
+            @Override
+            public void afterCommit() {
+                if (!transport.joinsTransaction()) {
+                    send(type, bookId, written);
+                }
+            }
+        });
+    }
+
+    /**
+     * Announces a batch of writes. Up to {@link #BATCH_EVENT_LIMIT} books are announced one by
+     * one; beyond that a single event makes every other node drop its caches and rebuild its
+     * indexes, which is cheaper than applying thousands of events.
+     */
+    public void booksChanged(InvalidationEvent.Type type, List<Book> books) {
+        if (transport == null || books.isEmpty()) {
+            return;
+        }
+        if (books.size() > BATCH_EVENT_LIMIT) {
+            bookChanged(InvalidationEvent.Type.CATALOG, 0, null);
+            return;
+        }
+        for (Book book : books) {
+            bookChanged(type, book.getId(), book.getVersion());
+        }
+    }
+
+    // Announces deleted books the same way as booksChanged
+    public void booksDeleted(List<Long> bookIds) {
+        if (transport == null || bookIds.isEmpty()) {
+            return;
+        }
+        if (bookIds.size() > BATCH_EVENT_LIMIT) {
+            bookChanged(InvalidationEvent.Type.CATALOG, 0, null);
+            return;
+        }
+        for (Long bookId : bookIds) {
+            bookChanged(InvalidationEvent.Type.DELETED, bookId, null);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${invalidation-bus.heartbeat-ms:1000}")
+    public void heartbeat() {
+        if (transport == null) {
+            return;
+        }
+        try {
+            send(InvalidationEvent.Type.HEARTBEAT, 0, InvalidationEvent.NO_VERSION);
+        } catch (RuntimeException e) {
+            log.warn("Could not send invalidation heartbeat: {}", e.getMessage());
+        }
+        checkStaleness();
+        checkGaps(clock.millis());
+    }
+
+    // Drops every cache while the bus has been silent for longer than the staleness bound
+    void checkStaleness() {
+        if (clock.millis() - lastReceivedAt <= maxStaleness.toMillis()) {
+            return;
+        }
+        if (!silent) {
+            log.warn("No invalidation events for over {}; serving uncached until the bus recovers", maxStaleness);
+            silent = true;
+        }
+        silenceFlushes.increment();
+        dropCaches();
+    }
+
+    // Transports deliver from a single thread; synchronized keeps the sequence bookkeeping simple regardless
+    synchronized void receive(InvalidationEvent event) {
+        long now = clock.millis();
+        lastReceivedAt = now;
+        received.increment();
+        if (silent) {
+            silent = false;
+            log.info("Invalidation bus recovered; rebuilding search indexes");
+            dropCaches();
+            catalogIndexer.rebuild();
+        }
+        if (event.getNodeId().equals(nodeId)) {
+            // Our own writes were applied locally; hearing them proves the bus still works
+            return;
+        }
+
+        lag.record(Math.max(0, now - event.getPublishedAt()), TimeUnit.MILLISECONDS);
+        Sender sender = senders.get(event.getNodeId());
+        if (sender == null) {
+            senders.put(event.getNodeId(), new Sender(event.getSequence()));
+        } else if (!sender.accept(event.getSequence(), now)) {
+            log.warn("Missed over {} invalidation events from node {}; dropping caches and rebuilding indexes",
+                    MAX_PENDING_GAPS, event.getNodeId());
+            flushForGap();
+            return;
+        }
+        apply(event);
+        checkGaps(now);
+    }
+
+    // Gives up on sequence numbers that stayed missing for longer than the staleness bound
+    synchronized void checkGaps(long now) {
+        for (Map.Entry<String, Sender> entry : senders.entrySet()) {
+            long lost = entry.getValue().expire(now - maxStaleness.toMillis());
+            if (lost > 0) {
+                log.warn("Missed {} invalidation events from node {}; dropping caches and rebuilding indexes",
+                        lost, entry.getKey());
+                flushForGap();
+                return;
+            }
+        }
+    }
+
+    private void flushForGap() {
+        senders.values().forEach(Sender::forgetGaps);
+        gapFlushes.increment();
+        dropCaches();
+        catalogIndexer.rebuild();
+    }
+
+    private void apply(InvalidationEvent event) {
+        switch (event.getType()) {
+            case HEARTBEAT:
+                return;
+            case CATALOG:
+                dropCaches();
+                bookCountCache.refresh();
+                catalogIndexer.rebuild();
+                return;
+            case CREATED:
+                bookCountCache.adjust(1);
+                missingBookCache.invalidateAll();
+                break;
+            case UPDATED:
+                // The event does not say whether the ISBN changed, so none is trusted to be missing
+                missingBookCache.invalidateAll();
+                break;
+            case DELETED:
+                bookCountCache.adjust(-1);
+                break;
+            default:
+                break;
+        }
+        BookResponseDto cached = bookCache.getIfPresent(event.getBookId());
+        if (cached == null || cached.getVersion() == null || cached.getVersion() < event.getVersion()
+                || event.getType() == InvalidationEvent.Type.DELETED) {
+            bookCache.invalidate(event.getBookId());
+        }
+        searchResultCache.invalidate();
+        Integer previousStock = stockIndex.stock(event.getBookId());
+        Book current = catalogIndexer.resync(event.getBookId());
+        if (current != null && !Objects.equals(previousStock, current.getStockQuantity())) {
+            eventPublisher.publishEvent(new StockChangedEvent(current.getId(), current.getTitle(), previousStock,
+                    current.getStockQuantity()));
+        }
+    }
+
+    private void send(InvalidationEvent.Type type, long bookId, long version) {
+        transport.publish(new InvalidationEvent(nodeId, sequence.incrementAndGet(), type, bookId, version,
+                clock.millis()));
+        sent.increment();
+    }
+
+    private void dropCaches() {
+        bookCache.invalidateAll();
+        searchResultCache.invalidate();
+        missingBookCache.invalidateAll();
+    }
+
+    // The highest sequence number heard from one node, and the lower ones not heard yet with when they went missing
+    private static final class Sender {
+        private long highest;
+        private final TreeMap<Long, Long> missingSince = new TreeMap<>();
+
+        private Sender(long first) {
+            this.highest = first;
+        }
+
+        // False when the gap opened is too large to track, which is treated as lost at once
+        boolean accept(long sequence, long now) {
+            if (sequence <= highest) {
+                missingSince.remove(sequence);
+                return true;
+            }
+            if (sequence - highest - 1 + missingSince.size() > MAX_PENDING_GAPS) {
+                highest = sequence;
+                return false;
+            }
+            for (long missing = highest + 1; missing < sequence; missing++) {
+                missingSince.put(missing, now);
+            }
+            highest = sequence;
+            return true;
+        }
+
+        // Drops the numbers missing since before the cutoff and returns how many there were
+        long expire(long cutoff) {
+            long expired = 0;
+            Iterator<Long> since = missingSince.values().iterator();
+            while (since.hasNext()) {
+                if (since.next() < cutoff) {
+                    since.remove();
+                    expired++;
+                }
+            }
+            return expired;
+        }
+
+        void forgetGaps() {
+            missingSince.clear();
+        }
+    }
+}
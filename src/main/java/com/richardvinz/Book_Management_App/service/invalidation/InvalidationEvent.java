@@ -0,0 +1,79 @@
+package com.richardvinz.Book_Management_App.service.invalidation;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One message on the invalidation bus: a book written on the sending node, a batch of writes
+ * too large to announce one by one ({@code CATALOG}), or a heartbeat. Sequence numbers count
+ * up per sending node, so a receiver can tell when it missed one.
+ */
+public final class InvalidationEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, CATALOG, HEARTBEAT
+    }
+
+    // Version carried by DELETED, CATALOG and HEARTBEAT events, which name no live row
+    public static final long NO_VERSION = -1;
+
+    private final String nodeId;
+    private final long sequence;
+    private final Type type;
+    private final long bookId;
+    private final long version;
+    private final long publishedAt;
+
+    public InvalidationEvent(String nodeId, long sequence, Type type, long bookId, long version, long publishedAt) {
+        this.nodeId = nodeId;
+        this.sequence = sequence;
+        this.type = type;
+        this.bookId = bookId;
+        this.version = version;
+        this.publishedAt = publishedAt;
+    }
+
+    // Parses what encode() produced; throws IllegalArgumentException for anything else
+    public static InvalidationEvent decode(byte[] data, int length) {
+        String[] fields = new String(data, 0, length, StandardCharsets.UTF_8).split("\\|");
+        if (fields.length != 6) {
+            throw new IllegalArgumentException("Malformed invalidation event");
+        }
+        return new InvalidationEvent(fields[0], Long.parseLong(fields[1]), Type.valueOf(fields[2]),
+                Long.parseLong(fields[3]), Long.parseLong(fields[4]), Long.parseLong(fields[5]));
+    }
+
+    public byte[] encode() {
+        return (nodeId + "|" + sequence + "|" + type + "|" + bookId + "|" + version + "|" + publishedAt)
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getBookId() {
+        return bookId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    // Sender's wall clock in epoch milliseconds
+    public long getPublishedAt() {
+        return publishedAt;
+    }
+
+    @Override
+    public String toString() {
+        return type + " book " + bookId + " v" + version + " from " + nodeId + "#" + sequence;
+    }
+}
@@ -0,0 +1,23 @@
+package com.richardvinz.Book_Management_App.service.invalidation;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries invalidation events between nodes. A transport delivers every event to every node,
+ * including the sender, at most once; it may lose or reorder events, which the
+ * {@link InvalidationBus} detects from sequence numbers and silence.
+ */
+public interface InvalidationTransport {
+
+    /**
+     * True when publishing writes through the caller's transaction, so an event becomes visible
+     * exactly when the write it describes commits. Otherwise events are published after commit.
+     */
+    boolean joinsTransaction();
+
+    void publish(InvalidationEvent event);
+
+    void start(Consumer<InvalidationEvent> receiver);
+
+    void stop();
+}
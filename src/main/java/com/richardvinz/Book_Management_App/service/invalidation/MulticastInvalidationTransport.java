@@ -0,0 +1,131 @@
+package com.richardvinz.Book_Management_App.service.invalidation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.net.StandardSocketOptions;
+import java.util.function.Consumer;
+
+/**
+ * Invalidation transport over UDP multicast, for instances on one network segment. Datagrams
+ * can be lost, which the bus detects from sequence gaps. Multicast loopback is on, so several
+ * instances on one machine, or in one test, hear each other and themselves.
+ */
+@Component
+@ConditionalOnProperty(name = "invalidation-bus.transport", havingValue = "multicast")
+public class MulticastInvalidationTransport implements InvalidationTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(MulticastInvalidationTransport.class);
+    private static final int MAX_DATAGRAM_SIZE = 512;
+
+    private final InetSocketAddress group;
+    private final String interfaceName;
+    private final int timeToLive;
+
+    private MulticastSocket socket;
+    private Thread listener;
+
+    @Autowired
+    public MulticastInvalidationTransport(@Value("${invalidation-bus.multicast.group:239.255.42.99}") String group,
+                                          @Value("${invalidation-bus.multicast.port:45599}") int port,
+                                          @Value("${invalidation-bus.multicast.interface:}") String interfaceName,
+                                          @Value("${invalidation-bus.multicast.ttl:1}") int timeToLive) {
+        this.group = new InetSocketAddress(group, port);
+        this.interfaceName = interfaceName;
+        this.timeToLive = timeToLive;
+    }
+
+    @Override
+    public boolean joinsTransaction() {
+        return false;
+    }
+
+    @Override
+    public void publish(InvalidationEvent event) {
+        byte[] data = event.encode();
+        try {
+            socket.send(new DatagramPacket(data, data.length, group));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not send invalidation " + event, e);
+        }
+    }
+
+    @Override
+    public synchronized void start(Consumer<InvalidationEvent> receiver) {
+        try {
+            socket = new MulticastSocket(group.getPort());
+            socket.setOption(StandardSocketOptions.IP_MULTICAST_LOOP, true);
+            socket.setTimeToLive(timeToLive);
+            NetworkInterface networkInterface = resolveInterface();
+            if (networkInterface != null) {
+                socket.setNetworkInterface(networkInterface);
+            }
+            socket.joinGroup(group, networkInterface);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not join invalidation group " + group, e);
+        }
+        MulticastSocket joined = socket;
+        listener = new Thread(() -> listen(joined, receiver), "invalidation-multicast");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (socket != null) {
+            socket.close();
+        }
+        if (listener != null) {
+            try {
+                listener.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void listen(MulticastSocket joined, Consumer<InvalidationEvent> receiver) {
+        byte[] buffer = new byte[MAX_DATAGRAM_SIZE];
+        DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+        while (!joined.isClosed()) {
+            try {
+                joined.receive(packet);
+                receiver.accept(InvalidationEvent.decode(packet.getData(), packet.getLength()));
+            } catch (SocketException e) {
+                // Closed by stop()
+                return;
+            } catch (IOException | IllegalArgumentException e) {
+                log.debug("Ignoring invalidation datagram: {}", e.getMessage());
+            } catch (RuntimeException e) {
+                log.warn("Could not apply invalidation", e);
+            }
+        }
+    }
+
+    private NetworkInterface resolveInterface() throws SocketException {
+        if (interfaceName.isBlank()) {
+            return null;
+        }
+        NetworkInterface byName = NetworkInterface.getByName(interfaceName);
+        if (byName != null) {
+            return byName;
+        }
+        try {
+            return NetworkInterface.getByInetAddress(InetAddress.getByName(interfaceName));
+        } catch (IOException e) {
+            throw new SocketException("Unknown network interface " + interfaceName);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.richardvinz.Book_Management_App.service.invalidation;
+
+import com.richardvinz.Book_Management_App.entity.BookInvalidation;
+import com.richardvinz.Book_Management_App.repository.BookInvalidationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Invalidation transport over a shared table, for instances that share nothing but the
+ * database. Events are inserted in the writer's transaction, so they become visible exactly
+ * when the write commits, and every node polls for rows it has not seen.
+ * <p>
+ * Identity values are handed out at insert but become visible at commit, so a row can appear
+ * after rows with higher ids. Rows are therefore re-read for {@code commit-slack} after they
+ * were first seen, and only skipped for good once that has passed.
+ */
+@Component
+@ConditionalOnProperty(name = "invalidation-bus.transport", havingValue = "table")
+public class TableInvalidationTransport implements InvalidationTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(TableInvalidationTransport.class);
+
+    private final BookInvalidationRepository repository;
+    private final TransactionTemplate readTransaction;
+    private final Duration commitSlack;
+    private final Duration retention;
+
+    // Ids read in the last commit-slack, with when they were first read; older ones are below floor
+    private final TreeMap<Long, Long> recentlySeen = new TreeMap<>();
+    private long floor;
+    private volatile Consumer<InvalidationEvent> receiver;
+
+    @Autowired
+    public TableInvalidationTransport(BookInvalidationRepository repository,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${invalidation-bus.table.commit-slack:5s}") Duration commitSlack,
+                                      @Value("${invalidation-bus.table.retention:10m}") Duration retention) {
+        this.repository = repository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+        this.commitSlack = commitSlack;
+        this.retention = retention;
+    }
+
+    @Override
+    public boolean joinsTransaction() {
+        return true;
+    }
+
+    @Override
+    public void publish(InvalidationEvent event) {
+        repository.save(BookInvalidation.builder()
+                .nodeId(event.getNodeId())
+                .sequence(event.getSequence())
+                .type(event.getType().name())
+                .bookId(event.getBookId())
+                .version(event.getVersion())
+                .publishedAt(event.getPublishedAt())
+                .build());
+    }
+
+    @Override
+    public synchronized void start(Consumer<InvalidationEvent> receiver) {
+        // Earlier rows describe writes this node's caches never saw, so they are skipped
+        floor = repository.findMaxId();
+        this.receiver = receiver;
+    }
+
+    @Override
+    public void stop() {
+        receiver = null;
+    }
+
+    @Scheduled(fixedDelayString = "${invalidation-bus.table.poll-ms:500}")
+    public synchronized void poll() {
+        Consumer<InvalidationEvent> current = receiver;
+        if (current == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<BookInvalidation> rows;
+        try {
+            rows = readTransaction.execute(status -> repository.findByIdGreaterThanOrderById(floor));
+        } catch (RuntimeException e) {
+            // The bus notices the silence and stops trusting its caches
+            log.warn("Could not poll invalidations: {}", e.getMessage());
+            return;
+        }
+        for (BookInvalidation row : rows) {
+            if (recentlySeen.putIfAbsent(row.getId(), now) == null) {
+                current.accept(new InvalidationEvent(row.getNodeId(), row.getSequence(),
+                        InvalidationEvent.Type.valueOf(row.getType()), row.getBookId(), row.getVersion(),
+                        row.getPublishedAt()));
+            }
+        }
+
+        Iterator<Map.Entry<Long, Long>> seen = recentlySeen.entrySet().iterator();
+        while (seen.hasNext()) {
+            Map.Entry<Long, Long> entry = seen.next();
+            if (now - entry.getValue() < commitSlack.toMillis()) {
+                break;
+            }
+            floor = Math.max(floor, entry.getKey());
+            seen.remove();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${invalidation-bus.table.prune-ms:60000}")
+    public void prune() {
+        try {
+            repository.deletePublishedBefore(System.currentTimeMillis() - retention.toMillis());
+        } catch (RuntimeException e) {
+            log.warn("Could not prune invalidations: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.richardvinz.Book_Management_App.benchmark;
+
+import com.richardvinz.Book_Management_App.entity.Book;
+import com.richardvinz.Book_Management_App.search.KeywordIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures BM25 ranking of the first page when a large share of the catalog matches,
+ * compared with ranking deep into the result set.
+ * <p>
+ * Not part of the regular build; run with
+ * {@code mvn test -Dtest=KeywordRankingBenchmark -Dbenchmark.rows=1000000}.
+ */
+@DisplayName("Keyword Ranking Benchmark")
+class KeywordRankingBenchmark {
+
+    private static final String[] WORDS = {"silent", "river", "shadow", "garden", "empire", "winter", "glass",
+            "memory", "ocean", "crown", "forgotten", "letters", "night", "harvest", "stone", "orchard"};
+
+    @Test
+    @DisplayName("Top-k ranking over large match sets")
+    void measureRanking() {
+        int rows = Integer.getInteger("benchmark.rows", 1_000_000);
+
+        KeywordIndex keywordIndex = new KeywordIndex();
+        Random random = new Random(42);
+        long buildStarted = System.nanoTime();
+        for (long id = 1; id <= rows; id++) {
+            Book book = new Book();
+            book.setId(id);
+            book.setTitle(words(random, 3));
+            book.setAuthor("Author " + random.nextInt(10_000));
+            book.setDescription(words(random, 20));
+            keywordIndex.index(book);
+        }
+        System.out.printf("Indexed %,d books in %d ms%n", rows, (System.nanoTime() - buildStarted) / 1_000_000);
+
+        for (String keyword : List.of("river", "river night", "sha")) {
+            long[] matches = keywordIndex.search(keyword);
+            for (int limit : new int[]{10, 1_000, 100_000}) {
+                double micros = averageMicros(10, () -> keywordIndex.rank(keyword, keywordIndex.search(keyword), limit));
+                System.out.printf("%-14s matches=%,-10d top=%,-8d search+rank=%,12.1f us%n",
+                        "'" + keyword + "'", matches.length, limit, micros);
+            }
+        }
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return text.toString();
+    }
+
+    private static double averageMicros(int iterations, Runnable action) {
+        action.run();
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            action.run();
+        }
+        return (System.nanoTime() - started) / 1_000.0 / iterations;
+    }
+}
@@ -0,0 +1,66 @@
+package com.richardvinz.Book_Management_App.benchmark;
+
+import com.richardvinz.Book_Management_App.entity.Book;
+import com.richardvinz.Book_Management_App.search.AttributeIndex;
+import com.richardvinz.Book_Management_App.search.PriceIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * Measures building the price index and answering range, paging and top-k queries from it.
+ * <p>
+ * Not part of the regular build; run with
+ * {@code mvn test -Dtest=PriceIndexBenchmark -Dbenchmark.rows=1000000}.
+ */
+@DisplayName("Price Index Benchmark")
+class PriceIndexBenchmark {
+
+    @Test
+    @DisplayName("Range and top-k queries over a large catalog")
+    void measurePriceQueries() {
+        int rows = Integer.getInteger("benchmark.rows", 1_000_000);
+
+        AttributeIndex attributeIndex = new AttributeIndex();
+        PriceIndex priceIndex = new PriceIndex(attributeIndex);
+        Random random = new Random(42);
+        long buildStarted = System.nanoTime();
+        for (long id = 1; id <= rows; id++) {
+            Book book = new Book();
+            book.setId(id);
+            book.setPrice(Math.round(random.nextDouble() * 20_000) / 100.0);
+            priceIndex.index(book);
+            attributeIndex.index(book);
+        }
+        priceIndex.size();
+        System.out.printf("Indexed %,d books in %d ms%n", rows, (System.nanoTime() - buildStarted) / 1_000_000);
+
+        System.out.printf("count(10-50)          %,10.1f us%n", averageMicros(1_000, () -> priceIndex.count(10, 50)));
+        System.out.printf("range(10-50) page 1   %,10.1f us%n",
+                averageMicros(1_000, () -> priceIndex.range(10, 50, 0, 20, false)));
+        System.out.printf("range(10-50) page 500 %,10.1f us%n",
+                averageMicros(1_000, () -> priceIndex.range(10, 50, 10_000, 20, false)));
+        System.out.printf("top 10 most expensive %,10.1f us%n", averageMicros(1_000,
+                () -> priceIndex.range(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 0, 10, true)));
+        System.out.printf("search(10-50) by id   %,10.1f us%n", averageMicros(10, () -> priceIndex.search(10, 50)));
+
+        Book repriced = new Book();
+        repriced.setId(rows / 2L);
+        repriced.setPrice(99.99);
+        System.out.printf("re-price + read       %,10.1f us%n", averageMicros(100, () -> {
+            priceIndex.index(repriced);
+            attributeIndex.index(repriced);
+            priceIndex.count(0, 1);
+        }));
+    }
+
+    private static double averageMicros(int iterations, Runnable action) {
+        action.run();
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            action.run();
+        }
+        return (System.nanoTime() - started) / 1_000.0 / iterations;
+    }
+}
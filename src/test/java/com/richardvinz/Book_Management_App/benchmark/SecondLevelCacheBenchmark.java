@@ -0,0 +1,108 @@
+package com.richardvinz.Book_Management_App.benchmark;
+
+import com.richardvinz.Book_Management_App.BookManagementAppApplication;
+import com.richardvinz.Book_Management_App.entity.Book;
+import com.richardvinz.Book_Management_App.repository.BookRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+/**
+ * Compares JDBC round trips and latency of repository reads with the Hibernate second-level
+ * and query cache off (default) and on (profile {@code l2cache}). Every read runs in its own
+ * transaction, as a request would, so the session cache never helps.
+ * <p>
+ * Not part of the regular build; run with
+ * {@code mvn test -Dtest=SecondLevelCacheBenchmark -Dbenchmark.rows=10000 -Dbenchmark.reads=20000}.
+ */
+@DisplayName("Second-Level Cache Benchmark")
+class SecondLevelCacheBenchmark {
+
+    @Test
+    @DisplayName("Repository reads with the second-level cache off and on")
+    void measureSecondLevelCache() {
+        int rows = Integer.getInteger("benchmark.rows", 10_000);
+        int reads = Integer.getInteger("benchmark.reads", 20_000);
+
+        for (boolean cached : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext context = start(cached)) {
+                BookRepository bookRepository = context.getBean(BookRepository.class);
+                TransactionTemplate transaction =
+                        new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+                Statistics statistics = context.getBean(EntityManagerFactory.class)
+                        .unwrap(SessionFactory.class).getStatistics();
+                List<Long> ids = seed(bookRepository, transaction, rows);
+
+                System.out.printf("%nSecond-level cache %s, %,d books%n", cached ? "ON" : "OFF", rows);
+                Random random = new Random(42);
+                measure("findById (hot 10%)", reads, statistics, i -> transaction.executeWithoutResult(status ->
+                        bookRepository.findById(ids.get(random.nextInt(Math.max(1, rows / 10))))));
+                measure("findByIsbn (hot 100)", reads, statistics, i -> transaction.executeWithoutResult(status ->
+                        bookRepository.findByIsbn(isbn(random.nextInt(Math.min(100, rows))))));
+                measure("findVersionById (hot 10%)", reads, statistics, i -> transaction.executeWithoutResult(status ->
+                        bookRepository.findVersionById(ids.get(random.nextInt(Math.max(1, rows / 10))))));
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(boolean cached) {
+        List<String> profiles = cached ? List.of("test", "l2cache") : List.of("test");
+        return new SpringApplicationBuilder(BookManagementAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(profiles.toArray(String[]::new))
+                // Passed as arguments so they win over the test profile's SQL logging
+                .run("--spring.datasource.url=jdbc:h2:mem:l2-benchmark-" + cached,
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=true",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.com.richardvinz.Book_Management_App=WARN");
+    }
+
+    private static List<Long> seed(BookRepository bookRepository, TransactionTemplate transaction, int rows) {
+        List<Long> ids = new ArrayList<>(rows);
+        Random random = new Random(7);
+        for (int from = 0; from < rows; from += 1_000) {
+            int start = from;
+            transaction.executeWithoutResult(status -> {
+                for (int i = start; i < Math.min(start + 1_000, rows); i++) {
+                    Book book = new Book("Book " + i, "Author " + (i % 500), isbn(i), 1950 + random.nextInt(70),
+                            null, 5 + random.nextInt(95) + 0.99, random.nextInt(200));
+                    ids.add(bookRepository.save(book).getId());
+                }
+            });
+        }
+        return ids;
+    }
+
+    private static String isbn(int i) {
+        return String.format("978%010d", i);
+    }
+
+    private static void measure(String label, int reads, Statistics statistics, IntConsumer read) {
+        for (int i = 0; i < Math.min(reads, 1_000); i++) {
+            read.accept(i);
+        }
+        statistics.clear();
+        long started = System.nanoTime();
+        for (int i = 0; i < reads; i++) {
+            read.accept(i);
+        }
+        double micros = (System.nanoTime() - started) / 1_000.0 / reads;
+        System.out.printf("%-22s %,10.1f us/read %8.3f statements/read %,10d L2 hits %,8d query cache hits%n",
+                label, micros, (double) statistics.getPrepareStatementCount() / reads,
+                statistics.getSecondLevelCacheHitCount(), statistics.getQueryCacheHitCount());
+    }
+}
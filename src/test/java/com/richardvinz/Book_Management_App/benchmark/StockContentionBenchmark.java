@@ -0,0 +1,147 @@
+package com.richardvinz.Book_Management_App.benchmark;
+
+import com.richardvinz.Book_Management_App.BookManagementAppApplication;
+import com.richardvinz.Book_Management_App.dto.BookRequestDto;
+import com.richardvinz.Book_Management_App.dto.BookResponseDto;
+import com.richardvinz.Book_Management_App.exception.InsufficientStockException;
+import com.richardvinz.Book_Management_App.exception.PreconditionFailedException;
+import com.richardvinz.Book_Management_App.repository.BookRepository;
+import com.richardvinz.Book_Management_App.service.BookService;
+import jakarta.persistence.OptimisticLockException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.ConcurrencyFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sells one hot book from hundreds of threads at once, first by reading the book and writing
+ * back the decremented stock with its version (retrying on conflicts), then through
+ * {@link BookService#adjustStock}, which decrements in a single conditional UPDATE. The book
+ * starts with stock for half of the attempted sales, so both runs must end at exactly zero.
+ * <p>
+ * Not part of the regular build; run with
+ * {@code mvn test -Dtest=StockContentionBenchmark -Dbenchmark.threads=200 -Dbenchmark.sales=10}.
+ */
+@DisplayName("Stock Contention Benchmark")
+class StockContentionBenchmark {
+
+    @Test
+    @DisplayName("Concurrent sales of one book, read-modify-write against an atomic UPDATE")
+    void measureStockContention() throws Exception {
+        int threads = Integer.getInteger("benchmark.threads", 200);
+        int sales = Integer.getInteger("benchmark.sales", 10);
+        int pool = Integer.getInteger("benchmark.pool", 20);
+        int stock = threads * sales / 2;
+
+        try (ConfigurableApplicationContext context = start(pool)) {
+            BookService bookService = context.getBean(BookService.class);
+            BookRepository bookRepository = context.getBean(BookRepository.class);
+            System.out.printf("%n%,d threads x %,d sales of one book with %,d in stock, %d connections%n",
+                    threads, sales, stock, pool);
+
+            for (boolean atomic : new boolean[]{false, true}) {
+                bookRepository.deleteAll();
+                BookResponseDto book = bookService.createBook(BookRequestDto.builder()
+                        .title("Hot Book").author("Popular Author").isbn("978-0-00-000000-0")
+                        .publishedYear(2024).price(19.99).stockQuantity(stock).build());
+                AtomicLong sold = new AtomicLong();
+                AtomicLong conflicts = new AtomicLong();
+
+                long elapsed = run(threads, () -> {
+                    for (int i = 0; i < sales; i++) {
+                        if (!(atomic ? sellAtomically(bookService, book.getId())
+                                : sellByReadingFirst(bookService, book.getId(), conflicts))) {
+                            return;
+                        }
+                        sold.incrementAndGet();
+                    }
+                });
+
+                int finalStock = bookRepository.findById(book.getId()).orElseThrow().getStockQuantity();
+                System.out.printf("%-18s %,10.1f ms %,10.0f sales/s %,8d sold %,8d conflicts final stock %d%s%n",
+                        atomic ? "atomic UPDATE" : "read-modify-write", elapsed / 1e6, sold.get() / (elapsed / 1e9),
+                        sold.get(), conflicts.get(), finalStock,
+                        finalStock == stock - sold.get() && finalStock == 0 ? "" : "  <-- INCONSISTENT");
+            }
+        }
+    }
+
+    private static boolean sellAtomically(BookService bookService, Long id) {
+        try {
+            bookService.adjustStock(id, -1);
+            return true;
+        } catch (InsufficientStockException e) {
+            return false;
+        }
+    }
+
+    // What a client without the stock endpoint has to do: read, decrement, write back with If-Match
+    private static boolean sellByReadingFirst(BookService bookService, Long id, AtomicLong conflicts) {
+        while (true) {
+            BookResponseDto current = bookService.getBookById(id);
+            if (current.getStockQuantity() == 0) {
+                return false;
+            }
+            BookRequestDto decremented = BookRequestDto.builder()
+                    .title(current.getTitle()).author(current.getAuthor()).isbn(current.getIsbn())
+                    .publishedYear(current.getPublishedYear()).description(current.getDescription())
+                    .price(current.getPrice()).stockQuantity(current.getStockQuantity() - 1).build();
+            try {
+                bookService.updateBook(id, decremented, current.getVersion());
+                return true;
+            } catch (PreconditionFailedException | ConcurrencyFailureException | OptimisticLockException e) {
+                conflicts.incrementAndGet();
+            }
+        }
+    }
+
+    // Starts every thread at once and returns the nanoseconds until the last one finished
+    private static long run(int threads, Runnable work) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch ready = new CountDownLatch(threads);
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    ready.countDown();
+                    go.await();
+                    work.run();
+                    return null;
+                }));
+            }
+            ready.await();
+            long started = System.nanoTime();
+            go.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - started;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ConfigurableApplicationContext start(int pool) {
+        return new SpringApplicationBuilder(BookManagementAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                // Passed as arguments so they win over the test profile's SQL logging
+                .run("--spring.datasource.url=jdbc:h2:mem:stock-benchmark;LOCK_TIMEOUT=10000",
+                        "--spring.datasource.hikari.maximum-pool-size=" + pool,
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.com.richardvinz.Book_Management_App=WARN");
+    }
+}
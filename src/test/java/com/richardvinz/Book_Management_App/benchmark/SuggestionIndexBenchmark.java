@@ -0,0 +1,111 @@
+package com.richardvinz.Book_Management_App.benchmark;
+
+import com.richardvinz.Book_Management_App.entity.Book;
+import com.richardvinz.Book_Management_App.search.SuggestionIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Measures typeahead latency percentiles under concurrent readers while a writer keeps
+ * re-indexing books with new stock levels.
+ * <p>
+ * Not part of the regular build; run with
+ * {@code mvn test -Dtest=SuggestionIndexBenchmark -Dbenchmark.rows=100000 -Dbenchmark.threads=8}.
+ */
+@DisplayName("Suggestion Index Benchmark")
+class SuggestionIndexBenchmark {
+
+    private static final String[] WORDS = {"silent", "river", "shadow", "garden", "empire", "winter", "glass",
+            "memory", "ocean", "crown", "forgotten", "letters", "night", "harvest", "stone", "orchard"};
+    private static final String[] NAMES = {"austen", "orwell", "lee", "hemingway", "woolf", "tolstoy",
+            "morrison", "marquez", "murakami", "achebe", "shelley", "kafka", "allende", "ishiguro"};
+
+    @Test
+    @DisplayName("Typeahead latency under concurrent reads and writes")
+    void measureSuggestLatency() throws Exception {
+        int rows = Integer.getInteger("benchmark.rows", 100_000);
+        int threads = Integer.getInteger("benchmark.threads", 8);
+        long durationMillis = Long.getLong("benchmark.durationMillis", 5_000);
+
+        SuggestionIndex suggestionIndex = new SuggestionIndex();
+        Random random = new Random(42);
+        long buildStarted = System.nanoTime();
+        for (long id = 1; id <= rows; id++) {
+            suggestionIndex.index(randomBook(random, id));
+        }
+        System.out.printf("Indexed %,d books in %d ms%n", rows, (System.nanoTime() - buildStarted) / 1_000_000);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        Future<Integer> writer = executor.submit(() -> {
+            Random writes = new Random(7);
+            int count = 0;
+            while (running.get()) {
+                suggestionIndex.index(randomBook(writes, 1 + writes.nextInt(rows)));
+                count++;
+                TimeUnit.MICROSECONDS.sleep(500);
+            }
+            return count;
+        });
+
+        List<Future<long[]>> readers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            readers.add(executor.submit(() -> {
+                Random reads = new Random(seed);
+                long[] latencies = new long[1 << 22];
+                int count = 0;
+                while (running.get() && count < latencies.length) {
+                    String word = reads.nextBoolean() ? WORDS[reads.nextInt(WORDS.length)] : NAMES[reads.nextInt(NAMES.length)];
+                    String prefix = word.substring(0, 1 + reads.nextInt(word.length()));
+                    long started = System.nanoTime();
+                    suggestionIndex.suggest(prefix, SuggestionIndex.MAX_SUGGESTIONS);
+                    latencies[count++] = System.nanoTime() - started;
+                }
+                return Arrays.copyOf(latencies, count);
+            }));
+        }
+
+        TimeUnit.MILLISECONDS.sleep(durationMillis);
+        running.set(false);
+
+        long[] all = readers.stream().map(SuggestionIndexBenchmark::join).flatMapToLong(Arrays::stream).sorted().toArray();
+        int writes = writer.get();
+        executor.shutdown();
+
+        System.out.printf("threads=%d requests=%,d (%,.0f/s) writes=%,d  p50=%.1f us  p99=%.1f us  p99.9=%.1f us  max=%.1f us%n",
+                threads, all.length, all.length * 1000.0 / durationMillis, writes,
+                percentile(all, 0.50), percentile(all, 0.99), percentile(all, 0.999), all[all.length - 1] / 1_000.0);
+    }
+
+    private static Book randomBook(Random random, long id) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + id);
+        book.setAuthor(NAMES[random.nextInt(NAMES.length)] + " " + random.nextInt(1000));
+        book.setStockQuantity(random.nextInt(500));
+        return book;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1_000.0;
+    }
+
+    private static long[] join(Future<long[]> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
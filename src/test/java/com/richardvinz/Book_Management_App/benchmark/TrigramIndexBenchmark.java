@@ -0,0 +1,151 @@
+package com.richardvinz.Book_Management_App.benchmark;
+
+import com.richardvinz.Book_Management_App.entity.Book;
+import com.richardvinz.Book_Management_App.repository.BookRepository;
+import com.richardvinz.Book_Management_App.search.SubstringIndex;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Compares the trigram-backed author/title search with the JPA derived
+ * "containing ignore case" queries it replaced.
+ * <p>
+ * Not part of the regular build; run with
+ * {@code mvn test -Dtest=TrigramIndexBenchmark -Dbenchmark.rows=1000000}.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"
+})
+@DisplayName("Trigram Index Benchmark")
+class TrigramIndexBenchmark {
+
+    private static final String[] FIRST_NAMES = {"Jane", "George", "Harper", "Ernest", "Virginia", "Leo",
+            "Toni", "Gabriel", "Haruki", "Chinua", "Mary", "Franz", "Isabel", "Kazuo", "Octavia", "Ursula"};
+    private static final String[] LAST_NAMES = {"Austen", "Orwell", "Lee", "Hemingway", "Woolf", "Tolstoy",
+            "Morrison", "Marquez", "Murakami", "Achebe", "Shelley", "Kafka", "Allende", "Ishiguro", "Butler", "LeGuin"};
+    private static final String[] TITLE_WORDS = {"Silent", "River", "Shadow", "Garden", "Empire", "Winter",
+            "Glass", "Memory", "Ocean", "Crown", "Forgotten", "Letters", "Night", "Harvest", "Stone", "Orchard"};
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("Trigram index vs JPA derived substring queries")
+    void compareSubstringSearch() {
+        int rows = Integer.getInteger("benchmark.rows", 1_000_000);
+        insertCatalog(rows);
+
+        SubstringIndex substringIndex = new SubstringIndex();
+        long buildStarted = System.nanoTime();
+        jdbcTemplate.query("SELECT id, title, author FROM books", resultSet -> {
+            Book book = new Book();
+            book.setId(resultSet.getLong(1));
+            book.setTitle(resultSet.getString(2));
+            book.setAuthor(resultSet.getString(3));
+            substringIndex.index(book);
+        });
+        System.out.printf("Indexed %,d books in %d ms%n", rows, (System.nanoTime() - buildStarted) / 1_000_000);
+
+        // Rare enough that the JPA side does not just measure result materialization
+        List<String> authorQueries = List.of("guin 42", "kafka 7", "hemingway 13", "shiguro 99");
+        List<String> titleQueries = List.of("ocean crown 5", "winter glass 81", "memory harv", "orchard 3");
+
+        report("author", authorQueries,
+                query -> bookRepository.findByAuthorContainingIgnoreCase(query).size(),
+                query -> substringIndex.searchAuthor(query).length);
+        report("title", titleQueries,
+                query -> bookRepository.findByTitleContainingIgnoreCase(query).size(),
+                query -> substringIndex.searchTitle(query).length);
+
+        // Writes hold the field's write lock, so their cost is also how long searches wait behind them
+        Random random = new Random(7);
+        int writes = 1_000;
+        long[] ids = random.longs(writes, 1, rows + 1).distinct().toArray();
+        int[] next = {0};
+        double updateMicros = averageMicros(ids.length - 1, () -> {
+            Book book = new Book();
+            book.setId(ids[next[0]++ % ids.length]);
+            book.setTitle("The Renamed Edition " + next[0]);
+            book.setAuthor("Another Author " + next[0]);
+            substringIndex.index(book);
+        });
+        next[0] = 0;
+        double deleteMicros = averageMicros(ids.length - 1, () -> substringIndex.remove(ids[next[0]++]));
+        System.out.printf("update title+author %,10.1f us   delete %,10.1f us   (%,d books, %,d writes)%n",
+                updateMicros, deleteMicros, rows, ids.length);
+    }
+
+    private void report(String field, List<String> queries,
+                        ToIntFunction<String> jpaQuery, ToIntFunction<String> indexQuery) {
+        int jpaIterations = 5;
+        int indexIterations = 500;
+
+        for (String query : queries) {
+            int jpaMatches = jpaQuery.applyAsInt(query);
+            int indexMatches = indexQuery.applyAsInt(query);
+            assertThat(indexMatches).as("matches for %s '%s'", field, query).isEqualTo(jpaMatches);
+
+            double jpaMicros = averageMicros(jpaIterations, () -> {
+                jpaQuery.applyAsInt(query);
+                entityManager.clear();
+            });
+            double indexMicros = averageMicros(indexIterations, () -> indexQuery.applyAsInt(query));
+
+            System.out.printf("%-6s %-18s matches=%-6d jpa=%,12.1f us  trigram=%,10.1f us  speedup=%,.0fx%n",
+                    field, "'" + query + "'", jpaMatches, jpaMicros, indexMicros, jpaMicros / indexMicros);
+        }
+    }
+
+    private double averageMicros(int iterations, Runnable action) {
+        action.run();
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            action.run();
+        }
+        return (System.nanoTime() - started) / 1_000.0 / iterations;
+    }
+
+    private void insertCatalog(int rows) {
+        Random random = new Random(42);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Function<String[], String> pick = words -> words[random.nextInt(words.length)];
+
+        List<Object[]> batch = new ArrayList<>();
+        for (int id = 1; id <= rows; id++) {
+            String title = pick.apply(TITLE_WORDS) + " " + pick.apply(TITLE_WORDS) + " " + random.nextInt(100);
+            String author = pick.apply(FIRST_NAMES) + " " + pick.apply(LAST_NAMES) + " " + random.nextInt(100);
+            batch.add(new Object[]{(long) id, title, author, "ISBN-" + id, 1900 + random.nextInt(124),
+                    10 + random.nextInt(90), random.nextInt(200), now, now, 0L});
+            if (batch.size() == 10_000 || id == rows) {
+                jdbcTemplate.batchUpdate("INSERT INTO books (id, title, author, isbn, published_year, price, "
+                        + "stock_quantity, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.richardvinz.Book_Management_App.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
 import com.richardvinz.Book_Management_App.BookManagementAppApplication;
 import com.richardvinz.Book_Management_App.dto.BookRequestDto;
 import com.richardvinz.Book_Management_App.dto.BookResponseDto;
 import com.richardvinz.Book_Management_App.entity.Book;
 import com.richardvinz.Book_Management_App.repository.BookRepository;
+import com.richardvinz.Book_Management_App.service.BookService;
 import com.richardvinz.Book_Management_App.testUtil.TestDataBuilder;
 import com.richardvinz.Book_Management_App.testUtil.TestUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,6 +15,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -20,9 +23,14 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -38,6 +46,9 @@ class BookControllerIntegrationTest {
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private BookService bookService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -105,14 +116,10 @@ class BookControllerIntegrationTest {
     @Test
     @DisplayName("Should handle search operations")
     void shouldHandleSearchOperations() throws Exception {
-        // Setup test data
-        Book book1 = TestDataBuilder.createBook(null, "The Great Gatsby", "F. Scott Fitzgerald", "978-0-123456-78-9");
-        Book book2 = TestDataBuilder.createBook(null, "To Kill a Mockingbird", "Harper Lee", "978-0-123456-79-6");
-        Book book3 = TestDataBuilder.createBook(null, "1984", "George Orwell", "978-0-123456-80-2");
-
-        bookRepository.save(book1);
-        bookRepository.save(book2);
-        bookRepository.save(book3);
+        // Setup test data through the service so the search indexes see it
+        bookService.createBook(TestDataBuilder.createBookRequestDto("The Great Gatsby", "F. Scott Fitzgerald", "978-0-123456-78-9"));
+        bookService.createBook(TestDataBuilder.createBookRequestDto("To Kill a Mockingbird", "Harper Lee", "978-0-123456-79-6"));
+        bookService.createBook(TestDataBuilder.createBookRequestDto("1984", "George Orwell", "978-0-123456-80-2"));
 
         // Search by author
         mockMvc.perform(get("/api/v1/books/search/author")
@@ -138,7 +145,20 @@ class BookControllerIntegrationTest {
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content", hasSize(1)))
-                .andExpect(jsonPath("$.content[0].title", containsString("Mockingbird")));
+                .andExpect(jsonPath("$.content[0].title", containsString("Mockingbird")))
+                .andExpect(jsonPath("$.facets").doesNotExist());
+
+        // Search by keyword with facet counts over all matches
+        mockMvc.perform(get("/api/v1/books/search")
+                        .param("keyword", "")
+                        .param("size", "1")
+                        .param("facets", "true"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.facets.publishedYear[0].value", is("2023")))
+                .andExpect(jsonPath("$.facets.publishedYear[0].count", is(3)))
+                .andExpect(jsonPath("$.facets.stock[0].value", is("IN_STOCK")));
     }
 
     @Test
@@ -174,8 +194,264 @@ class BookControllerIntegrationTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(TestUtils.asJsonString(book2)))
                 .andDo(print())
-                .andExpect(status().isBadRequest())
-                .andExpect(jsonPath("$.message", is("Validation Error")))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message", is("Data Integrity Violation")))
+                .andExpect(jsonPath("$.details", containsString("already exists")));
+    }
+
+    @Test
+    @DisplayName("Should revalidate with ETags and refuse updates of stale versions")
+    void shouldRevalidateWithETags() throws Exception {
+        // Create a book; its first version is 0
+        BookRequestDto book = TestDataBuilder.createValidBookRequestDto();
+        String created = mockMvc.perform(post("/api/v1/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TestUtils.asJsonString(book)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.version", is(0)))
+                .andReturn().getResponse().getContentAsString();
+        Long bookId = objectMapper.readValue(created, BookResponseDto.class).getId();
+        String etag = "\"" + bookId + "-0\"";
+
+        // The book and its page carry ETags that revalidate to 304
+        mockMvc.perform(get("/api/v1/books/{id}", bookId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        mockMvc.perform(get("/api/v1/books/{id}", bookId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        String pageETag = mockMvc.perform(get("/api/v1/books"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("W/")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/v1/books").header(HttpHeaders.IF_NONE_MATCH, pageETag))
+                .andExpect(status().isNotModified());
+
+        // An update against the current ETag succeeds and moves the book to version 1
+        book.setTitle("Edited Once");
+        mockMvc.perform(put("/api/v1/books/{id}", bookId)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TestUtils.asJsonString(book)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + bookId + "-1\""));
+
+        // A second writer still holding version 0 is refused instead of overwriting the edit
+        book.setTitle("Edited Twice");
+        mockMvc.perform(put("/api/v1/books/{id}", bookId)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TestUtils.asJsonString(book)))
+                .andExpect(status().isPreconditionFailed());
+
+        // The old ETags no longer revalidate
+        mockMvc.perform(get("/api/v1/books/{id}", bookId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title", is("Edited Once")));
+        mockMvc.perform(get("/api/v1/books").header(HttpHeaders.IF_NONE_MATCH, pageETag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should look up books by any spelling of their ISBN")
+    void shouldLookUpBooksByIsbnSpelling() throws Exception {
+        // Create a book with a hyphenated ISBN
+        BookRequestDto book = TestDataBuilder.createValidBookRequestDto();
+
+        mockMvc.perform(post("/api/v1/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TestUtils.asJsonString(book)))
+                .andExpect(status().isCreated());
+
+        // Find it without hyphens
+        mockMvc.perform(get("/api/v1/books/isbn/{isbn}", book.getIsbn().replace("-", "")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.isbn", is(book.getIsbn())));
+
+        // The unhyphenated spelling counts as a duplicate
+        BookRequestDto respelled = TestDataBuilder.createBookRequestDto("Different Title", "Different Author",
+                book.getIsbn().replace("-", ""));
+
+        mockMvc.perform(post("/api/v1/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TestUtils.asJsonString(respelled)))
+                .andExpect(status().isConflict())
                 .andExpect(jsonPath("$.details", containsString("already exists")));
+
+        // Unknown ISBNs are not found
+        mockMvc.perform(get("/api/v1/books/isbn/{isbn}", "978-0-000000-00-2"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should walk the catalog with cursors in the same order as pages")
+    void shouldWalkCatalogWithCursors() throws Exception {
+        double[] prices = {20.0, 10.0, 20.0, 30.0, 20.0};
+        for (int i = 0; i < prices.length; i++) {
+            bookService.createBook(TestDataBuilder.createBookRequestDto("Book " + i, "Author " + i,
+                    "978-0-123456-8" + i + "-0", prices[i], 10));
+        }
+
+        String allBooks = mockMvc.perform(get("/api/v1/books")
+                        .param("size", "10")
+                        .param("sortBy", "price")
+                        .param("sortDir", "desc"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<Integer> offsetOrder = JsonPath.read(allBooks, "$.content[*].id");
+
+        // Equal prices are ordered by descending id, so ties never repeat or skip across slices
+        List<Integer> cursorOrder = new ArrayList<>();
+        String cursor = "";
+        do {
+            String slice = mockMvc.perform(get("/api/v1/books")
+                            .param("cursor", cursor)
+                            .param("size", "2")
+                            .param("sortBy", "price")
+                            .param("sortDir", "desc"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalElements").doesNotExist())
+                    .andReturn().getResponse().getContentAsString();
+            cursorOrder.addAll(JsonPath.read(slice, "$.content[*].id"));
+            boolean last = JsonPath.read(slice, "$.last");
+            cursor = last ? null : JsonPath.read(slice, "$.nextCursor");
+        } while (cursor != null);
+
+        assertThat(cursorOrder).hasSize(prices.length).isEqualTo(offsetOrder);
+
+        // A cursor only continues the sort it was issued for
+        String firstSlice = mockMvc.perform(get("/api/v1/books")
+                        .param("cursor", "")
+                        .param("size", "2")
+                        .param("sortBy", "price"))
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(get("/api/v1/books")
+                        .param("cursor", JsonPath.<String>read(firstSlice, "$.nextCursor"))
+                        .param("sortBy", "title"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details", containsString("different sort")));
+    }
+
+    @Test
+    @DisplayName("Should create a batch of books and report the outcome of each item")
+    void shouldCreateBatchOfBooks() throws Exception {
+        // Given a book already holding one of the ISBNs, spelled differently
+        bookService.createBook(TestDataBuilder.createBookRequestDto("Existing", "Some Author", "978-0-306-40615-7"));
+        List<BookRequestDto> batch = List.of(
+                TestDataBuilder.createBookRequestDto("Java Programming", "John Doe", "978-1-111111-11-1"),
+                TestDataBuilder.createBookRequestDto("", "No Title", "978-2-222222-22-2"),
+                TestDataBuilder.createBookRequestDto("Taken", "Some Author", "9780306406157"),
+                TestDataBuilder.createBookRequestDto("Python Guide", "Jane Smith", "978-3-333333-33-3"),
+                TestDataBuilder.createBookRequestDto("Python Guide Again", "Jane Smith", "978-3-333333-33-3"));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/books/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TestUtils.asJsonString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested", is(5)))
+                .andExpect(jsonPath("$.succeeded", is(2)))
+                .andExpect(jsonPath("$.rejected", is(3)))
+                .andExpect(jsonPath("$.rowsPerSecond", greaterThan(0.0)))
+                .andExpect(jsonPath("$.items[*].status",
+                        contains("CREATED", "REJECTED", "REJECTED", "CREATED", "REJECTED")))
+                .andExpect(jsonPath("$.items[0].id", notNullValue()))
+                .andExpect(jsonPath("$.items[0].version", is(0)))
+                .andExpect(jsonPath("$.items[1].errors", hasItem("title: Title is required")))
+                .andExpect(jsonPath("$.items[2].errors[0]", containsString("already exists")))
+                .andExpect(jsonPath("$.items[4].errors[0]", containsString("earlier item")));
+
+        // The created books are stored and searchable
+        assertThat(bookRepository.count()).isEqualTo(3);
+        mockMvc.perform(get("/api/v1/books/search/title").param("title", "Python"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].title", contains("Python Guide")));
+    }
+
+    @Test
+    @DisplayName("Should update and delete books in batches and keep reads and searches coherent")
+    void shouldUpdateAndDeleteBooksInBatches() throws Exception {
+        // Given
+        Long first = bookService.createBook(TestDataBuilder.createBookRequestDto(
+                "Java Programming", "John Doe", "978-1-111111-11-1")).getId();
+        Long second = bookService.createBook(TestDataBuilder.createBookRequestDto(
+                "JavaScript Basics", "John Doe", "978-3-333333-33-3")).getId();
+        Long other = bookService.createBook(TestDataBuilder.createBookRequestDto(
+                "Python Guide", "Jane Smith", "978-2-222222-22-2")).getId();
+        bookService.getBookById(first);
+
+        // When the books are repriced by id
+        mockMvc.perform(patch("/api/v1/books/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + first + "," + second + "],\"changes\":{\"price\":77.5}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested", is(2)))
+                .andExpect(jsonPath("$.succeeded", is(2)));
+
+        // Then reads and searches see the new price and version
+        mockMvc.perform(get("/api/v1/books/{id}", first))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price", is(77.5)))
+                .andExpect(jsonPath("$.title", is("Java Programming")))
+                .andExpect(jsonPath("$.version", is(1)));
+        mockMvc.perform(get("/api/v1/books/query").param("minPrice", "70"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].id", containsInAnyOrder(first.intValue(), second.intValue())));
+
+        // When the books of one author are deleted by filter
+        mockMvc.perform(delete("/api/v1/books/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\":{\"author\":\"John Doe\"}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded", is(2)));
+
+        // Then they are gone everywhere, and the other book is kept
+        mockMvc.perform(get("/api/v1/books/{id}", first))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/books/search/title").param("title", "Java"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+        assertThat(bookRepository.findAll()).extracting(Book::getId).containsExactly(other);
+    }
+
+    @Test
+    @DisplayName("Should patch only the members sent as a JSON Merge Patch")
+    void shouldPatchBookWithMergePatch() throws Exception {
+        // Given
+        BookResponseDto created = bookService.createBook(TestDataBuilder.createBookRequestDto(
+                "Java Programming", "John Doe", "978-1-111111-11-1"));
+
+        // When
+        mockMvc.perform(patch("/api/v1/books/{id}", created.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"" + created.getId() + "-" + created.getVersion() + "\"")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"stockQuantity\": 3, \"description\": null}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stockQuantity", is(3)))
+                .andExpect(jsonPath("$.description").doesNotExist())
+                .andExpect(jsonPath("$.title", is("Java Programming")))
+                .andExpect(jsonPath("$.version", is(created.getVersion().intValue() + 1)));
+
+        // Then the change is stored and visible to searches
+        mockMvc.perform(get("/api/v1/books/{id}", created.getId()))
+                .andExpect(jsonPath("$.stockQuantity", is(3)))
+                .andExpect(jsonPath("$.price", is(created.getPrice())));
+        mockMvc.perform(get("/api/v1/books/query").param("stockBelow", "5"))
+                .andExpect(jsonPath("$.content[*].id", contains(created.getId().intValue())));
+
+        // And members outside the book are refused
+        mockMvc.perform(patch("/api/v1/books/{id}", created.getId())
+                        .contentType("application/merge-patch+json")
+                        .content("{\"id\": 99}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details", is("Unknown member in merge patch: id")));
+
+        // And a taken ISBN is a conflict, as it is for creates
+        BookResponseDto other = bookService.createBook(TestDataBuilder.createBookRequestDto(
+                "Python Guide", "Jane Smith", "978-2-222222-22-2"));
+        mockMvc.perform(patch("/api/v1/books/{id}", created.getId())
+                        .contentType("application/merge-patch+json")
+                        .content("{\"isbn\": \"" + other.getIsbn() + "\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.details", is("Book with ISBN 978-2-222222-22-2 already exists")));
     }
-}
\ No newline at end of file
+}
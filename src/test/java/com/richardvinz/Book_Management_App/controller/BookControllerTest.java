@@ -1,8 +1,26 @@
 package com.richardvinz.Book_Management_App.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.richardvinz.Book_Management_App.dto.BatchDeleteRequestDto;
+import com.richardvinz.Book_Management_App.dto.BatchItemResultDto;
+import com.richardvinz.Book_Management_App.dto.BatchResponseDto;
+import com.richardvinz.Book_Management_App.dto.BatchUpdateRequestDto;
+import com.richardvinz.Book_Management_App.dto.BookQueryDto;
 import com.richardvinz.Book_Management_App.dto.BookRequestDto;
 import com.richardvinz.Book_Management_App.dto.BookResponseDto;
+import com.richardvinz.Book_Management_App.dto.CatalogSummaryDto;
+import com.richardvinz.Book_Management_App.dto.CursorSlice;
+import com.richardvinz.Book_Management_App.dto.FacetCountsDto;
+import com.richardvinz.Book_Management_App.dto.FacetValueDto;
+import com.richardvinz.Book_Management_App.dto.FacetedPage;
+import com.richardvinz.Book_Management_App.dto.FuzzySearchResponseDto;
+import com.richardvinz.Book_Management_App.dto.PlannedPage;
+import com.richardvinz.Book_Management_App.dto.SliceWithTotal;
+import com.richardvinz.Book_Management_App.dto.SuggestionDto;
+import com.richardvinz.Book_Management_App.exception.InsufficientStockException;
+import com.richardvinz.Book_Management_App.search.FuzzyIndex;
 import com.richardvinz.Book_Management_App.service.BookService;
+import com.richardvinz.Book_Management_App.service.StockAlertPublisher;
 import com.richardvinz.Book_Management_App.testUtil.TestDataBuilder;
 import com.richardvinz.Book_Management_App.testUtil.TestUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,17 +29,20 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static com.richardvinz.Book_Management_App.testUtil.TestDataBuilder.createValidBookRequestDto;
 import static com.richardvinz.Book_Management_App.testUtil.TestDataBuilder.createValidBookResponseDto;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.*;
@@ -40,6 +61,9 @@ class BookControllerTest {
     @MockBean
     private BookService bookService;
 
+    @MockBean
+    private StockAlertPublisher stockAlertPublisher;
+
     private BookRequestDto validBookRequest;
     private BookResponseDto bookResponse;
 
@@ -74,6 +98,89 @@ class BookControllerTest {
         verify(bookService).createBook(any(BookRequestDto.class));
     }
 
+    @Test
+    @DisplayName("Should pass a batch to the service and return its per-item outcomes")
+    void shouldCreateBatch() throws Exception {
+        // Given
+        BatchResponseDto response = BatchResponseDto.builder()
+                .requested(1).succeeded(1).rejected(0).elapsedMillis(3).rowsPerSecond(333.3)
+                .items(List.of(BatchItemResultDto.builder()
+                        .index(0).status(BatchItemResultDto.Status.CREATED).id(1L).version(0L).build()))
+                .build();
+        when(bookService.createBooks(anyList())).thenReturn(response);
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/books/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TestUtils.asJsonString(List.of(validBookRequest))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.rowsPerSecond").value(333.3))
+                .andExpect(jsonPath("$.items[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.items[0].errors").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should reject an empty batch")
+    void shouldRejectEmptyBatch() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/v1/books/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        verify(bookService, never()).createBooks(anyList());
+    }
+
+    @Test
+    @DisplayName("Should pass a batch update to the service with the configured chunk size")
+    void shouldUpdateBatch() throws Exception {
+        // Given
+        when(bookService.updateBooks(any(BatchUpdateRequestDto.class), eq(1000))).thenReturn(BatchResponseDto.builder()
+                .requested(2).succeeded(2).rejected(0).build());
+
+        // When & Then
+        mockMvc.perform(patch("/api/v1/books/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1,2],\"changes\":{\"price\":12.5}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(2))
+                .andExpect(jsonPath("$.items").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should reject a batch update with invalid changes")
+    void shouldRejectInvalidBatchUpdate() throws Exception {
+        // When & Then
+        mockMvc.perform(patch("/api/v1/books/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1],\"changes\":{\"price\":-1}}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/v1/books/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1]}"))
+                .andExpect(status().isBadRequest());
+
+        verify(bookService, never()).updateBooks(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should pass a batch delete by filter to the service")
+    void shouldDeleteBatch() throws Exception {
+        // Given
+        when(bookService.deleteBooks(any(BatchDeleteRequestDto.class), eq(1000))).thenReturn(BatchResponseDto.builder()
+                .requested(3).succeeded(3).rejected(0).build());
+
+        // When & Then
+        mockMvc.perform(delete("/api/v1/books/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\":{\"author\":\"Orwell\"}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(3));
+
+        verify(bookService).deleteBooks(argThat(request -> "Orwell".equals(request.getFilter().getAuthor())), eq(1000));
+    }
+
 
     @Test
     @DisplayName("Should update book successfully")
@@ -83,7 +190,7 @@ class BookControllerTest {
         validBookRequest.setTitle("Updated Title");
         bookResponse.setTitle("Updated Title");
 
-        when(bookService.updateBook(eq(bookId), any(BookRequestDto.class))).thenReturn(bookResponse);
+        when(bookService.updateBook(eq(bookId), any(BookRequestDto.class), isNull())).thenReturn(bookResponse);
 
         // When & Then
         mockMvc.perform(put("/api/v1/books/{id}", bookId)
@@ -95,7 +202,224 @@ class BookControllerTest {
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.title", is("Updated Title")));
 
-        verify(bookService).updateBook(eq(bookId), any(BookRequestDto.class));
+        verify(bookService).updateBook(eq(bookId), any(BookRequestDto.class), isNull());
+    }
+
+    @Test
+    @DisplayName("Should answer a matching If-None-Match with 304 without loading the book")
+    void shouldReturnNotModifiedForCurrentETag() throws Exception {
+        // Given
+        when(bookService.getBookVersion(1L)).thenReturn(3L);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/books/{id}", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3\""))
+                .andExpect(content().string(""));
+
+        verify(bookService, never()).getBookById(any());
+    }
+
+    @Test
+    @DisplayName("Should return the book with a strong ETag when If-None-Match is stale")
+    void shouldReturnBookForStaleETag() throws Exception {
+        // Given
+        bookResponse.setVersion(4L);
+        when(bookService.getBookVersion(1L)).thenReturn(4L);
+        when(bookService.getBookById(1L)).thenReturn(bookResponse);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/books/{id}", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-4\""))
+                .andExpect(jsonPath("$.version", is(4)));
+    }
+
+    @Test
+    @DisplayName("Should pass the If-Match version on to the update")
+    void shouldUpdateWithIfMatchVersion() throws Exception {
+        // Given
+        bookResponse.setVersion(4L);
+        when(bookService.updateBook(eq(1L), any(BookRequestDto.class), eq(3L))).thenReturn(bookResponse);
+
+        // When & Then
+        mockMvc.perform(put("/api/v1/books/{id}", 1L)
+                        .header(HttpHeaders.IF_MATCH, "\"1-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TestUtils.asJsonString(validBookRequest)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-4\""));
+    }
+
+    @Test
+    @DisplayName("Should reject an If-Match that names no version of the book with 412")
+    void shouldRejectForeignIfMatch() throws Exception {
+        // When & Then
+        mockMvc.perform(put("/api/v1/books/{id}", 1L)
+                        .header(HttpHeaders.IF_MATCH, "W/\"1-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TestUtils.asJsonString(validBookRequest)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message", is("Precondition Failed")));
+
+        verify(bookService, never()).updateBook(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should pass a merge patch and the If-Match version on to the service")
+    void shouldPatchWithMergePatch() throws Exception {
+        // Given
+        bookResponse.setVersion(4L);
+        when(bookService.patchBook(eq(1L), any(JsonNode.class), eq(3L))).thenReturn(bookResponse);
+
+        // When & Then
+        mockMvc.perform(patch("/api/v1/books/{id}", 1L)
+                        .header(HttpHeaders.IF_MATCH, "\"1-3\"")
+                        .contentType(BookController.MERGE_PATCH_VALUE)
+                        .content("{\"price\": 12.5, \"description\": null}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-4\""));
+
+        verify(bookService).patchBook(eq(1L), argThat(patch -> patch.get("price").asDouble() == 12.5
+                && patch.get("description").isNull() && patch.size() == 2), eq(3L));
+    }
+
+    @Test
+    @DisplayName("Should adjust stock by a signed delta and return the stored book")
+    void shouldAdjustStock() throws Exception {
+        // Given
+        bookResponse.setStockQuantity(7);
+        bookResponse.setVersion(5L);
+        when(bookService.adjustStock(1L, -3)).thenReturn(bookResponse);
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/books/{id}/stock", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"delta\": -3}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stockQuantity", is(7)))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-5\""));
+    }
+
+    @Test
+    @DisplayName("Should answer 409 when the stock is too low and 400 without a delta")
+    void shouldRejectInvalidStockAdjustments() throws Exception {
+        // Given
+        when(bookService.adjustStock(1L, -50)).thenThrow(
+                new InsufficientStockException("Book with ID 1 has 7 in stock, fewer than the 50 requested"));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/books/{id}/stock", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"delta\": -50}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message", is("Insufficient Stock")));
+        mockMvc.perform(post("/api/v1/books/{id}/stock", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        verify(bookService, times(1)).adjustStock(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should page by cursor when one is given")
+    void shouldPageByCursorWhenGiven() throws Exception {
+        // Given
+        CursorSlice<BookResponseDto> slice = new CursorSlice<>(List.of(bookResponse),
+                PageRequest.ofSize(1).withSort(Sort.by(Sort.Direction.DESC, "price", "id")), "next-token");
+        when(bookService.getBooksByCursor("", 1, "price", true)).thenReturn(slice);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/books")
+                        .param("cursor", "")
+                        .param("size", "1")
+                        .param("sortBy", "price")
+                        .param("sortDir", "desc"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor", is("next-token")))
+                .andExpect(jsonPath("$.last", is(false)))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(bookService, never()).getAllBooks(any());
+    }
+
+    @Test
+    @DisplayName("Should skip the count and report a cached total when withTotal is false")
+    void shouldReportCachedTotalWithoutCounting() throws Exception {
+        // Given
+        PageRequest pageable = PageRequest.of(0, 1, Sort.by("id").ascending());
+        when(bookService.getAllBooksWithCachedTotal(pageable))
+                .thenReturn(new SliceWithTotal<>(List.of(bookResponse), pageable, true, 250, false));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/books")
+                        .param("size", "1")
+                        .param("withTotal", "false"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.totalElements", is(250)))
+                .andExpect(jsonPath("$.totalExact", is(false)))
+                .andExpect(jsonPath("$.totalPages").doesNotExist());
+
+        verify(bookService, never()).getAllBooks(any());
+    }
+
+    @Test
+    @DisplayName("Should return the catalog summary")
+    void shouldReturnCatalogSummary() throws Exception {
+        // Given
+        when(bookService.getCatalogSummary()).thenReturn(new CatalogSummaryDto(120L, false, 4321.5, 37L));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/books/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalBooks", is(120)))
+                .andExpect(jsonPath("$.totalExact", is(false)))
+                .andExpect(jsonPath("$.inventoryValue", is(4321.5)))
+                .andExpect(jsonPath("$.authorCount", is(37)));
+
+        verify(bookService, never()).exportBooks(any());
+    }
+
+    @Test
+    @DisplayName("Should stream the catalog as NDJSON or a JSON array")
+    void shouldStreamCatalogExport() throws Exception {
+        // Given
+        BookResponseDto second = createValidBookResponseDto();
+        second.setId(2L);
+        when(bookService.exportBooks(any())).thenAnswer(invocation -> {
+            Consumer<BookResponseDto> consumer = invocation.getArgument(0);
+            consumer.accept(bookResponse);
+            consumer.accept(second);
+            return 2L;
+        });
+
+        // When & Then
+        MvcResult ndjson = mockMvc.perform(get("/api/v1/books/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String lines = mockMvc.perform(asyncDispatch(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BookController.NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(lines.split("\n")).hasSize(2);
+        assertThat(lines).endsWith("}\n");
+        assertThat(lines).startsWith("{\"id\":1,").contains("\n{\"id\":2,");
+
+        MvcResult json = mockMvc.perform(get("/api/v1/books/export").param("format", "JSON"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(json))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].id", is(2)));
     }
 
     @Test
@@ -120,7 +444,7 @@ class BookControllerTest {
         String author = "Test Author";
         List<BookResponseDto> books = Arrays.asList(bookResponse);
 
-        when(bookService.searchBooksByAuthor(author)).thenReturn(books);
+        when(bookService.searchBooksByAuthor(author, 0, 500)).thenReturn(books);
 
         // When & Then
         mockMvc.perform(get("/api/v1/books/search/author")
@@ -131,7 +455,7 @@ class BookControllerTest {
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].author", is(author)));
 
-        verify(bookService).searchBooksByAuthor(author);
+        verify(bookService).searchBooksByAuthor(author, 0, 500);
     }
 
     @Test
@@ -140,22 +464,193 @@ class BookControllerTest {
         // Given
         String keyword = "test";
         List<BookResponseDto> books = Arrays.asList(bookResponse);
-        Page<BookResponseDto> bookPage = new PageImpl<>(books, PageRequest.of(0, 10), 1);
+        FacetCountsDto facets = new FacetCountsDto(List.of(new FacetValueDto("2023", 1)),
+                List.of(new FacetValueDto("25-50", 1)), List.of(new FacetValueDto("IN_STOCK", 1)));
+        FacetedPage<BookResponseDto> bookPage = new FacetedPage<>(books, PageRequest.of(0, 10), 1, facets);
 
-        when(bookService.searchBooksByKeyword(eq(keyword), any())).thenReturn(bookPage);
+        when(bookService.searchBooksByKeyword(eq(keyword), any(), eq(true))).thenReturn(bookPage);
 
         // When & Then
         mockMvc.perform(get("/api/v1/books/search")
                         .param("keyword", keyword)
                         .param("page", "0")
-                        .param("size", "10"))
+                        .param("size", "10")
+                        .param("facets", "true"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].title", containsString("Test")))
+                .andExpect(jsonPath("$.totalElements", is(1)))
+                .andExpect(jsonPath("$.facets.publishedYear[0].value", is("2023")))
+                .andExpect(jsonPath("$.facets.stock[0].count", is(1)));
+
+        verify(bookService).searchBooksByKeyword(eq(keyword), any(), eq(true));
+    }
+
+    @Test
+    @DisplayName("Should return fuzzy matches with did-you-mean corrections")
+    void shouldFuzzySearchWithCorrections() throws Exception {
+        // Given
+        FuzzySearchResponseDto result = new FuzzySearchResponseDto(
+                List.of(createValidBookResponseDto()), 12, List.of("shakespeare"));
+
+        when(bookService.fuzzySearchBooks("Shakespear", FuzzyIndex.Field.AUTHOR, 2, 0, 500)).thenReturn(result);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/books/search/fuzzy")
+                        .param("query", "Shakespear")
+                        .param("field", "AUTHOR")
+                        .param("fuzzy", "2"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books", hasSize(1)))
+                .andExpect(jsonPath("$.totalMatches", is(12)))
+                .andExpect(jsonPath("$.didYouMean[0]", is("shakespeare")));
+
+        verify(bookService).fuzzySearchBooks("Shakespear", FuzzyIndex.Field.AUTHOR, 2, 0, 500);
+    }
+
+    @Test
+    @DisplayName("Should page fuzzy matches within the configured maximum")
+    void shouldPageFuzzyMatches() throws Exception {
+        // Given
+        when(bookService.fuzzySearchBooks("Shakespear", null, 1, 20, 10))
+                .thenReturn(new FuzzySearchResponseDto(List.of(createValidBookResponseDto()), 21, List.of()));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/books/search/fuzzy")
+                        .param("query", "Shakespear")
+                        .param("offset", "20")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalMatches", is(21)));
+
+        mockMvc.perform(get("/api/v1/books/search/fuzzy")
+                        .param("query", "Shakespear")
+                        .param("limit", "501"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details", containsString("must not exceed 500")));
+
+        verify(bookService).fuzzySearchBooks("Shakespear", null, 1, 20, 10);
+        verify(bookService, times(1)).fuzzySearchBooks(any(), any(), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should suggest titles and authors")
+    void shouldSuggestTitlesAndAuthors() throws Exception {
+        // Given
+        List<SuggestionDto> suggestions = Arrays.asList(
+                new SuggestionDto("Test Book", SuggestionDto.Type.TITLE, 1, 100),
+                new SuggestionDto("Test Author", SuggestionDto.Type.AUTHOR, 3, 42));
+
+        when(bookService.suggestBooks("tes", 5)).thenReturn(suggestions);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/books/suggest")
+                        .param("prefix", "tes")
+                        .param("limit", "5"))
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].text", is("Test Book")))
+                .andExpect(jsonPath("$[0].type", is("TITLE")))
+                .andExpect(jsonPath("$[1].bookCount", is(3)));
+
+        verify(bookService).suggestBooks("tes", 5);
+    }
+
+    @Test
+    @DisplayName("Should query books with combined filters and report the plan in a header")
+    void shouldQueryBooksWithPlanHeader() throws Exception {
+        // Given
+        String plan = "index(author) est=1 rows=1 -> filter(price) rows=1 -> sort(price desc) top=1";
+        BookQueryDto query = BookQueryDto.builder().author("Test").maxPrice(50.0).build();
+        PageRequest pageable = PageRequest.of(0, 5, Sort.by("price").descending());
+        when(bookService.queryBooks(query, pageable))
+                .thenReturn(new PlannedPage<>(List.of(bookResponse), pageable, 1, plan));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/books/query")
+                        .param("author", "Test")
+                        .param("maxPrice", "50")
+                        .param("size", "5")
+                        .param("sortBy", "price")
+                        .param("sortDir", "desc"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookController.QUERY_PLAN_HEADER, plan))
                 .andExpect(jsonPath("$.content", hasSize(1)))
-                .andExpect(jsonPath("$.content[0].title", containsString("Test")));
+                .andExpect(jsonPath("$.totalElements", is(1)))
+                .andExpect(jsonPath("$.plan").doesNotExist());
+
+        verify(bookService).queryBooks(query, pageable);
+    }
+
+    @Test
+    @DisplayName("Should reject a negative price filter")
+    void shouldRejectNegativePriceFilter() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/v1/books/query")
+                        .param("minPrice", "-1"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookService);
+    }
+
+    @Test
+    @DisplayName("Should return the most expensive books when no price bounds are given")
+    void shouldGetMostExpensiveBooks() throws Exception {
+        // Given
+        when(bookService.getBooksByPriceRange(null, null, 0, 3, true)).thenReturn(List.of(bookResponse));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/books/price-range")
+                        .param("limit", "3")
+                        .param("sortDir", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        verify(bookService).getBooksByPriceRange(null, null, 0, 3, true);
+    }
+
+    @Test
+    @DisplayName("Should page list endpoints and reject limits above the configured maximum")
+    void shouldBoundListEndpoints() throws Exception {
+        // Given
+        when(bookService.getBooksByYear(2023, 20, 10)).thenReturn(List.of(bookResponse));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/books/year/{year}", 2023)
+                        .param("offset", "20")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        mockMvc.perform(get("/api/v1/books/search/title")
+                        .param("title", "Test")
+                        .param("limit", "501"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details", containsString("must not exceed 500")));
+
+        verify(bookService).getBooksByYear(2023, 20, 10);
+        verify(bookService, never()).searchBooksByTitle(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should get book by ISBN")
+    void shouldGetBookByIsbn() throws Exception {
+        // Given
+        when(bookService.getBookByIsbn("978-0-123456-78-9")).thenReturn(bookResponse);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/books/isbn/{isbn}", "978-0-123456-78-9"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.isbn", is(bookResponse.getIsbn())));
 
-        verify(bookService).searchBooksByKeyword(eq(keyword), any());
+        verify(bookService).getBookByIsbn("978-0-123456-78-9");
     }
 
     @Test
@@ -167,7 +662,7 @@ class BookControllerTest {
         lowStockBook.setStockQuantity(5);
         List<BookResponseDto> books = Arrays.asList(lowStockBook);
 
-        when(bookService.getLowStockBooks(threshold)).thenReturn(books);
+        when(bookService.getLowStockBooks(threshold, 0, 500)).thenReturn(books);
 
         // When & Then
         mockMvc.perform(get("/api/v1/books/low-stock")
@@ -178,6 +673,6 @@ class BookControllerTest {
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].stockQuantity", is(5)));
 
-        verify(bookService).getLowStockBooks(threshold);
+        verify(bookService).getLowStockBooks(threshold, 0, 500);
     }
 }
\ No newline at end of file
@@ -10,7 +10,16 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
 import static io.restassured.RestAssured.*;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
 @SpringBootTest(
@@ -200,8 +209,8 @@ class BookManagementE2ETest {
                 .when()
                 .post("/api/v1/books")
                 .then()
-                .statusCode(400)
-                .body("message", equalTo("Validation Error"))
+                .statusCode(409)
+                .body("message", equalTo("Data Integrity Violation"))
                 .body("details", containsString("already exists"));
     }
 
@@ -287,4 +296,69 @@ class BookManagementE2ETest {
             given().delete("/api/v1/books/{id}", book3Id).then().statusCode(204);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    @Order(12)
+    @DisplayName("E2E: Should push an alert when a committed update drops stock below the threshold")
+    void shouldPushLowStockAlert() throws Exception {
+        // Subscribe first; the response headers arrive once the subscription is registered
+        HttpResponse<Stream<String>> events = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/books/low-stock/events?threshold=5"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofLines());
+        CompletableFuture<String> firstAlert = CompletableFuture.supplyAsync(() ->
+                events.body().filter(line -> line.startsWith("data:")).findFirst().orElse(null));
+
+        BookRequestDto book = TestDataBuilder.createBookRequestDto("Alert Book", "Alert Author",
+                "978-1-4028-9462-6", 19.99, 20);
+        Integer bookId = given()
+                .contentType(ContentType.JSON)
+                .body(book)
+                .when()
+                .post("/api/v1/books")
+                .then()
+                .statusCode(201)
+                .extract()
+                .path("id");
+
+        book.setStockQuantity(2);
+        given()
+                .contentType(ContentType.JSON)
+                .body(book)
+                .when()
+                .put("/api/v1/books/{id}", bookId)
+                .then()
+                .statusCode(200);
+
+        String alert = firstAlert.get(10, TimeUnit.SECONDS);
+        assertThat(alert, containsString("\"type\":\"LOW_STOCK\""));
+        assertThat(alert, containsString("\"bookId\":" + bookId));
+        assertThat(alert, containsString("\"previousStock\":20"));
+
+        given().delete("/api/v1/books/{id}", bookId).then().statusCode(204);
+    }
+
+    @Test
+    @Order(13)
+    @DisplayName("E2E: Should export every book as one JSON line each")
+    void shouldExportCatalogAsNdjson() {
+        BookRequestDto book = TestDataBuilder.createBookRequestDto("Export Book", "Export Author", "978-1-86197-876-9");
+        Integer bookId = given().contentType(ContentType.JSON).body(book).post("/api/v1/books")
+                .then().statusCode(201).extract().path("id");
+        int total = given().get("/api/v1/books").then().statusCode(200).extract().path("totalElements");
+
+        String export = given()
+                .when()
+                .get("/api/v1/books/export")
+                .then()
+                .statusCode(200)
+                .contentType("application/x-ndjson")
+                .extract().asString();
+
+        String[] lines = export.split("\n");
+        assertThat(lines.length, is(total));
+        assertThat(lines[lines.length - 1], allOf(startsWith("{\"id\":" + bookId + ","), containsString("\"title\":\"Export Book\"")));
+
+        given().delete("/api/v1/books/{id}", bookId).then().statusCode(204);
+    }
+}
@@ -3,6 +3,7 @@ package com.richardvinz.Book_Management_App.exception;
 import com.richardvinz.Book_Management_App.controller.BookController;
 import com.richardvinz.Book_Management_App.dto.BookRequestDto;
 import com.richardvinz.Book_Management_App.service.BookService;
+import com.richardvinz.Book_Management_App.service.StockAlertPublisher;
 import com.richardvinz.Book_Management_App.testUtil.TestDataBuilder;
 import com.richardvinz.Book_Management_App.testUtil.TestUtils;
 import org.junit.jupiter.api.DisplayName;
@@ -35,6 +36,9 @@ class GlobalExceptionHandlerTest {
     @MockBean
     private BookService bookService;
 
+    @MockBean
+    private StockAlertPublisher stockAlertPublisher;
+
     @Nested
     @DisplayName("BookNotFoundException Tests")
     class BookNotFoundExceptionTests {
@@ -97,6 +101,23 @@ class GlobalExceptionHandlerTest {
                     .andExpect(jsonPath("$.details", is("No book exists with the given ID")))
                     .andExpect(jsonPath("$.path", is("/api/v1/books/123")));
         }
+
+        @Test
+        @DisplayName("Should escape user input in the pre-built not-found body")
+        void shouldEscapeUserInputInNotFoundBody() throws Exception {
+            // Given
+            String isbn = "978\"},\"status\":200";
+            when(bookService.getBookByIsbn(isbn))
+                    .thenThrow(new BookNotFoundException("Book not found with ISBN: " + isbn));
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/books/isbn/{isbn}", isbn))
+                    .andExpect(status().isNotFound())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.status", is(404)))
+                    .andExpect(jsonPath("$.details", is("Book not found with ISBN: " + isbn)))
+                    .andExpect(jsonPath("$.validationErrors").doesNotExist());
+        }
     }
 
     @Nested
@@ -104,22 +125,22 @@ class GlobalExceptionHandlerTest {
     class ValidationExceptionTests {
 
         @Test
-        @DisplayName("Should handle ValidationException for duplicate ISBN")
-        void shouldHandleValidationExceptionForDuplicateIsbn() throws Exception {
+        @DisplayName("Should answer a duplicate ISBN found before writing like the violated constraint")
+        void shouldHandleDuplicateIsbnAsConflict() throws Exception {
             // Given
             BookRequestDto bookRequest = TestDataBuilder.createValidBookRequestDto();
             when(bookService.createBook(any(BookRequestDto.class)))
-                    .thenThrow(new ValidationException("Book with ISBN 978-0-123456-78-9 already exists"));
+                    .thenThrow(new DuplicateIsbnException("Book with ISBN 978-0-123456-78-9 already exists"));
 
             // When & Then
             mockMvc.perform(post("/api/v1/books")
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(TestUtils.asJsonString(bookRequest)))
                     .andDo(print())
-                    .andExpect(status().isBadRequest())
+                    .andExpect(status().isConflict())
                     .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                    .andExpect(jsonPath("$.status", is(400)))
-                    .andExpect(jsonPath("$.message", is("Validation Error")))  // YOUR handler sets this
+                    .andExpect(jsonPath("$.status", is(409)))
+                    .andExpect(jsonPath("$.message", is("Data Integrity Violation")))
                     .andExpect(jsonPath("$.details", is("Book with ISBN 978-0-123456-78-9 already exists")))
                     .andExpect(jsonPath("$.timestamp", notNullValue()))
                     .andExpect(jsonPath("$.path", is("/api/v1/books")));
@@ -131,7 +152,7 @@ class GlobalExceptionHandlerTest {
             // Given
             Long bookId = 1L;
             BookRequestDto bookRequest = TestDataBuilder.createValidBookRequestDto();
-            when(bookService.updateBook(anyLong(), any(BookRequestDto.class)))
+            when(bookService.updateBook(anyLong(), any(BookRequestDto.class), isNull()))
                     .thenThrow(new ValidationException("ISBN is already in use by another book"));
 
             // When & Then
@@ -311,6 +332,23 @@ class GlobalExceptionHandlerTest {
                     .andExpect(jsonPath("$.message", is("Data Integrity Violation")))
                     .andExpect(jsonPath("$.details", is("Data integrity violation")));  // YOUR default message
         }
+
+        @Test
+        @DisplayName("Should report a violated ISBN constraint as a duplicate book")
+        void shouldHandleIsbnConstraintViolation() throws Exception {
+            // Given the message H2 gives for the named constraint
+            BookRequestDto bookRequest = TestDataBuilder.createValidBookRequestDto();
+            when(bookService.updateBook(eq(1L), any(BookRequestDto.class), any()))
+                    .thenThrow(new DataIntegrityViolationException("could not execute statement [Unique index or "
+                            + "primary key violation: \"PUBLIC.UK_BOOKS_ISBN_INDEX_3 ON PUBLIC.BOOKS(ISBN)\"]"));
+
+            // When & Then
+            mockMvc.perform(put("/api/v1/books/1")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(TestUtils.asJsonString(bookRequest)))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.details", is("Book with this ISBN already exists")));
+        }
     }
 
     @Nested
@@ -0,0 +1,54 @@
+package com.richardvinz.Book_Management_App.repository;
+
+import com.richardvinz.Book_Management_App.entity.Book;
+import com.richardvinz.Book_Management_App.testUtil.TestDataBuilder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@DisplayName("Book Batch Insert Tests")
+class BookBatchInsertTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("Should insert many books in JDBC batches with pooled sequence ids")
+    void shouldBatchInserts() {
+        // Given
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            books.add(TestDataBuilder.createBook(null, "Book " + i, "Author", String.format("978%010d", i)));
+        }
+        statistics.clear();
+
+        // When
+        bookRepository.saveAll(books);
+        entityManager.flush();
+
+        // Then 120 rows took three sequence calls and three insert batches, not 120 round trips each
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(120);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+        assertThat(books).extracting(Book::getId).doesNotHaveDuplicates().doesNotContainNull();
+    }
+}
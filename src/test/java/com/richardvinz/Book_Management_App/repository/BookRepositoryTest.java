@@ -10,6 +10,8 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
@@ -155,4 +157,61 @@ class BookRepositoryTest {
         assertThat(exists).isTrue();
         assertThat(notExists).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should sum the inventory value and count distinct authors in the database")
+    void shouldAggregateCatalogSummary() {
+        // Given - a second book by an author already in the catalog
+        Book sameAuthor = TestDataBuilder.createBook(null, "Animal Farm", "George Orwell", "978-0-123456-82-6");
+        sameAuthor.setPrice(10.0);
+        sameAuthor.setStockQuantity(2);
+        entityManager.persistAndFlush(sameAuthor);
+
+        // When
+        double value = bookRepository.sumInventoryValue();
+        long authors = bookRepository.countDistinctAuthors();
+
+        // Then
+        assertThat(value).isCloseTo(29.99 * 100 + 25.99 * 75 + 19.99 * 5 + 10.0 * 2, within(1e-6));
+        assertThat(authors).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should read a slice and whether more follow without counting")
+    void shouldReadSliceWithoutCounting() {
+        // When
+        Slice<Book> first = bookRepository.findAllBy(PageRequest.of(0, 2, Sort.by("id")));
+        Slice<Book> last = bookRepository.findAllBy(PageRequest.of(1, 2, Sort.by("id")));
+
+        // Then
+        assertThat(first.getContent()).extracting(Book::getTitle)
+                .containsExactly("The Great Gatsby", "To Kill a Mockingbird");
+        assertThat(first.hasNext()).isTrue();
+        assertThat(last.getContent()).extracting(Book::getTitle).containsExactly("1984");
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should seek past a keyset position in (price, id) order")
+    void shouldSeekPastKeysetPosition() {
+        // Given - a second book at the same price as testBook2
+        Book samePrice = TestDataBuilder.createBook(null, "Beloved", "Toni Morrison", "978-0-123456-81-9");
+        samePrice.setPrice(25.99);
+        samePrice.setStockQuantity(10);
+        entityManager.persistAndFlush(samePrice);
+        Sort byPriceDesc = Sort.by(Sort.Direction.DESC, "price", "id");
+
+        // When - continuing after testBook2 and after the most expensive book
+        List<Book> afterTie = bookRepository.findBy(
+                BookSpecifications.after("price", 25.99, samePrice.getId(), true),
+                query -> query.sortBy(byPriceDesc).limit(2).all());
+        List<Book> afterFirst = bookRepository.findBy(
+                BookSpecifications.after("price", 29.99, testBook1.getId(), true),
+                query -> query.sortBy(byPriceDesc).limit(10).all());
+
+        // Then
+        assertThat(afterTie).extracting(Book::getTitle).containsExactly("To Kill a Mockingbird", "1984");
+        assertThat(afterFirst).extracting(Book::getTitle)
+                .containsExactly("Beloved", "To Kill a Mockingbird", "1984");
+    }
+}
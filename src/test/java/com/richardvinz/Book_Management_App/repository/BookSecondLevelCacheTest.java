@@ -0,0 +1,99 @@
+package com.richardvinz.Book_Management_App.repository;
+
+import com.richardvinz.Book_Management_App.entity.Book;
+import com.richardvinz.Book_Management_App.testUtil.TestDataBuilder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs with the l2cache profile and outside test transactions, so every read below starts a
+ * new session and can only avoid the database through the second-level and query caches.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles({"test", "l2cache"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Book Second-Level Cache Tests")
+class BookSecondLevelCacheTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private Statistics statistics;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        bookRepository.deleteAll();
+        Book newBook = TestDataBuilder.createBook(null, "Dune", "Frank Herbert", "978-0-441-17271-9");
+        newBook.setPublishedYear(1965);
+        book = transaction.execute(status -> bookRepository.save(newBook));
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Should serve repeated reads by id from the second-level cache")
+    void shouldServeReadsByIdFromCache() {
+        // Given a first read that loads the book into the cache
+        transaction.executeWithoutResult(status -> bookRepository.findById(book.getId()));
+        statistics.clear();
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            transaction.executeWithoutResult(status -> assertThat(bookRepository.findById(book.getId())).isPresent());
+        }
+
+        // Then
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should serve repeated cacheable queries without SQL until the table changes")
+    void shouldCacheQueriesUntilTableChanges() {
+        // When
+        for (int i = 0; i < 3; i++) {
+            transaction.executeWithoutResult(status -> {
+                assertThat(bookRepository.findByIsbn(book.getIsbn())).isPresent();
+                assertThat(bookRepository.findVersionById(book.getId())).hasValue(book.getVersion());
+            });
+        }
+
+        // Then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(4);
+
+        // When the table changes
+        transaction.executeWithoutResult(status -> {
+            Book loaded = bookRepository.findById(book.getId()).orElseThrow();
+            loaded.setPublishedYear(1966);
+        });
+        Optional<Long> version = transaction.execute(status -> bookRepository.findVersionById(book.getId()));
+
+        // Then the cached result is not reused
+        assertThat(version).hasValue(book.getVersion() + 1);
+    }
+}
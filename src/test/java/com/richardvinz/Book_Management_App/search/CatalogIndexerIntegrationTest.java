@@ -0,0 +1,100 @@
+package com.richardvinz.Book_Management_App.search;
+
+import com.richardvinz.Book_Management_App.BookManagementAppApplication;
+import com.richardvinz.Book_Management_App.dto.BookResponseDto;
+import com.richardvinz.Book_Management_App.repository.BookRepository;
+import com.richardvinz.Book_Management_App.service.BookService;
+import com.richardvinz.Book_Management_App.testUtil.TestDataBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(classes = BookManagementAppApplication.class)
+@ActiveProfiles("test")
+@DisplayName("Catalog Indexer Integration Tests")
+class CatalogIndexerIntegrationTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CatalogIndexer catalogIndexer;
+
+    @Autowired
+    private KeywordIndex keywordIndex;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAll();
+        catalogIndexer.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAll();
+        catalogIndexer.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should index committed writes")
+    void shouldIndexCommittedWrites() {
+        // When
+        BookResponseDto created = bookService.createBook(
+                TestDataBuilder.createBookRequestDto("Dune", "Frank Herbert", "978-0-123456-78-9"));
+
+        // Then
+        assertThat(keywordIndex.search("dune")).containsExactly(created.getId());
+
+        // When
+        bookService.deleteBook(created.getId());
+
+        // Then
+        assertThat(keywordIndex.search("dune")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should undo index changes when the transaction rolls back")
+    void shouldUndoIndexChangesOnRollback() {
+        // Given
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // When
+        transaction.executeWithoutResult(status -> {
+            bookService.createBook(TestDataBuilder.createBookRequestDto("Dune", "Frank Herbert", "978-0-123456-78-9"));
+            assertThat(keywordIndex.search("dune")).hasSize(1);
+            status.setRollbackOnly();
+        });
+
+        // Then
+        assertThat(keywordIndex.search("dune")).isEmpty();
+        assertThat(keywordIndex.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should load existing books on rebuild")
+    void shouldLoadExistingBooksOnRebuild() {
+        // Given
+        bookRepository.save(TestDataBuilder.createBook(null, "Dune", "Frank Herbert", "978-0-123456-78-9"));
+        assertThat(keywordIndex.search("dune")).isEmpty();
+
+        // When
+        catalogIndexer.rebuild();
+
+        // Then
+        assertThat(keywordIndex.search("herbert")).hasSize(1);
+    }
+}
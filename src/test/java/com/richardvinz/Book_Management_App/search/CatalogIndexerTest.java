@@ -0,0 +1,108 @@
+package com.richardvinz.Book_Management_App.search;
+
+import com.richardvinz.Book_Management_App.entity.Book;
+import com.richardvinz.Book_Management_App.repository.BookRepository;
+import com.richardvinz.Book_Management_App.testUtil.TestDataBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Catalog Indexer Tests")
+class CatalogIndexerTest {
+
+    private final KeywordIndex keywordIndex = new KeywordIndex();
+    private final IsbnIndex isbnIndex = new IsbnIndex();
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final CatalogIndexer catalogIndexer = new CatalogIndexer(List.of(keywordIndex, isbnIndex),
+            bookRepository, mock(PlatformTransactionManager.class));
+
+    @Test
+    @DisplayName("Should keep serving the old catalog while rebuilding and keep writes made meanwhile")
+    void shouldRebuildOffToTheSide() {
+        // Given
+        catalogIndexer.bookSaved(TestDataBuilder.createBook(1L, "Dune", "Frank Herbert", "978-0-441-17271-9"));
+        List<Long> seenDuringScan = new ArrayList<>();
+        when(bookRepository.findByIdGreaterThanOrderById(eq(Long.MIN_VALUE), any(Pageable.class))).thenAnswer(call -> {
+            // Searches still see the old catalog in full while the copies load
+            for (long id : keywordIndex.search("dune")) {
+                seenDuringScan.add(id);
+            }
+            assertThat(isbnIndex.find("978-0-441-17271-9")).hasValue(1L);
+            // A write commits after the scan read the row it replaces
+            catalogIndexer.bookSaved(TestDataBuilder.createBook(2L, "Emma", "Jane Austen", "978-0-14-143958-7"));
+            catalogIndexer.bookDeleted(1L);
+            return List.of(TestDataBuilder.createBook(1L, "Dune", "Frank Herbert", "978-0-441-17271-9"));
+        });
+
+        // When
+        catalogIndexer.rebuild();
+
+        // Then
+        assertThat(seenDuringScan).containsExactly(1L);
+        assertThat(keywordIndex.search("dune")).isEmpty();
+        assertThat(keywordIndex.search("emma")).containsExactly(2L);
+        assertThat(isbnIndex.find("978-0-14-143958-7")).hasValue(2L);
+        assertThat(isbnIndex.find("978-0-441-17271-9")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should re-price books written during a rebuild against the copy of the attribute index")
+    void shouldLinkPriceIndexCopyToAttributeCopy() {
+        // Given
+        AttributeIndex attributeIndex = new AttributeIndex();
+        PriceIndex priceIndex = new PriceIndex(attributeIndex);
+        CatalogIndexer indexer = new CatalogIndexer(List.of(priceIndex, attributeIndex),
+                bookRepository, mock(PlatformTransactionManager.class));
+        indexer.bookSaved(pricedBook(1L, 10.0));
+        when(bookRepository.findByIdGreaterThanOrderById(eq(Long.MIN_VALUE), any(Pageable.class))).thenAnswer(call -> {
+            // Re-priced after the scan read it, so the copy must find it at the scanned price
+            indexer.bookSaved(pricedBook(1L, 30.0));
+            return List.of(pricedBook(1L, 20.0));
+        });
+
+        // When
+        indexer.rebuild();
+        indexer.bookSaved(pricedBook(1L, 40.0));
+
+        // Then
+        assertThat(priceIndex.range(0, 100, 0, 10, false)).containsExactly(1L);
+        assertThat(priceIndex.count(40, 40)).isEqualTo(1);
+        assertThat(attributeIndex.value(1L, AttributeIndex.Attribute.PRICE)).isEqualTo(40.0);
+    }
+
+    @Test
+    @DisplayName("Should read the catalog in keyset batches")
+    void shouldScanByKeyset() {
+        // Given a first batch that is full, and a second that is not
+        List<Book> first = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            first.add(TestDataBuilder.createBook(id, "Book " + id, "Author", null));
+        }
+        when(bookRepository.findByIdGreaterThanOrderById(eq(Long.MIN_VALUE), any(Pageable.class))).thenReturn(first);
+        when(bookRepository.findByIdGreaterThanOrderById(eq(1000L), any(Pageable.class)))
+                .thenReturn(List.of(TestDataBuilder.createBook(1001L, "Last", "Author", null)));
+
+        // When
+        catalogIndexer.rebuild();
+
+        // Then
+        assertThat(keywordIndex.size()).isEqualTo(1001);
+        verify(bookRepository).findByIdGreaterThanOrderById(eq(1000L),
+                argThat(page -> page.getPageNumber() == 0 && page.getPageSize() == 1000));
+        verify(bookRepository, never()).findAll(any(Pageable.class));
+    }
+
+    private static Book pricedBook(long id, double price) {
+        Book book = TestDataBuilder.createBook(id, "Book " + id, "Author", null);
+        book.setPrice(price);
+        return book;
+    }
+}
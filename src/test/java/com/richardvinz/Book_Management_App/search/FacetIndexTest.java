@@ -0,0 +1,77 @@
+package com.richardvinz.Book_Management_App.search;
+
+import com.richardvinz.Book_Management_App.dto.FacetCountsDto;
+import com.richardvinz.Book_Management_App.dto.FacetValueDto;
+import com.richardvinz.Book_Management_App.entity.Book;
+import com.richardvinz.Book_Management_App.testUtil.TestDataBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Facet Index Tests")
+class FacetIndexTest {
+
+    private FacetIndex facetIndex;
+
+    @BeforeEach
+    void setUp() {
+        facetIndex = new FacetIndex();
+        facetIndex.index(book(1L, 2020, 9.99, 0));
+        facetIndex.index(book(2L, 2020, 10.0, 5));
+        facetIndex.index(book(3L, 2023, 49.99, 50));
+        facetIndex.index(book(70L, 2023, 150.0, 10));
+        facetIndex.index(book(200L, 1999, 60.0, 100));
+    }
+
+    @Test
+    @DisplayName("Should count only the given books per facet value")
+    void shouldCountGivenBooksPerFacetValue() {
+        // When
+        FacetCountsDto facets = facetIndex.count(new long[]{1L, 2L, 70L, 200L});
+
+        // Then
+        assertThat(facets.getPublishedYear()).extracting(FacetValueDto::getValue, FacetValueDto::getCount)
+                .containsExactly(tuple("2023", 1L), tuple("2020", 2L), tuple("1999", 1L));
+        assertThat(facets.getPrice()).extracting(FacetValueDto::getValue, FacetValueDto::getCount)
+                .containsExactly(tuple("0-10", 1L), tuple("10-25", 1L), tuple("50-100", 1L), tuple("100+", 1L));
+        assertThat(facets.getStock()).extracting(FacetValueDto::getValue, FacetValueDto::getCount)
+                .containsExactly(tuple("IN_STOCK", 2L), tuple("LOW_STOCK", 1L), tuple("OUT_OF_STOCK", 1L));
+    }
+
+    @Test
+    @DisplayName("Should move books between facet values when re-indexed and drop removed books")
+    void shouldFollowUpdatesAndRemovals() {
+        // When
+        facetIndex.index(book(3L, 2020, 5.0, 3));
+        facetIndex.remove(200L);
+
+        // Then
+        FacetCountsDto facets = facetIndex.count(new long[]{1L, 2L, 3L, 70L, 200L});
+        assertThat(facets.getPublishedYear()).extracting(FacetValueDto::getValue, FacetValueDto::getCount)
+                .containsExactly(tuple("2023", 1L), tuple("2020", 3L));
+        assertThat(facets.getStock()).extracting(FacetValueDto::getValue, FacetValueDto::getCount)
+                .containsExactly(tuple("IN_STOCK", 1L), tuple("LOW_STOCK", 2L), tuple("OUT_OF_STOCK", 1L));
+    }
+
+    @Test
+    @DisplayName("Should return empty facets for no matches")
+    void shouldReturnEmptyFacetsForNoMatches() {
+        // When
+        FacetCountsDto facets = facetIndex.count(new long[0]);
+
+        // Then
+        assertThat(facets.getPublishedYear()).isEmpty();
+        assertThat(facets.getPrice()).isEmpty();
+        assertThat(facets.getStock()).isEmpty();
+    }
+
+    private Book book(Long id, int year, double price, int stock) {
+        Book book = TestDataBuilder.createBook(id, "Book " + id, "Author", "isbn-" + id);
+        book.setPublishedYear(year);
+        book.setPrice(price);
+        book.setStockQuantity(stock);
+        return book;
+    }
+}
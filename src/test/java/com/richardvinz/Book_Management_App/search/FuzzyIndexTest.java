@@ -0,0 +1,90 @@
+package com.richardvinz.Book_Management_App.search;
+
+import com.richardvinz.Book_Management_App.testUtil.TestDataBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Fuzzy Index Tests")
+class FuzzyIndexTest {
+
+    private FuzzyIndex fuzzyIndex;
+
+    @BeforeEach
+    void setUp() {
+        fuzzyIndex = new FuzzyIndex();
+        fuzzyIndex.index(TestDataBuilder.createBook(1L, "Hamlet", "William Shakespeare", "isbn-1"));
+        fuzzyIndex.index(TestDataBuilder.createBook(2L, "Macbeth", "William Shakespeare", "isbn-2"));
+        fuzzyIndex.index(TestDataBuilder.createBook(3L, "Pride and Prejudice", "Jane Austen", "isbn-3"));
+        fuzzyIndex.index(TestDataBuilder.createBook(4L, "Persuasion", "Jane Austen", "isbn-4"));
+    }
+
+    @Test
+    @DisplayName("Should match misspelled authors and suggest the correct spelling")
+    void shouldMatchMisspelledAuthors() {
+        // When
+        FuzzyIndex.FuzzyMatch match = fuzzyIndex.search("Shakespear", FuzzyIndex.Field.AUTHOR, 1);
+
+        // Then
+        assertThat(match.getBookIds()).containsExactly(1L, 2L);
+        assertThat(match.getCorrections()).containsExactly("shakespeare");
+    }
+
+    @Test
+    @DisplayName("Should count adjacent transpositions as a single edit")
+    void shouldCountTranspositionsAsOneEdit() {
+        assertThat(fuzzyIndex.search("Ausetn", FuzzyIndex.Field.AUTHOR, 1).getBookIds()).containsExactly(3L, 4L);
+        assertThat(fuzzyIndex.search("Mcabteh", FuzzyIndex.Field.TITLE, 1).getBookIds()).isEmpty();
+        assertThat(fuzzyIndex.search("Mcabteh", FuzzyIndex.Field.TITLE, 2).getBookIds()).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Should require every query word to match and search both fields when none is given")
+    void shouldRequireEveryWordAndSearchBothFields() {
+        assertThat(fuzzyIndex.search("jane prejudise", null, 1).getBookIds()).containsExactly(3L);
+        assertThat(fuzzyIndex.search("jane prejudise", FuzzyIndex.Field.AUTHOR, 1).getBookIds()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not suggest corrections for correctly spelled queries")
+    void shouldNotSuggestForCorrectSpelling() {
+        // When
+        FuzzyIndex.FuzzyMatch match = fuzzyIndex.search("Hamlet", FuzzyIndex.Field.TITLE, 2);
+
+        // Then
+        assertThat(match.getBookIds()).containsExactly(1L);
+        assertThat(match.getCorrections()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should allow fewer edits for short words")
+    void shouldAllowFewerEditsForShortWords() {
+        assertThat(FuzzyIndex.allowedEdits("ab", 2)).isZero();
+        assertThat(FuzzyIndex.allowedEdits("jane", 2)).isEqualTo(1);
+        assertThat(FuzzyIndex.allowedEdits("austen", 2)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should forget terms once no book uses them")
+    void shouldForgetRemovedTerms() {
+        // When
+        fuzzyIndex.remove(1L);
+        fuzzyIndex.index(TestDataBuilder.createBook(2L, "Macbeth", "Anonymous", "isbn-2"));
+
+        // Then
+        FuzzyIndex.FuzzyMatch match = fuzzyIndex.search("Shakespear", FuzzyIndex.Field.AUTHOR, 2);
+        assertThat(match.getBookIds()).isEmpty();
+        assertThat(match.getCorrections()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should compute optimal string alignment distances with an upper bound")
+    void shouldComputeBoundedDistances() {
+        assertThat(TermDictionary.distance("kitten", "sitting", 3)).isEqualTo(3);
+        assertThat(TermDictionary.distance("kitten", "sitting", 2)).isEqualTo(3);
+        assertThat(TermDictionary.distance("austen", "ausetn", 2)).isEqualTo(1);
+        assertThat(TermDictionary.distance("", "abc", 3)).isEqualTo(3);
+    }
+}
@@ -0,0 +1,89 @@
+package com.richardvinz.Book_Management_App.search;
+
+import com.richardvinz.Book_Management_App.entity.Book;
+import com.richardvinz.Book_Management_App.testUtil.TestDataBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.OptionalLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("ISBN Index Tests")
+class IsbnIndexTest {
+
+    private IsbnIndex isbnIndex;
+
+    @BeforeEach
+    void setUp() {
+        isbnIndex = new IsbnIndex();
+        isbnIndex.index(book(1L, "978-0-7432-7356-5"));
+        isbnIndex.index(book(2L, "0-306-40615-X"));
+    }
+
+    @Test
+    @DisplayName("Should find books by any spelling of their ISBN")
+    void shouldFindBooksByAnySpelling() {
+        // When & Then
+        assertThat(isbnIndex.find("9780743273565")).hasValue(1L);
+        assertThat(isbnIndex.find("ISBN-13: 978 0 7432 7356 5")).hasValue(1L);
+        assertThat(isbnIndex.find("030640615x")).hasValue(2L);
+        assertThat(isbnIndex.find("0-306-40615-2")).isEmpty();
+        assertThat(isbnIndex.find("978-0-7432-7356-6")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should normalize ISBN-10 and ISBN-13 to distinct keys and reject anything else")
+    void shouldNormalizeIsbns() {
+        // When & Then
+        assertThat(IsbnIndex.normalize("978-0-7432-7356-5")).isEqualTo(9780743273565L);
+        assertThat(IsbnIndex.normalize("0306406152")).isNotEqualTo(IsbnIndex.normalize("0306406153"));
+        assertThat(IsbnIndex.normalize("0306406152")).isGreaterThan(9_999_999_999_999L);
+        assertThat(IsbnIndex.isIndexable("invalid-isbn")).isFalse();
+        assertThat(IsbnIndex.isIndexable("12345")).isFalse();
+        assertThat(IsbnIndex.isIndexable("97807432735651")).isFalse();
+        assertThat(IsbnIndex.isIndexable("03064061X5")).isFalse();
+        assertThat(IsbnIndex.isIndexable(null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should follow ISBN changes and deletions")
+    void shouldFollowChangesAndDeletions() {
+        // When
+        isbnIndex.index(book(1L, "978-1-4028-9462-6"));
+        isbnIndex.remove(2L);
+
+        // Then
+        assertThat(isbnIndex.find("978-0-7432-7356-5")).isEmpty();
+        assertThat(isbnIndex.find("978-1-4028-9462-6")).hasValue(1L);
+        assertThat(isbnIndex.find("0-306-40615-X")).isEmpty();
+        assertThat(isbnIndex.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep every entry reachable through growth and many removals")
+    void shouldStayConsistentThroughGrowthAndRemovals() {
+        // Given
+        isbnIndex.clear();
+        for (long id = 1; id <= 20_000; id++) {
+            isbnIndex.index(book(id, String.valueOf(9_780_000_000_000L + id * 37)));
+        }
+
+        // When
+        for (long id = 1; id <= 20_000; id += 2) {
+            isbnIndex.remove(id);
+        }
+
+        // Then
+        assertThat(isbnIndex.size()).isEqualTo(10_000);
+        for (long id = 1; id <= 20_000; id++) {
+            OptionalLong found = isbnIndex.find(String.valueOf(9_780_000_000_000L + id * 37));
+            assertThat(found).isEqualTo(id % 2 == 0 ? OptionalLong.of(id) : OptionalLong.empty());
+        }
+    }
+
+    private Book book(Long id, String isbn) {
+        return TestDataBuilder.createBook(id, "Book " + id, "Author", isbn);
+    }
+}
@@ -0,0 +1,134 @@
+package com.richardvinz.Book_Management_App.search;
+
+import com.richardvinz.Book_Management_App.entity.Book;
+import com.richardvinz.Book_Management_App.testUtil.TestDataBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Keyword Index Tests")
+class KeywordIndexTest {
+
+    private KeywordIndex keywordIndex;
+
+    @BeforeEach
+    void setUp() {
+        keywordIndex = new KeywordIndex();
+
+        Book gatsby = TestDataBuilder.createBook(1L, "The Great Gatsby", "F. Scott Fitzgerald", "978-0-123456-78-9");
+        gatsby.setDescription("A novel of the Jazz Age");
+        Book mockingbird = TestDataBuilder.createBook(2L, "To Kill a Mockingbird", "Harper Lee", "978-0-123456-79-6");
+        mockingbird.setDescription("A novel about justice");
+        Book orwell = TestDataBuilder.createBook(3L, "1984", "George Orwell", "978-0-123456-80-2");
+        orwell.setDescription(null);
+
+        keywordIndex.index(gatsby);
+        keywordIndex.index(mockingbird);
+        keywordIndex.index(orwell);
+    }
+
+    @Test
+    @DisplayName("Should match keyword in title, author or description ignoring case")
+    void shouldMatchKeywordInAnyFieldIgnoringCase() {
+        assertThat(keywordIndex.search("GREAT")).containsExactly(1L);
+        assertThat(keywordIndex.search("lee")).containsExactly(2L);
+        assertThat(keywordIndex.search("novel")).containsExactly(1L, 2L);
+        assertThat(keywordIndex.search("1984")).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Should match tokens by prefix and require every token")
+    void shouldMatchTokensByPrefixAndRequireEveryToken() {
+        assertThat(keywordIndex.search("gats")).containsExactly(1L);
+        assertThat(keywordIndex.search("novel jazz")).containsExactly(1L);
+        assertThat(keywordIndex.search("novel orwell")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should return every book for a blank keyword")
+    void shouldReturnEveryBookForBlankKeyword() {
+        assertThat(keywordIndex.search("  ")).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    @DisplayName("Should ignore accents when matching")
+    void shouldIgnoreAccentsWhenMatching() {
+        // Given
+        Book bronte = TestDataBuilder.createBook(4L, "Jane Eyre", "Charlotte Brontë", "978-0-123456-81-9");
+        keywordIndex.index(bronte);
+
+        // When & Then
+        assertThat(keywordIndex.search("bronte")).containsExactly(4L);
+        assertThat(keywordIndex.search("Brontë")).containsExactly(4L);
+    }
+
+    @Test
+    @DisplayName("Should replace terms when a book is re-indexed")
+    void shouldReplaceTermsWhenBookIsReindexed() {
+        // Given
+        Book renamed = TestDataBuilder.createBook(1L, "Trimalchio", "F. Scott Fitzgerald", "978-0-123456-78-9");
+
+        // When
+        keywordIndex.index(renamed);
+
+        // Then
+        assertThat(keywordIndex.search("gatsby")).isEmpty();
+        assertThat(keywordIndex.search("trimalchio")).containsExactly(1L);
+        assertThat(keywordIndex.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should drop removed books from every posting list")
+    void shouldDropRemovedBooks() {
+        // When
+        keywordIndex.remove(2L);
+
+        // Then
+        assertThat(keywordIndex.search("novel")).containsExactly(1L);
+        assertThat(keywordIndex.search("mockingbird")).isEmpty();
+        assertThat(keywordIndex.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should rank title matches above author and description matches")
+    void shouldRankTitleAboveAuthorAboveDescription() {
+        // Given
+        Book inDescription = TestDataBuilder.createBook(10L, "Collected Essays", "Various", "isbn-10");
+        inDescription.setDescription("Essays on the life of Lee");
+        Book inTitle = TestDataBuilder.createBook(11L, "Lee", "Anonymous", "isbn-11");
+        keywordIndex.index(inDescription);
+        keywordIndex.index(inTitle);
+
+        // When
+        long[] matches = keywordIndex.search("lee");
+
+        // Then
+        assertThat(keywordIndex.rank("lee", matches, 10)).containsExactly(11L, 2L, 10L);
+    }
+
+    @Test
+    @DisplayName("Should favour rare terms, exact terms over prefix expansions, and return only the top entries")
+    void shouldFavourRareAndExactTerms() {
+        // Given
+        for (long id = 20; id < 30; id++) {
+            Book book = TestDataBuilder.createBook(id, "Common Volume " + id, "Editor", "isbn-" + id);
+            keywordIndex.index(book);
+        }
+        keywordIndex.index(TestDataBuilder.createBook(30L, "Rare Volume", "Editor", "isbn-30"));
+        keywordIndex.index(TestDataBuilder.createBook(31L, "Volumes Collected", "Editor", "isbn-31"));
+
+        // When & Then
+        assertThat(keywordIndex.rank("rare volume", keywordIndex.search("rare volume"), 5)).containsExactly(30L);
+        long[] ranked = keywordIndex.rank("volume", keywordIndex.search("volume"), 3);
+        assertThat(ranked).hasSize(3).doesNotContain(31L);
+        assertThat(ranked[0]).isEqualTo(30L);
+    }
+
+    @Test
+    @DisplayName("Should keep id order when ranking a blank keyword")
+    void shouldKeepIdOrderForBlankKeyword() {
+        assertThat(keywordIndex.rank(" ", keywordIndex.search(" "), 2)).containsExactly(1L, 2L);
+    }
+}
@@ -0,0 +1,139 @@
+package com.richardvinz.Book_Management_App.search;
+
+import com.richardvinz.Book_Management_App.entity.Book;
+import com.richardvinz.Book_Management_App.testUtil.TestDataBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Price Index Tests")
+class PriceIndexTest {
+
+    private AttributeIndex attributeIndex;
+    private PriceIndex priceIndex;
+
+    @BeforeEach
+    void setUp() {
+        attributeIndex = new AttributeIndex();
+        priceIndex = new PriceIndex(attributeIndex);
+        index(book(1L, 25.0));
+        index(book(2L, 9.99));
+        index(book(3L, 25.0));
+        index(book(4L, 120.0));
+        index(book(5L, 49.5));
+    }
+
+    @Test
+    @DisplayName("Should return an inclusive price range in price order with ties by id")
+    void shouldReturnRangeInPriceOrder() {
+        // When & Then
+        assertThat(priceIndex.range(9.99, 49.5, 0, 10, false)).containsExactly(2L, 1L, 3L, 5L);
+        assertThat(priceIndex.count(9.99, 49.5)).isEqualTo(4);
+        assertThat(priceIndex.search(9.99, 49.5)).containsExactly(1L, 2L, 3L, 5L);
+    }
+
+    @Test
+    @DisplayName("Should page through a range and return the most expensive first when descending")
+    void shouldPageAndReverse() {
+        // When & Then
+        assertThat(priceIndex.range(0, 100, 1, 2, false)).containsExactly(1L, 3L);
+        assertThat(priceIndex.range(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 0, 2, true))
+                .containsExactly(4L, 5L);
+        assertThat(priceIndex.range(0, 100, 10, 2, false)).isEmpty();
+        assertThat(priceIndex.range(50, 10, 0, 2, false)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should move re-priced books and drop removed ones")
+    void shouldFollowUpdatesAndRemovals() {
+        // Given
+        priceIndex.count(0, 1000);
+
+        // When
+        index(book(1L, 500.0));
+        remove(2L);
+        index(book(6L, 1.0));
+        remove(6L);
+        index(book(7L, 30.0));
+        index(book(7L, 60.0));
+        index(book(4L, 5.0));
+
+        // Then
+        assertThat(priceIndex.range(0, 1000, 0, 10, false)).containsExactly(4L, 3L, 5L, 7L, 1L);
+        assertThat(priceIndex.size()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should pick the first candidates in price order by walking the index")
+    void shouldPickFirstCandidatesInPriceOrder() {
+        // When & Then
+        assertThat(priceIndex.first(new long[]{1L, 4L, 5L}, 2, false)).containsExactly(1L, 5L);
+        assertThat(priceIndex.first(new long[]{1L, 4L, 5L}, 5, true)).containsExactly(4L, 5L, 1L);
+    }
+
+    @Test
+    @DisplayName("Should sort a large unsorted batch of writes on the first read")
+    void shouldSortLargeBatchOnFirstRead() {
+        // Given
+        clear();
+        for (long id = 1; id <= 1_000; id++) {
+            index(book(id, (id * 7919) % 1_000));
+        }
+
+        // When
+        long[] cheapest = priceIndex.range(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 0, 3, false);
+
+        // Then
+        assertThat(cheapest).containsExactly(1_000L, 679L, 358L);
+        assertThat(priceIndex.count(100, 199)).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Should re-price and remove books still in a large write buffer, and skip unchanged prices")
+    void shouldUpdateBooksInLargeBuffer() {
+        // Given a buffer far larger than a scan is allowed to cover, as a rebuild leaves behind
+        clear();
+        for (long id = 1; id <= 1_000; id++) {
+            index(book(id, id));
+        }
+
+        // When
+        index(book(500L, 0.5));
+        remove(10L);
+        index(book(20L, 20.0));
+        Book unpriced = book(30L, 30.0);
+        unpriced.setPrice(null);
+        index(unpriced);
+        index(book(40L, -0.0));
+
+        // Then
+        assertThat(priceIndex.range(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 0, 3, false))
+                .containsExactly(40L, 500L, 1L);
+        assertThat(priceIndex.count(1, 1_000)).isEqualTo(996);
+        assertThat(priceIndex.search(5, 35)).doesNotContain(10L, 30L).contains(20L);
+    }
+
+    // Writes go to the price index first, as the catalog indexer applies them, so it finds the old price
+    private void index(Book book) {
+        priceIndex.index(book);
+        attributeIndex.index(book);
+    }
+
+    private void remove(long bookId) {
+        priceIndex.remove(bookId);
+        attributeIndex.remove(bookId);
+    }
+
+    private void clear() {
+        priceIndex.clear();
+        attributeIndex.clear();
+    }
+
+    private Book book(Long id, double price) {
+        Book book = TestDataBuilder.createBook(id, "Book " + id, "Author", "isbn-" + id);
+        book.setPrice(price);
+        return book;
+    }
+}
@@ -0,0 +1,143 @@
+package com.richardvinz.Book_Management_App.search;
+
+import com.richardvinz.Book_Management_App.dto.BookQueryDto;
+import com.richardvinz.Book_Management_App.entity.Book;
+import com.richardvinz.Book_Management_App.exception.ValidationException;
+import com.richardvinz.Book_Management_App.testUtil.TestDataBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Query Planner Tests")
+class QueryPlannerTest {
+
+    private QueryPlanner queryPlanner;
+
+    @BeforeEach
+    void setUp() {
+        KeywordIndex keywordIndex = new KeywordIndex();
+        SubstringIndex substringIndex = new SubstringIndex();
+        AttributeIndex attributeIndex = new AttributeIndex();
+        PriceIndex priceIndex = new PriceIndex(attributeIndex);
+        StockIndex stockIndex = new StockIndex();
+        queryPlanner = new QueryPlanner(keywordIndex, substringIndex, attributeIndex, priceIndex, stockIndex);
+
+        for (long id = 1; id <= 40; id++) {
+            Book book = TestDataBuilder.createBook(id, "Common Title " + id, "Author " + (id % 4), "isbn-" + id);
+            book.setPublishedYear(2000 + (int) (id % 10));
+            book.setPrice((double) id);
+            book.setStockQuantity((int) id);
+            book.setDescription("an ordinary story");
+            index(book, keywordIndex, substringIndex, priceIndex, attributeIndex, stockIndex);
+        }
+        Book rare = TestDataBuilder.createBook(41L, "Zephyr Chronicles", "Author 1", "isbn-41");
+        rare.setPublishedYear(2005);
+        rare.setPrice(12.5);
+        rare.setStockQuantity(3);
+        rare.setDescription("a windswept saga");
+        index(rare, keywordIndex, substringIndex, priceIndex, attributeIndex, stockIndex);
+    }
+
+    @Test
+    @DisplayName("Should drive the query from the most selective index")
+    void shouldDriveFromMostSelectiveIndex() {
+        // Given
+        BookQueryDto query = BookQueryDto.builder().author("Author 1").title("Zephyr").build();
+
+        // When
+        QueryPlanner.QueryResult result = queryPlanner.execute(query, Sort.unsorted(), 10);
+
+        // Then
+        assertThat(result.getBookIds()).containsExactly(41L);
+        assertThat(result.getTotal()).isEqualTo(1);
+        assertThat(result.getPlan()).startsWith("index(title)");
+    }
+
+    @Test
+    @DisplayName("Should filter candidates instead of intersecting with a much larger index")
+    void shouldFilterWhenOtherIndexIsMuchLarger() {
+        // Given
+        BookQueryDto query = BookQueryDto.builder().keyword("windswept").minYear(2000).maxYear(2009).build();
+
+        // When
+        QueryPlanner.QueryResult result = queryPlanner.execute(query, Sort.unsorted(), 10);
+
+        // Then
+        assertThat(result.getBookIds()).containsExactly(41L);
+        assertThat(result.getPlan()).contains("index(keyword)", "filter(publishedYear)");
+    }
+
+    @Test
+    @DisplayName("Should intersect indexes of similar size")
+    void shouldIntersectIndexesOfSimilarSize() {
+        // Given
+        BookQueryDto query = BookQueryDto.builder().author("Author 2").minYear(2002).maxYear(2002).build();
+
+        // When
+        QueryPlanner.QueryResult result = queryPlanner.execute(query, Sort.unsorted(), 10);
+
+        // Then
+        assertThat(result.getBookIds()).containsExactly(2L, 22L);
+        assertThat(result.getPlan()).contains("intersect(");
+    }
+
+    @Test
+    @DisplayName("Should drive from the stock index, intersect prices and sort the remaining candidates")
+    void shouldFilterAndSortByAttribute() {
+        // Given
+        BookQueryDto query = BookQueryDto.builder().maxPrice(20.0).stockBelow(10).build();
+
+        // When
+        QueryPlanner.QueryResult result = queryPlanner.execute(query, Sort.by("price").descending(), 3);
+
+        // Then
+        assertThat(result.getBookIds()).containsExactly(41L, 9L, 8L);
+        assertThat(result.getTotal()).isEqualTo(10);
+        assertThat(result.getPlan()).startsWith("index(stockBelow) est=10").contains("intersect(price) est=21 rows=10")
+                .endsWith("sort(price desc) top=3");
+    }
+
+    @Test
+    @DisplayName("Should walk the price order instead of sorting when most books are candidates")
+    void shouldWalkPriceOrderForDenseCandidates() {
+        // When
+        QueryPlanner.QueryResult result = queryPlanner.execute(new BookQueryDto(), Sort.by("price"), 3);
+
+        // Then
+        assertThat(result.getBookIds()).containsExactly(1L, 2L, 3L);
+        assertThat(result.getTotal()).isEqualTo(41);
+        assertThat(result.getPlan()).isEqualTo("scan(all) rows=41 -> ordered(price asc) top=3");
+    }
+
+    @Test
+    @DisplayName("Should sort by title and keep matches beyond the limit in the total")
+    void shouldSortByTitle() {
+        // Given
+        BookQueryDto query = BookQueryDto.builder().author("Author 1").build();
+
+        // When
+        QueryPlanner.QueryResult result = queryPlanner.execute(query, Sort.by("title"), 2);
+
+        // Then
+        assertThat(result.getBookIds()).containsExactly(1L, 13L);
+        assertThat(result.getTotal()).isEqualTo(11);
+    }
+
+    @Test
+    @DisplayName("Should reject unsupported sort fields")
+    void shouldRejectUnsupportedSortField() {
+        // When & Then
+        assertThatThrownBy(() -> queryPlanner.execute(new BookQueryDto(), Sort.by("isbn"), 10))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("isbn");
+    }
+
+    private static void index(Book book, CatalogIndex... indexes) {
+        for (CatalogIndex index : indexes) {
+            index.index(book);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.richardvinz.Book_Management_App.search;
+
+import com.richardvinz.Book_Management_App.entity.Book;
+import com.richardvinz.Book_Management_App.testUtil.TestDataBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Stock Index Tests")
+class StockIndexTest {
+
+    private StockIndex stockIndex;
+
+    @BeforeEach
+    void setUp() {
+        stockIndex = new StockIndex();
+        stockIndex.index(book(1L, 12));
+        stockIndex.index(book(2L, 3));
+        stockIndex.index(book(3L, 0));
+        stockIndex.index(book(4L, 3));
+        stockIndex.index(book(5L, 50));
+    }
+
+    @Test
+    @DisplayName("Should list books below the threshold, lowest stock first")
+    void shouldListBooksBelowThreshold() {
+        // When & Then
+        assertThat(stockIndex.below(10)).containsExactly(3L, 2L, 4L);
+        assertThat(stockIndex.below(3)).containsExactly(3L);
+        assertThat(stockIndex.below(0)).isEmpty();
+        assertThat(stockIndex.countBelow(13)).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should follow stock changes and removals")
+    void shouldFollowStockChangesAndRemovals() {
+        // When
+        stockIndex.index(book(5L, 1));
+        stockIndex.index(book(2L, 20));
+        stockIndex.remove(3L);
+
+        // Then
+        assertThat(stockIndex.below(10)).containsExactly(5L, 4L);
+        assertThat(stockIndex.countBelow(100)).isEqualTo(4);
+    }
+
+    private Book book(Long id, int stock) {
+        Book book = TestDataBuilder.createBook(id, "Book " + id, "Author", "isbn-" + id);
+        book.setStockQuantity(stock);
+        return book;
+    }
+}
@@ -0,0 +1,112 @@
+package com.richardvinz.Book_Management_App.search;
+
+import com.richardvinz.Book_Management_App.dto.SuggestionDto;
+import com.richardvinz.Book_Management_App.entity.Book;
+import com.richardvinz.Book_Management_App.testUtil.TestDataBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Suggestion Index Tests")
+class SuggestionIndexTest {
+
+    private SuggestionIndex suggestionIndex;
+
+    @BeforeEach
+    void setUp() {
+        suggestionIndex = new SuggestionIndex();
+        suggestionIndex.index(book(1L, "The Great Gatsby", "F. Scott Fitzgerald", 40));
+        suggestionIndex.index(book(2L, "Tender Is the Night", "F. Scott Fitzgerald", 5));
+        suggestionIndex.index(book(3L, "The Grapes of Wrath", "John Steinbeck", 90));
+        suggestionIndex.index(book(4L, "Great Expectations", "Charles Dickens", 10));
+    }
+
+    @Test
+    @DisplayName("Should complete prefixes ranked by stock")
+    void shouldCompletePrefixesRankedByStock() {
+        // When
+        List<SuggestionDto> suggestions = suggestionIndex.suggest("The Gr", 10);
+
+        // Then
+        assertThat(suggestions).extracting(SuggestionDto::getText)
+                .containsExactly("The Grapes of Wrath", "The Great Gatsby");
+        assertThat(suggestions.get(0).getType()).isEqualTo(SuggestionDto.Type.TITLE);
+    }
+
+    @Test
+    @DisplayName("Should complete from any word of a title or author")
+    void shouldCompleteFromAnyWord() {
+        assertThat(suggestionIndex.suggest("gats", 10)).extracting(SuggestionDto::getText)
+                .containsExactly("The Great Gatsby");
+        assertThat(suggestionIndex.suggest("great", 10)).extracting(SuggestionDto::getText)
+                .containsExactly("The Great Gatsby", "Great Expectations");
+    }
+
+    @Test
+    @DisplayName("Should aggregate books by the same author")
+    void shouldAggregateBooksBySameAuthor() {
+        // When
+        List<SuggestionDto> suggestions = suggestionIndex.suggest("fitz", 10);
+
+        // Then
+        assertThat(suggestions).hasSize(1);
+        assertThat(suggestions.get(0).getText()).isEqualTo("F. Scott Fitzgerald");
+        assertThat(suggestions.get(0).getType()).isEqualTo(SuggestionDto.Type.AUTHOR);
+        assertThat(suggestions.get(0).getBookCount()).isEqualTo(2);
+        assertThat(suggestions.get(0).getStockQuantity()).isEqualTo(45);
+    }
+
+    @Test
+    @DisplayName("Should respect the limit and return nothing for unknown prefixes")
+    void shouldRespectLimitAndUnknownPrefixes() {
+        assertThat(suggestionIndex.suggest("", 3)).hasSize(3);
+        assertThat(suggestionIndex.suggest("zzz", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should re-rank and drop phrases incrementally on writes")
+    void shouldReRankAndDropPhrasesOnWrites() {
+        // When - stock change and a rename
+        suggestionIndex.index(book(4L, "Great Expectations", "Charles Dickens", 500));
+        suggestionIndex.index(book(3L, "East of Eden", "John Steinbeck", 90));
+
+        // Then
+        assertThat(suggestionIndex.suggest("gr", 10)).extracting(SuggestionDto::getText)
+                .containsExactly("Great Expectations", "The Great Gatsby");
+
+        // When
+        suggestionIndex.remove(1L);
+
+        // Then
+        assertThat(suggestionIndex.suggest("gats", 10)).isEmpty();
+        assertThat(suggestionIndex.suggest("fitz", 10)).extracting(SuggestionDto::getStockQuantity)
+                .containsExactly(5L);
+    }
+
+    @Test
+    @DisplayName("Should keep only the best suggestions per prefix")
+    void shouldKeepOnlyBestSuggestionsPerPrefix() {
+        // Given
+        for (long id = 10; id < 40; id++) {
+            suggestionIndex.index(book(id, "Volume " + id, "Anonymous " + id, (int) id));
+        }
+
+        // When
+        List<SuggestionDto> suggestions = suggestionIndex.suggest("volume", 20);
+
+        // Then
+        assertThat(suggestions).hasSize(SuggestionIndex.MAX_SUGGESTIONS);
+        assertThat(suggestions.get(0).getText()).isEqualTo("Volume 39");
+        assertThat(suggestions.get(9).getText()).isEqualTo("Volume 30");
+    }
+
+    private Book book(Long id, String title, String author, int stock) {
+        Book book = TestDataBuilder.createBook(id, title, author, "isbn-" + id);
+        book.setStockQuantity(stock);
+        return book;
+    }
+}
@@ -0,0 +1,111 @@
+package com.richardvinz.Book_Management_App.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Trigram Index Tests")
+class TrigramIndexTest {
+
+    private TrigramIndex trigramIndex;
+
+    @BeforeEach
+    void setUp() {
+        trigramIndex = new TrigramIndex();
+        trigramIndex.index(1L, "F. Scott Fitzgerald");
+        trigramIndex.index(2L, "Harper Lee");
+        trigramIndex.index(3L, "George Orwell");
+        trigramIndex.index(4L, "George R. R. Martin");
+    }
+
+    @Test
+    @DisplayName("Should find arbitrary substrings ignoring case")
+    void shouldFindArbitrarySubstringsIgnoringCase() {
+        assertThat(trigramIndex.search("fitz")).containsExactly(1L);
+        assertThat(trigramIndex.search("GERALD")).containsExactly(1L);
+        assertThat(trigramIndex.search("orge")).containsExactly(3L, 4L);
+        assertThat(trigramIndex.search("r lee")).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Should reject candidates that share grams but not the substring")
+    void shouldRejectFalsePositiveCandidates() {
+        // "rgeo" shares "rge" with "George" but never appears contiguously
+        assertThat(trigramIndex.search("rgeo")).isEmpty();
+        assertThat(trigramIndex.search("tolkien")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should scan stored values for queries shorter than a gram")
+    void shouldScanForShortQueries() {
+        assertThat(trigramIndex.search("ee")).containsExactly(2L);
+        assertThat(trigramIndex.search("")).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(trigramIndex.search(null)).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    @DisplayName("Should update postings when a value changes or is removed")
+    void shouldUpdatePostingsOnChangeAndRemoval() {
+        // When
+        trigramIndex.index(3L, "Eric Blair");
+        trigramIndex.remove(4L);
+
+        // Then
+        assertThat(trigramIndex.search("george")).isEmpty();
+        assertThat(trigramIndex.search("blair")).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Should keep ids sorted when inserted out of order")
+    void shouldKeepIdsSortedWhenInsertedOutOfOrder() {
+        // Given
+        CompressedPostingList postingList = new CompressedPostingList();
+
+        // When
+        postingList.add(300L);
+        postingList.add(5L);
+        postingList.add(70_000L);
+        postingList.add(42L);
+        postingList.add(42L);
+        postingList.remove(300L);
+
+        // Then
+        assertThat(postingList.toArray()).containsExactly(5L, 42L, 70_000L);
+        assertThat(postingList.sizeInBytes()).isLessThan(3 * Long.BYTES);
+    }
+
+    @Test
+    @DisplayName("Should keep a list spanning many blocks in step with random inserts and removals")
+    void shouldUpdateListSpanningManyBlocks() {
+        // Given every even id, appended in order
+        CompressedPostingList postingList = new CompressedPostingList();
+        TreeSet<Long> expected = new TreeSet<>();
+        for (long id = 0; id < 20_000; id += 2) {
+            postingList.add(id);
+            expected.add(id);
+        }
+
+        // When odd ids are inserted and random ids removed, splitting and merging blocks
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            long id = random.nextInt(20_010);
+            if (random.nextBoolean()) {
+                postingList.add(id);
+                expected.add(id);
+            } else {
+                postingList.remove(id);
+                expected.remove(id);
+            }
+        }
+
+        // Then
+        assertThat(postingList.toArray()).containsExactly(expected.stream().mapToLong(Long::longValue).toArray());
+        assertThat(postingList.size()).isEqualTo(expected.size());
+        assertThat(postingList.sizeInBytes()).isLessThan(expected.size() * 2);
+    }
+}
@@ -0,0 +1,125 @@
+package com.richardvinz.Book_Management_App.service;
+
+import com.richardvinz.Book_Management_App.dto.BookResponseDto;
+import com.richardvinz.Book_Management_App.exception.BookNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+@DisplayName("Book Cache Tests")
+class BookCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Should load once and report hits and misses as metrics")
+    void shouldLoadOnceAndReportMetrics() {
+        // Given
+        BookCache cache = new BookCache(100, Duration.ofMinutes(1), meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            cache.get(1L, id -> {
+                loads.incrementAndGet();
+                return book(id);
+            });
+        }
+
+        // Then
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", BookCache.NAME).tag("result", "hit")
+                .functionCounter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", BookCache.NAME).tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not cache lookups that fail")
+    void shouldNotCacheFailedLookups() {
+        // Given
+        BookCache cache = new BookCache(100, Duration.ofMinutes(1), meterRegistry);
+
+        // When & Then
+        assertThatThrownBy(() -> cache.get(7L, id -> {
+            throw new BookNotFoundException("Book not found with ID: " + id);
+        })).isInstanceOf(BookNotFoundException.class);
+        assertThat(cache.get(7L, this::book).getId()).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("Should stay within its maximum size and count evictions")
+    void shouldStayWithinMaximumSize() {
+        // Given
+        BookCache cache = new BookCache(10, Duration.ofMinutes(1), meterRegistry);
+
+        // When
+        for (long id = 1; id <= 50; id++) {
+            cache.get(id, this::book);
+        }
+
+        // Then
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+        assertThat(meterRegistry.get("cache.evictions").tag("cache", BookCache.NAME)
+                .functionCounter().count()).isGreaterThanOrEqualTo(40);
+    }
+
+    @Test
+    @DisplayName("Should forget invalidated books")
+    void shouldForgetInvalidatedBooks() {
+        // Given
+        BookCache cache = new BookCache(100, Duration.ofMinutes(1), meterRegistry);
+        cache.get(1L, this::book);
+
+        // When
+        cache.invalidate(1L);
+
+        // Then
+        assertThat(cache.get(1L, id -> book(id).toBuilder().title("Reloaded").build()).getTitle())
+                .isEqualTo("Reloaded");
+    }
+
+    @Test
+    @DisplayName("Should invalidate without waiting for a load in flight and not cache what it loaded")
+    void shouldNotWaitForLoadsInFlight() throws Exception {
+        // Given a load that is stuck, as a query waiting for a row lock would be
+        BookCache cache = new BookCache(100, Duration.ofMinutes(1), meterRegistry);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<BookResponseDto> load = CompletableFuture.supplyAsync(() -> cache.get(1L, id -> {
+            loading.countDown();
+            awaitQuietly(release);
+            return book(id).toBuilder().title("Before the write").build();
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> cache.invalidate(1L));
+        release.countDown();
+
+        // Then the stale load is returned to its caller but not kept
+        assertThat(load.get(5, TimeUnit.SECONDS).getTitle()).isEqualTo("Before the write");
+        assertThat(cache.getIfPresent(1L)).isNull();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private BookResponseDto book(Long id) {
+        return BookResponseDto.builder().id(id).title("Book " + id).build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.richardvinz.Book_Management_App.service;
+
+import com.richardvinz.Book_Management_App.repository.BookRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Book Count Cache Tests")
+class BookCountCacheTest {
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final BookCountCache cache = new BookCountCache(bookRepository);
+
+    @Test
+    @DisplayName("Should count once on first use and reuse the figure")
+    void shouldCountOnceOnFirstUse() {
+        // Given
+        when(bookRepository.count()).thenReturn(42L);
+
+        // When & Then
+        assertThat(cache.getTotal()).isEqualTo(42);
+        assertThat(cache.getTotal()).isEqualTo(42);
+        assertThat(cache.isExact()).isTrue();
+        verify(bookRepository, times(1)).count();
+    }
+
+    @Test
+    @DisplayName("Should adjust for writes as an estimate until the next count")
+    void shouldAdjustForWritesUntilNextCount() {
+        // Given
+        when(bookRepository.count()).thenReturn(10L, 12L);
+        cache.refresh();
+
+        // When
+        cache.adjust(1);
+        cache.adjust(1);
+        cache.adjust(-1);
+
+        // Then
+        assertThat(cache.getTotal()).isEqualTo(11);
+        assertThat(cache.isExact()).isFalse();
+
+        cache.refresh();
+        assertThat(cache.getTotal()).isEqualTo(12);
+        assertThat(cache.isExact()).isTrue();
+    }
+}
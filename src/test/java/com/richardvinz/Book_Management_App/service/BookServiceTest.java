@@ -1,24 +1,66 @@
 package com.richardvinz.Book_Management_App.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.richardvinz.Book_Management_App.dto.BatchDeleteRequestDto;
+import com.richardvinz.Book_Management_App.dto.BatchItemResultDto;
+import com.richardvinz.Book_Management_App.dto.BatchResponseDto;
+import com.richardvinz.Book_Management_App.dto.BatchUpdateRequestDto;
+import com.richardvinz.Book_Management_App.dto.BookChangesDto;
+import com.richardvinz.Book_Management_App.dto.BookQueryDto;
 import com.richardvinz.Book_Management_App.dto.BookRequestDto;
 import com.richardvinz.Book_Management_App.dto.BookResponseDto;
+import com.richardvinz.Book_Management_App.dto.CatalogSummaryDto;
+import com.richardvinz.Book_Management_App.dto.CursorSlice;
+import com.richardvinz.Book_Management_App.dto.FacetCountsDto;
+import com.richardvinz.Book_Management_App.dto.FacetedPage;
+import com.richardvinz.Book_Management_App.dto.FuzzySearchResponseDto;
+import com.richardvinz.Book_Management_App.dto.PlannedPage;
+import com.richardvinz.Book_Management_App.dto.SliceWithTotal;
+import com.richardvinz.Book_Management_App.dto.SuggestionDto;
 import com.richardvinz.Book_Management_App.entity.Book;
 import com.richardvinz.Book_Management_App.exception.BookNotFoundException;
+import com.richardvinz.Book_Management_App.exception.DuplicateIsbnException;
+import com.richardvinz.Book_Management_App.exception.InsufficientStockException;
+import com.richardvinz.Book_Management_App.exception.PreconditionFailedException;
 import com.richardvinz.Book_Management_App.exception.ValidationException;
 import com.richardvinz.Book_Management_App.repository.BookRepository;
+import com.richardvinz.Book_Management_App.search.AttributeIndex;
+import com.richardvinz.Book_Management_App.search.CatalogIndexer;
+import com.richardvinz.Book_Management_App.search.FacetIndex;
+import com.richardvinz.Book_Management_App.search.FuzzyIndex;
+import com.richardvinz.Book_Management_App.search.IsbnIndex;
+import com.richardvinz.Book_Management_App.search.KeywordIndex;
+import com.richardvinz.Book_Management_App.search.PriceIndex;
+import com.richardvinz.Book_Management_App.search.QueryPlanner;
+import com.richardvinz.Book_Management_App.search.StockIndex;
+import com.richardvinz.Book_Management_App.search.SubstringIndex;
+import com.richardvinz.Book_Management_App.search.SuggestionIndex;
 import com.richardvinz.Book_Management_App.service.impl.BookServiceImpl;
+import com.richardvinz.Book_Management_App.service.invalidation.InvalidationBus;
+import com.richardvinz.Book_Management_App.service.invalidation.InvalidationEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -31,6 +73,68 @@ class BookServiceTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Mock
+    private CatalogIndexer catalogIndexer;
+
+    @Mock
+    private KeywordIndex keywordIndex;
+
+    @Mock
+    private SubstringIndex substringIndex;
+
+    @Mock
+    private SuggestionIndex suggestionIndex;
+
+    @Mock
+    private FuzzyIndex fuzzyIndex;
+
+    @Mock
+    private FacetIndex facetIndex;
+
+    @Mock
+    private QueryPlanner queryPlanner;
+
+    @Mock
+    private PriceIndex priceIndex;
+
+    @Mock
+    private IsbnIndex isbnIndex;
+
+    @Mock
+    private StockIndex stockIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private BookCountCache bookCountCache;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private AttributeIndex attributeIndex;
+
+    @Spy
+    private BookCache bookCache = new BookCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    @Spy
+    private SearchResultCache searchResultCache = new SearchResultCache(100, Duration.ofMinutes(1),
+            new SimpleMeterRegistry());
+
+    @Mock
+    private InvalidationBus invalidationBus;
+
+    @Spy
+    private MissingBookCache missingBookCache = new MissingBookCache(100, Duration.ofMinutes(1),
+            new SimpleMeterRegistry());
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private BookServiceImpl bookService;
 
@@ -73,7 +177,6 @@ class BookServiceTest {
         @DisplayName("Should create book successfully")
         void shouldCreateBookSuccessfully() {
             // Given
-            when(bookRepository.existsByIsbn(testBookRequestDto.getIsbn())).thenReturn(false);
             when(bookRepository.save(any(Book.class))).thenReturn(testBook);
 
             // When
@@ -88,31 +191,86 @@ class BookServiceTest {
             assertThat(result.getStockQuantity()).isEqualTo(100);
             assertThat(result.getDescription()).isEqualTo("Test Description");
 
-            verify(bookRepository).existsByIsbn(testBookRequestDto.getIsbn());
+            verify(isbnIndex).find(testBookRequestDto.getIsbn());
+            verify(bookRepository, never()).existsByIsbn(any());
             verify(bookRepository).save(any(Book.class));
+            verify(catalogIndexer).bookSaved(testBook);
+
+            ArgumentCaptor<StockChangedEvent> event = ArgumentCaptor.forClass(StockChangedEvent.class);
+            verify(eventPublisher).publishEvent(event.capture());
+            assertThat(event.getValue().getPreviousStock()).isNull();
+            assertThat(event.getValue().getCurrentStock()).isEqualTo(100);
         }
 
         @Test
-        @DisplayName("Should throw ValidationException when ISBN already exists")
-        void shouldThrowValidationExceptionWhenIsbnExists() {
+        @DisplayName("Should create a batch with one ISBN query and reject bad items individually")
+        void shouldCreateBatch() {
             // Given
-            when(bookRepository.existsByIsbn(testBookRequestDto.getIsbn())).thenReturn(true);
+            BookRequestDto taken = testBookRequestDto.toBuilder().isbn("978-0-306-40615-7").build();
+            BookRequestDto invalid = testBookRequestDto.toBuilder().isbn("not an isbn").build();
+            BookRequestDto fresh = testBookRequestDto.toBuilder().isbn("978-1-4028-9462-6").build();
+            BookRequestDto repeated = testBookRequestDto.toBuilder().isbn("9781402894626").build();
+            when(isbnIndex.find("978-0-306-40615-7")).thenReturn(OptionalLong.of(7L));
+            when(bookRepository.findIsbnsByIdInOrIsbnIn(List.of(7L), List.of("978-0-306-40615-7", "978-1-4028-9462-6")))
+                    .thenReturn(List.of("9780306406157"));
+            when(bookRepository.saveAll(anyList())).thenAnswer(invocation -> {
+                List<Book> books = invocation.getArgument(0);
+                books.forEach(book -> {
+                    book.setId(50L);
+                    book.setVersion(0L);
+                });
+                return books;
+            });
+
+            // When
+            BatchResponseDto result = bookService.createBooks(List.of(taken, invalid, fresh, repeated));
+
+            // Then
+            assertThat(result.getRequested()).isEqualTo(4);
+            assertThat(result.getSucceeded()).isEqualTo(1);
+            assertThat(result.getRejected()).isEqualTo(3);
+            assertThat(result.getItems()).extracting(BatchItemResultDto::getStatus).containsExactly(
+                    BatchItemResultDto.Status.REJECTED, BatchItemResultDto.Status.REJECTED,
+                    BatchItemResultDto.Status.CREATED, BatchItemResultDto.Status.REJECTED);
+            assertThat(result.getItems().get(0).getErrors()).containsExactly(
+                    "isbn: Book with ISBN 978-0-306-40615-7 already exists");
+            assertThat(result.getItems().get(1).getErrors()).containsExactly("isbn: Invalid ISBN format");
+            assertThat(result.getItems().get(2).getId()).isEqualTo(50L);
+            assertThat(result.getItems().get(3).getErrors()).singleElement().asString().contains("earlier item");
+
+            verify(bookRepository, times(1)).findIsbnsByIdInOrIsbnIn(anyCollection(), anyCollection());
+            verify(bookRepository, never()).existsByIsbn(any());
+            verify(bookRepository, never()).save(any());
+            verify(entityManager).flush();
+            verify(catalogIndexer).booksSaved(anyList());
+            verify(invalidationBus).booksChanged(eq(InvalidationEvent.Type.CREATED), anyList());
+            verify(bookCountCache).adjust(1);
+            verify(missingBookCache).invalidateAll();
+        }
+
+        @Test
+        @DisplayName("Should throw DuplicateIsbnException when ISBN already exists")
+        void shouldThrowDuplicateIsbnExceptionWhenIsbnExists() {
+            // Given
+            when(isbnIndex.find(testBookRequestDto.getIsbn())).thenReturn(OptionalLong.of(2L));
+            when(bookRepository.findById(2L)).thenReturn(Optional.of(bookWithIsbn(2L, testBookRequestDto.getIsbn())));
 
             // When & Then
             assertThatThrownBy(() -> bookService.createBook(testBookRequestDto))
-                    .isInstanceOf(ValidationException.class)
+                    .isInstanceOf(DuplicateIsbnException.class)
                     .hasMessage("Book with ISBN 978-0-123456-78-9 already exists");
 
-            verify(bookRepository).existsByIsbn(testBookRequestDto.getIsbn());
+            verify(isbnIndex).find(testBookRequestDto.getIsbn());
+            verify(bookRepository, never()).existsByIsbn(any());
             verify(bookRepository, never()).save(any());
+            verify(catalogIndexer, never()).bookSaved(any());
         }
 
         @Test
-        @DisplayName("Should handle null ISBN during creation")
+        @DisplayName("Should leave a null ISBN to the database constraints during creation")
         void shouldHandleNullIsbnDuringCreation() {
             // Given
             testBookRequestDto.setIsbn(null);
-            when(bookRepository.existsByIsbn(null)).thenReturn(false);
             when(bookRepository.save(any(Book.class))).thenReturn(testBook);
 
             // When
@@ -120,16 +278,16 @@ class BookServiceTest {
 
             // Then
             assertThat(result).isNotNull();
-            verify(bookRepository).existsByIsbn(null);
+            verify(bookRepository, never()).existsByIsbn(any());
             verify(bookRepository).save(any(Book.class));
+            verify(bookRepository).flush();
         }
 
         @Test
-        @DisplayName("Should handle empty ISBN during creation")
+        @DisplayName("Should leave an empty ISBN to the database constraints during creation")
         void shouldHandleEmptyIsbnDuringCreation() {
             // Given
             testBookRequestDto.setIsbn("");
-            when(bookRepository.existsByIsbn("")).thenReturn(false);
             when(bookRepository.save(any(Book.class))).thenReturn(testBook);
 
             // When
@@ -137,7 +295,7 @@ class BookServiceTest {
 
             // Then
             assertThat(result).isNotNull();
-            verify(bookRepository).existsByIsbn("");
+            verify(bookRepository, never()).existsByIsbn(any());
             verify(bookRepository).save(any(Book.class));
         }
 
@@ -145,7 +303,6 @@ class BookServiceTest {
         @DisplayName("Should create book with all fields populated correctly")
         void shouldCreateBookWithAllFieldsPopulatedCorrectly() {
             // Given
-            when(bookRepository.existsByIsbn(testBookRequestDto.getIsbn())).thenReturn(false);
             when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> {
                 Book savedBook = invocation.getArgument(0);
                 savedBook.setId(1L);
@@ -197,6 +354,72 @@ class BookServiceTest {
             verify(bookRepository).findById(bookId);
         }
 
+        @Test
+        @DisplayName("Should serve repeated reads from the cache with independent copies")
+        void shouldServeRepeatedReadsFromCache() {
+            // Given
+            when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+
+            // When
+            BookResponseDto first = bookService.getBookById(1L);
+            first.setTitle("Changed by caller");
+            BookResponseDto second = bookService.getBookById(1L);
+
+            // Then
+            assertThat(second.getTitle()).isEqualTo("Test Book");
+            verify(bookRepository, times(1)).findById(1L);
+        }
+
+        @Test
+        @DisplayName("Should reload a book after it is updated")
+        void shouldReloadBookAfterUpdate() {
+            // Given
+            when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+            when(bookRepository.save(testBook)).thenReturn(testBook);
+            bookService.getBookById(1L);
+            BookRequestDto update = BookRequestDto.builder()
+                    .title("Renamed")
+                    .author(testBook.getAuthor())
+                    .isbn(testBook.getIsbn())
+                    .price(testBook.getPrice())
+                    .stockQuantity(testBook.getStockQuantity())
+                    .build();
+
+            // When
+            bookService.updateBook(1L, update);
+            BookResponseDto result = bookService.getBookById(1L);
+
+            // Then
+            assertThat(result.getTitle()).isEqualTo("Renamed");
+            verify(bookCache).invalidate(1L);
+        }
+
+        @Test
+        @DisplayName("Should get book by ISBN through the ISBN index")
+        void shouldGetBookByIsbnThroughIndex() {
+            // Given
+            when(isbnIndex.find("9780123456789")).thenReturn(OptionalLong.of(1L));
+            when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+
+            // When
+            BookResponseDto result = bookService.getBookByIsbn("9780123456789");
+
+            // Then
+            assertThat(result.getIsbn()).isEqualTo("978-0-123456-78-9");
+            verify(bookRepository, never()).findByIsbn(any());
+        }
+
+        @Test
+        @DisplayName("Should report an unknown ISBN without querying the database")
+        void shouldReportUnknownIsbnWithoutDatabase() {
+            // When & Then
+            assertThatThrownBy(() -> bookService.getBookByIsbn("978-0-000000-00-2"))
+                    .isInstanceOf(BookNotFoundException.class)
+                    .hasMessage("Book not found with ISBN: 978-0-000000-00-2");
+
+            verifyNoInteractions(bookRepository);
+        }
+
         @Test
         @DisplayName("Should throw BookNotFoundException when book not found")
         void shouldThrowBookNotFoundExceptionWhenBookNotFound() {
@@ -211,6 +434,66 @@ class BookServiceTest {
 
             verify(bookRepository).findById(bookId);
         }
+
+        @Test
+        @DisplayName("Should answer repeated lookups of a missing ID without the database")
+        void shouldRememberMissingIds() {
+            // Given
+            when(bookRepository.findById(999L)).thenReturn(Optional.empty());
+            assertThatThrownBy(() -> bookService.getBookById(999L)).isInstanceOf(BookNotFoundException.class);
+
+            // When & Then
+            assertThatThrownBy(() -> bookService.getBookById(999L))
+                    .isInstanceOf(BookNotFoundException.class)
+                    .hasMessage("Book not found with ID: 999");
+            assertThatThrownBy(() -> bookService.getBookVersion(999L)).isInstanceOf(BookNotFoundException.class);
+
+            verify(bookRepository, times(1)).findById(999L);
+            verify(bookRepository, never()).findVersionById(any());
+        }
+
+        @Test
+        @DisplayName("Should answer repeated lookups of a missing ISBN without the database")
+        void shouldRememberMissingIsbns() {
+            // Given
+            when(bookRepository.findByIsbn("unindexed")).thenReturn(Optional.empty());
+            assertThatThrownBy(() -> bookService.getBookByIsbn("unindexed")).isInstanceOf(BookNotFoundException.class);
+
+            // When & Then
+            assertThatThrownBy(() -> bookService.getBookByIsbn("unindexed"))
+                    .isInstanceOf(BookNotFoundException.class)
+                    .hasMessage("Book not found with ISBN: unindexed");
+
+            verify(bookRepository, times(1)).findByIsbn("unindexed");
+        }
+
+        @Test
+        @DisplayName("Should look a missing ID up again once a book is created")
+        void shouldForgetMissingIdsOnCreate() {
+            // Given
+            when(bookRepository.findById(1L)).thenReturn(Optional.empty(), Optional.of(testBook));
+            when(bookRepository.save(any(Book.class))).thenReturn(testBook);
+            assertThatThrownBy(() -> bookService.getBookById(1L)).isInstanceOf(BookNotFoundException.class);
+
+            // When
+            bookService.createBook(testBookRequestDto);
+            BookResponseDto result = bookService.getBookById(1L);
+
+            // Then
+            assertThat(result.getId()).isEqualTo(1L);
+            verify(missingBookCache).invalidateAll();
+        }
+
+        @Test
+        @DisplayName("Should throw a not-found exception without a stack trace")
+        void shouldThrowStacklessNotFound() {
+            // Given
+            when(bookRepository.findById(999L)).thenReturn(Optional.empty());
+
+            // When & Then
+            assertThatThrownBy(() -> bookService.getBookById(999L))
+                    .satisfies(thrown -> assertThat(thrown.getStackTrace()).isEmpty());
+        }
     }
 
     @Nested
@@ -280,6 +563,114 @@ class BookServiceTest {
 
             verify(bookRepository).findAll(testPageable);
         }
+
+        @Test
+        @DisplayName("Should export every book from a closed-after-use stream")
+        void shouldExportEveryBookFromStream() {
+            // Given
+            boolean[] closed = {false};
+            Stream<Book> books = Stream.of(testBook, bookWithIsbn(2L, "978-0-123456-79-6"))
+                    .onClose(() -> closed[0] = true);
+            when(bookRepository.streamAll()).thenReturn(books);
+            List<Long> exported = new ArrayList<>();
+
+            // When
+            long count = bookService.exportBooks(book -> exported.add(book.getId()));
+
+            // Then
+            assertThat(count).isEqualTo(2);
+            assertThat(exported).containsExactly(1L, 2L);
+            assertThat(closed[0]).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should report the cached total without counting when more books follow")
+        void shouldReportCachedTotalWhenMoreBooksFollow() {
+            // Given
+            Pageable secondPage = PageRequest.of(1, 1);
+            when(bookRepository.findAllBy(secondPage)).thenReturn(new SliceImpl<>(List.of(testBook), secondPage, true));
+            when(bookCountCache.getTotal()).thenReturn(40L);
+            when(bookCountCache.isExact()).thenReturn(false);
+
+            // When
+            SliceWithTotal<BookResponseDto> result = bookService.getAllBooksWithCachedTotal(secondPage);
+
+            // Then
+            assertThat(result.getContent()).hasSize(1);
+            assertThat(result.hasNext()).isTrue();
+            assertThat(result.getTotalElements()).isEqualTo(40);
+            assertThat(result.isTotalExact()).isFalse();
+            verify(bookRepository, never()).count();
+        }
+
+        @Test
+        @DisplayName("Should know the exact total on the last slice")
+        void shouldKnowExactTotalOnLastSlice() {
+            // Given
+            Pageable thirdPage = PageRequest.of(2, 10);
+            when(bookRepository.findAllBy(thirdPage)).thenReturn(new SliceImpl<>(List.of(testBook), thirdPage, false));
+
+            // When
+            SliceWithTotal<BookResponseDto> result = bookService.getAllBooksWithCachedTotal(thirdPage);
+
+            // Then
+            assertThat(result.getTotalElements()).isEqualTo(21);
+            assertThat(result.isTotalExact()).isTrue();
+            verifyNoInteractions(bookCountCache);
+        }
+
+        @Test
+        @DisplayName("Should return a cursor to the next slice when more books follow")
+        void shouldReturnNextCursorWhenMoreBooksFollow() {
+            // Given - one row more than requested comes back
+            Book book2 = bookWithIsbn(2L, "978-0-123456-79-6");
+            Book book3 = bookWithIsbn(3L, "978-0-123456-80-2");
+            when(bookRepository.findBy(any(Specification.class), any())).thenReturn(List.of(testBook, book2, book3));
+
+            // When
+            CursorSlice<BookResponseDto> result = bookService.getBooksByCursor("", 2, "isbn", false);
+
+            // Then
+            assertThat(result.getContent()).extracting(BookResponseDto::getId).containsExactly(1L, 2L);
+            assertThat(result.hasNext()).isTrue();
+            BookCursor next = BookCursor.decode(result.getNextCursor(), "isbn", false);
+            assertThat(next.getId()).isEqualTo(2L);
+            assertThat(next.getKey()).isEqualTo("978-0-123456-79-6");
+        }
+
+        @Test
+        @DisplayName("Should end the walk when no further books follow a cursor")
+        void shouldEndWalkOnLastSlice() {
+            // Given
+            String cursor = BookCursor.after(testBook, "id", true).encode();
+            when(bookRepository.findBy(any(Specification.class), any())).thenReturn(List.of(testBook));
+
+            // When
+            CursorSlice<BookResponseDto> result = bookService.getBooksByCursor(cursor, 2, "id", true);
+
+            // Then
+            assertThat(result.getContent()).hasSize(1);
+            assertThat(result.hasNext()).isFalse();
+            assertThat(result.getNextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should reject cursors for nullable sort fields, other sorts, or garbage")
+        void shouldRejectUnusableCursors() {
+            String byTitle = BookCursor.after(testBook, "title", false).encode();
+
+            assertThatThrownBy(() -> bookService.getBooksByCursor("", 10, "publishedYear", false))
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessageContaining("cannot sort by publishedYear");
+            assertThatThrownBy(() -> bookService.getBooksByCursor(byTitle, 10, "title", true))
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessageContaining("different sort");
+            assertThatThrownBy(() -> bookService.getBooksByCursor("not a cursor!", 10, "title", false))
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessage("Invalid cursor");
+
+            verifyNoInteractions(bookRepository);
+        }
     }
 
     @Nested
@@ -312,6 +703,144 @@ class BookServiceTest {
             verify(bookRepository).findById(bookId);
             verify(bookRepository).save(any(Book.class));
             verify(bookRepository, never()).existsByIsbn(any()); // Should not check ISBN since it's the same
+            verify(catalogIndexer).bookSaved(testBook);
+
+            ArgumentCaptor<StockChangedEvent> event = ArgumentCaptor.forClass(StockChangedEvent.class);
+            verify(eventPublisher).publishEvent(event.capture());
+            assertThat(event.getValue().getBookId()).isEqualTo(bookId);
+            assertThat(event.getValue().getPreviousStock()).isEqualTo(100);
+            assertThat(event.getValue().getCurrentStock()).isEqualTo(150);
+        }
+
+        @Test
+        @DisplayName("Should update a cached book with one version-checked UPDATE and no read")
+        void shouldUpdateCachedBookWithoutReading() {
+            // Given
+            bookCache.get(1L, id -> BookResponseDto.builder().id(id).title("Test Book").isbn("978-0-123456-78-9")
+                    .stockQuantity(100).version(3L).build());
+            when(bookRepository.updateByIdAndVersion(eq(1L), eq(3L), eq("Test Book"), eq("Test Author"),
+                    eq("978-0-123456-78-9"), eq(2023), eq("Test Description"), eq(29.99), eq(100),
+                    any(LocalDateTime.class))).thenReturn(1);
+
+            // When
+            BookResponseDto result = bookService.updateBook(1L, testBookRequestDto, 3L);
+
+            // Then
+            assertThat(result.getVersion()).isEqualTo(4L);
+            assertThat(result.getTitle()).isEqualTo("Test Book");
+            verify(bookRepository, never()).findById(any());
+            verify(bookRepository, never()).save(any());
+            verify(catalogIndexer).bookSaved(argThat(book -> book.getId().equals(1L) && book.getVersion() == 4L));
+            verify(invalidationBus).bookChanged(InvalidationEvent.Type.UPDATED, 1L, 4L);
+            assertThat(bookCache.getIfPresent(1L)).isNull();
+            verify(eventPublisher, never()).publishEvent(any());
+        }
+
+        @Test
+        @DisplayName("Should fall back to reading the book when its cached copy is stale")
+        void shouldReadBookWhenCachedCopyIsStale() {
+            // Given
+            testBook.setVersion(5L);
+            bookCache.get(1L, id -> BookResponseDto.builder().id(id).isbn("978-0-123456-78-9").version(3L).build());
+            when(bookRepository.updateByIdAndVersion(any(), any(), any(), any(), any(), any(), any(), any(), any(),
+                    any())).thenReturn(0);
+            when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+            when(bookRepository.save(any(Book.class))).thenReturn(testBook);
+
+            // When
+            BookResponseDto result = bookService.updateBook(1L, testBookRequestDto);
+
+            // Then
+            assertThat(result.getVersion()).isEqualTo(5L);
+            verify(bookRepository).findById(1L);
+            verify(entityManager).flush();
+        }
+
+        @Test
+        @DisplayName("Should apply a merge patch to the changed fields only")
+        void shouldApplyMergePatch() throws Exception {
+            // Given
+            testBook.setVersion(2L);
+            when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+            JsonNode patch = objectMapper.readTree("{\"price\": 12.5, \"description\": null}");
+
+            // When
+            BookResponseDto result = bookService.patchBook(1L, patch, 2L);
+
+            // Then
+            assertThat(result.getPrice()).isEqualTo(12.5);
+            assertThat(result.getDescription()).isNull();
+            assertThat(result.getTitle()).isEqualTo("Test Book");
+            assertThat(result.getStockQuantity()).isEqualTo(100);
+            verify(entityManager).flush();
+            verify(bookRepository, never()).save(any());
+            verify(catalogIndexer).bookSaved(testBook);
+            verify(eventPublisher, never()).publishEvent(any());
+        }
+
+        @Test
+        @DisplayName("Should reject merge patches that are not objects, name unknown members or clear required fields")
+        void shouldRejectInvalidMergePatches() throws Exception {
+            // Given
+            when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+
+            // When & Then
+            assertThatThrownBy(() -> bookService.patchBook(1L, objectMapper.readTree("[1]"), null))
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessage("A merge patch must be a JSON object");
+            assertThatThrownBy(() -> bookService.patchBook(1L, objectMapper.readTree("{\"version\": 9}"), null))
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessage("Unknown member in merge patch: version");
+            assertThatThrownBy(() -> bookService.patchBook(1L, objectMapper.readTree("{\"price\": null}"), null))
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessage("price: Price is required");
+            assertThatThrownBy(() -> bookService.patchBook(1L, objectMapper.readTree("{\"price\": \"cheap\"}"), null))
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessageStartingWith("Invalid merge patch");
+            verify(entityManager, never()).flush();
+            assertThat(testBook.getPrice()).isEqualTo(29.99);
+        }
+
+        @Test
+        @DisplayName("Should not write a merge patch that changes nothing")
+        void shouldSkipNoOpMergePatch() throws Exception {
+            // Given
+            when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+
+            // When
+            BookResponseDto result = bookService.patchBook(1L, objectMapper.readTree("{\"price\": 29.99}"), null);
+
+            // Then
+            assertThat(result.getPrice()).isEqualTo(29.99);
+            verify(entityManager, never()).flush();
+            verifyNoInteractions(catalogIndexer, invalidationBus);
+        }
+
+        @Test
+        @DisplayName("Should refuse a merge patch against an outdated version")
+        void shouldRefusePatchAgainstOutdatedVersion() throws Exception {
+            // Given
+            testBook.setVersion(3L);
+            when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+
+            // When & Then
+            assertThatThrownBy(() -> bookService.patchBook(1L, objectMapper.readTree("{\"price\": 1}"), 2L))
+                    .isInstanceOf(PreconditionFailedException.class);
+            verify(entityManager, never()).flush();
+        }
+
+        @Test
+        @DisplayName("Should not publish a stock change when the stock is unchanged")
+        void shouldNotPublishStockChangeWhenStockUnchanged() {
+            // Given
+            when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+            when(bookRepository.save(any(Book.class))).thenReturn(testBook);
+
+            // When
+            bookService.updateBook(1L, testBookRequestDto);
+
+            // Then
+            verifyNoInteractions(eventPublisher);
         }
 
         @Test
@@ -331,7 +860,6 @@ class BookServiceTest {
                     .build();
 
             when(bookRepository.findById(bookId)).thenReturn(Optional.of(testBook));
-            when(bookRepository.existsByIsbn(newIsbn)).thenReturn(false);
             when(bookRepository.save(any(Book.class))).thenReturn(testBook);
 
             // When
@@ -340,7 +868,26 @@ class BookServiceTest {
             // Then
             assertThat(result).isNotNull();
             verify(bookRepository).findById(bookId);
-            verify(bookRepository).existsByIsbn(newIsbn);
+            verify(isbnIndex).find(newIsbn);
+            verify(bookRepository, never()).existsByIsbn(any());
+            verify(bookRepository).save(any(Book.class));
+        }
+
+        @Test
+        @DisplayName("Should allow respelling the book's own ISBN")
+        void shouldAllowRespellingOwnIsbn() {
+            // Given
+            Long bookId = 1L;
+            testBookRequestDto.setIsbn("9780123456789");
+            when(bookRepository.findById(bookId)).thenReturn(Optional.of(testBook));
+            when(isbnIndex.find("9780123456789")).thenReturn(OptionalLong.of(bookId));
+            when(bookRepository.save(any(Book.class))).thenReturn(testBook);
+
+            // When
+            BookResponseDto result = bookService.updateBook(bookId, testBookRequestDto);
+
+            // Then
+            assertThat(result).isNotNull();
             verify(bookRepository).save(any(Book.class));
         }
 
@@ -362,8 +909,35 @@ class BookServiceTest {
         }
 
         @Test
-        @DisplayName("Should throw ValidationException when ISBN changed and new ISBN already exists")
-        void shouldThrowValidationExceptionWhenIsbnChangedAndNewIsbnExists() {
+        @DisplayName("Should refuse to update a book that moved past the expected version")
+        void shouldRefuseUpdateOfStaleVersion() {
+            // Given
+            testBook.setVersion(4L);
+            when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+
+            // When & Then
+            assertThatThrownBy(() -> bookService.updateBook(1L, testBookRequestDto, 3L))
+                    .isInstanceOf(PreconditionFailedException.class)
+                    .hasMessage("Book with ID 1 is at version 4, not 3");
+
+            verify(bookRepository, never()).save(any());
+            verifyNoInteractions(catalogIndexer);
+        }
+
+        @Test
+        @DisplayName("Should read the version of an uncached book without loading it")
+        void shouldReadVersionWithoutLoadingBook() {
+            // Given
+            when(bookRepository.findVersionById(1L)).thenReturn(Optional.of(7L));
+
+            // When & Then
+            assertThat(bookService.getBookVersion(1L)).isEqualTo(7L);
+            verify(bookRepository, never()).findById(any());
+        }
+
+        @Test
+        @DisplayName("Should throw DuplicateIsbnException when ISBN changed and new ISBN already exists")
+        void shouldThrowDuplicateIsbnExceptionWhenIsbnChangedAndNewIsbnExists() {
             // Given
             Long bookId = 1L;
             String newIsbn = "978-0-123456-79-6";
@@ -378,15 +952,17 @@ class BookServiceTest {
                     .build();
 
             when(bookRepository.findById(bookId)).thenReturn(Optional.of(testBook));
-            when(bookRepository.existsByIsbn(newIsbn)).thenReturn(true);
+            when(isbnIndex.find(newIsbn)).thenReturn(OptionalLong.of(2L));
+            when(bookRepository.findById(2L)).thenReturn(Optional.of(bookWithIsbn(2L, newIsbn)));
 
             // When & Then
             assertThatThrownBy(() -> bookService.updateBook(bookId, updateRequest))
-                    .isInstanceOf(ValidationException.class)
+                    .isInstanceOf(DuplicateIsbnException.class)
                     .hasMessage("Book with ISBN 978-0-123456-79-6 already exists");
 
             verify(bookRepository).findById(bookId);
-            verify(bookRepository).existsByIsbn(newIsbn);
+            verify(isbnIndex).find(newIsbn);
+            verify(bookRepository, never()).existsByIsbn(any());
             verify(bookRepository, never()).save(any());
         }
 
@@ -422,7 +998,6 @@ class BookServiceTest {
             testBookRequestDto.setIsbn(null);
 
             when(bookRepository.findById(bookId)).thenReturn(Optional.of(testBook));
-            when(bookRepository.existsByIsbn(null)).thenReturn(false);
             when(bookRepository.save(any(Book.class))).thenReturn(testBook);
 
             // When
@@ -430,7 +1005,154 @@ class BookServiceTest {
 
             // Then
             assertThat(result).isNotNull();
-            verify(bookRepository).existsByIsbn(null);
+            verify(bookRepository, never()).existsByIsbn(any());
+        }
+
+        @Test
+        @DisplayName("Should update books by ids with one statement per chunk and keep caches and indexes coherent")
+        void shouldUpdateBooksInChunks() {
+            // Given
+            BatchUpdateRequestDto request = BatchUpdateRequestDto.builder()
+                    .ids(List.of(3L, 1L, 2L, 1L))
+                    .changes(BookChangesDto.builder().price(12.5).build())
+                    .build();
+            when(bookRepository.updateByIdIn(anyCollection(), any(), any(), any(), any(), any(), any()))
+                    .thenReturn(2, 1);
+            when(bookRepository.findAllById(anyIterable())).thenReturn(List.of(testBook));
+
+            // When
+            BatchResponseDto result = bookService.updateBooks(request, 2);
+
+            // Then
+            assertThat(result.getRequested()).isEqualTo(3);
+            assertThat(result.getSucceeded()).isEqualTo(3);
+            assertThat(result.getItems()).isNull();
+            verify(bookRepository).updateByIdIn(eq(List.of(1L, 2L)), isNull(), isNull(), isNull(), eq(12.5), isNull(),
+                    any(LocalDateTime.class));
+            verify(bookRepository).updateByIdIn(eq(List.of(3L)), isNull(), isNull(), isNull(), eq(12.5), isNull(),
+                    any(LocalDateTime.class));
+            verify(catalogIndexer, times(2)).booksSaved(anyList());
+            verify(bookCache).invalidate(List.of(1L, 2L));
+            verify(bookCache).invalidate(List.of(3L));
+            verify(invalidationBus).booksChanged(eq(InvalidationEvent.Type.UPDATED), anyList());
+            verify(eventPublisher, never()).publishEvent(any());
+            verify(bookRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should publish a stock change for every book whose stock a batch update changed")
+        void shouldPublishStockChangesOfBatchUpdate() {
+            // Given
+            Book before = Book.builder().id(1L).title("Gatsby").stockQuantity(5).build();
+            Book after = Book.builder().id(1L).title("Gatsby").stockQuantity(0).build();
+            BatchUpdateRequestDto request = BatchUpdateRequestDto.builder()
+                    .ids(List.of(1L))
+                    .changes(BookChangesDto.builder().stockQuantity(0).build())
+                    .build();
+            when(bookRepository.findAllById(List.of(1L))).thenReturn(List.of(before), List.of(after));
+            when(bookRepository.updateByIdIn(anyCollection(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+            // When
+            bookService.updateBooks(request, 1000);
+
+            // Then
+            ArgumentCaptor<StockChangedEvent> event = ArgumentCaptor.forClass(StockChangedEvent.class);
+            verify(eventPublisher).publishEvent(event.capture());
+            assertThat(event.getValue().getPreviousStock()).isEqualTo(5);
+            assertThat(event.getValue().getCurrentStock()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should reject a batch update without changes or with both ids and filter")
+        void shouldRejectInvalidBatchUpdates() {
+            BatchUpdateRequestDto noChanges = BatchUpdateRequestDto.builder()
+                    .ids(List.of(1L)).changes(new BookChangesDto()).build();
+            BatchUpdateRequestDto both = BatchUpdateRequestDto.builder()
+                    .ids(List.of(1L)).filter(BookQueryDto.builder().author("Orwell").build())
+                    .changes(BookChangesDto.builder().price(1.0).build()).build();
+            BatchUpdateRequestDto emptyFilter = BatchUpdateRequestDto.builder()
+                    .filter(new BookQueryDto()).changes(BookChangesDto.builder().price(1.0).build()).build();
+
+            assertThatThrownBy(() -> bookService.updateBooks(noChanges, 1000))
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessage("Changes must set at least one field");
+            assertThatThrownBy(() -> bookService.updateBooks(both, 1000))
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessage("Select books either by ids or by filter");
+            assertThatThrownBy(() -> bookService.updateBooks(emptyFilter, 1000))
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessage("A filter must set at least one criterion");
+            verify(bookRepository, never()).updateByIdIn(any(), any(), any(), any(), any(), any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Adjust Stock Tests")
+    class AdjustStockTests {
+
+        @Test
+        @DisplayName("Should adjust stock in place and announce the change")
+        void shouldAdjustStockInPlace() {
+            // Given the row after the UPDATE took 3 units
+            testBook.setStockQuantity(97);
+            testBook.setVersion(2L);
+            when(bookRepository.adjustStock(eq(1L), eq(-3), any(LocalDateTime.class))).thenReturn(1);
+            when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+
+            // When
+            BookResponseDto result = bookService.adjustStock(1L, -3);
+
+            // Then
+            assertThat(result.getStockQuantity()).isEqualTo(97);
+            assertThat(result.getVersion()).isEqualTo(2L);
+            verify(bookRepository, never()).save(any());
+            verify(catalogIndexer).bookSaved(testBook);
+            verify(invalidationBus).bookChanged(InvalidationEvent.Type.UPDATED, 1L, 2L);
+
+            ArgumentCaptor<StockChangedEvent> event = ArgumentCaptor.forClass(StockChangedEvent.class);
+            verify(eventPublisher).publishEvent(event.capture());
+            assertThat(event.getValue().getPreviousStock()).isEqualTo(100);
+            assertThat(event.getValue().getCurrentStock()).isEqualTo(97);
+        }
+
+        @Test
+        @DisplayName("Should refuse to take the stock below zero")
+        void shouldRefuseInsufficientStock() {
+            // Given
+            when(bookRepository.adjustStock(eq(1L), eq(-101), any(LocalDateTime.class))).thenReturn(0);
+            when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+
+            // When & Then
+            assertThatThrownBy(() -> bookService.adjustStock(1L, -101))
+                    .isInstanceOf(InsufficientStockException.class)
+                    .hasMessage("Book with ID 1 has 100 in stock, fewer than the 101 requested");
+
+            verify(catalogIndexer, never()).bookSaved(any());
+            verifyNoInteractions(eventPublisher, invalidationBus);
+        }
+
+        @Test
+        @DisplayName("Should throw BookNotFoundException when adjusting a non-existent book")
+        void shouldThrowWhenAdjustingMissingBook() {
+            // Given
+            when(bookRepository.adjustStock(eq(999L), eq(5), any(LocalDateTime.class))).thenReturn(0);
+            when(bookRepository.findById(999L)).thenReturn(Optional.empty());
+
+            // When & Then
+            assertThatThrownBy(() -> bookService.adjustStock(999L, 5))
+                    .isInstanceOf(BookNotFoundException.class)
+                    .hasMessage("Book not found with ID: 999");
+            assertThat(missingBookCache.isIdMissing(999L)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should reject a zero delta without touching the database")
+        void shouldRejectZeroDelta() {
+            // When & Then
+            assertThatThrownBy(() -> bookService.adjustStock(1L, 0))
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessage("Delta must not be zero");
+            verifyNoInteractions(bookRepository);
         }
     }
 
@@ -439,20 +1161,21 @@ class BookServiceTest {
     class DeleteBookTests {
 
         @Test
-        @DisplayName("Should delete book successfully")
+        @DisplayName("Should delete book with a single statement")
         void shouldDeleteBookSuccessfully() {
             // Given
             Long bookId = 1L;
-            when(bookRepository.existsById(bookId)).thenReturn(true);
-            doNothing().when(bookRepository).deleteById(bookId);
+            when(bookRepository.deleteByIdIn(List.of(bookId))).thenReturn(1);
 
             // When
             assertThatCode(() -> bookService.deleteBook(bookId))
                     .doesNotThrowAnyException();
 
             // Then
-            verify(bookRepository).existsById(bookId);
-            verify(bookRepository).deleteById(bookId);
+            verify(bookRepository).deleteByIdIn(List.of(bookId));
+            verify(bookRepository, never()).existsById(any());
+            verify(catalogIndexer).bookDeleted(bookId);
+            verify(bookCountCache).adjust(-1);
         }
 
         @Test
@@ -460,15 +1183,57 @@ class BookServiceTest {
         void shouldThrowBookNotFoundExceptionWhenDeletingNonExistentBook() {
             // Given
             Long bookId = 999L;
-            when(bookRepository.existsById(bookId)).thenReturn(false);
+            when(bookRepository.deleteByIdIn(List.of(bookId))).thenReturn(0);
 
             // When & Then
             assertThatThrownBy(() -> bookService.deleteBook(bookId))
                     .isInstanceOf(BookNotFoundException.class)
                     .hasMessage("Book not found with ID: 999");
 
-            verify(bookRepository).existsById(bookId);
-            verify(bookRepository, never()).deleteById(any());
+            verify(catalogIndexer, never()).bookDeleted(any());
+            verify(bookCountCache, never()).adjust(anyLong());
+            assertThat(missingBookCache.isIdMissing(bookId)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should delete the books matched by a filter with one statement per chunk")
+        void shouldDeleteBooksByFilterInChunks() {
+            // Given
+            BookQueryDto filter = BookQueryDto.builder().author("Orwell").build();
+            when(queryPlanner.execute(eq(filter), any(Sort.class), eq(Integer.MAX_VALUE)))
+                    .thenReturn(new QueryPlanner.QueryResult(new long[]{4L, 7L, 9L}, 3, "author"));
+            when(bookRepository.deleteByIdIn(anyCollection())).thenReturn(2, 1);
+
+            // When
+            BatchResponseDto result = bookService.deleteBooks(
+                    BatchDeleteRequestDto.builder().filter(filter).build(), 2);
+
+            // Then
+            assertThat(result.getRequested()).isEqualTo(3);
+            assertThat(result.getSucceeded()).isEqualTo(3);
+            verify(bookRepository).deleteByIdIn(List.of(4L, 7L));
+            verify(bookRepository).deleteByIdIn(List.of(9L));
+            verify(catalogIndexer).booksDeleted(List.of(4L, 7L));
+            verify(catalogIndexer).booksDeleted(List.of(9L));
+            verify(invalidationBus).booksDeleted(List.of(4L, 7L, 9L));
+            verify(bookCountCache).adjust(-3);
+        }
+
+        @Test
+        @DisplayName("Should leave caches alone when a batch delete matches nothing")
+        void shouldNotInvalidateWhenBatchDeleteMatchesNothing() {
+            // Given
+            when(bookRepository.deleteByIdIn(anyCollection())).thenReturn(0);
+
+            // When
+            BatchResponseDto result = bookService.deleteBooks(
+                    BatchDeleteRequestDto.builder().ids(List.of(999L)).build(), 1000);
+
+            // Then
+            assertThat(result.getSucceeded()).isZero();
+            assertThat(result.getRejected()).isEqualTo(1);
+            verify(invalidationBus, never()).booksDeleted(anyList());
+            verify(bookCountCache, never()).adjust(anyLong());
         }
     }
 
@@ -481,18 +1246,40 @@ class BookServiceTest {
         void shouldSearchBooksByAuthorSuccessfully() {
             // Given
             String author = "Test Author";
-            List<Book> books = Arrays.asList(testBook);
-            when(bookRepository.findByAuthorContainingIgnoreCase(author)).thenReturn(books);
+            when(substringIndex.searchAuthor(author)).thenReturn(new long[]{1L});
+            when(bookRepository.findAllById(List.of(1L))).thenReturn(List.of(testBook));
 
             // When
-            List<BookResponseDto> result = bookService.searchBooksByAuthor(author);
+            List<BookResponseDto> result = bookService.searchBooksByAuthor(author, 0, 100);
 
             // Then
             assertThat(result).isNotNull();
             assertThat(result).hasSize(1);
             assertThat(result.get(0).getAuthor()).isEqualTo("Test Author");
 
-            verify(bookRepository).findByAuthorContainingIgnoreCase(author);
+            verify(substringIndex).searchAuthor(author);
+            verify(bookRepository, never()).findByAuthorContainingIgnoreCase(any());
+        }
+
+        @Test
+        @DisplayName("Should answer a repeated search from the result cache until a book is written")
+        void shouldCacheSearchResultsUntilWrite() {
+            // Given
+            when(substringIndex.searchAuthor(any())).thenReturn(new long[]{1L});
+            when(bookRepository.findAllById(List.of(1L))).thenReturn(List.of(testBook));
+            when(bookRepository.deleteByIdIn(List.of(2L))).thenReturn(1);
+
+            // When
+            List<BookResponseDto> first = bookService.searchBooksByAuthor("Test Author", 0, 100);
+            first.get(0).setTitle("Changed by caller");
+            List<BookResponseDto> repeated = bookService.searchBooksByAuthor("TEST AUTHOR", 0, 100);
+            bookService.deleteBook(2L);
+            bookService.searchBooksByAuthor("Test Author", 0, 100);
+
+            // Then
+            assertThat(repeated.get(0).getTitle()).isEqualTo("Test Book");
+            verify(substringIndex, times(2)).searchAuthor(any());
+            verify(searchResultCache).invalidate();
         }
 
         @Test
@@ -500,16 +1287,17 @@ class BookServiceTest {
         void shouldReturnEmptyListWhenNoBooksFoundByAuthor() {
             // Given
             String author = "Unknown Author";
-            when(bookRepository.findByAuthorContainingIgnoreCase(author)).thenReturn(Collections.emptyList());
+            when(substringIndex.searchAuthor(author)).thenReturn(new long[0]);
 
             // When
-            List<BookResponseDto> result = bookService.searchBooksByAuthor(author);
+            List<BookResponseDto> result = bookService.searchBooksByAuthor(author, 0, 100);
 
             // Then
             assertThat(result).isNotNull();
             assertThat(result).isEmpty();
 
-            verify(bookRepository).findByAuthorContainingIgnoreCase(author);
+            verify(substringIndex).searchAuthor(author);
+            verify(bookRepository, never()).findAllById(any());
         }
 
         @Test
@@ -517,18 +1305,19 @@ class BookServiceTest {
         void shouldSearchBooksByTitleSuccessfully() {
             // Given
             String title = "Test";
-            List<Book> books = Arrays.asList(testBook);
-            when(bookRepository.findByTitleContainingIgnoreCase(title)).thenReturn(books);
+            when(substringIndex.searchTitle(title)).thenReturn(new long[]{1L});
+            when(bookRepository.findAllById(List.of(1L))).thenReturn(List.of(testBook));
 
             // When
-            List<BookResponseDto> result = bookService.searchBooksByTitle(title);
+            List<BookResponseDto> result = bookService.searchBooksByTitle(title, 0, 100);
 
             // Then
             assertThat(result).isNotNull();
             assertThat(result).hasSize(1);
             assertThat(result.get(0).getTitle()).contains("Test");
 
-            verify(bookRepository).findByTitleContainingIgnoreCase(title);
+            verify(substringIndex).searchTitle(title);
+            verify(bookRepository, never()).findByTitleContainingIgnoreCase(any());
         }
 
         @Test
@@ -536,16 +1325,16 @@ class BookServiceTest {
         void shouldReturnEmptyListWhenNoBooksFoundByTitle() {
             // Given
             String title = "Unknown Title";
-            when(bookRepository.findByTitleContainingIgnoreCase(title)).thenReturn(Collections.emptyList());
+            when(substringIndex.searchTitle(title)).thenReturn(new long[0]);
 
             // When
-            List<BookResponseDto> result = bookService.searchBooksByTitle(title);
+            List<BookResponseDto> result = bookService.searchBooksByTitle(title, 0, 100);
 
             // Then
             assertThat(result).isNotNull();
             assertThat(result).isEmpty();
 
-            verify(bookRepository).findByTitleContainingIgnoreCase(title);
+            verify(substringIndex).searchTitle(title);
         }
 
         @Test
@@ -553,20 +1342,21 @@ class BookServiceTest {
         void shouldSearchBooksByKeywordSuccessfully() {
             // Given
             String keyword = "test";
-            List<Book> books = Arrays.asList(testBook);
-            Page<Book> bookPage = new PageImpl<>(books, testPageable, 1);
-
-            when(bookRepository.findByKeyword(keyword, testPageable)).thenReturn(bookPage);
+            when(keywordIndex.search(keyword)).thenReturn(new long[]{1L});
+            when(keywordIndex.rank(eq(keyword), any(), eq(1))).thenReturn(new long[]{1L});
+            when(bookRepository.findAllById(List.of(1L))).thenReturn(List.of(testBook));
 
             // When
-            Page<BookResponseDto> result = bookService.searchBooksByKeyword(keyword, testPageable);
+            Page<BookResponseDto> result = bookService.searchBooksByKeyword(keyword, testPageable, false);
 
             // Then
             assertThat(result).isNotNull();
             assertThat(result.getContent()).hasSize(1);
             assertThat(result.getTotalElements()).isEqualTo(1);
 
-            verify(bookRepository).findByKeyword(keyword, testPageable);
+            verify(keywordIndex).search(keyword);
+            verify(bookRepository, never()).findByKeyword(any(), any());
+            verifyNoInteractions(facetIndex);
         }
 
         @Test
@@ -574,19 +1364,135 @@ class BookServiceTest {
         void shouldReturnEmptyPageWhenNoBooksFoundByKeyword() {
             // Given
             String keyword = "unknown";
-            Page<Book> emptyPage = new PageImpl<>(Collections.emptyList(), testPageable, 0);
-
-            when(bookRepository.findByKeyword(keyword, testPageable)).thenReturn(emptyPage);
+            when(keywordIndex.search(keyword)).thenReturn(new long[0]);
 
             // When
-            Page<BookResponseDto> result = bookService.searchBooksByKeyword(keyword, testPageable);
+            Page<BookResponseDto> result = bookService.searchBooksByKeyword(keyword, testPageable, false);
 
             // Then
             assertThat(result).isNotNull();
             assertThat(result.getContent()).isEmpty();
             assertThat(result.getTotalElements()).isEqualTo(0);
 
-            verify(bookRepository).findByKeyword(keyword, testPageable);
+            verify(keywordIndex).search(keyword);
+            verify(bookRepository, never()).findAllById(any());
+        }
+
+        @Test
+        @DisplayName("Should load only the requested page of keyword matches in relevance order")
+        void shouldLoadOnlyRequestedPageOfKeywordMatches() {
+            // Given
+            Book book2 = new Book();
+            book2.setId(12L);
+            book2.setTitle("Test Book 12");
+            Book book3 = new Book();
+            book3.setId(13L);
+            book3.setTitle("Test Book 13");
+
+            long[] matches = new long[]{1L, 2L, 5L, 8L, 12L, 13L, 20L};
+            when(keywordIndex.search("test")).thenReturn(matches);
+            when(keywordIndex.rank("test", matches, 6)).thenReturn(new long[]{20L, 8L, 1L, 2L, 13L, 12L});
+            when(bookRepository.findAllById(List.of(13L, 12L))).thenReturn(List.of(book2, book3));
+
+            // When
+            Page<BookResponseDto> result = bookService.searchBooksByKeyword("test", PageRequest.of(2, 2), false);
+
+            // Then
+            assertThat(result.getContent()).extracting(BookResponseDto::getId).containsExactly(13L, 12L);
+            assertThat(result.getTotalElements()).isEqualTo(7);
+            assertThat(result.getTotalPages()).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("Should count facets over every keyword match, not just the page")
+        void shouldCountFacetsOverAllKeywordMatches() {
+            // Given
+            long[] matches = new long[]{1L, 2L, 3L};
+            FacetCountsDto facets = new FacetCountsDto(List.of(), List.of(), List.of());
+            when(keywordIndex.search("test")).thenReturn(matches);
+            when(keywordIndex.rank("test", matches, 1)).thenReturn(new long[]{1L});
+            when(facetIndex.count(matches)).thenReturn(facets);
+            when(bookRepository.findAllById(List.of(1L))).thenReturn(List.of(testBook));
+
+            // When
+            FacetedPage<BookResponseDto> result = bookService.searchBooksByKeyword("test", PageRequest.of(0, 1), true);
+
+            // Then
+            assertThat(result.getContent()).hasSize(1);
+            assertThat(result.getTotalElements()).isEqualTo(3);
+            assertThat(result.getFacets()).isSameAs(facets);
+        }
+
+        @Test
+        @DisplayName("Should ask the planner for the ids up to the end of the page and hydrate only the page")
+        void shouldHydrateOnlyRequestedPageOfPlannedQuery() {
+            // Given
+            BookQueryDto query = BookQueryDto.builder().author("Test").maxPrice(50.0).build();
+            Pageable pageable = PageRequest.of(1, 2, Sort.by("price"));
+            QueryPlanner.QueryResult planned = new QueryPlanner.QueryResult(new long[]{4L, 9L, 1L}, 5,
+                    "index(author) est=5 rows=5 -> filter(price) rows=5 -> sort(price asc) top=3");
+            when(queryPlanner.execute(query, pageable.getSort(), 4)).thenReturn(planned);
+            when(bookRepository.findAllById(List.of(1L))).thenReturn(List.of(testBook));
+
+            // When
+            PlannedPage<BookResponseDto> result = bookService.queryBooks(query, pageable);
+
+            // Then
+            assertThat(result.getContent()).extracting(BookResponseDto::getId).containsExactly(1L);
+            assertThat(result.getTotalElements()).isEqualTo(5);
+            assertThat(result.getPlan()).startsWith("index(author)");
+        }
+
+        @Test
+        @DisplayName("Should suggest titles and authors from the suggestion index")
+        void shouldSuggestFromSuggestionIndex() {
+            // Given
+            List<SuggestionDto> suggestions = List.of(
+                    new SuggestionDto("Test Book", SuggestionDto.Type.TITLE, 1, 100));
+            when(suggestionIndex.suggest("tes", 5)).thenReturn(suggestions);
+
+            // When
+            List<SuggestionDto> result = bookService.suggestBooks("tes", 5);
+
+            // Then
+            assertThat(result).isEqualTo(suggestions);
+            verifyNoInteractions(bookRepository);
+        }
+
+        @Test
+        @DisplayName("Should hydrate fuzzy matches and pass corrections through")
+        void shouldHydrateFuzzyMatchesWithCorrections() {
+            // Given
+            FuzzyIndex.FuzzyMatch match = new FuzzyIndex.FuzzyMatch(new long[]{1L}, List.of("shakespeare"));
+            when(fuzzyIndex.search("Shakespear", FuzzyIndex.Field.AUTHOR, 1)).thenReturn(match);
+            when(bookRepository.findAllById(List.of(1L))).thenReturn(List.of(testBook));
+
+            // When
+            FuzzySearchResponseDto result = bookService.fuzzySearchBooks("Shakespear", FuzzyIndex.Field.AUTHOR, 1, 0, 10);
+
+            // Then
+            assertThat(result.getBooks()).extracting(BookResponseDto::getId).containsExactly(1L);
+            assertThat(result.getTotalMatches()).isEqualTo(1);
+            assertThat(result.getDidYouMean()).containsExactly("shakespeare");
+        }
+
+        @Test
+        @DisplayName("Should hydrate only the requested window of fuzzy matches and report the total")
+        void shouldHydrateOnlyTheRequestedFuzzyWindow() {
+            // Given
+            FuzzyIndex.FuzzyMatch match = new FuzzyIndex.FuzzyMatch(new long[]{1L, 2L, 3L, 4L}, List.of());
+            when(fuzzyIndex.search("Dune", null, 1)).thenReturn(match);
+            when(bookRepository.findAllById(List.of(2L, 3L))).thenReturn(List.of(
+                    Book.builder().id(2L).title("Dune").author("Frank Herbert").build(),
+                    Book.builder().id(3L).title("Dune Messiah").author("Frank Herbert").build()));
+
+            // When
+            FuzzySearchResponseDto result = bookService.fuzzySearchBooks("Dune", null, 1, 1, 2);
+
+            // Then
+            assertThat(result.getBooks()).extracting(BookResponseDto::getId).containsExactly(2L, 3L);
+            assertThat(result.getTotalMatches()).isEqualTo(4);
+            verify(bookRepository).findAllById(List.of(2L, 3L));
         }
 
         @Test
@@ -594,18 +1500,35 @@ class BookServiceTest {
         void shouldGetBooksByPublicationYearSuccessfully() {
             // Given
             Integer year = 2023;
-            List<Book> books = Arrays.asList(testBook);
-            when(bookRepository.findByPublishedYear(year)).thenReturn(books);
+            when(attributeIndex.searchYears(year, year)).thenReturn(new long[]{1L});
+            when(bookRepository.findAllById(List.of(1L))).thenReturn(List.of(testBook));
 
             // When
-            List<BookResponseDto> result = bookService.getBooksByYear(year);
+            List<BookResponseDto> result = bookService.getBooksByYear(year, 0, 100);
 
             // Then
             assertThat(result).isNotNull();
             assertThat(result).hasSize(1);
             assertThat(result.get(0).getPublishedYear()).isEqualTo(2023);
 
-            verify(bookRepository).findByPublishedYear(year);
+            verify(bookRepository, never()).findByPublishedYear(any());
+        }
+
+        @Test
+        @DisplayName("Should load only the requested window of matches")
+        void shouldLoadOnlyRequestedWindow() {
+            // Given
+            when(substringIndex.searchAuthor("Author")).thenReturn(new long[]{1L, 2L, 3L, 4L});
+            when(bookRepository.findAllById(List.of(2L, 3L)))
+                    .thenReturn(List.of(bookWithIsbn(3L, "978-0-123456-80-2"), bookWithIsbn(2L, "978-0-123456-79-6")));
+
+            // When
+            List<BookResponseDto> window = bookService.searchBooksByAuthor("Author", 1, 2);
+            List<BookResponseDto> beyondEnd = bookService.searchBooksByAuthor("Author", 10, 2);
+
+            // Then
+            assertThat(window).extracting(BookResponseDto::getId).containsExactly(2L, 3L);
+            assertThat(beyondEnd).isEmpty();
         }
 
         @Test
@@ -614,18 +1537,36 @@ class BookServiceTest {
             // Given
             Double minPrice = 20.0;
             Double maxPrice = 50.0;
-            List<Book> books = Arrays.asList(testBook);
-            when(bookRepository.findByPriceBetween(minPrice, maxPrice)).thenReturn(books);
+            when(priceIndex.range(minPrice, maxPrice, 0, Integer.MAX_VALUE, false)).thenReturn(new long[]{1L});
+            when(bookRepository.findAllById(List.of(1L))).thenReturn(List.of(testBook));
 
             // When
-            List<BookResponseDto> result = bookService.getBooksByPriceRange(minPrice, maxPrice);
+            List<BookResponseDto> result = bookService.getBooksByPriceRange(minPrice, maxPrice, 0, Integer.MAX_VALUE, false);
 
             // Then
             assertThat(result).isNotNull();
             assertThat(result).hasSize(1);
             assertThat(result.get(0).getPrice()).isBetween(minPrice, maxPrice);
 
-            verify(bookRepository).findByPriceBetween(minPrice, maxPrice);
+            verify(bookRepository, never()).findByPriceBetween(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should return the most expensive books in index order when no bounds are given")
+        void shouldGetMostExpensiveBooksInIndexOrder() {
+            // Given
+            Book expensive = new Book();
+            expensive.setId(7L);
+            expensive.setPrice(99.0);
+            when(priceIndex.range(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 0, 2, true))
+                    .thenReturn(new long[]{7L, 1L});
+            when(bookRepository.findAllById(List.of(7L, 1L))).thenReturn(List.of(testBook, expensive));
+
+            // When
+            List<BookResponseDto> result = bookService.getBooksByPriceRange(null, null, 0, 2, true);
+
+            // Then
+            assertThat(result).extracting(BookResponseDto::getId).containsExactly(7L, 1L);
         }
 
         @Test
@@ -638,18 +1579,50 @@ class BookServiceTest {
             lowStockBook.setTitle("Low Stock Book");
             lowStockBook.setStockQuantity(5);
 
-            List<Book> books = Arrays.asList(lowStockBook);
-            when(bookRepository.findByStockQuantityLessThan(threshold)).thenReturn(books);
+            when(stockIndex.below(threshold)).thenReturn(new long[]{2L});
+            when(bookRepository.findAllById(List.of(2L))).thenReturn(List.of(lowStockBook));
 
             // When
-            List<BookResponseDto> result = bookService.getLowStockBooks(threshold);
+            List<BookResponseDto> result = bookService.getLowStockBooks(threshold, 0, 100);
 
             // Then
             assertThat(result).isNotNull();
             assertThat(result).hasSize(1);
             assertThat(result.get(0).getStockQuantity()).isLessThan(threshold);
 
-            verify(bookRepository).findByStockQuantityLessThan(threshold);
+            verify(bookRepository, never()).findByStockQuantityLessThan(any());
+        }
+
+        @Test
+        @DisplayName("Should summarize the catalog from the cached count and database aggregates")
+        void shouldSummarizeCatalog() {
+            // Given
+            when(bookCountCache.getTotal()).thenReturn(120L);
+            when(bookCountCache.isExact()).thenReturn(true);
+            when(bookRepository.sumInventoryValue()).thenReturn(4321.5);
+            when(bookRepository.countDistinctAuthors()).thenReturn(37L);
+
+            // When
+            CatalogSummaryDto result = bookService.getCatalogSummary();
+
+            // Then
+            assertThat(result).isEqualTo(new CatalogSummaryDto(120L, true, 4321.5, 37L));
+            verify(bookRepository, never()).findAll();
+            verify(bookRepository, never()).streamAll();
+        }
+
+        @Test
+        @DisplayName("Should count low stock books from the stock index alone")
+        void shouldCountLowStockBooksFromIndex() {
+            // Given
+            when(stockIndex.countBelow(10)).thenReturn(3);
+
+            // When
+            int result = bookService.countLowStockBooks(10);
+
+            // Then
+            assertThat(result).isEqualTo(3);
+            verifyNoInteractions(bookRepository);
         }
     }
 
@@ -661,7 +1634,6 @@ class BookServiceTest {
         @DisplayName("Should handle repository exceptions during creation")
         void shouldHandleRepositoryExceptionsDuringCreation() {
             // Given
-            when(bookRepository.existsByIsbn(testBookRequestDto.getIsbn())).thenReturn(false);
             when(bookRepository.save(any(Book.class))).thenThrow(new RuntimeException("Database error"));
 
             // When & Then
@@ -669,7 +1641,8 @@ class BookServiceTest {
                     .isInstanceOf(RuntimeException.class)
                     .hasMessage("Database error");
 
-            verify(bookRepository).existsByIsbn(testBookRequestDto.getIsbn());
+            verify(isbnIndex).find(testBookRequestDto.getIsbn());
+            verify(bookRepository, never()).existsByIsbn(any());
             verify(bookRepository).save(any(Book.class));
         }
 
@@ -678,36 +1651,34 @@ class BookServiceTest {
         void shouldHandleCaseInsensitiveSearch() {
             // Given
             String authorMixedCase = "TeSt AuThOr";
-            List<Book> books = Arrays.asList(testBook);
-            when(bookRepository.findByAuthorContainingIgnoreCase(authorMixedCase)).thenReturn(books);
+            when(substringIndex.searchAuthor(authorMixedCase)).thenReturn(new long[]{1L});
+            when(bookRepository.findAllById(List.of(1L))).thenReturn(List.of(testBook));
 
             // When
-            List<BookResponseDto> result = bookService.searchBooksByAuthor(authorMixedCase);
+            List<BookResponseDto> result = bookService.searchBooksByAuthor(authorMixedCase, 0, 100);
 
             // Then
             assertThat(result).isNotNull();
             assertThat(result).hasSize(1);
 
-            verify(bookRepository).findByAuthorContainingIgnoreCase(authorMixedCase);
+            verify(substringIndex).searchAuthor(authorMixedCase);
         }
 
         @Test
         @DisplayName("Should handle null and empty parameters")
         void shouldHandleNullAndEmptyParameters() {
             // Test null author search
-            when(bookRepository.findByAuthorContainingIgnoreCase(null)).thenReturn(Collections.emptyList());
+            when(substringIndex.searchAuthor(null)).thenReturn(new long[0]);
 
-            List<BookResponseDto> result1 = bookService.searchBooksByAuthor(null);
+            List<BookResponseDto> result1 = bookService.searchBooksByAuthor(null, 0, 100);
             assertThat(result1).isEmpty();
 
-            // Test empty author search
-            when(bookRepository.findByAuthorContainingIgnoreCase("")).thenReturn(Collections.emptyList());
-
-            List<BookResponseDto> result2 = bookService.searchBooksByAuthor("");
+            // Test empty author search; it normalizes like null, so the cached result is reused
+            List<BookResponseDto> result2 = bookService.searchBooksByAuthor("", 0, 100);
             assertThat(result2).isEmpty();
 
-            verify(bookRepository).findByAuthorContainingIgnoreCase(null);
-            verify(bookRepository).findByAuthorContainingIgnoreCase("");
+            verify(substringIndex).searchAuthor(null);
+            verify(substringIndex, never()).searchAuthor("");
         }
 
         @Test
@@ -740,19 +1711,20 @@ class BookServiceTest {
             book2.setAuthor("Test Author");
 
             String author = "Test Author";
-            List<Book> books = Arrays.asList(testBook, book2);
-            when(bookRepository.findByAuthorContainingIgnoreCase(author)).thenReturn(books);
+            when(substringIndex.searchAuthor(author)).thenReturn(new long[]{1L, 2L});
+            when(bookRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(book2, testBook));
 
             // When
-            List<BookResponseDto> result = bookService.searchBooksByAuthor(author);
+            List<BookResponseDto> result = bookService.searchBooksByAuthor(author, 0, 100);
 
-            // Then
+            // Then - results keep the index order regardless of database row order
             assertThat(result).isNotNull();
             assertThat(result).hasSize(2);
+            assertThat(result).extracting(BookResponseDto::getId).containsExactly(1L, 2L);
             assertThat(result.get(0).getAuthor()).isEqualTo("Test Author");
             assertThat(result.get(1).getAuthor()).isEqualTo("Test Author");
 
-            verify(bookRepository).findByAuthorContainingIgnoreCase(author);
+            verify(substringIndex).searchAuthor(author);
         }
 
         @Test
@@ -785,7 +1757,6 @@ class BookServiceTest {
         @DisplayName("Should handle book entity creation with constructor correctly")
         void shouldHandleBookEntityCreationWithConstructorCorrectly() {
             // Given
-            when(bookRepository.existsByIsbn(testBookRequestDto.getIsbn())).thenReturn(false);
             when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> {
                 Book book = invocation.getArgument(0);
                 book.setId(1L);
@@ -842,7 +1813,6 @@ class BookServiceTest {
             testBookRequestDto.setIsbn(newIsbn);
 
             when(bookRepository.findById(bookId)).thenReturn(Optional.of(testBook));
-            when(bookRepository.existsByIsbn(newIsbn)).thenReturn(false);
             when(bookRepository.save(any(Book.class))).thenReturn(testBook);
 
             // When
@@ -851,7 +1821,8 @@ class BookServiceTest {
             // Then
             assertThat(result).isNotNull();
             verify(bookRepository).findById(bookId);
-            verify(bookRepository).existsByIsbn(newIsbn);
+            verify(isbnIndex).find(newIsbn);
+            verify(bookRepository, never()).existsByIsbn(any());
             verify(bookRepository).save(any(Book.class));
         }
 
@@ -862,7 +1833,6 @@ class BookServiceTest {
             testBookRequestDto.setDescription(null);
             testBookRequestDto.setPublishedYear(null);
 
-            when(bookRepository.existsByIsbn(testBookRequestDto.getIsbn())).thenReturn(false);
             when(bookRepository.save(any(Book.class))).thenReturn(testBook);
 
             // When
@@ -877,17 +1847,18 @@ class BookServiceTest {
         }
 
         @Test
-        @DisplayName("Should handle conversion of empty/null book collections")
-        void shouldHandleConversionOfEmptyNullBookCollections() {
+        @DisplayName("Should skip indexed books that no longer exist in the database")
+        void shouldSkipIndexedBooksThatNoLongerExist() {
             // Given
             String author = "Nonexistent Author";
-            when(bookRepository.findByAuthorContainingIgnoreCase(author)).thenReturn(null);
+            when(substringIndex.searchAuthor(author)).thenReturn(new long[]{1L, 2L});
+            when(bookRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(testBook));
 
-            // When & Then - Should handle null gracefully
-            assertThatThrownBy(() -> bookService.searchBooksByAuthor(author))
-                    .isInstanceOf(NullPointerException.class);
+            // When
+            List<BookResponseDto> result = bookService.searchBooksByAuthor(author, 0, 100);
 
-            verify(bookRepository).findByAuthorContainingIgnoreCase(author);
+            // Then
+            assertThat(result).extracting(BookResponseDto::getId).containsExactly(1L);
         }
 
         @Test
@@ -895,18 +1866,16 @@ class BookServiceTest {
         void shouldHandlePriceRangeWithEqualMinAndMaxValues() {
             // Given
             Double price = 29.99;
-            List<Book> books = Arrays.asList(testBook);
-            when(bookRepository.findByPriceBetween(price, price)).thenReturn(books);
+            when(priceIndex.range(price, price, 0, Integer.MAX_VALUE, false)).thenReturn(new long[]{1L});
+            when(bookRepository.findAllById(List.of(1L))).thenReturn(List.of(testBook));
 
             // When
-            List<BookResponseDto> result = bookService.getBooksByPriceRange(price, price);
+            List<BookResponseDto> result = bookService.getBooksByPriceRange(price, price, 0, Integer.MAX_VALUE, false);
 
             // Then
             assertThat(result).isNotNull();
             assertThat(result).hasSize(1);
             assertThat(result.get(0).getPrice()).isEqualTo(price);
-
-            verify(bookRepository).findByPriceBetween(price, price);
         }
 
         @Test
@@ -915,18 +1884,18 @@ class BookServiceTest {
             // Given
             Integer currentYear = LocalDateTime.now().getYear();
             testBook.setPublishedYear(currentYear);
-            List<Book> books = Arrays.asList(testBook);
-            when(bookRepository.findByPublishedYear(currentYear)).thenReturn(books);
+            when(attributeIndex.searchYears(currentYear, currentYear)).thenReturn(new long[]{1L});
+            when(bookRepository.findAllById(List.of(1L))).thenReturn(List.of(testBook));
 
             // When
-            List<BookResponseDto> result = bookService.getBooksByYear(currentYear);
+            List<BookResponseDto> result = bookService.getBooksByYear(currentYear, 0, 100);
 
             // Then
             assertThat(result).isNotNull();
             assertThat(result).hasSize(1);
             assertThat(result.get(0).getPublishedYear()).isEqualTo(currentYear);
 
-            verify(bookRepository).findByPublishedYear(currentYear);
+            verify(bookRepository, never()).findByPublishedYear(any());
         }
 
         @Test
@@ -934,17 +1903,16 @@ class BookServiceTest {
         void shouldHandleStockThresholdOfZero() {
             // Given
             Integer threshold = 0;
-            List<Book> books = Collections.emptyList();
-            when(bookRepository.findByStockQuantityLessThan(threshold)).thenReturn(books);
+            when(stockIndex.below(threshold)).thenReturn(new long[0]);
 
             // When
-            List<BookResponseDto> result = bookService.getLowStockBooks(threshold);
+            List<BookResponseDto> result = bookService.getLowStockBooks(threshold, 0, 100);
 
             // Then
             assertThat(result).isNotNull();
             assertThat(result).isEmpty();
 
-            verify(bookRepository).findByStockQuantityLessThan(threshold);
+            verifyNoInteractions(bookRepository);
         }
 
         @Test
@@ -971,4 +1939,11 @@ class BookServiceTest {
             }));
         }
     }
-}
\ No newline at end of file
+
+    private Book bookWithIsbn(Long id, String isbn) {
+        Book book = new Book();
+        book.setId(id);
+        book.setIsbn(isbn);
+        return book;
+    }
+}
@@ -0,0 +1,174 @@
+package com.richardvinz.Book_Management_App.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.richardvinz.Book_Management_App.BookManagementAppApplication;
+import com.richardvinz.Book_Management_App.dto.BookRequestDto;
+import com.richardvinz.Book_Management_App.dto.BookResponseDto;
+import com.richardvinz.Book_Management_App.entity.Book;
+import com.richardvinz.Book_Management_App.exception.BookNotFoundException;
+import com.richardvinz.Book_Management_App.exception.InsufficientStockException;
+import com.richardvinz.Book_Management_App.repository.BookRepository;
+import com.richardvinz.Book_Management_App.testUtil.TestDataBuilder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Counts the statements each write sends. Service calls run in their own transactions against
+ * a private database, so every count covers a whole committed write.
+ */
+@SpringBootTest(classes = BookManagementAppApplication.class, properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.richardvinz.Book_Management_App.service.BookWriteRoundTripTest$RecordingInspector"})
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@DisplayName("Book Write Round Trip Tests")
+class BookWriteRoundTripTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics statistics;
+    private BookResponseDto book;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        bookRepository.deleteAll();
+        book = bookService.createBook(TestDataBuilder.createBookRequestDto(
+                "Dune", "Frank Herbert", "978-0-441-17271-9"));
+        statistics.clear();
+        RecordingInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    @DisplayName("Should create a book with a single INSERT")
+    void shouldCreateWithOneStatement() {
+        // When
+        bookService.createBook(TestDataBuilder.createBookRequestDto("Emma", "Jane Austen", "978-0-14-143958-7"));
+
+        // Then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject a duplicate ISBN the service cannot see through the unique constraint")
+    void shouldRejectDuplicateThroughConstraint() {
+        // Given a row the search indexes were never told about
+        bookRepository.save(TestDataBuilder.createBook(null, "Emma", "Jane Austen", "978-0-14-143958-7"));
+        statistics.clear();
+
+        // When & Then
+        BookRequestDto duplicate = TestDataBuilder.createBookRequestDto("Copy", "Someone", "978-0-14-143958-7");
+        assertThatThrownBy(() -> bookService.createBook(duplicate))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(bookRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should update a cached book with a single version-checked UPDATE")
+    void shouldUpdateCachedBookWithOneStatement() {
+        // Given
+        bookService.getBookById(book.getId());
+        statistics.clear();
+        BookRequestDto changes = TestDataBuilder.createBookRequestDto("Dune", "Frank Herbert", book.getIsbn(),
+                14.99, 3);
+
+        // When
+        BookResponseDto updated = bookService.updateBook(book.getId(), changes, book.getVersion());
+
+        // Then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(updated.getVersion()).isEqualTo(book.getVersion() + 1);
+        assertThat(bookService.getBookById(book.getId()))
+                .extracting(BookResponseDto::getPrice, BookResponseDto::getVersion)
+                .containsExactly(14.99, book.getVersion() + 1);
+    }
+
+    @Test
+    @DisplayName("Should write only the columns a merge patch changes")
+    void shouldPatchChangedColumnsOnly() throws Exception {
+        // When
+        BookResponseDto patched = bookService.patchBook(book.getId(),
+                objectMapper.readTree("{\"price\": 11.5}"), book.getVersion());
+
+        // Then one read and an UPDATE that leaves title, description and the rest alone
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(RecordingInspector.STATEMENTS).filteredOn(sql -> sql.startsWith("update"))
+                .singleElement().asString()
+                .contains("price=?", "version=?")
+                .doesNotContain("title", "description", "isbn", "stock_quantity");
+        assertThat(patched.getPrice()).isEqualTo(11.5);
+        assertThat(patched.getDescription()).isEqualTo(book.getDescription());
+        assertThat(patched.getVersion()).isEqualTo(book.getVersion() + 1);
+    }
+
+    @Test
+    @DisplayName("Should adjust stock with one conditional UPDATE that never goes below zero")
+    void shouldAdjustStockInPlace() {
+        // When
+        BookResponseDto adjusted = bookService.adjustStock(book.getId(), -book.getStockQuantity());
+
+        // Then the UPDATE does the arithmetic and a read returns the result
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(RecordingInspector.STATEMENTS).filteredOn(sql -> sql.startsWith("update"))
+                .singleElement().asString()
+                .contains("set stock_quantity=(stock_quantity+", "where id=? and (stock_quantity+");
+        assertThat(adjusted.getStockQuantity()).isZero();
+        assertThat(adjusted.getVersion()).isEqualTo(book.getVersion() + 1);
+        assertThatThrownBy(() -> bookService.adjustStock(book.getId(), -1))
+                .isInstanceOf(InsufficientStockException.class);
+        assertThat(bookRepository.findById(book.getId())).get()
+                .extracting(Book::getStockQuantity).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("Should delete a book with a single DELETE and report a missing one")
+    void shouldDeleteWithOneStatement() {
+        // When
+        bookService.deleteBook(book.getId());
+
+        // Then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(bookRepository.existsById(book.getId())).isFalse();
+        assertThatThrownBy(() -> bookService.deleteBook(book.getId()))
+                .isInstanceOf(BookNotFoundException.class);
+    }
+
+    // Keeps the SQL of every statement Hibernate prepares, lower-cased
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.toLowerCase().replaceAll("\\s+", " ").replace(" = ", "=").replace("= ", "="));
+            return sql;
+        }
+    }
+}
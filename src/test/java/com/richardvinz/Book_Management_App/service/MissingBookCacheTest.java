@@ -0,0 +1,55 @@
+package com.richardvinz.Book_Management_App.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Missing Book Cache Tests")
+class MissingBookCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MissingBookCache cache = new MissingBookCache(100, Duration.ofMinutes(1), meterRegistry);
+
+    @Test
+    @DisplayName("Should remember missing ids and ISBNs separately and report hits as metrics")
+    void shouldRememberMissingKeys() {
+        // When
+        cache.markIdMissing(7L);
+        cache.markIsbnMissing("978-0-000000-00-2");
+
+        // Then
+        assertThat(cache.isIdMissing(7L)).isTrue();
+        assertThat(cache.isIdMissing(8L)).isFalse();
+        assertThat(cache.isIsbnMissing("978-0-000000-00-2")).isTrue();
+        assertThat(cache.isIsbnMissing("7")).isFalse();
+        assertThat(meterRegistry.get("cache.gets").tag("cache", MissingBookCache.NAME).tag("key", "id")
+                .tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should forget everything again when the surrounding transaction ends")
+    void shouldForgetAgainAfterTransaction() {
+        // Given
+        cache.markIdMissing(7L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When a lookup marks the id missing after the create but before its commit
+            cache.invalidateAll();
+            cache.markIdMissing(7L);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        assertThat(cache.isIdMissing(7L)).isFalse();
+        assertThat(cache.size()).isZero();
+    }
+}
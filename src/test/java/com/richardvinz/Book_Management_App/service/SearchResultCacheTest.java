@@ -0,0 +1,84 @@
+package com.richardvinz.Book_Management_App.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.richardvinz.Book_Management_App.service.SearchResultCache.Endpoint.AUTHOR;
+import static com.richardvinz.Book_Management_App.service.SearchResultCache.Endpoint.KEYWORD;
+import static com.richardvinz.Book_Management_App.service.SearchResultCache.Endpoint.TITLE;
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Search Result Cache Tests")
+class SearchResultCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SearchResultCache cache = new SearchResultCache(100, Duration.ofMinutes(1), meterRegistry);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    @DisplayName("Should load once per query and page and report hit ratio per endpoint")
+    void shouldLoadOncePerQueryAndPage() {
+        // When
+        search(AUTHOR, "tolkien", 0);
+        search(AUTHOR, "tolkien", 0);
+        search(AUTHOR, "tolkien", 0);
+        search(AUTHOR, "tolkien", 20);
+        search(TITLE, "tolkien", 0);
+
+        // Then
+        assertThat(loads).hasValue(3);
+        assertThat(meterRegistry.get("search.cache.requests").tag("endpoint", "author").tag("result", "hit")
+                .counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("search.cache.hit.ratio").tag("endpoint", "author")
+                .gauge().value()).isEqualTo(0.5);
+        assertThat(meterRegistry.get("search.cache.hit.ratio").tag("endpoint", "title")
+                .gauge().value()).isZero();
+        assertThat(meterRegistry.get("search.cache.hit.ratio").tag("endpoint", "keyword")
+                .gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should miss every earlier entry after an invalidation")
+    void shouldMissAfterInvalidation() {
+        // Given
+        search(KEYWORD, "hobbit", 0);
+        search(AUTHOR, "tolkien", 0);
+        long generation = cache.getGeneration();
+
+        // When
+        cache.invalidate();
+        search(KEYWORD, "hobbit", 0);
+        search(AUTHOR, "tolkien", 0);
+
+        // Then
+        assertThat(cache.getGeneration()).isEqualTo(generation + 1);
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("Should hand out copies so callers cannot change cached results")
+    void shouldHandOutCopies() {
+        // Given
+        List<String> first = search(TITLE, "dune", 0);
+
+        // When
+        first.add("changed by caller");
+
+        // Then
+        assertThat(search(TITLE, "dune", 0)).containsExactly("dune");
+        assertThat(loads).hasValue(1);
+    }
+
+    private List<String> search(SearchResultCache.Endpoint endpoint, String query, int offset) {
+        return cache.get(endpoint, query, offset, 20, false, () -> {
+            loads.incrementAndGet();
+            return new ArrayList<>(List.of(query));
+        }, ArrayList::new);
+    }
+}
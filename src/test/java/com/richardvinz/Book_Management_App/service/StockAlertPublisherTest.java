@@ -0,0 +1,64 @@
+package com.richardvinz.Book_Management_App.service;
+
+import com.richardvinz.Book_Management_App.dto.StockAlertDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Stock Alert Publisher Tests")
+class StockAlertPublisherTest {
+
+    @Test
+    @DisplayName("Should report only changes that cross the threshold")
+    void shouldReportOnlyThresholdCrossings() {
+        // When & Then
+        assertThat(StockAlertPublisher.crossing(change(12, 9), 10)).isEqualTo(StockAlertDto.Type.LOW_STOCK);
+        assertThat(StockAlertPublisher.crossing(change(9, 10), 10)).isEqualTo(StockAlertDto.Type.REPLENISHED);
+        assertThat(StockAlertPublisher.crossing(change(null, 2), 10)).isEqualTo(StockAlertDto.Type.LOW_STOCK);
+        assertThat(StockAlertPublisher.crossing(change(null, 20), 10)).isNull();
+        assertThat(StockAlertPublisher.crossing(change(9, 3), 10)).isNull();
+        assertThat(StockAlertPublisher.crossing(change(30, 11), 10)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should forget subscribers whose stream has completed")
+    void shouldForgetCompletedSubscribers() {
+        // Given
+        StockAlertPublisher publisher = new StockAlertPublisher(60_000, 10, Runnable::run);
+        publisher.subscribe(10).complete();
+        publisher.subscribe(5);
+
+        // When
+        publisher.stockChanged(change(12, 1));
+
+        // Then
+        assertThat(publisher.subscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should send on the executor and drop a subscriber whose queue overflows")
+    void shouldDropSubscribersThatFallBehind() {
+        // Given
+        List<Runnable> held = new ArrayList<>();
+        StockAlertPublisher publisher = new StockAlertPublisher(60_000, 2, held::add);
+        publisher.subscribe(10);
+        publisher.subscribe(1);
+
+        // When
+        publisher.stockChanged(change(12, 9));
+        publisher.stockChanged(change(9, 12));
+        publisher.stockChanged(change(12, 9));
+
+        // Then
+        assertThat(held).hasSize(1);
+        assertThat(publisher.subscriberCount()).isEqualTo(1);
+    }
+
+    private static StockChangedEvent change(Integer previousStock, Integer currentStock) {
+        return new StockChangedEvent(1L, "Book", previousStock, currentStock);
+    }
+}
@@ -0,0 +1,362 @@
+package com.richardvinz.Book_Management_App.service.invalidation;
+
+import com.richardvinz.Book_Management_App.dto.BookResponseDto;
+import com.richardvinz.Book_Management_App.entity.Book;
+import com.richardvinz.Book_Management_App.search.CatalogIndexer;
+import com.richardvinz.Book_Management_App.search.StockIndex;
+import com.richardvinz.Book_Management_App.service.BookCache;
+import com.richardvinz.Book_Management_App.service.BookCountCache;
+import com.richardvinz.Book_Management_App.service.MissingBookCache;
+import com.richardvinz.Book_Management_App.service.SearchResultCache;
+import com.richardvinz.Book_Management_App.service.StockChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Invalidation Bus Tests")
+class InvalidationBusTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final LoopbackTransport transport = new LoopbackTransport();
+    private final SimpleMeterRegistry peerRegistry = new SimpleMeterRegistry();
+
+    private final BookCache peerBooks = new BookCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+    private final SearchResultCache peerSearches = new SearchResultCache(100, Duration.ofMinutes(1),
+            new SimpleMeterRegistry());
+    private final BookCountCache peerCount = mock(BookCountCache.class);
+    private final MissingBookCache peerMissing = new MissingBookCache(100, Duration.ofMinutes(1),
+            new SimpleMeterRegistry());
+    private final CatalogIndexer peerIndexer = mock(CatalogIndexer.class);
+    private final StockIndex peerStock = new StockIndex();
+    private final ApplicationEventPublisher peerEvents = mock(ApplicationEventPublisher.class);
+
+    private InvalidationBus writer;
+    private InvalidationBus peer;
+
+    @BeforeEach
+    void setUp() {
+        writer = new InvalidationBus(transport, new BookCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry()),
+                new SearchResultCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry()),
+                mock(BookCountCache.class), mock(MissingBookCache.class), mock(CatalogIndexer.class),
+                new StockIndex(), mock(ApplicationEventPublisher.class), Duration.ofSeconds(5),
+                new SimpleMeterRegistry(), clock);
+        peer = new InvalidationBus(transport, peerBooks, peerSearches, peerCount, peerMissing, peerIndexer,
+                peerStock, peerEvents, Duration.ofSeconds(5), peerRegistry, clock);
+        writer.start();
+        peer.start();
+    }
+
+    @Test
+    @DisplayName("Should drop a book written on another node and record the lag")
+    void shouldApplyWritesFromOtherNodes() {
+        // Given
+        peerBooks.get(1L, id -> book(id, 0L));
+        long generation = peerSearches.getGeneration();
+
+        // When
+        transport.delay = 40;
+        writer.bookChanged(InvalidationEvent.Type.UPDATED, 1L, 1L);
+
+        // Then
+        assertThat(peerBooks.getIfPresent(1L)).isNull();
+        assertThat(peerSearches.getGeneration()).isGreaterThan(generation);
+        verify(peerIndexer).resync(1L);
+        assertThat(peerRegistry.get("invalidation.lag").timer().count()).isEqualTo(1);
+        assertThat(peerRegistry.get("invalidation.lag").timer().max(TimeUnit.MILLISECONDS))
+                .isEqualTo(40);
+    }
+
+    @Test
+    @DisplayName("Should keep a cached book that is already at the announced version")
+    void shouldKeepUpToDateBooks() {
+        // Given
+        peerBooks.get(1L, id -> book(id, 2L));
+
+        // When
+        writer.bookChanged(InvalidationEvent.Type.UPDATED, 1L, 2L);
+
+        // Then
+        assertThat(peerBooks.getIfPresent(1L)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should raise a stock change for a stock written on another node")
+    void shouldRaiseStockChangesFromOtherNodes() {
+        // Given
+        peerStock.index(Book.builder().id(1L).stockQuantity(12).build());
+        peerStock.index(Book.builder().id(2L).stockQuantity(5).build());
+        when(peerIndexer.resync(1L)).thenReturn(Book.builder().id(1L).title("Book 1").stockQuantity(8).build());
+        when(peerIndexer.resync(2L)).thenReturn(Book.builder().id(2L).title("Book 2").stockQuantity(5).build());
+
+        // When
+        writer.bookChanged(InvalidationEvent.Type.UPDATED, 1L, 1L);
+        writer.bookChanged(InvalidationEvent.Type.UPDATED, 2L, 1L);
+        writer.bookChanged(InvalidationEvent.Type.DELETED, 3L, null);
+
+        // Then
+        ArgumentCaptor<StockChangedEvent> event = ArgumentCaptor.forClass(StockChangedEvent.class);
+        verify(peerEvents).publishEvent(event.capture());
+        assertThat(event.getValue().getBookId()).isEqualTo(1L);
+        assertThat(event.getValue().getPreviousStock()).isEqualTo(12);
+        assertThat(event.getValue().getCurrentStock()).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("Should adjust the book count and forget missing books for creates and deletes on other nodes")
+    void shouldAdjustCountForCreatesAndDeletes() {
+        // Given
+        peerMissing.markIdMissing(5L);
+
+        // When
+        writer.bookChanged(InvalidationEvent.Type.CREATED, 5L, 0L);
+        writer.bookChanged(InvalidationEvent.Type.DELETED, 6L, null);
+
+        // Then
+        verify(peerCount).adjust(1);
+        verify(peerCount).adjust(-1);
+        assertThat(peerMissing.isIdMissing(5L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should announce a large batch as one event that makes other nodes rebuild")
+    void shouldAnnounceLargeBatchesAsOneEvent() {
+        // Given
+        List<Book> books = new ArrayList<>();
+        for (long id = 1; id <= InvalidationBus.BATCH_EVENT_LIMIT + 1; id++) {
+            books.add(Book.builder().id(id).version(0L).build());
+        }
+        peerBooks.get(1L, id -> book(id, 0L));
+
+        // When
+        writer.booksChanged(InvalidationEvent.Type.CREATED, books);
+
+        // Then
+        assertThat(peerRegistry.get("invalidation.events").tag("direction", "received").counter().count())
+                .isEqualTo(1);
+        assertThat(peerBooks.getIfPresent(1L)).isNull();
+        verify(peerCount).refresh();
+        verify(peerIndexer).rebuild();
+        verify(peerIndexer, never()).resync(any());
+    }
+
+    @Test
+    @DisplayName("Should announce a small batch book by book")
+    void shouldAnnounceSmallBatchesPerBook() {
+        // When
+        writer.booksChanged(InvalidationEvent.Type.UPDATED, List.of(
+                Book.builder().id(1L).version(2L).build(), Book.builder().id(2L).version(3L).build()));
+
+        // Then
+        verify(peerIndexer).resync(1L);
+        verify(peerIndexer).resync(2L);
+        verify(peerIndexer, never()).rebuild();
+    }
+
+    @Test
+    @DisplayName("Should drop everything and rebuild indexes when an event stays missing past the bound")
+    void shouldFlushOnSequenceGap() {
+        // Given
+        writer.bookChanged(InvalidationEvent.Type.UPDATED, 1L, 1L);
+        peerBooks.get(2L, id -> book(id, 0L));
+
+        // When
+        transport.dropNext = true;
+        writer.bookChanged(InvalidationEvent.Type.UPDATED, 3L, 1L);
+        writer.heartbeat();
+
+        // Then the event may still be on its way
+        verify(peerIndexer, never()).rebuild();
+
+        // When it has not turned up within the staleness bound
+        clock.advance(Duration.ofSeconds(6));
+        writer.heartbeat();
+
+        // Then
+        assertThat(peerBooks.getIfPresent(2L)).isNull();
+        verify(peerIndexer).rebuild();
+        assertThat(peerRegistry.get("invalidation.flushes").tag("reason", "gap").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not rebuild when a heartbeat commits before an earlier write does")
+    void shouldAcceptEventsCommittedOutOfOrder() {
+        // Given a transport whose events become visible when the writing transaction commits
+        transport.joins = true;
+        peerBooks.get(2L, id -> book(id, 0L));
+
+        // When the write takes its sequence number, a heartbeat commits, and then the write does
+        inTransaction(() -> {
+            writer.bookChanged(InvalidationEvent.Type.UPDATED, 1L, 1L);
+            transport.hold = true;
+        }, true);
+        transport.hold = false;
+        writer.heartbeat();
+        transport.releaseHeld();
+        clock.advance(Duration.ofSeconds(6));
+        writer.heartbeat();
+        peer.heartbeat();
+
+        // Then
+        verify(peerIndexer).resync(1L);
+        verify(peerIndexer, never()).rebuild();
+        assertThat(peerBooks.getIfPresent(2L)).isNotNull();
+        assertThat(peerRegistry.get("invalidation.flushes").tag("reason", "gap").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not use up a sequence number for a write that rolls back")
+    void shouldLeaveNoGapForRollbacks() {
+        // Given
+        transport.joins = true;
+
+        // When
+        inTransaction(() -> writer.bookChanged(InvalidationEvent.Type.UPDATED, 1L, 1L), false);
+        writer.heartbeat();
+        writer.heartbeat();
+        clock.advance(Duration.ofSeconds(6));
+        writer.heartbeat();
+
+        // Then
+        verify(peerIndexer, never()).resync(any());
+        verify(peerIndexer, never()).rebuild();
+        assertThat(peerRegistry.get("invalidation.flushes").tag("reason", "gap").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should stop trusting its caches while the bus is silent and rebuild once it recovers")
+    void shouldFlushWhileSilent() {
+        // Given
+        peerBooks.get(1L, id -> book(id, 0L));
+        transport.down = true;
+
+        // When
+        clock.advance(Duration.ofSeconds(6));
+        peer.heartbeat();
+
+        // Then
+        assertThat(peerBooks.getIfPresent(1L)).isNull();
+        assertThat(peerRegistry.get("invalidation.flushes").tag("reason", "silence").counter().count()).isEqualTo(1);
+        verify(peerIndexer, never()).rebuild();
+
+        // When the bus comes back
+        transport.down = false;
+        writer.heartbeat();
+
+        // Then
+        verify(peerIndexer).rebuild();
+        assertThat(peerRegistry.get("invalidation.silence").gauge().value()).isZero();
+    }
+
+    // Runs work with transaction synchronization active, then completes it as a commit or a rollback
+    private static void inTransaction(Runnable work, boolean commit) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            if (commit) {
+                synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+                synchronizations.forEach(TransactionSynchronization::afterCommit);
+            }
+            int status = commit ? TransactionSynchronization.STATUS_COMMITTED
+                    : TransactionSynchronization.STATUS_ROLLED_BACK;
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static BookResponseDto book(Long id, Long version) {
+        return BookResponseDto.builder().id(id).title("Book " + id).version(version).build();
+    }
+
+    // Delivers every event to every started bus, sender included, synchronously unless held back
+    private class LoopbackTransport implements InvalidationTransport {
+        private final List<Consumer<InvalidationEvent>> receivers = new ArrayList<>();
+        private final List<InvalidationEvent> held = new ArrayList<>();
+        private long delay;
+        private boolean dropNext;
+        private boolean down;
+        private boolean joins;
+        private boolean hold;
+
+        @Override
+        public boolean joinsTransaction() {
+            return joins;
+        }
+
+        // Delivers the events held back, as if their transactions had just committed
+        void releaseHeld() {
+            List<InvalidationEvent> events = new ArrayList<>(held);
+            held.clear();
+            events.forEach(event -> receivers.forEach(receiver -> receiver.accept(event)));
+        }
+
+        @Override
+        public void publish(InvalidationEvent event) {
+            if (down) {
+                return;
+            }
+            if (hold) {
+                held.add(event);
+                return;
+            }
+            if (dropNext) {
+                dropNext = false;
+                return;
+            }
+            clock.advance(Duration.ofMillis(delay));
+            receivers.forEach(receiver -> receiver.accept(event));
+        }
+
+        @Override
+        public void start(Consumer<InvalidationEvent> receiver) {
+            receivers.add(receiver);
+        }
+
+        @Override
+        public void stop() {
+            receivers.clear();
+        }
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.richardvinz.Book_Management_App.service.invalidation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.UncheckedIOException;
+import java.net.DatagramSocket;
+import java.net.SocketException;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+/**
+ * Two transports on the loopback interface stand in for two instances on one host. Skipped
+ * where the sandbox has no multicast-capable loopback.
+ */
+@DisplayName("Multicast Invalidation Transport Tests")
+class MulticastInvalidationTransportTest {
+
+    private MulticastInvalidationTransport first;
+    private MulticastInvalidationTransport second;
+
+    @AfterEach
+    void tearDown() {
+        for (MulticastInvalidationTransport transport : new MulticastInvalidationTransport[]{first, second}) {
+            if (transport != null) {
+                transport.stop();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should deliver an event to every transport in the group, sender included")
+    void shouldDeliverToEveryMember() throws Exception {
+        // Given
+        int port = freePort();
+        BlockingQueue<InvalidationEvent> firstReceived = new LinkedBlockingQueue<>();
+        BlockingQueue<InvalidationEvent> secondReceived = new LinkedBlockingQueue<>();
+        first = new MulticastInvalidationTransport("239.255.42.99", port, "lo", 0);
+        second = new MulticastInvalidationTransport("239.255.42.99", port, "lo", 0);
+        try {
+            first.start(firstReceived::add);
+            second.start(secondReceived::add);
+        } catch (UncheckedIOException e) {
+            assumeTrue(false, "Multicast unavailable: " + e.getCause().getMessage());
+        }
+
+        // When
+        InvalidationEvent event = new InvalidationEvent("node-a", 4, InvalidationEvent.Type.UPDATED, 9L, 2L, 1234L);
+        try {
+            first.publish(event);
+        } catch (UncheckedIOException e) {
+            assumeTrue(false, "Multicast unavailable: " + e.getCause().getMessage());
+        }
+
+        // Then
+        InvalidationEvent heard = secondReceived.poll(2, TimeUnit.SECONDS);
+        assumeTrue(heard != null, "Multicast loopback does not deliver datagrams here");
+        for (InvalidationEvent delivered : List.of(heard, firstReceived.poll(2, TimeUnit.SECONDS))) {
+            assertThat(delivered).isNotNull();
+            assertThat(delivered.getNodeId()).isEqualTo("node-a");
+            assertThat(delivered.getSequence()).isEqualTo(4);
+            assertThat(delivered.getType()).isEqualTo(InvalidationEvent.Type.UPDATED);
+            assertThat(delivered.getBookId()).isEqualTo(9L);
+            assertThat(delivered.getVersion()).isEqualTo(2L);
+            assertThat(delivered.getPublishedAt()).isEqualTo(1234L);
+        }
+    }
+
+    private static int freePort() throws SocketException {
+        try (DatagramSocket socket = new DatagramSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.richardvinz.Book_Management_App.service.invalidation;
+
+import com.richardvinz.Book_Management_App.repository.BookInvalidationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Two transports on one database stand in for two instances. Runs outside test transactions
+ * so that published rows commit and are visible to the other transport's poll.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Table Invalidation Transport Tests")
+class TableInvalidationTransportTest {
+
+    @Autowired
+    private BookInvalidationRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<InvalidationEvent> received = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should deliver a published event to a polling node exactly once")
+    void shouldDeliverPublishedEventsOnce() {
+        // Given
+        TableInvalidationTransport writer = transport(Duration.ofMinutes(1));
+        TableInvalidationTransport reader = transport(Duration.ofMinutes(1));
+        reader.start(received::add);
+
+        // When
+        writer.publish(new InvalidationEvent("node-a", 1, InvalidationEvent.Type.UPDATED, 7L, 3L, 1000L));
+        reader.poll();
+        reader.poll();
+
+        // Then
+        assertThat(received).singleElement().satisfies(event -> {
+            assertThat(event.getNodeId()).isEqualTo("node-a");
+            assertThat(event.getSequence()).isEqualTo(1);
+            assertThat(event.getType()).isEqualTo(InvalidationEvent.Type.UPDATED);
+            assertThat(event.getBookId()).isEqualTo(7L);
+            assertThat(event.getVersion()).isEqualTo(3L);
+            assertThat(event.getPublishedAt()).isEqualTo(1000L);
+        });
+    }
+
+    @Test
+    @DisplayName("Should skip events published before the node started")
+    void shouldSkipHistory() {
+        // Given
+        TableInvalidationTransport writer = transport(Duration.ZERO);
+        writer.publish(new InvalidationEvent("node-a", 1, InvalidationEvent.Type.CREATED, 1L, 0L, 1000L));
+        TableInvalidationTransport reader = transport(Duration.ZERO);
+        reader.start(received::add);
+
+        // When
+        writer.publish(new InvalidationEvent("node-a", 2, InvalidationEvent.Type.DELETED, 1L, -1L, 2000L));
+        reader.poll();
+        reader.poll();
+
+        // Then
+        assertThat(received).extracting(InvalidationEvent::getSequence).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Should prune rows older than the retention")
+    void shouldPruneOldRows() {
+        // Given
+        TableInvalidationTransport transport = transport(Duration.ZERO);
+        transport.publish(new InvalidationEvent("node-a", 1, InvalidationEvent.Type.UPDATED, 1L, 1L, 1000L));
+        transport.publish(new InvalidationEvent("node-a", 2, InvalidationEvent.Type.UPDATED, 1L, 2L,
+                System.currentTimeMillis()));
+
+        // When
+        transport.prune();
+
+        // Then
+        assertThat(repository.findAll()).singleElement()
+                .satisfies(row -> assertThat(row.getSequence()).isEqualTo(2L));
+    }
+
+    private TableInvalidationTransport transport(Duration commitSlack) {
+        return new TableInvalidationTransport(repository, transactionManager, commitSlack, Duration.ofMinutes(10));
+    }
+}